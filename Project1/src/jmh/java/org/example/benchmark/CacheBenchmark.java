@@ -0,0 +1,106 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограниченный кэш на трассе обращений с распределением Ципфа.
+ *
+ * <p>Каждая операция - обращение к очередному ключу трассы: get, а при промахе put,
+ * как при загрузке значения в кэш. Трасса - {@value #TRACE_LENGTH} ключей из
+ * {@value #KEY_SPACE} с вероятностью ключа ранга r, пропорциональной {@code 1 / r^skew}.
+ * Кроме пропускной способности выводятся счетчики hits и misses: доля попаданий равна
+ * {@code hits / (hits + misses)}.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class CacheBenchmark {
+
+    private static final int KEY_SPACE = 1_000_000;
+
+    private static final int TRACE_LENGTH = 1 << 22;
+
+    @Param({"1000", "10000"})
+    private int cacheSize;
+
+    @Param({"0.8", "1.0"})
+    private double skew;
+
+    @Param({"LINKED_HASH_MAP_LRU", "MY_LRU", "MY_TINY_LFU"})
+    private CacheKind impl;
+
+    private Map<Long, Long> cache;
+    private Long[] trace;
+    private int next;
+
+    /**
+     * Счетчики попаданий и промахов за итерацию.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class HitCounters {
+        public long hits;
+        public long misses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        double[] cdf = new double[KEY_SPACE];
+        double sum = 0;
+        for (int rank = 1; rank <= KEY_SPACE; rank++) {
+            sum += 1 / Math.pow(rank, skew);
+            cdf[rank - 1] = sum;
+        }
+        Long[] keys = new Long[KEY_SPACE];
+        for (int i = 0; i < KEY_SPACE; i++) {
+            keys[i] = (long) i * 0x9E3779B97F4A7C15L;
+        }
+        Random random = new Random(17);
+        trace = new Long[TRACE_LENGTH];
+        for (int i = 0; i < TRACE_LENGTH; i++) {
+            int index = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+            trace[i] = keys[Math.min(index < 0 ? -index - 1 : index, KEY_SPACE - 1)];
+        }
+        cache = impl.create(cacheSize);
+    }
+
+    @Benchmark
+    public Long getOrLoad(HitCounters counters) {
+        Long key = trace[next];
+        next = (next + 1) & (TRACE_LENGTH - 1);
+        Long value = cache.get(key);
+        if (value == null) {
+            counters.misses++;
+            cache.put(key, key);
+            return key;
+        }
+        counters.hits++;
+        return value;
+    }
+}
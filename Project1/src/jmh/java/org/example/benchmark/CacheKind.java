@@ -0,0 +1,58 @@
+package org.example.benchmark;
+
+import org.example.EvictionPolicy;
+import org.example.MyLinkedHashMapImp;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Ограниченные кэши, сравниваемые в бенчмарках.
+ */
+public enum CacheKind {
+
+    /**
+     * Базовая линия: LinkedHashMap с порядком доступа и removeEldestEntry.
+     */
+    LINKED_HASH_MAP_LRU {
+        @Override
+        public <K, V> Map<K, V> create(int maximumSize) {
+            return new LinkedHashMap<K, V>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                    return size() > maximumSize;
+                }
+            };
+        }
+    },
+
+    /**
+     * MyLinkedHashMapImp с вытеснением LRU.
+     */
+    MY_LRU {
+        @Override
+        public <K, V> Map<K, V> create(int maximumSize) {
+            return new MyLinkedHashMapImp<>(maximumSize, EvictionPolicy.LRU);
+        }
+    },
+
+    /**
+     * MyLinkedHashMapImp с вытеснением LRU и проверкой частоты TinyLFU.
+     */
+    MY_TINY_LFU {
+        @Override
+        public <K, V> Map<K, V> create(int maximumSize) {
+            return new MyLinkedHashMapImp<>(maximumSize, EvictionPolicy.TINY_LFU);
+        }
+    };
+
+    /**
+     * Создает новый пустой кэш.
+     *
+     * @param maximumSize наибольшее количество пар
+     * @param <K>         тип ключей
+     * @param <V>         тип значений
+     * @return пустой кэш
+     */
+    public abstract <K, V> Map<K, V> create(int maximumSize);
+}
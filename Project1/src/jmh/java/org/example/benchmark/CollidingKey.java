@@ -0,0 +1,39 @@
+package org.example.benchmark;
+
+/**
+ * Ключ с намеренно плохим хэш-кодом: группы из {@value #GROUP} подряд идущих
+ * идентификаторов имеют одинаковый hashCode и попадают в одну цепочку.
+ */
+public final class CollidingKey {
+
+    /**
+     * Количество ключей с одинаковым хэш-кодом.
+     */
+    public static final int GROUP = 16;
+
+    private final long id;
+
+    /**
+     * Создает ключ с указанным идентификатором.
+     *
+     * @param id идентификатор ключа
+     */
+    public CollidingKey(long id) {
+        this.id = id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof CollidingKey && ((CollidingKey) o).id == id;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (id / GROUP);
+    }
+
+    @Override
+    public String toString() {
+        return "CollidingKey" + id;
+    }
+}
@@ -0,0 +1,121 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск в карте, все ключи которой имеют одинаковый хэш-код.
+ *
+ * <p>{@code STRINGS} - строки из блоков "Aa" и "BB", у которых совпадает
+ * {@link String#hashCode()}: так выглядит атака на хэш-таблицу через подобранные ключи.
+ * Строки сравнимы, поэтому в корзине-дереве поиск занимает O(log n), а не O(n).
+ * {@code NON_COMPARABLE} - ключи без {@link Comparable}, для них дерево не помогает,
+ * и время поиска растет линейно, как и у цепочки.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CollisionAttackBenchmark {
+
+    @Param({"64", "1024", "16384"})
+    private int size;
+
+    @Param({"STRINGS", "NON_COMPARABLE"})
+    private String keyType;
+
+    @Param({"MY_HASH_MAP", "HASH_MAP"})
+    private MapKind impl;
+
+    private Map<Object, Object> map;
+    private Object[] present;
+    private Object[] absent;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        present = generate(0, size);
+        absent = generate(size, size);
+        KeyDistribution.shuffle(absent, 2);
+        map = impl.create();
+        for (Object key : present) {
+            map.put(key, key);
+        }
+        KeyDistribution.shuffle(present, 1);
+    }
+
+    private Object[] generate(int from, int count) {
+        Object[] keys = new Object[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = "STRINGS".equals(keyType) ? collidingString(from + i) : new OpaqueKey(from + i);
+        }
+        return keys;
+    }
+
+    /**
+     * Строит строку, хэш-код которой одинаков для всех номеров:
+     * каждый бит номера выбирает блок "Aa" или "BB".
+     *
+     * @param n номер строки
+     * @return строка из 16 блоков
+     */
+    static String collidingString(int n) {
+        StringBuilder sb = new StringBuilder(32);
+        for (int bit = 15; bit >= 0; bit--) {
+            sb.append((n >>> bit & 1) == 0 ? "Aa" : "BB");
+        }
+        return sb.toString();
+    }
+
+    private int next() {
+        int i = cursor;
+        cursor = i + 1 == size ? 0 : i + 1;
+        return i;
+    }
+
+    @Benchmark
+    public Object getHit() {
+        return map.get(present[next()]);
+    }
+
+    @Benchmark
+    public Object getMiss() {
+        return map.get(absent[next()]);
+    }
+
+    /**
+     * Несравнимый ключ с постоянным хэш-кодом.
+     */
+    private static final class OpaqueKey {
+        private final int id;
+
+        OpaqueKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof OpaqueKey && ((OpaqueKey) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.benchmark;
+
+import org.example.CompactHashMap;
+import org.example.MyHashMapImp;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Сравнение занятой кучи для {@link MyHashMapImp}, {@link CompactHashMap} и
+ * {@link HashMap} с парами Long-Long.
+ *
+ * <p>Это не JMH-бенчмарк. Ключи и значения создаются один раз и общие для всех карт,
+ * поэтому разница занятой кучи после полной сборки мусора - это собственные накладные
+ * расходы структуры. Измеряются одна большая карта и множество маленьких карт, где
+ * таблица по умолчанию заполнена слабо.</p>
+ * <pre>
+ * java -Xmx4g -cp target/benchmarks.jar org.example.benchmark.CompactFootprint 1000000 4
+ * </pre>
+ */
+public final class CompactFootprint {
+
+    private CompactFootprint() {
+    }
+
+    /**
+     * Запускает измерение.
+     *
+     * @param args количество пар (по умолчанию 1 000 000) и размер маленькой карты (по умолчанию 4)
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int smallSize = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        Long[] boxes = new Long[count];
+        for (int i = 0; i < count; i++) {
+            boxes[i] = (long) i;
+        }
+        System.out.printf("%-16s %10s %12s %12s %14s%n", "impl", "maps", "entries", "heap, MB", "bytes/entry");
+        measure("MyHashMapImp", MyHashMapImp::new, boxes, count);
+        measure("CompactHashMap", CompactHashMap::new, boxes, count);
+        measure("HashMap", HashMap::new, boxes, count);
+        measure("MyHashMapImp", MyHashMapImp::new, boxes, smallSize);
+        measure("CompactHashMap", CompactHashMap::new, boxes, smallSize);
+        measure("HashMap", HashMap::new, boxes, smallSize);
+    }
+
+    /**
+     * Раскладывает все пары по картам указанного размера и печатает занятую ими кучу.
+     *
+     * @param name    название реализации
+     * @param factory фабрика пустых карт
+     * @param boxes   ключи, они же значения
+     * @param mapSize количество пар в одной карте
+     */
+    private static void measure(String name, Supplier<Map<Long, Long>> factory, Long[] boxes, int mapSize) {
+        long base = usedHeap();
+        Map<?, ?>[] maps = new Map<?, ?>[(boxes.length + mapSize - 1) / mapSize];
+        for (int m = 0; m < maps.length; m++) {
+            Map<Long, Long> map = factory.get();
+            for (int i = m * mapSize; i < Math.min(boxes.length, (m + 1) * mapSize); i++) {
+                map.put(boxes[i], boxes[i]);
+            }
+            maps[m] = map;
+        }
+        long bytes = usedHeap() - base;
+        System.out.printf("%-16s %10d %12d %12.1f %14.1f%n", name, maps.length, boxes.length,
+                bytes / 1048576.0, (double) bytes / boxes.length);
+    }
+
+    /**
+     * Возвращает занятую кучу после полной сборки мусора.
+     *
+     * @return занятая куча в байтах
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
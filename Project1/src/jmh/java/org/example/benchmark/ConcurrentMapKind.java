@@ -0,0 +1,53 @@
+package org.example.benchmark;
+
+import org.example.ConcurrentMyHashMap;
+import org.example.MyHashMapImp;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Потокобезопасные реализации Map, сравниваемые в многопоточных бенчмарках.
+ */
+public enum ConcurrentMapKind {
+
+    /**
+     * Тестируемая реализация с блокировкой корзин.
+     */
+    CONCURRENT_MY_HASH_MAP {
+        @Override
+        public <K, V> Map<K, V> create() {
+            return new ConcurrentMyHashMap<>();
+        }
+    },
+
+    /**
+     * Базовая линия: java.util.concurrent.ConcurrentHashMap.
+     */
+    CONCURRENT_HASH_MAP {
+        @Override
+        public <K, V> Map<K, V> create() {
+            return new ConcurrentHashMap<>();
+        }
+    },
+
+    /**
+     * Прежний вариант: MyHashMapImp под одной общей блокировкой.
+     */
+    SYNCHRONIZED_MY_HASH_MAP {
+        @Override
+        public <K, V> Map<K, V> create() {
+            return Collections.synchronizedMap(new MyHashMapImp<>());
+        }
+    };
+
+    /**
+     * Создает новую пустую карту.
+     *
+     * @param <K> тип ключей
+     * @param <V> тип значений
+     * @return пустая карта
+     */
+    public abstract <K, V> Map<K, V> create();
+}
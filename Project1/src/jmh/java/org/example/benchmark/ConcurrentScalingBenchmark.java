@@ -0,0 +1,101 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность общей карты при одновременном доступе из нескольких потоков.
+ *
+ * <p>Все потоки работают с одной картой ({@link Scope#Benchmark}). Число потоков задается
+ * ключом {@code -t}; {@link #main(String[])} прогоняет бенчмарк для 1, 2, 4, ... потоков
+ * до числа ядер, чтобы получить кривую масштабирования:</p>
+ * <pre>
+ * java -cp target/benchmarks.jar org.example.benchmark.ConcurrentScalingBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class ConcurrentScalingBenchmark {
+
+    @Param({"100000"})
+    private int size;
+
+    @Param({"CONCURRENT_MY_HASH_MAP", "CONCURRENT_HASH_MAP", "SYNCHRONIZED_MY_HASH_MAP"})
+    private ConcurrentMapKind impl;
+
+    private Map<Long, Long> map;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        map = impl.create();
+        for (long i = 0; i < size; i++) {
+            map.put(i, i);
+        }
+    }
+
+    private long randomKey() {
+        return ThreadLocalRandom.current().nextInt(size);
+    }
+
+    @Benchmark
+    public Long get() {
+        return map.get(randomKey());
+    }
+
+    @Benchmark
+    public Long readMostly() {
+        long key = randomKey();
+        if (ThreadLocalRandom.current().nextInt(10) == 0) {
+            return map.put(key, key);
+        }
+        return map.get(key);
+    }
+
+    @Benchmark
+    public Long mergeCounter() {
+        return map.merge(randomKey(), 1L, Long::sum);
+    }
+
+    /**
+     * Запускает бенчмарк для степеней двойки потоков от 1 до числа доступных ядер.
+     *
+     * @param args не используются
+     * @throws RunnerException при ошибке запуска JMH
+     */
+    public static void main(String[] args) throws RunnerException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; ; threads = Math.min(threads << 1, cores)) {
+            Options options = new OptionsBuilder()
+                    .include(ConcurrentScalingBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .output("scaling-" + threads + "-threads.txt")
+                    .build();
+            new Runner(options).run();
+            if (threads == cores) {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.benchmark;
+
+import org.example.ExpiringHashMap;
+import org.example.ExpiryPolicy;
+import org.example.MyHashMapImp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поток записей в карту сессий с 1 000 000 живых пар: каждая запись добавляет пару
+ * со временем жизни 1 с и сдвигает управляемые часы на 1 мкс, так что в среднем одна
+ * пара устаревает на каждую запись.
+ *
+ * <p>{@code WHEEL} - {@link ExpiringHashMap} с колесом таймеров. {@code FULL_SCAN} -
+ * прежний подход: {@link MyHashMapImp} со сроком в значении и полным просмотром
+ * таблицы каждые 10 мс модельного времени (10 000 записей). Режим SampleTime
+ * показывает не только среднее, но и задержку записи, которой достался просмотр.</p>
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class ExpiryBenchmark {
+
+    private static final long TIME_TO_LIVE = TimeUnit.SECONDS.toNanos(1);
+    private static final long STEP = TimeUnit.MICROSECONDS.toNanos(1);
+    private static final int SCAN_INTERVAL = 10_000;
+
+    /**
+     * Способ удалять устаревшие пары.
+     */
+    public enum ExpiryKind {
+        WHEEL,
+        FULL_SCAN
+    }
+
+    @Param({"WHEEL", "FULL_SCAN"})
+    private ExpiryKind impl;
+
+    private long time;
+    private long nextKey;
+    private ExpiringHashMap<Long, Long> wheelMap;
+    private MyHashMapImp<Long, Long> scanMap;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (impl == ExpiryKind.WHEEL) {
+            wheelMap = new ExpiringHashMap<>(TIME_TO_LIVE, TimeUnit.NANOSECONDS, ExpiryPolicy.AFTER_WRITE,
+                    () -> time);
+        } else {
+            scanMap = new MyHashMapImp<>();
+        }
+        for (int i = 0; i < TIME_TO_LIVE / STEP; i++) {
+            write();
+        }
+    }
+
+    @Benchmark
+    public int write() {
+        time += STEP;
+        Long key = nextKey++;
+        if (impl == ExpiryKind.WHEEL) {
+            wheelMap.put(key, key);
+            return wheelMap.size();
+        }
+        scanMap.put(key, time + TIME_TO_LIVE);
+        if (nextKey % SCAN_INTERVAL == 0) {
+            long now = time;
+            scanMap.entrySet().removeIf((Map.Entry<Long, Long> e) -> e.getValue() <= now);
+        }
+        return scanMap.size();
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.benchmark;
+
+import org.example.FrozenHashMap;
+import org.example.MyHashMapImp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Карта справочных данных только для чтения: изменяемая {@link MyHashMapImp},
+ * {@link FrozenHashMap} из {@link MyHashMapImp#freeze()} и {@link Map#copyOf(Map)}.
+ *
+ * <p>{@link #build} - время создания карты из заполненной MyHashMapImp (для MY_HASH_MAP -
+ * копия через putAll). {@link #get} - поиск существующих ключей в случайном порядке.
+ * Занятую память сравнивает {@link FrozenFootprint}.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class FreezeBenchmark {
+
+    /**
+     * Способ получить карту только для чтения из заполненной MyHashMapImp.
+     */
+    public enum ReadOnlyKind {
+        MY_HASH_MAP {
+            @Override
+            Map<Long, Long> from(MyHashMapImp<Long, Long> source) {
+                MyHashMapImp<Long, Long> copy = new MyHashMapImp<>();
+                copy.putAll(source);
+                return copy;
+            }
+        },
+        FROZEN {
+            @Override
+            Map<Long, Long> from(MyHashMapImp<Long, Long> source) {
+                return source.freeze();
+            }
+        },
+        MAP_COPY_OF {
+            @Override
+            Map<Long, Long> from(MyHashMapImp<Long, Long> source) {
+                return Map.copyOf(source);
+            }
+        };
+
+        abstract Map<Long, Long> from(MyHashMapImp<Long, Long> source);
+    }
+
+    @Param({"10000", "1000000"})
+    private int size;
+
+    @Param({"MY_HASH_MAP", "FROZEN", "MAP_COPY_OF"})
+    private ReadOnlyKind impl;
+
+    private MyHashMapImp<Long, Long> source;
+    private Map<Long, Long> map;
+    private Long[] probes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(13);
+        source = new MyHashMapImp<>();
+        Long[] keys = new Long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = random.nextLong();
+            source.put(keys[i], (long) i);
+        }
+        map = impl.from(source);
+        probes = new Long[1 << 20];
+        for (int i = 0; i < probes.length; i++) {
+            probes[i] = keys[random.nextInt(size)];
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Map<Long, Long> build() {
+        return impl.from(source);
+    }
+
+    @Benchmark
+    public Long get() {
+        next = (next + 1) & (probes.length - 1);
+        return map.get(probes[next]);
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.benchmark;
+
+import org.example.FrozenHashMap;
+import org.example.MyHashMapImp;
+
+import java.util.Map;
+
+/**
+ * Сравнение занятой кучи для {@link MyHashMapImp}, {@link FrozenHashMap} и
+ * {@link Map#copyOf(Map)} с парами Long-Long.
+ *
+ * <p>Это не JMH-бенчмарк. Ключи и значения создаются один раз и общие для всех карт,
+ * поэтому разница занятой кучи после полной сборки мусора - это собственные накладные
+ * расходы структуры: таблица, узлы или плоские массивы.</p>
+ * <pre>
+ * java -Xmx4g -cp target/benchmarks.jar org.example.benchmark.FrozenFootprint 1000000
+ * </pre>
+ */
+public final class FrozenFootprint {
+
+    private FrozenFootprint() {
+    }
+
+    /**
+     * Запускает измерение.
+     *
+     * @param args количество пар (по умолчанию 1 000 000)
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Long[] boxes = new Long[count];
+        for (int i = 0; i < count; i++) {
+            boxes[i] = (long) i;
+        }
+        MyHashMapImp<Long, Long> source = new MyHashMapImp<>();
+        for (Long box : boxes) {
+            source.put(box, box);
+        }
+        System.out.printf("%-16s %12s %12s %14s%n", "impl", "entries", "heap, MB", "bytes/entry");
+
+        long base = usedHeap();
+        Map<Long, Long> copy = new MyHashMapImp<>();
+        copy.putAll(source);
+        report("MyHashMapImp", copy, usedHeap() - base);
+        copy = null;
+
+        base = usedHeap();
+        Map<Long, Long> frozen = source.freeze();
+        report("FrozenHashMap", frozen, usedHeap() - base);
+        frozen = null;
+
+        base = usedHeap();
+        Map<Long, Long> copyOf = Map.copyOf(source);
+        report("Map.copyOf", copyOf, usedHeap() - base);
+    }
+
+    private static void report(String name, Map<Long, Long> map, long bytes) {
+        System.out.printf("%-16s %12d %12.1f %14.1f%n", name, map.size(), bytes / 1048576.0,
+                (double) bytes / map.size());
+    }
+
+    /**
+     * Возвращает занятую кучу после полной сборки мусора.
+     *
+     * @return занятая куча в байтах
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.benchmark;
+
+import org.example.MyHashMapImp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Худшее время одной операции put с полным и инкрементальным изменением размера.
+ *
+ * <p>Перед каждым замером карта заполняется ровно до порога изменения размера,
+ * поэтому {@link #resizingPut()} измеряет именно ту вставку, которая запускает resize.
+ * {@link #putsAfterResize()} измеряет следующие вставки, на которые в инкрементальном
+ * режиме переносится работа по перестроению таблицы.</p>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class IncrementalRehashBenchmark {
+
+    private static final int PUTS_AFTER_RESIZE = 100_000;
+
+    @Param({"1000000", "5000000"})
+    private int size;
+
+    @Param({"false", "true"})
+    private boolean incremental;
+
+    private MyHashMapImp<Long, Long> map;
+    private long nextKey;
+
+    @Setup(Level.Invocation)
+    public void fillToThreshold() {
+        map = new MyHashMapImp<>();
+        map.setIncrementalRehash(incremental);
+        nextKey = 0;
+        while (map.size() < size) {
+            put();
+        }
+        while (map.size() + 1 < map.getTableSize() * 0.8) {
+            put();
+        }
+    }
+
+    private Long put() {
+        long key = nextKey++;
+        return map.put(key, key);
+    }
+
+    @Benchmark
+    public Long resizingPut() {
+        return put();
+    }
+
+    @Benchmark
+    public Long putsAfterResize() {
+        Long last = put();
+        for (int i = 0; i < PUTS_AFTER_RESIZE; i++) {
+            last = put();
+        }
+        return last;
+    }
+}
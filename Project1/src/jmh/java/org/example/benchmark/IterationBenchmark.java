@@ -0,0 +1,86 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность полного обхода карты через представления и forEach.
+ * Результат - время одного полного обхода; аллокации на обход видны с {@code -prof gc}.
+ *
+ * <p>На последовательных ключах Long у {@link java.util.HashMap} каждая корзина содержит
+ * ровно один узел и обход идет по ключам в порядке возрастания, а MyHashMapImp
+ * перемешивает хэш-коды, поэтому сравнение честнее на {@code RANDOM_STRING}.
+ * {@link org.example.CompactHashMap} обходит плотные массивы в порядке вставки
+ * независимо от распределения ключей.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class IterationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"SEQUENTIAL_LONG", "RANDOM_STRING"})
+    private KeyDistribution keys;
+
+    @Param({"MY_HASH_MAP", "COMPACT_HASH_MAP", "HASH_MAP"})
+    private MapKind impl;
+
+    private Map<Object, Object> map;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        map = impl.create();
+        for (Object key : keys.generate(size, 1)) {
+            map.put(key, key);
+        }
+    }
+
+    @Benchmark
+    public void keySet(Blackhole bh) {
+        for (Object key : map.keySet()) {
+            bh.consume(key);
+        }
+    }
+
+    @Benchmark
+    public void values(Blackhole bh) {
+        for (Object value : map.values()) {
+            bh.consume(value);
+        }
+    }
+
+    @Benchmark
+    public void entrySet(Blackhole bh) {
+        for (Map.Entry<Object, Object> entry : map.entrySet()) {
+            bh.consume(entry.getKey());
+            bh.consume(entry.getValue());
+        }
+    }
+
+    @Benchmark
+    public void forEach(Blackhole bh) {
+        map.forEach((key, value) -> {
+            bh.consume(key);
+            bh.consume(value);
+        });
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.benchmark;
+
+import java.util.Random;
+
+/**
+ * Распределения ключей, используемые в бенчмарках.
+ */
+public enum KeyDistribution {
+
+    /**
+     * Последовательные идентификаторы типа Long.
+     */
+    SEQUENTIAL_LONG {
+        @Override
+        Object key(long id, Random random) {
+            return id;
+        }
+    },
+
+    /**
+     * Случайные строки длиной 16 символов.
+     */
+    RANDOM_STRING {
+        @Override
+        Object key(long id, Random random) {
+            char[] chars = new char[16];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = (char) ('a' + random.nextInt(26));
+            }
+            return new String(chars) + id;
+        }
+    },
+
+    /**
+     * Ключи, которые намеренно попадают в одну корзину группами.
+     */
+    COLLIDING {
+        @Override
+        Object key(long id, Random random) {
+            return new CollidingKey(id);
+        }
+    };
+
+    /**
+     * Создает ключ для указанного идентификатора.
+     *
+     * @param id     порядковый номер ключа
+     * @param random источник случайности
+     * @return ключ
+     */
+    abstract Object key(long id, Random random);
+
+    /**
+     * Создает массив уникальных ключей.
+     *
+     * @param count количество ключей
+     * @param seed  зерно генератора
+     * @return массив ключей
+     */
+    public Object[] generate(int count, long seed) {
+        return generate(0, count, seed);
+    }
+
+    /**
+     * Создает массив уникальных ключей, начиная с указанного идентификатора.
+     * Ключи с разными диапазонами идентификаторов не пересекаются.
+     *
+     * @param from  первый идентификатор
+     * @param count количество ключей
+     * @param seed  зерно генератора
+     * @return массив ключей
+     */
+    public Object[] generate(long from, int count, long seed) {
+        Random random = new Random(seed);
+        Object[] keys = new Object[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = key(from + i, random);
+        }
+        return keys;
+    }
+
+    /**
+     * Перемешивает массив, чтобы порядок обращений не совпадал с порядком вставки.
+     *
+     * @param keys массив для перемешивания
+     * @param seed зерно генератора
+     * @return тот же массив
+     */
+    public static Object[] shuffle(Object[] keys, long seed) {
+        Random random = new Random(seed);
+        for (int i = keys.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Object tmp = keys[i];
+            keys[i] = keys[j];
+            keys[j] = tmp;
+        }
+        return keys;
+    }
+}
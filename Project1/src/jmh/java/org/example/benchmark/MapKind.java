@@ -0,0 +1,63 @@
+package org.example.benchmark;
+
+import org.example.CompactHashMap;
+import org.example.MyHashMapImp;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Реализации Map, сравниваемые в бенчмарках.
+ */
+public enum MapKind {
+
+    /**
+     * Тестируемая реализация на основе метода цепочек.
+     */
+    MY_HASH_MAP {
+        @Override
+        public <K, V> Map<K, V> create() {
+            return new MyHashMapImp<>();
+        }
+    },
+
+    /**
+     * Компактная раскладка: плотные массивы пар и таблица индексов.
+     */
+    COMPACT_HASH_MAP {
+        @Override
+        public <K, V> Map<K, V> create() {
+            return new CompactHashMap<>();
+        }
+    },
+
+    /**
+     * Базовая линия: java.util.HashMap.
+     */
+    HASH_MAP {
+        @Override
+        public <K, V> Map<K, V> create() {
+            return new HashMap<>();
+        }
+    },
+
+    /**
+     * Базовая линия: java.util.LinkedHashMap.
+     */
+    LINKED_HASH_MAP {
+        @Override
+        public <K, V> Map<K, V> create() {
+            return new LinkedHashMap<>();
+        }
+    };
+
+    /**
+     * Создает новую пустую карту.
+     *
+     * @param <K> тип ключей
+     * @param <V> тип значений
+     * @return пустая карта
+     */
+    public abstract <K, V> Map<K, V> create();
+}
@@ -0,0 +1,99 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость отдельных операций карты на заполненной таблице.
+ * Режим SampleTime дает распределение времени операции, включая p99;
+ * скорость аллокаций выводится при запуске с {@code -prof gc}.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class MapOperationsBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    private int size;
+
+    @Param({"SEQUENTIAL_LONG", "RANDOM_STRING", "COLLIDING"})
+    private KeyDistribution keys;
+
+    @Param({"MY_HASH_MAP", "HASH_MAP", "LINKED_HASH_MAP"})
+    private MapKind impl;
+
+    private Map<Object, Object> map;
+    private Object[] present;
+    private Object[] absent;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        present = keys.generate(size, 1);
+        absent = KeyDistribution.shuffle(keys.generate(size, size, 2), 3);
+        map = impl.create();
+        for (Object key : present) {
+            map.put(key, key);
+        }
+        KeyDistribution.shuffle(present, 4);
+    }
+
+    private int next() {
+        int i = cursor;
+        cursor = i + 1 == size ? 0 : i + 1;
+        return i;
+    }
+
+    @Benchmark
+    public Object getHit() {
+        return map.get(present[next()]);
+    }
+
+    @Benchmark
+    public Object getMiss() {
+        return map.get(absent[next()]);
+    }
+
+    @Benchmark
+    public Object putOverwrite() {
+        Object key = present[next()];
+        return map.put(key, key);
+    }
+
+    @Benchmark
+    public Object removeAndPut() {
+        Object key = present[next()];
+        Object value = map.remove(key);
+        map.put(key, value);
+        return value;
+    }
+
+    @Benchmark
+    public boolean containsValueMiss() {
+        return map.containsValue(absent[next()]);
+    }
+
+    @Benchmark
+    public void keySetIteration(Blackhole blackhole) {
+        for (Object key : map.keySet()) {
+            blackhole.consume(key);
+        }
+    }
+}
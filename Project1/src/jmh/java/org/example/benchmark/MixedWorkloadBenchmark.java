@@ -0,0 +1,79 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Смешанная нагрузка чтения и записи с заданной долей чтений.
+ * Записи чередуют удаление и повторную вставку, поэтому размер карты
+ * колеблется около исходного и периодически вызывает изменение размера таблицы.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class MixedWorkloadBenchmark {
+
+    private static final int OPS = 1 << 16;
+
+    @Param({"1000", "100000", "10000000"})
+    private int size;
+
+    @Param({"SEQUENTIAL_LONG", "RANDOM_STRING", "COLLIDING"})
+    private KeyDistribution keys;
+
+    @Param({"MY_HASH_MAP", "HASH_MAP", "LINKED_HASH_MAP"})
+    private MapKind impl;
+
+    @Param({"50", "90", "99"})
+    private int readPercent;
+
+    private Map<Object, Object> map;
+    private Object[] present;
+    private boolean[] reads;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        present = keys.generate(size, 1);
+        map = impl.create();
+        for (Object key : present) {
+            map.put(key, key);
+        }
+        KeyDistribution.shuffle(present, 4);
+        Random random = new Random(5);
+        reads = new boolean[OPS];
+        for (int i = 0; i < OPS; i++) {
+            reads[i] = random.nextInt(100) < readPercent;
+        }
+    }
+
+    @Benchmark
+    public Object operation() {
+        int i = cursor++;
+        Object key = present[i % size];
+        if (reads[i & (OPS - 1)]) {
+            return map.get(key);
+        }
+        if (map.remove(key) == null) {
+            return map.put(key, key);
+        }
+        return key;
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.benchmark;
+
+import org.example.Codecs;
+import org.example.MyHashMapImp;
+import org.example.OffHeapHashMap;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+/**
+ * Сравнение занятой кучи и пауз сборщика мусора для {@link MyHashMapImp} и
+ * {@link OffHeapHashMap} с большим числом пар Long-Long.
+ *
+ * <p>Это не JMH-бенчмарк: для каждой реализации карта заполняется, после чего
+ * выполняется полная сборка мусора, пока карта еще жива. Выводятся занятая куча,
+ * память вне кучи и время полной сборки по данным GarbageCollectorMXBean:</p>
+ * <pre>
+ * java -Xmx8g -cp target/benchmarks.jar org.example.benchmark.OffHeapFootprint 10000000
+ * </pre>
+ */
+public final class OffHeapFootprint {
+
+    private OffHeapFootprint() {
+    }
+
+    /**
+     * Запускает измерение.
+     *
+     * @param args количество пар (по умолчанию 10 000 000)
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        System.out.printf("%-16s %12s %12s %12s %10s%n", "impl", "entries", "heap, MB", "off-heap, MB", "gc, ms");
+
+        Map<Long, Long> onHeap = new MyHashMapImp<>();
+        fill(onHeap, count);
+        report("MyHashMapImp", onHeap, 0);
+        onHeap = null;
+        fullGc();
+
+        try (OffHeapHashMap<Long, Long> offHeap = new OffHeapHashMap<>(Codecs.LONG, Codecs.LONG)) {
+            fill(offHeap, count);
+            report("OffHeapHashMap", offHeap, offHeap.getOffHeapBytes());
+        }
+    }
+
+    private static void fill(Map<Long, Long> map, int count) {
+        for (long i = 0; i < count; i++) {
+            map.put(i, i);
+        }
+    }
+
+    private static void report(String name, Map<Long, Long> map, long offHeapBytes) {
+        long gcTime = fullGc();
+        Runtime runtime = Runtime.getRuntime();
+        long heap = runtime.totalMemory() - runtime.freeMemory();
+        System.out.printf("%-16s %12d %12.1f %12.1f %10d%n", name, map.size(),
+                heap / 1048576.0, offHeapBytes / 1048576.0, gcTime);
+    }
+
+    /**
+     * Выполняет полную сборку мусора.
+     *
+     * @return суммарное время сборок за вызов в миллисекундах
+     */
+    private static long fullGc() {
+        long before = totalGcTime();
+        System.gc();
+        return totalGcTime() - before;
+    }
+
+    private static long totalGcTime() {
+        long total = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(bean.getCollectionTime(), 0);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.benchmark;
+
+import org.example.MyHashMapImp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Полный просмотр большой карты в одном потоке и через bulk-операции и параллельные потоки.
+ *
+ * <p>Параллелизм задается размером общего ForkJoinPool. {@link #main(String[])} прогоняет
+ * бенчмарк для 1, 2, 4, ... потоков до числа ядер, чтобы получить кривую масштабирования:</p>
+ * <pre>
+ * java -cp target/benchmarks.jar org.example.benchmark.ParallelBulkBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ParallelBulkBenchmark {
+
+    @Param({"10000000"})
+    private int size;
+
+    private MyHashMapImp<Long, Long> map;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        map = new MyHashMapImp<>();
+        map.ensureCapacity(size);
+        for (long i = 0; i < size; i++) {
+            map.put(i, i);
+        }
+    }
+
+    @Benchmark
+    public boolean containsValue() {
+        return map.containsValue(-1L);
+    }
+
+    @Benchmark
+    public boolean parallelContainsValue() {
+        return map.parallelContainsValue(10_000, -1L);
+    }
+
+    @Benchmark
+    public Long sequentialReduce() {
+        return map.reduce(Long.MAX_VALUE, (k, v) -> v, Long::sum);
+    }
+
+    @Benchmark
+    public Long parallelReduce() {
+        return map.reduce(10_000, (k, v) -> v, Long::sum);
+    }
+
+    @Benchmark
+    public long parallelStreamSum() {
+        return map.values().parallelStream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Запускает бенчмарк для степеней двойки потоков общего пула от 1 до числа ядер.
+     *
+     * @param args не используются
+     * @throws RunnerException при ошибке запуска JMH
+     */
+    public static void main(String[] args) throws RunnerException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; ; threads = Math.min(threads << 1, cores)) {
+            Options options = new OptionsBuilder()
+                    .include(ParallelBulkBenchmark.class.getSimpleName())
+                    .jvmArgsAppend("-Djava.util.concurrent.ForkJoinPool.common.parallelism=" + threads)
+                    .output("parallel-bulk-" + threads + "-threads.txt")
+                    .build();
+            new Runner(options).run();
+            if (threads == cores) {
+                break;
+            }
+        }
+    }
+}
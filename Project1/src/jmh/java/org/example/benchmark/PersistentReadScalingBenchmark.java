@@ -0,0 +1,130 @@
+package org.example.benchmark;
+
+import org.example.MyHashMapImp;
+import org.example.PersistentHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Чтение общей карты несколькими потоками, пока один поток непрерывно пишет.
+ *
+ * <p>{@link PersistentHashMap} читается без блокировок, {@link MyHashMapImp} под
+ * {@link Collections#synchronizedMap(Map)} - под общей блокировкой с писателем.
+ * Каждый читатель за операцию читает {@value #BATCH} ключей из одной согласованной
+ * версии: снимок для постоянного дерева, одна критическая секция для синхронизированной
+ * карты. {@link #main(String[])} прогоняет группу с одним писателем и 1, 2, 4, ...
+ * читателями до числа ядер:</p>
+ * <pre>
+ * java -cp target/benchmarks.jar org.example.benchmark.PersistentReadScalingBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Group)
+public class PersistentReadScalingBenchmark {
+
+    private static final int BATCH = 16;
+
+    /**
+     * Карта под нагрузкой.
+     */
+    public enum Kind {
+        PERSISTENT,
+        SYNCHRONIZED_MY_HASH_MAP
+    }
+
+    @Param({"100000"})
+    private int size;
+
+    @Param({"PERSISTENT", "SYNCHRONIZED_MY_HASH_MAP"})
+    private Kind impl;
+
+    private PersistentHashMap<Long, Long> persistent;
+    private Map<Long, Long> synchronizedMap;
+    private Map<Long, Long> map;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        persistent = new PersistentHashMap<>();
+        synchronizedMap = Collections.synchronizedMap(new MyHashMapImp<>());
+        map = impl == Kind.PERSISTENT ? persistent : synchronizedMap;
+        for (long i = 0; i < size; i++) {
+            map.put(i, i);
+        }
+    }
+
+    @Benchmark
+    @Group("readWhileWriting")
+    @GroupThreads(1)
+    public Long writer() {
+        long key = ThreadLocalRandom.current().nextInt(size);
+        return map.put(key, key);
+    }
+
+    @Benchmark
+    @Group("readWhileWriting")
+    @GroupThreads(1)
+    public long reader() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long sum = 0;
+        if (impl == Kind.PERSISTENT) {
+            Map<Long, Long> snapshot = persistent.snapshot();
+            for (int i = 0; i < BATCH; i++) {
+                sum += snapshot.get((long) random.nextInt(size));
+            }
+            return sum;
+        }
+        synchronized (synchronizedMap) {
+            for (int i = 0; i < BATCH; i++) {
+                sum += synchronizedMap.get((long) random.nextInt(size));
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Запускает группу с одним писателем и степенями двойки читателей
+     * от 1 до числа доступных ядер.
+     *
+     * @param args не используются
+     * @throws RunnerException при ошибке запуска JMH
+     */
+    public static void main(String[] args) throws RunnerException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int readers = 1; ; readers = Math.min(readers << 1, cores)) {
+            Options options = new OptionsBuilder()
+                    .include(PersistentReadScalingBenchmark.class.getSimpleName())
+                    .threadGroups(1, readers)
+                    .output("persistent-read-" + readers + "-readers.txt")
+                    .build();
+            new Runner(options).run();
+            if (readers == cores) {
+                break;
+            }
+        }
+    }
+}
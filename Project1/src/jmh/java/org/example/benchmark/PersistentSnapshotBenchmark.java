@@ -0,0 +1,88 @@
+package org.example.benchmark;
+
+import org.example.MyHashMapImp;
+import org.example.PersistentHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость согласованного снимка карты: {@link PersistentHashMap#snapshot()} против
+ * копии {@link MyHashMapImp}, а также цена чтения и записи в постоянном дереве.
+ *
+ * <p>{@link #putPersistent} и {@link #putMyHashMap} заменяют значение существующего ключа:
+ * в дереве это копирование пути от корня, в хэш-таблице - запись в узел.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class PersistentSnapshotBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int size;
+
+    private PersistentHashMap<Long, Long> persistent;
+    private MyHashMapImp<Long, Long> myHashMap;
+    private long next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        persistent = new PersistentHashMap<>();
+        myHashMap = new MyHashMapImp<>();
+        for (long i = 0; i < size; i++) {
+            persistent.put(i, i);
+            myHashMap.put(i, i);
+        }
+    }
+
+    @Benchmark
+    public Map<Long, Long> snapshotPersistent() {
+        return persistent.snapshot();
+    }
+
+    @Benchmark
+    public Map<Long, Long> copyMyHashMap() {
+        MyHashMapImp<Long, Long> copy = new MyHashMapImp<>();
+        copy.putAll(myHashMap);
+        return copy;
+    }
+
+    @Benchmark
+    public Long getPersistent() {
+        next = (next + 7919) % size;
+        return persistent.get(next);
+    }
+
+    @Benchmark
+    public Long getMyHashMap() {
+        next = (next + 7919) % size;
+        return myHashMap.get(next);
+    }
+
+    @Benchmark
+    public Long putPersistent() {
+        next = (next + 1) % size;
+        return persistent.put(next, next);
+    }
+
+    @Benchmark
+    public Long putMyHashMap() {
+        next = (next + 1) % size;
+        return myHashMap.put(next, next);
+    }
+}
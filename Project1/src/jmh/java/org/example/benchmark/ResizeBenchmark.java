@@ -0,0 +1,54 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время заполнения пустой карты, то есть суммарная стоимость всех изменений
+ * размера таблицы по мере роста.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ResizeBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    private int size;
+
+    @Param({"SEQUENTIAL_LONG", "RANDOM_STRING"})
+    private KeyDistribution keys;
+
+    @Param({"MY_HASH_MAP", "HASH_MAP", "LINKED_HASH_MAP"})
+    private MapKind impl;
+
+    private Object[] present;
+
+    @Setup
+    public void setUp() {
+        present = keys.generate(size, 1);
+    }
+
+    @Benchmark
+    public Map<Object, Object> fillFromEmpty() {
+        Map<Object, Object> map = impl.create();
+        for (Object key : present) {
+            map.put(key, key);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.benchmark;
+
+import org.example.MyHashMapImp;
+import org.example.ResizePolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Чередование вставок и удалений около порога изменения размера.
+ *
+ * <p>Карта заполнена чуть ниже порога увеличения. Каждая операция вставляет
+ * {@value #BATCH} ключей, переходя порог, и удаляет их же. При
+ * {@code shrinkLoadFactor = 0.39} зазор между порогами почти нулевой (так работало
+ * прежнее правило уменьшения: половина коэффициента загрузки), и каждая операция
+ * дважды перестраивает таблицу. При 0.2 таблица увеличивается один раз и остается.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class ResizeThrashBenchmark {
+
+    private static final int BATCH = 3_000;
+
+    /**
+     * Емкость 131072 увеличивается при 104858 парах; после увеличения до 262144
+     * при пороге 0.39 таблица уменьшается ниже 102236 пар.
+     */
+    private static final int BASE_SIZE = 102_000;
+
+    @Param({"0.39", "0.2"})
+    private double shrinkLoadFactor;
+
+    private MyHashMapImp<Long, Long> map;
+    private Long[] batchKeys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        map = new MyHashMapImp<>(16, ResizePolicy.of(0.8, shrinkLoadFactor));
+        for (long i = 0; i < BASE_SIZE; i++) {
+            map.put(i, i);
+        }
+        batchKeys = new Long[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            batchKeys[i] = (long) (BASE_SIZE + i);
+        }
+    }
+
+    @Benchmark
+    public int putRemoveAcrossThreshold() {
+        for (Long key : batchKeys) {
+            map.put(key, key);
+        }
+        int tableSize = map.getTableSize();
+        for (Long key : batchKeys) {
+            map.remove(key);
+        }
+        return tableSize + map.getTableSize();
+    }
+}
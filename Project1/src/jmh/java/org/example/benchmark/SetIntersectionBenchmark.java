@@ -0,0 +1,87 @@
+package org.example.benchmark;
+
+import org.example.MyHashSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пересечение множества из smallSize элементов с множеством из largeSize элементов,
+ * половина элементов меньшего множества есть в большем. Элементы - перемешанные
+ * умножением на нечетную константу числа: последовательные Integer с почти тождественным
+ * хэш-кодом {@link HashSet} лежали бы в соседних корзинах, и сравнение измеряло бы
+ * локальность тестовых данных, а не поиск.
+ *
+ * <p>{@code HASH_SET} - обычный способ: копия меньшего {@link HashSet} и retainAll
+ * с большим. {@code MY_HASH_SET} - {@link MyHashSet#intersection(Set)}, которая обходит
+ * меньшее множество, ищет элементы по сохраненным хэш-кодам и заранее задает емкость
+ * результата. Обе реализации вызываются у большего множества, чтобы проверить, что
+ * порядок операндов не важен.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class SetIntersectionBenchmark {
+
+    /**
+     * Реализация множества.
+     */
+    public enum SetKind {
+        HASH_SET,
+        MY_HASH_SET
+    }
+
+    @Param({"HASH_SET", "MY_HASH_SET"})
+    private SetKind impl;
+
+    @Param({"1000000"})
+    private int smallSize;
+
+    @Param({"10000000"})
+    private int largeSize;
+
+    private Set<Integer> small;
+    private Set<Integer> large;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        small = impl == SetKind.HASH_SET ? new HashSet<>() : new MyHashSet<>();
+        large = impl == SetKind.HASH_SET ? new HashSet<>() : new MyHashSet<>();
+        for (int i = 0; i < largeSize; i++) {
+            large.add(mix(i * 2));
+        }
+        for (int i = 0; i < smallSize; i++) {
+            small.add(mix(i % 2 == 0 ? i * 2 : i * 2 + 1));
+        }
+    }
+
+    private static int mix(int x) {
+        return x * 0x2545F491;
+    }
+
+    @Benchmark
+    public int intersection() {
+        if (impl == SetKind.HASH_SET) {
+            Set<Integer> result = new HashSet<>(small);
+            result.retainAll(large);
+            return result.size();
+        }
+        return ((MyHashSet<Integer>) large).intersection(small).size();
+    }
+}
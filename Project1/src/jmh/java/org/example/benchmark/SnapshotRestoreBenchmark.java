@@ -0,0 +1,96 @@
+package org.example.benchmark;
+
+import org.example.Codecs;
+import org.example.MappedHashMap;
+import org.example.MyHashMapImp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время до первого поиска после перезапуска: открытие снимка через
+ * {@link MyHashMapImp#mapFrom} против повторной вставки всех пар.
+ *
+ * <p>{@code rebuildByPut} заполняет карту из массивов в памяти, то есть это нижняя граница
+ * для загрузки из базы данных. {@code restoreByPut} вставляет пары, читая их из снимка.
+ * Файл снимка после записи находится в page cache; чтобы измерить холодный старт,
+ * сбросьте кэш ОС между итерациями ({@code echo 3 > /proc/sys/vm/drop_caches}).</p>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class SnapshotRestoreBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    private long[] keys;
+    private Path snapshot;
+    private long probe;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Random random = new Random(1);
+        keys = new long[size];
+        MyHashMapImp<Long, Long> map = new MyHashMapImp<>();
+        for (int i = 0; i < size; i++) {
+            keys[i] = random.nextLong();
+            map.put(keys[i], (long) i);
+        }
+        probe = keys[size / 2];
+        snapshot = Files.createTempFile("map", ".snapshot");
+        map.snapshotTo(snapshot, Codecs.LONG, Codecs.LONG);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(snapshot);
+    }
+
+    @Benchmark
+    public Long restoreMapped() throws IOException {
+        try (MappedHashMap<Long, Long> map = MyHashMapImp.mapFrom(snapshot, Codecs.LONG, Codecs.LONG)) {
+            return map.get(probe);
+        }
+    }
+
+    @Benchmark
+    public Long restoreByPut() throws IOException {
+        try (MappedHashMap<Long, Long> mapped = MyHashMapImp.mapFrom(snapshot, Codecs.LONG, Codecs.LONG)) {
+            Map<Long, Long> map = new MyHashMapImp<>();
+            for (Map.Entry<Long, Long> entry : mapped.entrySet()) {
+                map.put(entry.getKey(), entry.getValue());
+            }
+            return map.get(probe);
+        }
+    }
+
+    @Benchmark
+    public Long rebuildByPut() {
+        Map<Long, Long> map = new MyHashMapImp<>();
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], (long) i);
+        }
+        return map.get(probe);
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.benchmark;
+
+import org.example.ConcurrentStatsRecorder;
+import org.example.MyHashMapImp;
+import org.example.StatsRecorder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость сбора статистики на операции get: пустой приемник против
+ * {@link ConcurrentStatsRecorder}. Половина ключей отсутствует в карте.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class StatsOverheadBenchmark {
+
+    private static final int SIZE = 100_000;
+
+    @Param({"false", "true"})
+    private boolean recordStats;
+
+    private MyHashMapImp<Long, Long> map;
+    private Long[] keys;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        map = new MyHashMapImp<>();
+        map.setStatsRecorder(recordStats ? new ConcurrentStatsRecorder() : StatsRecorder.noop());
+        keys = new Long[SIZE * 2];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = (long) i;
+        }
+        for (int i = 0; i < SIZE; i++) {
+            map.put(keys[i], keys[i]);
+        }
+    }
+
+    @Benchmark
+    public Long get() {
+        if (++next == keys.length) {
+            next = 0;
+        }
+        return map.get(keys[next]);
+    }
+}
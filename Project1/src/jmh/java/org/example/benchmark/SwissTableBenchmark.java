@@ -0,0 +1,113 @@
+package org.example.benchmark;
+
+import org.example.MyHashMapImp;
+import org.example.MyRobinHoodHashMapImp;
+import org.example.SwissHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск в трех раскладках таблицы: цепочки {@link MyHashMapImp}, открытая адресация
+ * {@link MyRobinHoodHashMapImp} и управляющие байты {@link SwissHashMap}.
+ *
+ * <p>{@link #hit} ищет существующие ключи, {@link #miss} - отсутствующие, оба в случайном
+ * порядке. Размер 1_000_000 не помещается в кэш процессора, поэтому там время поиска
+ * определяется числом прочитанных строк кэша.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class SwissTableBenchmark {
+
+    /**
+     * Раскладка хэш-таблицы.
+     */
+    public enum LayoutKind {
+        CHAINED {
+            @Override
+            <K, V> Map<K, V> create() {
+                return new MyHashMapImp<>();
+            }
+        },
+        ROBIN_HOOD {
+            @Override
+            <K, V> Map<K, V> create() {
+                return new MyRobinHoodHashMapImp<>();
+            }
+        },
+        SWISS {
+            @Override
+            <K, V> Map<K, V> create() {
+                return new SwissHashMap<>();
+            }
+        };
+
+        abstract <K, V> Map<K, V> create();
+    }
+
+    @Param({"10000", "1000000"})
+    private int size;
+
+    @Param({"CHAINED", "ROBIN_HOOD", "SWISS"})
+    private LayoutKind impl;
+
+    private Map<Long, Long> map;
+    private Long[] hits;
+    private Long[] misses;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(18);
+        map = impl.create();
+        Set<Long> present = new HashSet<>();
+        Long[] keys = new Long[size];
+        for (int i = 0; i < size; i++) {
+            do {
+                keys[i] = random.nextLong();
+            } while (!present.add(keys[i]));
+            map.put(keys[i], (long) i);
+        }
+        hits = new Long[1 << 20];
+        misses = new Long[1 << 20];
+        for (int i = 0; i < hits.length; i++) {
+            hits[i] = keys[random.nextInt(size)];
+            Long absent;
+            do {
+                absent = random.nextLong();
+            } while (present.contains(absent));
+            misses[i] = absent;
+        }
+    }
+
+    @Benchmark
+    public Long hit() {
+        next = (next + 1) & (hits.length - 1);
+        return map.get(hits[next]);
+    }
+
+    @Benchmark
+    public Long miss() {
+        next = (next + 1) & (misses.length - 1);
+        return map.get(misses[next]);
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.benchmark;
+
+import org.example.MyHashMapImp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * containsValue и замена значения с индексом значений и без него
+ * ({@link MyHashMapImp#setValueIndex(boolean)}). Все значения карты различны.
+ *
+ * <p>{@code put} заменяет значение существующего ключа новым, так что индекс каждый раз
+ * удаляет одно значение и добавляет другое. Память индекса измеряет
+ * {@link ValueIndexFootprint}.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class ValueIndexBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int size;
+
+    @Param({"false", "true"})
+    private boolean valueIndex;
+
+    private MyHashMapImp<Long, Long> map;
+    private Long[] boxes;
+    private int next;
+    private int offset;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        map = new MyHashMapImp<>();
+        map.setValueIndex(valueIndex);
+        boxes = new Long[size * 3];
+        for (int i = 0; i < boxes.length; i++) {
+            boxes[i] = (long) i;
+        }
+        for (int i = 0; i < size; i++) {
+            map.put(boxes[i], boxes[i]);
+        }
+    }
+
+    @Benchmark
+    public boolean containsValueHit() {
+        if (++next == size) {
+            next = 0;
+        }
+        return map.containsValue(boxes[next]);
+    }
+
+    @Benchmark
+    public boolean containsValueMiss() {
+        if (++next == size) {
+            next = 0;
+        }
+        return map.containsValue(boxes[size * 2 + next]);
+    }
+
+    @Benchmark
+    public Long put() {
+        if (++next == size) {
+            next = 0;
+            offset = size - offset;
+        }
+        return map.put(boxes[next], boxes[next + offset]);
+    }
+}
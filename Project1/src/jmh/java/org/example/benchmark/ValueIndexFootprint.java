@@ -0,0 +1,73 @@
+package org.example.benchmark;
+
+import org.example.MyHashMapImp;
+
+/**
+ * Дополнительная память индекса значений {@link MyHashMapImp#setValueIndex(boolean)}
+ * на карте пар Long-Long.
+ *
+ * <p>Это не JMH-бенчмарк. Ключи и значения создаются заранее и общие для всех карт,
+ * поэтому разница занятой кучи после полной сборки мусора - это память самой карты
+ * и ее индекса. Измеряются карта с различными значениями и карта, где каждое значение
+ * повторяется у многих ключей.</p>
+ * <pre>
+ * java -Xmx4g -cp target/benchmarks.jar org.example.benchmark.ValueIndexFootprint 1000000 1000
+ * </pre>
+ */
+public final class ValueIndexFootprint {
+
+    private ValueIndexFootprint() {
+    }
+
+    /**
+     * Запускает измерение.
+     *
+     * @param args количество пар (по умолчанию 1 000 000) и количество различных значений
+     *             в карте с повторами (по умолчанию 1000)
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int distinct = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        Long[] boxes = new Long[count];
+        for (int i = 0; i < count; i++) {
+            boxes[i] = (long) i;
+        }
+        System.out.printf("%-12s %10s %12s %12s %14s%n", "index", "values", "entries", "heap, MB", "bytes/entry");
+        measure(false, boxes, count);
+        measure(true, boxes, count);
+        measure(false, boxes, distinct);
+        measure(true, boxes, distinct);
+    }
+
+    /**
+     * Заполняет карту и печатает занятую ею кучу.
+     *
+     * @param valueIndex включить ли индекс значений
+     * @param boxes      ключи и значения
+     * @param distinct   количество различных значений
+     */
+    private static void measure(boolean valueIndex, Long[] boxes, int distinct) {
+        long base = usedHeap();
+        MyHashMapImp<Long, Long> map = new MyHashMapImp<>();
+        map.setValueIndex(valueIndex);
+        for (int i = 0; i < boxes.length; i++) {
+            map.put(boxes[i], boxes[i % distinct]);
+        }
+        long bytes = usedHeap() - base;
+        System.out.printf("%-12s %10d %12d %12.1f %14.1f%n", valueIndex ? "on" : "off", distinct, map.size(),
+                bytes / 1048576.0, (double) bytes / boxes.length);
+    }
+
+    /**
+     * Возвращает занятую кучу после полной сборки мусора.
+     *
+     * @return занятая куча в байтах
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
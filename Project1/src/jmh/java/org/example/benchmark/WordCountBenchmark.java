@@ -0,0 +1,96 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Подсчет слов в тексте разными способами обновления счетчика.
+ *
+ * <p>Текст - {@value #TEXT_LENGTH} слов из словаря размера {@code vocabulary}
+ * с распределением, близким к закону Ципфа: частые слова встречаются много раз,
+ * редкие - единицы. Результат - время подсчета всего текста в новую карту.
+ * {@link #getPut} - два поиска на слово (get и put), остальные методы - один.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class WordCountBenchmark {
+
+    private static final int TEXT_LENGTH = 1_000_000;
+
+    @Param({"1000", "100000"})
+    private int vocabulary;
+
+    @Param({"MY_HASH_MAP", "HASH_MAP"})
+    private MapKind impl;
+
+    private String[] text;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(5);
+        String[] words = new String[vocabulary];
+        for (int i = 0; i < vocabulary; i++) {
+            words[i] = (String) KeyDistribution.RANDOM_STRING.key(i, random);
+        }
+        text = new String[TEXT_LENGTH];
+        double logVocabulary = Math.log(vocabulary);
+        for (int i = 0; i < TEXT_LENGTH; i++) {
+            int rank = (int) Math.exp(random.nextDouble() * logVocabulary) - 1;
+            text[i] = words[Math.min(rank, vocabulary - 1)];
+        }
+    }
+
+    @Benchmark
+    public Map<String, Integer> merge() {
+        Map<String, Integer> counts = impl.create();
+        for (String word : text) {
+            counts.merge(word, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    @Benchmark
+    public Map<String, Integer> compute() {
+        Map<String, Integer> counts = impl.create();
+        for (String word : text) {
+            counts.compute(word, (k, v) -> v == null ? 1 : v + 1);
+        }
+        return counts;
+    }
+
+    @Benchmark
+    public Map<String, int[]> computeIfAbsent() {
+        Map<String, int[]> counts = impl.create();
+        for (String word : text) {
+            counts.computeIfAbsent(word, k -> new int[1])[0]++;
+        }
+        return counts;
+    }
+
+    @Benchmark
+    public Map<String, Integer> getPut() {
+        Map<String, Integer> counts = impl.create();
+        for (String word : text) {
+            counts.put(word, counts.getOrDefault(word, 0) + 1);
+        }
+        return counts;
+    }
+}
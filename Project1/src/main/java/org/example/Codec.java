@@ -0,0 +1,44 @@
+package org.example;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Преобразование объектов в байты и обратно для карт, хранящих данные вне кучи.
+ *
+ * <p>Все методы работают с абсолютными смещениями и не меняют позицию буфера.
+ * Кодирование должно быть детерминированным: равные по {@link Object#equals} объекты
+ * обязаны давать одинаковые байты, так как ключи сравниваются побайтно.
+ * Значение null в кодек не передается - карта хранит его отдельно.</p>
+ *
+ * @param <T> тип кодируемых объектов
+ * @see Codecs
+ */
+public interface Codec<T> {
+
+    /**
+     * Возвращает длину закодированного представления.
+     *
+     * @param value объект, не null
+     * @return количество байт
+     */
+    int size(T value);
+
+    /**
+     * Записывает закодированное представление в буфер.
+     *
+     * @param value  объект, не null
+     * @param target буфер для записи
+     * @param offset смещение, с которого начинается запись
+     */
+    void write(T value, ByteBuffer target, int offset);
+
+    /**
+     * Восстанавливает объект из буфера.
+     *
+     * @param source буфер для чтения
+     * @param offset смещение закодированного представления
+     * @param length длина закодированного представления
+     * @return восстановленный объект
+     */
+    T read(ByteBuffer source, int offset, int length);
+}
@@ -0,0 +1,112 @@
+package org.example;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Стандартные реализации {@link Codec}.
+ */
+public final class Codecs {
+
+    /**
+     * Кодек Long: 8 байт.
+     */
+    public static final Codec<Long> LONG = new Codec<>() {
+        @Override
+        public int size(Long value) {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void write(Long value, ByteBuffer target, int offset) {
+            target.putLong(offset, value);
+        }
+
+        @Override
+        public Long read(ByteBuffer source, int offset, int length) {
+            return source.getLong(offset);
+        }
+    };
+
+    /**
+     * Кодек Integer: 4 байта.
+     */
+    public static final Codec<Integer> INTEGER = new Codec<>() {
+        @Override
+        public int size(Integer value) {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void write(Integer value, ByteBuffer target, int offset) {
+            target.putInt(offset, value);
+        }
+
+        @Override
+        public Integer read(ByteBuffer source, int offset, int length) {
+            return source.getInt(offset);
+        }
+    };
+
+    /**
+     * Кодек String в UTF-8. Кодирование выполняется без промежуточного массива байт.
+     */
+    public static final Codec<String> STRING = new Codec<>() {
+        @Override
+        public int size(String value) {
+            int length = 0;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    length += 1;
+                } else if (c < 0x800) {
+                    length += 2;
+                } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    length += 4;
+                    i++;
+                } else {
+                    length += 3;
+                }
+            }
+            return length;
+        }
+
+        @Override
+        public void write(String value, ByteBuffer target, int offset) {
+            int pos = offset;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    target.put(pos++, (byte) c);
+                } else if (c < 0x800) {
+                    target.put(pos++, (byte) (0xC0 | (c >> 6)));
+                    target.put(pos++, (byte) (0x80 | (c & 0x3F)));
+                } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, value.charAt(++i));
+                    target.put(pos++, (byte) (0xF0 | (cp >> 18)));
+                    target.put(pos++, (byte) (0x80 | ((cp >> 12) & 0x3F)));
+                    target.put(pos++, (byte) (0x80 | ((cp >> 6) & 0x3F)));
+                    target.put(pos++, (byte) (0x80 | (cp & 0x3F)));
+                } else {
+                    target.put(pos++, (byte) (0xE0 | (c >> 12)));
+                    target.put(pos++, (byte) (0x80 | ((c >> 6) & 0x3F)));
+                    target.put(pos++, (byte) (0x80 | (c & 0x3F)));
+                }
+            }
+        }
+
+        @Override
+        public String read(ByteBuffer source, int offset, int length) {
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = source.get(offset + i);
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    private Codecs() {
+    }
+}
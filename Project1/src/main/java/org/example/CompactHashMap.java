@@ -0,0 +1,686 @@
+package org.example;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Компактная реализация интерфейса Map с сохранением порядка вставки.
+ *
+ * <p>Пары хранятся в плотных параллельных массивах хэш-кодов, ключей и значений и
+ * добавляются в их конец, а для поиска используется отдельная разреженная таблица
+ * индексов типа int с линейным пробированием. Пустой слот таблицы стоит 4 байта,
+ * а не ссылку на корзину, и объект узла на пару не создается, поэтому карта занимает
+ * заметно меньше памяти, чем {@link MyHashMapImp}, особенно при низкой заполненности.
+ * Обход идет подряд по плотным массивам в порядке вставки и не просматривает пустые
+ * корзины.</p>
+ *
+ * <p>Удаление не сдвигает массивы: пара помечается удаленной, а ее слот в таблице
+ * индексов - пропускаемым при поиске. Удаленные пары убираются лениво, когда плотные
+ * массивы заполняются: оставшиеся пары переписываются подряд с сохранением порядка,
+ * а таблица индексов строится заново по сохраненным хэш-кодам. Емкость при этом
+ * выбирается по количеству живых пар, поэтому таблица может как вырасти, так и
+ * уменьшиться. Замена значения существующего ключа порядок не меняет.</p>
+ *
+ * <p>{@link #clone()} копирует четыре массива и не создает объектов на каждую пару.
+ * Поддерживает null в качестве ключей и значений.</p>
+ *
+ * @param <K> тип ключей, поддерживаемых этой картой
+ * @param <V> тип отображаемых значений
+ */
+public class CompactHashMap<K, V> extends AbstractMap<K, V> implements Cloneable {
+
+    private static final int DEFAULT_CAPACITY = 8;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * Слот таблицы индексов, освободившийся после удаления. Поиск проходит через него дальше.
+     */
+    private static final int DUMMY = -1;
+
+    /**
+     * Ключ удаленной пары в плотном массиве.
+     */
+    private static final Object TOMBSTONE = new Object();
+
+    /**
+     * Таблица индексов: 0 - пустой слот, DUMMY - удаленный, иначе номер пары + 1.
+     */
+    private int[] index;
+    private int[] hashes;
+    private Object[] keys;
+    private Object[] values;
+
+    /**
+     * Количество занятых позиций плотных массивов, включая удаленные пары.
+     */
+    private int used;
+    private int size;
+    private int modCount;
+
+    private Set<K> keySet;
+    private Collection<V> valuesView;
+    private Set<Entry<K, V>> entrySet;
+
+    /**
+     * Создает новую пустую карту с таблицей индексов по умолчанию (8 слотов, 6 пар).
+     */
+    public CompactHashMap() {
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Создает новую пустую карту, вмещающую указанное количество пар без перестройки.
+     *
+     * @param expectedSize ожидаемое количество пар
+     * @throws IllegalArgumentException если expectedSize отрицателен
+     */
+    public CompactHashMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Illegal expected size: " + expectedSize);
+        }
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Возвращает количество ключ-значение пар в этой карте.
+     *
+     * @return количество пар в карте
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Проверяет, пуста ли карта.
+     *
+     * @return true если карта не содержит пар, false в противном случае
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Проверяет, содержится ли указанный ключ в карте.
+     *
+     * @param key ключ для проверки
+     * @return true если карта содержит ключ, false в противном случае
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return findSlot(key, MyHashMapImp.getHashCode(key)) >= 0;
+    }
+
+    /**
+     * Проверяет, содержится ли указанное значение в карте.
+     * Просматривает плотный массив значений последовательно.
+     *
+     * @param value значение для проверки
+     * @return true если карта содержит значение, false в противном случае
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        for (int i = 0; i < used; i++) {
+            if (keys[i] != TOMBSTONE && Objects.equals(value, values[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Возвращает значение, связанное с указанным ключом.
+     *
+     * @param key ключ, значение которого нужно получить
+     * @return значение, связанное с ключом, или null если ключ не найден
+     */
+    @Override
+    public V get(Object key) {
+        return getOrDefault(key, null);
+    }
+
+    /**
+     * Возвращает значение, связанное с ключом, или значение по умолчанию.
+     *
+     * @param key          ключ, значение которого нужно получить
+     * @param defaultValue значение по умолчанию
+     * @return значение ключа (в том числе null) или defaultValue если ключа нет
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(Object key, V defaultValue) {
+        int slot = findSlot(key, MyHashMapImp.getHashCode(key));
+        return slot < 0 ? defaultValue : (V) values[index[slot] - 1];
+    }
+
+    /**
+     * Связывает указанное значение с указанным ключом в этой карте.
+     * Новая пара добавляется в конец порядка обхода.
+     *
+     * @param key   ключ для связи со значением
+     * @param value значение для связи с ключом
+     * @return предыдущее значение, связанное с ключом, или null если ключ не существовал
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        int hash = MyHashMapImp.getHashCode(key);
+        int slot = findSlot(key, hash);
+        if (slot >= 0) {
+            int entry = index[slot] - 1;
+            V resVal = (V) values[entry];
+            values[entry] = value;
+            return resVal;
+        }
+        if (used == keys.length) {
+            rebuild(capacityFor(Math.max(size + 1, size * 2)));
+        }
+        hashes[used] = hash;
+        keys[used] = key;
+        values[used] = value;
+        index[findFreeSlot(hash)] = ++used;
+        size++;
+        modCount++;
+        return null;
+    }
+
+    /**
+     * Удаляет пару ключ-значение для указанного ключа.
+     * Место пары в плотных массивах освобождается при следующей перестройке.
+     *
+     * @param key ключ, который нужно удалить
+     * @return значение, связанное с удаленным ключом, или null если ключ не найден
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        int slot = findSlot(key, MyHashMapImp.getHashCode(key));
+        if (slot < 0) {
+            return null;
+        }
+        V resVal = (V) values[index[slot] - 1];
+        removeAt(slot);
+        return resVal;
+    }
+
+    /**
+     * Удаляет все пары ключ-значение из карты. Емкость сохраняется.
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(index, 0);
+        Arrays.fill(keys, 0, used, null);
+        Arrays.fill(values, 0, used, null);
+        used = 0;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Передает все пары обработчику в порядке вставки.
+     *
+     * @param action обработчик пар
+     * @throws ConcurrentModificationException если карта изменилась во время обхода
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        Object[] k = keys;
+        Object[] v = values;
+        for (int i = 0; i < used; i++) {
+            if (k[i] != TOMBSTONE) {
+                action.accept((K) k[i], (V) v[i]);
+            }
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Возвращает множество ключей в порядке вставки.
+     *
+     * @return множество ключей карты
+     */
+    @Override
+    public Set<K> keySet() {
+        Set<K> set = keySet;
+        if (set == null) {
+            set = new AbstractSet<K>() {
+                @Override
+                public Iterator<K> iterator() {
+                    return new DenseIterator<K>() {
+                        @Override
+                        @SuppressWarnings("unchecked")
+                        K element(int entry) {
+                            return (K) keys[entry];
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    return containsKey(o);
+                }
+
+                @Override
+                public boolean remove(Object o) {
+                    int slot = findSlot(o, MyHashMapImp.getHashCode(o));
+                    if (slot < 0) {
+                        return false;
+                    }
+                    removeAt(slot);
+                    return true;
+                }
+
+                @Override
+                public void clear() {
+                    CompactHashMap.this.clear();
+                }
+            };
+            keySet = set;
+        }
+        return set;
+    }
+
+    /**
+     * Возвращает коллекцию значений в порядке вставки их ключей.
+     *
+     * @return коллекция значений карты
+     */
+    @Override
+    public Collection<V> values() {
+        Collection<V> collection = valuesView;
+        if (collection == null) {
+            collection = new AbstractCollection<V>() {
+                @Override
+                public Iterator<V> iterator() {
+                    return new DenseIterator<V>() {
+                        @Override
+                        @SuppressWarnings("unchecked")
+                        V element(int entry) {
+                            return (V) values[entry];
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    return containsValue(o);
+                }
+
+                @Override
+                public void clear() {
+                    CompactHashMap.this.clear();
+                }
+            };
+            valuesView = collection;
+        }
+        return collection;
+    }
+
+    /**
+     * Возвращает множество пар ключ-значение в порядке вставки.
+     *
+     * @return множество пар ключ-значение карты
+     */
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        Set<Entry<K, V>> set = entrySet;
+        if (set == null) {
+            set = new AbstractSet<Entry<K, V>>() {
+                @Override
+                public Iterator<Entry<K, V>> iterator() {
+                    return new DenseIterator<Entry<K, V>>() {
+                        @Override
+                        Entry<K, V> element(int entry) {
+                            return new DenseEntry(entry);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    if (!(o instanceof Entry)) {
+                        return false;
+                    }
+                    Entry<?, ?> e = (Entry<?, ?>) o;
+                    int slot = findSlot(e.getKey(), MyHashMapImp.getHashCode(e.getKey()));
+                    return slot >= 0 && Objects.equals(values[index[slot] - 1], e.getValue());
+                }
+
+                @Override
+                public boolean remove(Object o) {
+                    if (!contains(o)) {
+                        return false;
+                    }
+                    Object key = ((Entry<?, ?>) o).getKey();
+                    removeAt(findSlot(key, MyHashMapImp.getHashCode(key)));
+                    return true;
+                }
+
+                @Override
+                public void clear() {
+                    CompactHashMap.this.clear();
+                }
+            };
+            entrySet = set;
+        }
+        return set;
+    }
+
+    /**
+     * Создает независимую копию карты с тем же порядком обхода.
+     * Копируются только массивы, ключи и значения не клонируются.
+     *
+     * @return копия карты
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public CompactHashMap<K, V> clone() {
+        CompactHashMap<K, V> copy;
+        try {
+            copy = (CompactHashMap<K, V>) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+        copy.index = index.clone();
+        copy.hashes = hashes.clone();
+        copy.keys = keys.clone();
+        copy.values = values.clone();
+        copy.modCount = 0;
+        copy.keySet = null;
+        copy.valuesView = null;
+        copy.entrySet = null;
+        return copy;
+    }
+
+    /**
+     * Возвращает количество позиций плотных массивов.
+     * Используется для тестирования перестройки.
+     *
+     * @return емкость плотных массивов
+     */
+    public int getTableSize() {
+        return keys.length;
+    }
+
+    /**
+     * Возвращает количество удаленных пар, еще не убранных перестройкой.
+     * Используется для тестирования ленивого уплотнения.
+     *
+     * @return количество удаленных пар в плотных массивах
+     */
+    int getDeletedCount() {
+        return used - size;
+    }
+
+    /**
+     * Находит слот таблицы индексов, указывающий на пару с ключом.
+     *
+     * @param key  ключ для поиска
+     * @param hash хэш-код ключа
+     * @return номер слота или -1 если ключ не найден
+     */
+    private int findSlot(Object key, int hash) {
+        int mask = index.length - 1;
+        int slot = hash & mask;
+        int i;
+        while ((i = index[slot]) != 0) {
+            if (i > 0 && hashes[i - 1] == hash) {
+                Object k = keys[i - 1];
+                if (k == key || (key != null && key.equals(k))) {
+                    return slot;
+                }
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Находит первый пустой или удаленный слот таблицы индексов на пути пробы.
+     *
+     * @param hash хэш-код ключа
+     * @return номер слота
+     */
+    private int findFreeSlot(int hash) {
+        int mask = index.length - 1;
+        int slot = hash & mask;
+        while (index[slot] > 0) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Удаляет пару, на которую указывает слот таблицы индексов.
+     *
+     * @param slot номер слота таблицы индексов
+     */
+    private void removeAt(int slot) {
+        int entry = index[slot] - 1;
+        index[slot] = DUMMY;
+        keys[entry] = TOMBSTONE;
+        values[entry] = null;
+        size--;
+        modCount++;
+    }
+
+    /**
+     * Удаляет пару по ее позиции в плотных массивах.
+     *
+     * @param entry позиция живой пары
+     */
+    private void removeEntry(int entry) {
+        int mask = index.length - 1;
+        int slot = hashes[entry] & mask;
+        while (index[slot] != entry + 1) {
+            slot = (slot + 1) & mask;
+        }
+        removeAt(slot);
+    }
+
+    /**
+     * Выбирает размер таблицы индексов: наименьшую степень двойки, 3/4 которой
+     * вмещают указанное количество пар.
+     *
+     * @param expectedSize требуемое количество пар
+     * @return количество слотов таблицы индексов
+     * @throws IllegalStateException если пары не помещаются в таблицу
+     */
+    private static int capacityFor(int expectedSize) {
+        int tableSize = DEFAULT_CAPACITY;
+        while (tableSize / 4 * 3 < expectedSize) {
+            if (tableSize == MAXIMUM_CAPACITY) {
+                throw new IllegalStateException("Hash table is full");
+            }
+            tableSize <<= 1;
+        }
+        return tableSize;
+    }
+
+    /**
+     * Уплотняет пары с сохранением порядка и заново строит таблицу индексов.
+     *
+     * @param tableSize новый размер таблицы индексов, степень двойки
+     */
+    private void rebuild(int tableSize) {
+        int[] oldHashes = hashes;
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int oldUsed = used;
+        allocate(tableSize);
+        int mask = index.length - 1;
+        for (int i = 0; i < oldUsed; i++) {
+            if (oldKeys[i] != TOMBSTONE) {
+                int hash = oldHashes[i];
+                hashes[used] = hash;
+                keys[used] = oldKeys[i];
+                values[used] = oldValues[i];
+                int slot = hash & mask;
+                while (index[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                index[slot] = ++used;
+            }
+        }
+        modCount++;
+    }
+
+    /**
+     * Создает пустую таблицу индексов и плотные массивы на 3/4 ее размера.
+     * Так в таблице всегда остаются пустые слоты, даже если все пары удалены.
+     *
+     * @param tableSize размер таблицы индексов, степень двойки
+     */
+    private void allocate(int tableSize) {
+        int capacity = tableSize / 4 * 3;
+        index = new int[tableSize];
+        hashes = new int[capacity];
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        used = 0;
+    }
+
+    /**
+     * Итератор по живым парам плотных массивов в порядке вставки.
+     * Удаление через итератор не сдвигает пары, поэтому позиция обхода остается верной.
+     *
+     * @param <E> тип возвращаемых элементов
+     */
+    private abstract class DenseIterator<E> implements Iterator<E> {
+        private int next = advance(0);
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        /**
+         * Возвращает элемент для позиции живой пары.
+         *
+         * @param entry позиция пары в плотных массивах
+         * @return элемент итерации
+         */
+        abstract E element(int entry);
+
+        private int advance(int from) {
+            int i = from;
+            while (i < used && keys[i] == TOMBSTONE) {
+                i++;
+            }
+            return i;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < used;
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next >= used) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            next = advance(next + 1);
+            return element(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeEntry(last);
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    /**
+     * Представление пары ключ-значение, запомненной итератором.
+     * Изменение значения записывается обратно в карту.
+     */
+    private final class DenseEntry implements Entry<K, V> {
+        private final K key;
+        private V value;
+
+        @SuppressWarnings("unchecked")
+        DenseEntry(int entry) {
+            this.key = (K) keys[entry];
+            this.value = (V) values[entry];
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V newValue) {
+            V oldValue = value;
+            value = newValue;
+            int slot = findSlot(key, MyHashMapImp.getHashCode(key));
+            if (slot >= 0) {
+                values[index[slot] - 1] = newValue;
+            }
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            return Objects.equals(key, e.getKey()) && Objects.equals(value, e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+}
@@ -0,0 +1,1282 @@
+package org.example;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Потокобезопасная реализация {@link ConcurrentMap} на основе той же хэш-таблицы
+ * с методом цепочек, что и {@link MyHashMapImp}.
+ *
+ * <p>Чтение не берет блокировок: массив корзин читается через volatile-доступ,
+ * а поля узлов, которые меняются после публикации ({@code value} и {@code next}),
+ * объявлены volatile. Запись в пустую корзину выполняется одной операцией CAS,
+ * запись в непустую - под монитором первого узла корзины, поэтому потоки,
+ * пишущие в разные корзины, не мешают друг другу.</p>
+ *
+ * <p>Изменение размера кооперативное: поток, заметивший превышение порога, создает
+ * таблицу вдвое большего размера и переносит корзины диапазонами. Другие потоки,
+ * встретившие перенесенную корзину ({@link ForwardingNode}), берут себе следующие
+ * диапазоны и помогают закончить перенос, а чтение сразу продолжается в новой таблице.</p>
+ *
+ * <p>Операции {@link #putIfAbsent}, {@link #computeIfAbsent}, {@link #computeIfPresent},
+ * {@link #compute} и {@link #merge} атомарны: функция вызывается не более одного раза
+ * под монитором корзины. Функция не должна изменять эту карту.</p>
+ *
+ * <p>В отличие от {@link MyHashMapImp}, ключи и значения null не поддерживаются,
+ * как и в {@link java.util.concurrent.ConcurrentHashMap}: иначе нельзя отличить
+ * отсутствующий ключ от ключа со значением null без блокировки.
+ * Итераторы слабо согласованы: не выбрасывают ConcurrentModificationException
+ * и отражают состояние карты на момент обхода каждой корзины.</p>
+ *
+ * @param <K> тип ключей, поддерживаемых этой картой
+ * @param <V> тип отображаемых значений
+ */
+public class ConcurrentMyHashMap<K, V> implements ConcurrentMap<K, V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private static final double LOAD_FACTOR = 0.8;
+
+    /**
+     * Хэш-код служебного узла перенесенной корзины.
+     */
+    private static final int MOVED = -1;
+
+    /**
+     * Хэш-код служебного узла, резервирующего пустую корзину на время вычисления.
+     */
+    private static final int RESERVED = -2;
+
+    /**
+     * Маска, оставляющая хэш-коды обычных узлов неотрицательными.
+     */
+    private static final int HASH_BITS = 0x7fffffff;
+
+    /**
+     * Минимальное количество корзин, переносимых потоком за один захват диапазона.
+     */
+    private static final int MIN_TRANSFER_STRIDE = 16;
+
+    private static final int RESIZE_STAMP_BITS = 16;
+    private static final int RESIZE_STAMP_SHIFT = 32 - RESIZE_STAMP_BITS;
+    private static final int MAX_RESIZERS = (1 << (32 - RESIZE_STAMP_BITS)) - 1;
+
+    private static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    private static final VarHandle TABLE_ELEMENT = MethodHandles.arrayElementVarHandle(Node[].class);
+    private static final VarHandle SIZE_CTL;
+    private static final VarHandle TRANSFER_INDEX;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            SIZE_CTL = lookup.findVarHandle(ConcurrentMyHashMap.class, "sizeCtl", int.class);
+            TRANSFER_INDEX = lookup.findVarHandle(ConcurrentMyHashMap.class, "transferIndex", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile Node<K, V>[] table;
+
+    /**
+     * Новая таблица во время переноса, иначе null.
+     */
+    private volatile Node<K, V>[] nextTable;
+
+    /**
+     * Управляющее поле таблицы: до создания таблицы - ее начальная емкость,
+     * -1 - таблица создается, другое отрицательное значение - идет перенос
+     * (старшие биты - метка размера, младшие - число переносящих потоков плюс один),
+     * иначе - порог следующего изменения размера.
+     */
+    private volatile int sizeCtl;
+
+    /**
+     * Граница еще не распределенных между потоками корзин старой таблицы при переносе.
+     */
+    private volatile int transferIndex;
+
+    private final LongAdder counter = new LongAdder();
+
+    private Set<K> keySet;
+    private Collection<V> values;
+    private Set<Entry<K, V>> entrySet;
+
+    /**
+     * Создает новую пустую карту с начальной емкостью по умолчанию (16).
+     */
+    public ConcurrentMyHashMap() {
+    }
+
+    /**
+     * Создает новую пустую карту, вмещающую указанное количество пар без изменения размера.
+     *
+     * @param initialCapacity ожидаемое количество пар
+     * @throws IllegalArgumentException если initialCapacity отрицательна
+     */
+    public ConcurrentMyHashMap(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
+        }
+        sizeCtl = tableSizeFor((int) Math.min(MAXIMUM_CAPACITY, (long) (initialCapacity / LOAD_FACTOR) + 1));
+    }
+
+    /**
+     * Возвращает количество ключ-значение пар в этой карте.
+     * При одновременных изменениях значение приблизительное.
+     *
+     * @return количество пар в карте
+     */
+    @Override
+    public int size() {
+        long n = counter.sum();
+        return n < 0 ? 0 : (n > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) n);
+    }
+
+    /**
+     * Проверяет, пуста ли карта.
+     *
+     * @return true если карта не содержит пар, false в противном случае
+     */
+    @Override
+    public boolean isEmpty() {
+        return counter.sum() <= 0;
+    }
+
+    /**
+     * Проверяет, содержится ли указанный ключ в карте.
+     *
+     * @param key ключ для проверки
+     * @return true если карта содержит ключ, false в противном случае
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Проверяет, содержится ли указанное значение в карте.
+     * Требует полного обхода таблицы.
+     *
+     * @param value значение для проверки
+     * @return true если карта содержит значение, false в противном случае
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        Objects.requireNonNull(value);
+        Traverser<K, V> it = new Traverser<>(table);
+        for (Node<K, V> p = it.advance(); p != null; p = it.advance()) {
+            V v = p.value;
+            if (v == value || value.equals(v)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Возвращает значение, связанное с указанным ключом. Не берет блокировок.
+     *
+     * @param key ключ, значение которого нужно получить
+     * @return значение, связанное с ключом, или null если ключ не найден
+     */
+    @Override
+    public V get(Object key) {
+        int h = spread(key);
+        Node<K, V>[] tab = table;
+        if (tab == null) {
+            return null;
+        }
+        Node<K, V> e = tabAt(tab, (tab.length - 1) & h);
+        if (e == null) {
+            return null;
+        }
+        if (e.hash < 0) {
+            Node<K, V> p = e.find(h, key);
+            return p == null ? null : p.value;
+        }
+        for (; e != null; e = e.next) {
+            if (e.hash == h && (e.key == key || key.equals(e.key))) {
+                return e.value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Возвращает значение ключа или значение по умолчанию, если ключа нет.
+     *
+     * @param key          ключ
+     * @param defaultValue значение по умолчанию
+     * @return значение ключа или defaultValue
+     */
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        V v = get(key);
+        return v == null ? defaultValue : v;
+    }
+
+    /**
+     * Связывает указанное значение с указанным ключом в этой карте.
+     *
+     * @param key   ключ для связи со значением
+     * @param value значение для связи с ключом
+     * @return предыдущее значение, связанное с ключом, или null если ключ не существовал
+     */
+    @Override
+    public V put(K key, V value) {
+        return putVal(key, value, false);
+    }
+
+    /**
+     * Атомарно добавляет пару, если ключа еще нет.
+     *
+     * @param key   ключ
+     * @param value значение
+     * @return текущее значение ключа или null если пара была добавлена
+     */
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return putVal(key, value, true);
+    }
+
+    /**
+     * Удаляет пару ключ-значение для указанного ключа.
+     *
+     * @param key ключ, который нужно удалить
+     * @return значение, связанное с удаленным ключом, или null если ключ не найден
+     */
+    @Override
+    public V remove(Object key) {
+        return replaceNode(key, null, null);
+    }
+
+    /**
+     * Атомарно удаляет пару, если ключ связан с указанным значением.
+     *
+     * @param key   ключ
+     * @param value ожидаемое значение
+     * @return true если пара была удалена
+     */
+    @Override
+    public boolean remove(Object key, Object value) {
+        Objects.requireNonNull(key);
+        return value != null && replaceNode(key, null, value) != null;
+    }
+
+    /**
+     * Атомарно заменяет значение, если ключ связан с ожидаемым значением.
+     *
+     * @param key      ключ
+     * @param oldValue ожидаемое значение
+     * @param newValue новое значение
+     * @return true если значение было заменено
+     */
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(oldValue);
+        Objects.requireNonNull(newValue);
+        return replaceNode(key, newValue, oldValue) != null;
+    }
+
+    /**
+     * Атомарно заменяет значение, если ключ присутствует.
+     *
+     * @param key   ключ
+     * @param value новое значение
+     * @return предыдущее значение или null если ключа не было
+     */
+    @Override
+    public V replace(K key, V value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        return replaceNode(key, value, null);
+    }
+
+    /**
+     * Копирует все пары ключ-значение из указанной карты в эту карту.
+     *
+     * @param m карта, пары которой будут скопированы
+     */
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        for (Entry<? extends K, ? extends V> e : m.entrySet()) {
+            putVal(e.getKey(), e.getValue(), false);
+        }
+    }
+
+    /**
+     * Удаляет все пары ключ-значение из карты.
+     * Корзины очищаются по одной, поэтому одновременные вставки могут сохраниться.
+     */
+    @Override
+    public void clear() {
+        long delta = 0L;
+        int i = 0;
+        Node<K, V>[] tab = table;
+        while (tab != null && i < tab.length) {
+            Node<K, V> f = tabAt(tab, i);
+            if (f == null) {
+                ++i;
+            } else if (f.hash == MOVED) {
+                tab = helpTransfer(tab, f);
+                i = 0;
+            } else {
+                synchronized (f) {
+                    if (tabAt(tab, i) == f) {
+                        for (Node<K, V> p = f.hash >= 0 ? f : null; p != null; p = p.next) {
+                            --delta;
+                        }
+                        setTabAt(tab, i++, null);
+                    }
+                }
+            }
+        }
+        if (delta != 0L) {
+            counter.add(delta);
+        }
+    }
+
+    /**
+     * Атомарно вычисляет значение для отсутствующего ключа.
+     * Если ключ уже есть, возвращает его значение без блокировки.
+     *
+     * @param key             ключ
+     * @param mappingFunction функция вычисления значения
+     * @return текущее или вычисленное значение, либо null если функция вернула null
+     */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+        V v = get(key);
+        if (v != null) {
+            return v;
+        }
+        return remap(key, (k, old) -> old != null ? old : mappingFunction.apply(k));
+    }
+
+    /**
+     * Атомарно пересчитывает значение присутствующего ключа.
+     *
+     * @param key               ключ
+     * @param remappingFunction функция вычисления нового значения; null удаляет пару
+     * @return новое значение или null
+     */
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        return remap(key, (k, old) -> old == null ? null : remappingFunction.apply(k, old));
+    }
+
+    /**
+     * Атомарно вычисляет новое значение ключа.
+     *
+     * @param key               ключ
+     * @param remappingFunction функция от ключа и текущего значения (null если ключа нет);
+     *                          null удаляет пару
+     * @return новое значение или null
+     */
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        return remap(key, remappingFunction);
+    }
+
+    /**
+     * Атомарно объединяет значение с текущим значением ключа.
+     *
+     * @param key               ключ
+     * @param value             значение для отсутствующего ключа
+     * @param remappingFunction функция объединения текущего и нового значения;
+     *                          null удаляет пару
+     * @return новое значение или null
+     */
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(value);
+        Objects.requireNonNull(remappingFunction);
+        return remap(key, (k, old) -> old == null ? value : remappingFunction.apply(old, value));
+    }
+
+    /**
+     * Передает все пары карты указанному обработчику без создания объектов на пару.
+     *
+     * @param action обработчик пар
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        Traverser<K, V> it = new Traverser<>(table);
+        for (Node<K, V> p = it.advance(); p != null; p = it.advance()) {
+            action.accept(p.key, p.value);
+        }
+    }
+
+    /**
+     * Возвращает множество всех ключей, содержащихся в этой карте.
+     * Множество является слабо согласованным представлением карты.
+     *
+     * @return множество ключей карты
+     */
+    @Override
+    public Set<K> keySet() {
+        Set<K> keys = keySet;
+        if (keys == null) {
+            keys = new KeySet();
+            keySet = keys;
+        }
+        return keys;
+    }
+
+    /**
+     * Возвращает коллекцию всех значений, содержащихся в этой карте.
+     *
+     * @return коллекция значений карты
+     */
+    @Override
+    public Collection<V> values() {
+        Collection<V> vals = values;
+        if (vals == null) {
+            vals = new Values();
+            values = vals;
+        }
+        return vals;
+    }
+
+    /**
+     * Возвращает множество всех пар ключ-значение, содержащихся в этой карте.
+     * {@link Entry#setValue(Object)} записывает значение в карту через {@link #put}.
+     *
+     * @return множество пар ключ-значение карты
+     */
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        Set<Entry<K, V>> entries = entrySet;
+        if (entries == null) {
+            entries = new EntrySet();
+            entrySet = entries;
+        }
+        return entries;
+    }
+
+    /**
+     * Возвращает текущий размер внутренней таблицы.
+     * Используется для тестирования изменения размера.
+     *
+     * @return текущий размер внутренней таблицы или 0, если таблица еще не создана
+     */
+    public int getTableSize() {
+        Node<K, V>[] tab = table;
+        return tab == null ? 0 : tab.length;
+    }
+
+    /**
+     * Вычисляет неотрицательный хэш-код ключа тем же перемешиванием, что и в {@link MyHashMapImp}.
+     *
+     * @param key ключ, не null
+     * @return хэш-код ключа
+     */
+    private static int spread(Object key) {
+        return MyHashMapImp.getHashCode(Objects.requireNonNull(key)) & HASH_BITS;
+    }
+
+    private static int tableSizeFor(int c) {
+        int n = -1 >>> Integer.numberOfLeadingZeros(Math.max(c, DEFAULT_CAPACITY) - 1);
+        return n >= MAXIMUM_CAPACITY ? MAXIMUM_CAPACITY : n + 1;
+    }
+
+    private static int threshold(int n) {
+        return (int) (n * LOAD_FACTOR);
+    }
+
+    /**
+     * Метка размера таблицы, по которой потоки узнают, что участвуют в одном переносе.
+     *
+     * @param n размер старой таблицы
+     * @return метка размера
+     */
+    private static int resizeStamp(int n) {
+        return Integer.numberOfLeadingZeros(n) | (1 << (RESIZE_STAMP_BITS - 1));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Node<K, V> tabAt(Node<K, V>[] tab, int i) {
+        return (Node<K, V>) TABLE_ELEMENT.getVolatile(tab, i);
+    }
+
+    private static <K, V> boolean casTabAt(Node<K, V>[] tab, int i, Node<K, V> expected, Node<K, V> node) {
+        return TABLE_ELEMENT.compareAndSet(tab, i, expected, node);
+    }
+
+    private static <K, V> void setTabAt(Node<K, V>[] tab, int i, Node<K, V> node) {
+        TABLE_ELEMENT.setVolatile(tab, i, node);
+    }
+
+    /**
+     * Создает таблицу при первой вставке. Только один поток создает таблицу,
+     * остальные ждут ее публикации.
+     *
+     * @return созданная таблица
+     */
+    @SuppressWarnings("unchecked")
+    private Node<K, V>[] initTable() {
+        Node<K, V>[] tab;
+        int sc;
+        while ((tab = table) == null) {
+            if ((sc = sizeCtl) < 0) {
+                Thread.yield();
+            } else if (SIZE_CTL.compareAndSet(this, sc, -1)) {
+                try {
+                    if ((tab = table) == null) {
+                        int n = sc > 0 ? sc : DEFAULT_CAPACITY;
+                        tab = (Node<K, V>[]) new Node<?, ?>[n];
+                        table = tab;
+                        sc = threshold(n);
+                    }
+                } finally {
+                    sizeCtl = sc;
+                }
+                break;
+            }
+        }
+        return tab;
+    }
+
+    /**
+     * Реализация put и putIfAbsent.
+     *
+     * @param key          ключ
+     * @param value        значение
+     * @param onlyIfAbsent true чтобы не заменять существующее значение
+     * @return предыдущее значение или null
+     */
+    private V putVal(K key, V value, boolean onlyIfAbsent) {
+        Objects.requireNonNull(value);
+        int hash = spread(key);
+        int binCount = 0;
+        for (Node<K, V>[] tab = table; ; ) {
+            Node<K, V> f;
+            int i;
+            if (tab == null) {
+                tab = initTable();
+            } else if ((f = tabAt(tab, i = (tab.length - 1) & hash)) == null) {
+                if (casTabAt(tab, i, null, new Node<>(hash, key, value, null))) {
+                    break;
+                }
+            } else if (f.hash == MOVED) {
+                tab = helpTransfer(tab, f);
+            } else if (onlyIfAbsent && f.hash == hash && (f.key == key || key.equals(f.key))) {
+                return f.value;
+            } else {
+                V oldVal = null;
+                synchronized (f) {
+                    if (tabAt(tab, i) == f && f.hash >= 0) {
+                        binCount = 1;
+                        for (Node<K, V> e = f; ; ++binCount) {
+                            if (e.hash == hash && (e.key == key || key.equals(e.key))) {
+                                oldVal = e.value;
+                                if (!onlyIfAbsent) {
+                                    e.value = value;
+                                }
+                                break;
+                            }
+                            Node<K, V> pred = e;
+                            if ((e = e.next) == null) {
+                                pred.next = new Node<>(hash, key, value, null);
+                                break;
+                            }
+                        }
+                    }
+                }
+                if (binCount != 0) {
+                    if (oldVal != null) {
+                        return oldVal;
+                    }
+                    break;
+                }
+            }
+        }
+        addCount(1L, binCount);
+        return null;
+    }
+
+    /**
+     * Реализация remove, remove(key, value) и replace.
+     *
+     * @param key   ключ
+     * @param value новое значение или null для удаления
+     * @param cv    ожидаемое текущее значение или null, если подходит любое
+     * @return предыдущее значение или null, если ничего не изменилось
+     */
+    private V replaceNode(Object key, V value, Object cv) {
+        int hash = spread(key);
+        for (Node<K, V>[] tab = table; ; ) {
+            Node<K, V> f;
+            int i;
+            if (tab == null || (f = tabAt(tab, i = (tab.length - 1) & hash)) == null) {
+                return null;
+            }
+            if (f.hash == MOVED) {
+                tab = helpTransfer(tab, f);
+                continue;
+            }
+            V oldVal = null;
+            boolean validated = false;
+            synchronized (f) {
+                if (tabAt(tab, i) == f && f.hash >= 0) {
+                    validated = true;
+                    for (Node<K, V> e = f, pred = null; e != null; pred = e, e = e.next) {
+                        if (e.hash == hash && (e.key == key || key.equals(e.key))) {
+                            V ev = e.value;
+                            if (cv == null || cv == ev || cv.equals(ev)) {
+                                oldVal = ev;
+                                if (value != null) {
+                                    e.value = value;
+                                } else if (pred != null) {
+                                    pred.next = e.next;
+                                } else {
+                                    setTabAt(tab, i, e.next);
+                                }
+                            }
+                            break;
+                        }
+                    }
+                }
+            }
+            if (validated) {
+                if (oldVal != null && value == null) {
+                    addCount(-1L, -1);
+                }
+                return oldVal;
+            }
+        }
+    }
+
+    /**
+     * Общая реализация compute-операций: атомарно заменяет значение ключа
+     * результатом функции. Функция вызывается один раз под монитором корзины;
+     * для пустой корзины монитором служит временный {@link ReservationNode}.
+     *
+     * @param key ключ
+     * @param fn  функция от ключа и текущего значения (null если ключа нет),
+     *            возвращает новое значение или null для удаления
+     * @return новое значение или null
+     */
+    private V remap(K key, BiFunction<? super K, ? super V, ? extends V> fn) {
+        int hash = spread(key);
+        V val = null;
+        int delta = 0;
+        int binCount = 0;
+        for (Node<K, V>[] tab = table; ; ) {
+            Node<K, V> f;
+            int i;
+            if (tab == null) {
+                tab = initTable();
+            } else if ((f = tabAt(tab, i = (tab.length - 1) & hash)) == null) {
+                Node<K, V> r = new ReservationNode<>();
+                synchronized (r) {
+                    if (casTabAt(tab, i, null, r)) {
+                        binCount = 1;
+                        Node<K, V> node = null;
+                        try {
+                            if ((val = fn.apply(key, null)) != null) {
+                                delta = 1;
+                                node = new Node<>(hash, key, val, null);
+                            }
+                        } finally {
+                            setTabAt(tab, i, node);
+                        }
+                    }
+                }
+                if (binCount != 0) {
+                    break;
+                }
+            } else if (f.hash == MOVED) {
+                tab = helpTransfer(tab, f);
+            } else {
+                synchronized (f) {
+                    if (tabAt(tab, i) == f) {
+                        if (f.hash < 0) {
+                            throw new IllegalStateException("Recursive update");
+                        }
+                        binCount = 1;
+                        for (Node<K, V> e = f, pred = null; ; ++binCount) {
+                            if (e.hash == hash && (e.key == key || key.equals(e.key))) {
+                                V old = e.value;
+                                val = fn.apply(key, old);
+                                if (val == null) {
+                                    delta = -1;
+                                    if (pred != null) {
+                                        pred.next = e.next;
+                                    } else {
+                                        setTabAt(tab, i, e.next);
+                                    }
+                                } else if (val != old) {
+                                    e.value = val;
+                                }
+                                break;
+                            }
+                            pred = e;
+                            if ((e = e.next) == null) {
+                                val = fn.apply(key, null);
+                                if (val != null) {
+                                    delta = 1;
+                                    pred.next = new Node<>(hash, key, val, null);
+                                }
+                                break;
+                            }
+                        }
+                    }
+                }
+                if (binCount != 0) {
+                    break;
+                }
+            }
+        }
+        if (delta != 0) {
+            addCount(delta, binCount);
+        }
+        return val;
+    }
+
+    /**
+     * Изменяет счетчик пар и после вставки запускает перенос или присоединяется
+     * к нему, если порог превышен.
+     *
+     * @param x     изменение количества пар
+     * @param check длина цепочки при вставке или -1, если проверять порог не нужно
+     */
+    private void addCount(long x, int check) {
+        counter.add(x);
+        if (check < 0) {
+            return;
+        }
+        long s = counter.sum();
+        Node<K, V>[] tab;
+        Node<K, V>[] nt;
+        int n;
+        int sc;
+        while (s >= (long) (sc = sizeCtl) && (tab = table) != null && (n = tab.length) < MAXIMUM_CAPACITY) {
+            int rs = resizeStamp(n) << RESIZE_STAMP_SHIFT;
+            if (sc < 0) {
+                if (sc == rs + MAX_RESIZERS || sc == rs + 1 || (nt = nextTable) == null || transferIndex <= 0) {
+                    break;
+                }
+                if (SIZE_CTL.compareAndSet(this, sc, sc + 1)) {
+                    transfer(tab, nt);
+                }
+            } else if (SIZE_CTL.compareAndSet(this, sc, rs + 2)) {
+                transfer(tab, null);
+            }
+            s = counter.sum();
+        }
+    }
+
+    /**
+     * Помогает завершить перенос, встретив перенесенную корзину.
+     *
+     * @param tab таблица, в которой найдена корзина
+     * @param f   узел перенесенной корзины
+     * @return таблица, в которой нужно повторить операцию
+     */
+    private Node<K, V>[] helpTransfer(Node<K, V>[] tab, Node<K, V> f) {
+        Node<K, V>[] nextTab;
+        int sc;
+        if (tab != null && f instanceof ForwardingNode
+                && (nextTab = ((ForwardingNode<K, V>) f).nextTable) != null) {
+            int rs = resizeStamp(tab.length) << RESIZE_STAMP_SHIFT;
+            while (nextTab == nextTable && table == tab && (sc = sizeCtl) < 0) {
+                if (sc == rs + MAX_RESIZERS || sc == rs + 1 || transferIndex <= 0) {
+                    break;
+                }
+                if (SIZE_CTL.compareAndSet(this, sc, sc + 1)) {
+                    transfer(tab, nextTab);
+                    break;
+                }
+            }
+            return nextTab;
+        }
+        return table;
+    }
+
+    /**
+     * Переносит корзины старой таблицы в новую. Потоки по очереди забирают диапазоны
+     * корзин с конца таблицы; последний закончивший поток публикует новую таблицу.
+     * Перенесенная корзина заменяется {@link ForwardingNode}.
+     *
+     * <p>Узлы цепочки делятся на две части по следующему биту хэш-кода. Хвост цепочки,
+     * целиком попадающий в одну часть, переиспользуется, остальные узлы копируются:
+     * читатели могут в этот момент обходить старую цепочку, и ее ссылки менять нельзя.</p>
+     *
+     * @param tab     старая таблица
+     * @param nextTab новая таблица или null, если перенос только начинается
+     */
+    @SuppressWarnings("unchecked")
+    private void transfer(Node<K, V>[] tab, Node<K, V>[] nextTab) {
+        int n = tab.length;
+        int stride = NCPU > 1 ? (n >>> 3) / NCPU : n;
+        if (stride < MIN_TRANSFER_STRIDE) {
+            stride = MIN_TRANSFER_STRIDE;
+        }
+        if (nextTab == null) {
+            nextTab = (Node<K, V>[]) new Node<?, ?>[n << 1];
+            nextTable = nextTab;
+            transferIndex = n;
+        }
+        int nextn = nextTab.length;
+        ForwardingNode<K, V> fwd = new ForwardingNode<>(nextTab);
+        boolean advance = true;
+        boolean finishing = false;
+        for (int i = 0, bound = 0; ; ) {
+            while (advance) {
+                int nextIndex;
+                int nextBound;
+                if (--i >= bound || finishing) {
+                    advance = false;
+                } else if ((nextIndex = transferIndex) <= 0) {
+                    i = -1;
+                    advance = false;
+                } else if (TRANSFER_INDEX.compareAndSet(this, nextIndex,
+                        nextBound = (nextIndex > stride ? nextIndex - stride : 0))) {
+                    bound = nextBound;
+                    i = nextIndex - 1;
+                    advance = false;
+                }
+            }
+            if (i < 0 || i >= n || i + n >= nextn) {
+                if (finishing) {
+                    nextTable = null;
+                    table = nextTab;
+                    sizeCtl = threshold(nextn);
+                    return;
+                }
+                int sc = sizeCtl;
+                if (SIZE_CTL.compareAndSet(this, sc, sc - 1)) {
+                    if ((sc - 2) != resizeStamp(n) << RESIZE_STAMP_SHIFT) {
+                        return;
+                    }
+                    finishing = true;
+                    advance = true;
+                    i = n;
+                }
+                continue;
+            }
+            Node<K, V> f = tabAt(tab, i);
+            if (f == null) {
+                advance = casTabAt(tab, i, null, fwd);
+            } else if (f.hash == MOVED) {
+                advance = true;
+            } else {
+                synchronized (f) {
+                    if (tabAt(tab, i) == f && f.hash >= 0) {
+                        int runBit = f.hash & n;
+                        Node<K, V> lastRun = f;
+                        for (Node<K, V> p = f.next; p != null; p = p.next) {
+                            int b = p.hash & n;
+                            if (b != runBit) {
+                                runBit = b;
+                                lastRun = p;
+                            }
+                        }
+                        Node<K, V> ln = runBit == 0 ? lastRun : null;
+                        Node<K, V> hn = runBit == 0 ? null : lastRun;
+                        for (Node<K, V> p = f; p != lastRun; p = p.next) {
+                            if ((p.hash & n) == 0) {
+                                ln = new Node<>(p.hash, p.key, p.value, ln);
+                            } else {
+                                hn = new Node<>(p.hash, p.key, p.value, hn);
+                            }
+                        }
+                        setTabAt(nextTab, i, ln);
+                        setTabAt(nextTab, i + n, hn);
+                        setTabAt(tab, i, fwd);
+                        advance = true;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Узел цепочки. Ключ и хэш-код неизменны; значение и ссылка на следующий узел
+     * volatile, чтобы читатели без блокировки видели записи под монитором корзины.
+     *
+     * @param <K> тип ключа
+     * @param <V> тип значения
+     */
+    static class Node<K, V> {
+        final int hash;
+        final K key;
+        volatile V value;
+        volatile Node<K, V> next;
+
+        Node(int hash, K key, V value, Node<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+
+        /**
+         * Ищет узел по ключу, начиная с этого узла. Служебные узлы переопределяют поиск.
+         *
+         * @param h хэш-код ключа
+         * @param k ключ
+         * @return узел или null
+         */
+        Node<K, V> find(int h, Object k) {
+            return null;
+        }
+    }
+
+    /**
+     * Узел, которым помечается уже перенесенная корзина старой таблицы.
+     * Поиск в такой корзине продолжается в новой таблице.
+     *
+     * @param <K> тип ключа
+     * @param <V> тип значения
+     */
+    static final class ForwardingNode<K, V> extends Node<K, V> {
+        final Node<K, V>[] nextTable;
+
+        ForwardingNode(Node<K, V>[] nextTable) {
+            super(MOVED, null, null, null);
+            this.nextTable = nextTable;
+        }
+
+        @Override
+        Node<K, V> find(int h, Object k) {
+            Node<K, V>[] tab = nextTable;
+            outer:
+            for (; ; ) {
+                Node<K, V> e = tabAt(tab, (tab.length - 1) & h);
+                if (e == null) {
+                    return null;
+                }
+                for (; ; ) {
+                    if (e.hash < 0) {
+                        if (e instanceof ForwardingNode) {
+                            tab = ((ForwardingNode<K, V>) e).nextTable;
+                            continue outer;
+                        }
+                        return e.find(h, k);
+                    }
+                    if (e.hash == h && (e.key == k || k.equals(e.key))) {
+                        return e;
+                    }
+                    if ((e = e.next) == null) {
+                        return null;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Временный узел, занимающий пустую корзину, пока вычисляется значение
+     * в compute-операциях. Для читателей корзина остается пустой.
+     *
+     * @param <K> тип ключа
+     * @param <V> тип значения
+     */
+    static final class ReservationNode<K, V> extends Node<K, V> {
+        ReservationNode() {
+            super(RESERVED, null, null, null);
+        }
+    }
+
+    /**
+     * Слабо согласованный обход всех узлов. Перенесенная корзина старой таблицы
+     * соответствует двум корзинам новой (i и i + n), которые откладываются в стек
+     * и обходятся сразу после нее, поэтому узлы не пропускаются и не повторяются.
+     *
+     * @param <K> тип ключа
+     * @param <V> тип значения
+     */
+    static final class Traverser<K, V> {
+        private final Node<K, V>[] baseTable;
+        private int baseIndex;
+        private Node<K, V> next;
+        private Node<K, V>[][] tabStack;
+        private int[] indexStack;
+        private int stackSize;
+
+        Traverser(Node<K, V>[] tab) {
+            this.baseTable = tab;
+        }
+
+        /**
+         * Возвращает следующий узел обхода.
+         *
+         * @return узел или null, если обход закончен
+         */
+        @SuppressWarnings("unchecked")
+        Node<K, V> advance() {
+            Node<K, V> e = next;
+            if (e != null) {
+                e = e.next;
+            }
+            while (e == null) {
+                Node<K, V>[] t;
+                int i;
+                if (stackSize > 0) {
+                    --stackSize;
+                    t = tabStack[stackSize];
+                    i = indexStack[stackSize];
+                    tabStack[stackSize] = null;
+                } else if (baseTable != null && baseIndex < baseTable.length) {
+                    t = baseTable;
+                    i = baseIndex++;
+                } else {
+                    next = null;
+                    return null;
+                }
+                e = tabAt(t, i);
+                while (e instanceof ForwardingNode) {
+                    Node<K, V>[] nt = ((ForwardingNode<K, V>) e).nextTable;
+                    if (tabStack == null) {
+                        tabStack = (Node<K, V>[][]) new Node<?, ?>[4][];
+                        indexStack = new int[4];
+                    } else if (stackSize == tabStack.length) {
+                        tabStack = Arrays.copyOf(tabStack, stackSize << 1);
+                        indexStack = Arrays.copyOf(indexStack, stackSize << 1);
+                    }
+                    tabStack[stackSize] = nt;
+                    indexStack[stackSize++] = i + t.length;
+                    t = nt;
+                    e = tabAt(t, i);
+                }
+                if (e != null && e.hash < 0) {
+                    e = null;
+                }
+            }
+            next = e;
+            return e;
+        }
+    }
+
+    /**
+     * Базовый итератор представлений.
+     */
+    private abstract class BaseIterator {
+        private final Traverser<K, V> traverser = new Traverser<>(table);
+        private Node<K, V> next = traverser.advance();
+        private Node<K, V> lastReturned;
+
+        public final boolean hasNext() {
+            return next != null;
+        }
+
+        final Node<K, V> nextNode() {
+            Node<K, V> e = next;
+            if (e == null) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = e;
+            next = traverser.advance();
+            return e;
+        }
+
+        public final void remove() {
+            Node<K, V> p = lastReturned;
+            if (p == null) {
+                throw new IllegalStateException();
+            }
+            lastReturned = null;
+            replaceNode(p.key, null, null);
+        }
+    }
+
+    private final class KeyIterator extends BaseIterator implements Iterator<K> {
+        @Override
+        public K next() {
+            return nextNode().key;
+        }
+    }
+
+    private final class ValueIterator extends BaseIterator implements Iterator<V> {
+        @Override
+        public V next() {
+            return nextNode().value;
+        }
+    }
+
+    private final class EntryIterator extends BaseIterator implements Iterator<Entry<K, V>> {
+        @Override
+        public Entry<K, V> next() {
+            Node<K, V> p = nextNode();
+            return new MapEntry(p.key, p.value);
+        }
+    }
+
+    /**
+     * Элемент entrySet. Узел мог быть скопирован при переносе, поэтому
+     * setValue записывает значение через {@link #put}, а не в узел.
+     */
+    private final class MapEntry implements Entry<K, V> {
+        private final K key;
+        private V value;
+
+        MapEntry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V newValue) {
+            Objects.requireNonNull(newValue);
+            V oldValue = value;
+            value = newValue;
+            put(key, newValue);
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            return Objects.equals(key, e.getKey()) && Objects.equals(value, e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /**
+     * Представление ключей карты.
+     */
+    private final class KeySet extends AbstractSet<K> {
+        @Override
+        public int size() {
+            return ConcurrentMyHashMap.this.size();
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            return new KeyIterator();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return ConcurrentMyHashMap.this.remove(o) != null;
+        }
+
+        @Override
+        public void clear() {
+            ConcurrentMyHashMap.this.clear();
+        }
+    }
+
+    /**
+     * Представление значений карты.
+     */
+    private final class Values extends AbstractCollection<V> {
+        @Override
+        public int size() {
+            return ConcurrentMyHashMap.this.size();
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new ValueIterator();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsValue(o);
+        }
+
+        @Override
+        public void clear() {
+            ConcurrentMyHashMap.this.clear();
+        }
+    }
+
+    /**
+     * Представление пар ключ-значение карты.
+     */
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public int size() {
+            return ConcurrentMyHashMap.this.size();
+        }
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            Object k = e.getKey();
+            Object v = e.getValue();
+            if (k == null || v == null) {
+                return false;
+            }
+            V current = get(k);
+            return current != null && (current == v || v.equals(current));
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            Object k = e.getKey();
+            Object v = e.getValue();
+            return k != null && v != null && ConcurrentMyHashMap.this.remove(k, v);
+        }
+
+        @Override
+        public void clear() {
+            ConcurrentMyHashMap.this.clear();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.example;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Приемник статистики на полосатых счетчиках {@link LongAdder}.
+ *
+ * <p>Запись не блокирует и не создает конкуренции за одну ячейку, чтение возможно
+ * из любого потока, например из JMX. Один приемник можно передать нескольким картам -
+ * тогда счетчики суммируются.</p>
+ */
+public final class ConcurrentStatsRecorder implements StatsRecorder {
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder treeifyCount = new LongAdder();
+    private final LongAdder resizeCount = new LongAdder();
+    private final LongAdder rehashTimeNanos = new LongAdder();
+    private final LongAccumulator maxChainLength = new LongAccumulator(Math::max, 0);
+
+    @Override
+    public void recordHit() {
+        hitCount.increment();
+    }
+
+    @Override
+    public void recordMiss() {
+        missCount.increment();
+    }
+
+    @Override
+    public void recordChainLength(int chainLength) {
+        maxChainLength.accumulate(chainLength);
+    }
+
+    @Override
+    public void recordTreeify() {
+        treeifyCount.increment();
+    }
+
+    @Override
+    public void recordResize(int oldCapacity, int newCapacity) {
+        resizeCount.increment();
+    }
+
+    @Override
+    public void recordRehashTime(long nanos) {
+        rehashTimeNanos.add(nanos);
+    }
+
+    @Override
+    public MapStats snapshot(int size, int tableSize) {
+        return new MapStats(hitCount.sum(), missCount.sum(), resizeCount.sum(), treeifyCount.sum(),
+                (int) maxChainLength.get(), rehashTimeNanos.sum(), size, tableSize);
+    }
+
+    /**
+     * Обнуляет все счетчики.
+     */
+    public void reset() {
+        hitCount.reset();
+        missCount.reset();
+        treeifyCount.reset();
+        resizeCount.reset();
+        rehashTimeNanos.reset();
+        maxChainLength.reset();
+    }
+}
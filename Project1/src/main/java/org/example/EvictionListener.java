@@ -0,0 +1,20 @@
+package org.example;
+
+/**
+ * Получает пары, вытесненные из {@link MyLinkedHashMapImp} при превышении ограничения.
+ * Явные удаления (remove, clear, compute с результатом null) не передаются.
+ *
+ * @param <K> тип ключей
+ * @param <V> тип значений
+ */
+@FunctionalInterface
+public interface EvictionListener<K, V> {
+
+    /**
+     * Вызывается после удаления вытесненной пары из карты.
+     *
+     * @param key   ключ вытесненной пары
+     * @param value значение вытесненной пары
+     */
+    void onEviction(K key, V value);
+}
@@ -0,0 +1,21 @@
+package org.example;
+
+/**
+ * Правило вытеснения ограниченной карты {@link MyLinkedHashMapImp}.
+ */
+public enum EvictionPolicy {
+
+    /**
+     * Вытесняется пара, к которой дольше всех не обращались.
+     */
+    LRU,
+
+    /**
+     * Кандидатом на вытеснение также служит давно не использованная пара, но новая пара
+     * попадает в карту, только если по оценке частотного скетча к ее ключу обращаются
+     * чаще, чем к ключу кандидата; иначе вытесняется сама новая пара. Редкие ключи
+     * не вымывают из карты часто используемые, поэтому на распределениях с тяжелым
+     * хвостом (закон Ципфа) доля попаданий выше, чем у LRU.
+     */
+    TINY_LFU
+}
@@ -0,0 +1,20 @@
+package org.example;
+
+/**
+ * Получает пары, удаленные из {@link ExpiringHashMap} по истечении времени жизни.
+ * Явные удаления (remove, clear, compute с результатом null) не передаются.
+ *
+ * @param <K> тип ключей
+ * @param <V> тип значений
+ */
+@FunctionalInterface
+public interface ExpirationListener<K, V> {
+
+    /**
+     * Вызывается после удаления устаревшей пары из карты.
+     *
+     * @param key   ключ устаревшей пары
+     * @param value значение устаревшей пары
+     */
+    void onExpiration(K key, V value);
+}
@@ -0,0 +1,531 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Карта на основе {@link MyHashMapImp}, пары которой устаревают через заданное время жизни.
+ *
+ * <p>Время жизни задается для всей карты и может быть переопределено для отдельной пары
+ * через {@link #put(Object, Object, long, TimeUnit)}. Отсчет ведется от записи или от
+ * последнего обращения ({@link ExpiryPolicy}). Время берется из {@link Ticker}, который
+ * в тестах заменяется управляемыми часами.</p>
+ *
+ * <p>Сроки хранятся в иерархическом колесе таймеров: пять уровней по 64 корзины
+ * шириной около 1 мс, 67 мс, 4,3 с, 4,6 мин и 4,9 ч. Пара попадает в корзину уровня,
+ * полный оборот которого покрывает оставшееся время, а при проходе колеса через
+ * корзину либо удаляется, либо переносится на более мелкий уровень. Постановка и
+ * снятие таймера стоят O(1), а каждая пара переносится не больше четырех раз,
+ * поэтому удаление устаревших пар тоже стоит O(1) в среднем и не требует полного
+ * просмотра таблицы.</p>
+ *
+ * <p>Колесо продвигается при каждой записи и в {@link #cleanUp()}. Кроме того, get,
+ * getOrDefault, containsKey и записывающие методы проверяют срок найденной пары
+ * и удаляют устаревшую, поэтому чтение никогда не возвращает устаревшее значение.
+ * Пары, срок которых истек меньше миллисекунды назад или к которым после истечения
+ * срока не обращались, до следующего продвижения колеса учитываются в size и видны
+ * в представлениях. Удаленные по сроку пары передаются {@link ExpirationListener}.
+ * Чтение может удалить пару, поэтому, как и в {@link MyLinkedHashMapImp}, обращение
+ * к карте во время обхода ее представлений может привести к
+ * {@link java.util.ConcurrentModificationException}.</p>
+ *
+ * <p>Значение, замененное через {@link java.util.Map.Entry#setValue(Object)}, не
+ * продлевает срок пары.</p>
+ *
+ * @param <K> тип ключей, поддерживаемых этой картой
+ * @param <V> тип отображаемых значений
+ */
+public class ExpiringHashMap<K, V> extends MyHashMapImp<K, V> {
+
+    private static final int BUCKETS = 64;
+    private static final int BUCKET_MASK = BUCKETS - 1;
+
+    /**
+     * Ширина корзины уровня - 2^SHIFTS[i] нс; 64 корзины уровня покрывают одну корзину следующего.
+     */
+    private static final int[] SHIFTS = {20, 26, 32, 38, 44};
+
+    private final long timeToLive;
+    private final ExpiryPolicy expiryPolicy;
+    private final Ticker ticker;
+
+    /**
+     * Показание часов при создании карты. Время в карте отсчитывается от него и
+     * поэтому неотрицательно.
+     */
+    private final long origin;
+
+    /**
+     * Корзины колеса: кольцевые списки с заглушкой в начале.
+     */
+    private final ExpiringNode<K, V>[][] wheel;
+
+    /**
+     * Время, до которого продвинуто колесо.
+     */
+    private long wheelTime;
+
+    /**
+     * Время начала текущей операции.
+     */
+    private long now;
+
+    /**
+     * Время жизни для пары, записываемой через put с явным сроком; -1 - по умолчанию.
+     */
+    private long pendingTimeToLive = -1;
+
+    private ExpirationListener<? super K, ? super V> expirationListener;
+    private long expirationCount;
+
+    /**
+     * Создает карту, пары которой устаревают через указанное время после записи.
+     *
+     * @param duration время жизни
+     * @param unit     единица времени
+     * @throws IllegalArgumentException если время жизни не положительно
+     */
+    public ExpiringHashMap(long duration, TimeUnit unit) {
+        this(duration, unit, ExpiryPolicy.AFTER_WRITE, Ticker.systemTicker());
+    }
+
+    /**
+     * Создает карту с указанным временем жизни и правилом отсчета.
+     *
+     * @param duration     время жизни
+     * @param unit         единица времени
+     * @param expiryPolicy момент, от которого отсчитывается время жизни
+     * @throws IllegalArgumentException если время жизни не положительно
+     */
+    public ExpiringHashMap(long duration, TimeUnit unit, ExpiryPolicy expiryPolicy) {
+        this(duration, unit, expiryPolicy, Ticker.systemTicker());
+    }
+
+    /**
+     * Создает карту с указанным временем жизни, правилом отсчета и источником времени.
+     *
+     * @param duration     время жизни
+     * @param unit         единица времени
+     * @param expiryPolicy момент, от которого отсчитывается время жизни
+     * @param ticker       источник времени
+     * @throws IllegalArgumentException если время жизни не положительно
+     */
+    public ExpiringHashMap(long duration, TimeUnit unit, ExpiryPolicy expiryPolicy, Ticker ticker) {
+        this.timeToLive = toNanos(duration, unit);
+        this.expiryPolicy = Objects.requireNonNull(expiryPolicy);
+        this.ticker = Objects.requireNonNull(ticker);
+        origin = ticker.read();
+        wheel = newWheel();
+    }
+
+    /**
+     * Создает уровни колеса, в каждом слоте которых лежит пустой кольцевой список.
+     *
+     * @return уровни колеса
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <K, V> ExpiringNode<K, V>[][] newWheel() {
+        ExpiringNode<K, V>[][] levels = new ExpiringNode[SHIFTS.length][BUCKETS];
+        for (ExpiringNode<K, V>[] level : levels) {
+            for (int i = 0; i < BUCKETS; i++) {
+                level[i] = new ExpiringNode<>(0, null, null);
+                level[i].previousInWheel = level[i];
+                level[i].nextInWheel = level[i];
+            }
+        }
+        return levels;
+    }
+
+    /**
+     * Подключает получателя устаревших пар.
+     *
+     * @param listener получатель или null, чтобы отключить уведомления
+     */
+    public void setExpirationListener(ExpirationListener<? super K, ? super V> listener) {
+        expirationListener = listener;
+    }
+
+    /**
+     * Возвращает время жизни пар по умолчанию.
+     *
+     * @param unit единица времени результата
+     * @return время жизни
+     */
+    public long getTimeToLive(TimeUnit unit) {
+        return unit.convert(timeToLive, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Возвращает правило отсчета времени жизни.
+     *
+     * @return правило отсчета
+     */
+    public ExpiryPolicy getExpiryPolicy() {
+        return expiryPolicy;
+    }
+
+    /**
+     * Возвращает количество пар, удаленных по сроку с момента создания карты.
+     *
+     * @return количество устаревших пар
+     */
+    public long getExpirationCount() {
+        return expirationCount;
+    }
+
+    /**
+     * Продвигает колесо таймеров до текущего времени и удаляет устаревшие пары.
+     */
+    public void cleanUp() {
+        now = currentTime();
+        advance(now);
+    }
+
+    /**
+     * Связывает значение с ключом и задает паре собственное время жизни.
+     * Последующие записи через put без срока сохраняют это время жизни.
+     *
+     * @param key      ключ для связи со значением
+     * @param value    значение для связи с ключом
+     * @param duration время жизни пары
+     * @param unit     единица времени
+     * @return предыдущее значение, связанное с ключом, или null если ключ не существовал
+     * @throws IllegalArgumentException если время жизни не положительно
+     */
+    public V put(K key, V value, long duration, TimeUnit unit) {
+        pendingTimeToLive = toNanos(duration, unit);
+        try {
+            return put(key, value);
+        } finally {
+            pendingTimeToLive = -1;
+        }
+    }
+
+    /**
+     * Проверяет, содержится ли указанный ключ в карте. Устаревшая пара удаляется.
+     * Проверка не считается обращением к паре.
+     *
+     * @param key ключ для проверки
+     * @return true если карта содержит неустаревшую пару с ключом
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        Node<K, V> node = getNode(key);
+        return node != null && !expireOnRead(node);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        beforeWrite(key);
+        return super.put(key, value);
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        cleanUp();
+        for (K key : m.keySet()) {
+            expireIfStale(key);
+        }
+        super.putAll(m);
+    }
+
+    @Override
+    public V remove(Object key) {
+        beforeWrite(key);
+        return super.remove(key);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        beforeWrite(key);
+        return super.putIfAbsent(key, value);
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        beforeWrite(key);
+        return super.computeIfAbsent(key, mappingFunction);
+    }
+
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        beforeWrite(key);
+        return super.computeIfPresent(key, remappingFunction);
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        beforeWrite(key);
+        return super.compute(key, remappingFunction);
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        beforeWrite(key);
+        return super.merge(key, value, remappingFunction);
+    }
+
+    /**
+     * Удаляет все пары и сбрасывает колесо. Получатель устаревших пар не вызывается.
+     */
+    @Override
+    public void clear() {
+        super.clear();
+        for (ExpiringNode<K, V>[] level : wheel) {
+            for (ExpiringNode<K, V> sentinel : level) {
+                sentinel.previousInWheel = sentinel;
+                sentinel.nextInWheel = sentinel;
+            }
+        }
+    }
+
+    @Override
+    Node<K, V> newNode(int hash, K key, V value) {
+        ExpiringNode<K, V> node = new ExpiringNode<>(hash, key, value);
+        node.timeToLive = pendingTimeToLive >= 0 ? pendingTimeToLive : timeToLive;
+        node.expiresAt = deadline(node.timeToLive);
+        schedule(node);
+        return node;
+    }
+
+    @Override
+    boolean expireOnRead(Node<K, V> node) {
+        ExpiringNode<K, V> expiring = (ExpiringNode<K, V>) node;
+        now = currentTime();
+        if (expiring.expiresAt > now) {
+            return false;
+        }
+        expire(expiring);
+        return true;
+    }
+
+    @Override
+    void afterNodeAccess(Node<K, V> node) {
+        if (expiryPolicy == ExpiryPolicy.AFTER_ACCESS) {
+            reschedule((ExpiringNode<K, V>) node);
+        }
+    }
+
+    @Override
+    void afterNodeUpdate(Node<K, V> node) {
+        ExpiringNode<K, V> expiring = (ExpiringNode<K, V>) node;
+        if (pendingTimeToLive >= 0) {
+            expiring.timeToLive = pendingTimeToLive;
+        }
+        reschedule(expiring);
+    }
+
+    @Override
+    void afterNodeRemoval(Node<K, V> node) {
+        unschedule((ExpiringNode<K, V>) node);
+    }
+
+    /**
+     * Подготавливает запись: продвигает колесо и удаляет устаревшую пару с ключом,
+     * чтобы запись не приняла ее за существующую.
+     *
+     * @param key ключ записи
+     */
+    private void beforeWrite(Object key) {
+        cleanUp();
+        expireIfStale(key);
+    }
+
+    /**
+     * Удаляет пару с ключом, если ее срок истек.
+     *
+     * @param key ключ
+     */
+    private void expireIfStale(Object key) {
+        Node<K, V> node = getNode(key);
+        if (node != null && ((ExpiringNode<K, V>) node).expiresAt <= now) {
+            expire((ExpiringNode<K, V>) node);
+        }
+    }
+
+    /**
+     * Удаляет устаревшую пару и уведомляет получателя.
+     *
+     * @param node устаревший узел
+     */
+    private void expire(ExpiringNode<K, V> node) {
+        removeMapping(node.key, false);
+        expirationCount++;
+        if (expirationListener != null) {
+            expirationListener.onExpiration(node.key, node.value);
+        }
+    }
+
+    /**
+     * Продвигает колесо до указанного времени. На каждом уровне, где сменилась
+     * корзина, просматриваются корзины от прежней до текущей включительно: устаревшие
+     * пары собираются, остальные переносятся на уровень по оставшемуся времени.
+     * Получатель вызывается после просмотра, когда колесо уже согласовано.
+     *
+     * @param time время, до которого продвигается колесо
+     */
+    private void advance(long time) {
+        long previous = wheelTime;
+        if (time <= previous) {
+            return;
+        }
+        wheelTime = time;
+        List<ExpiringNode<K, V>> expired = null;
+        for (int level = 0; level < SHIFTS.length; level++) {
+            long previousTicks = previous >>> SHIFTS[level];
+            long delta = (time >>> SHIFTS[level]) - previousTicks;
+            if (delta <= 0) {
+                break;
+            }
+            expired = expireBuckets(level, previousTicks, delta, expired);
+        }
+        if (expired != null) {
+            for (ExpiringNode<K, V> node : expired) {
+                if (node.expiresAt <= time && getNode(node.key) == node) {
+                    expire(node);
+                }
+            }
+        }
+    }
+
+    /**
+     * Просматривает корзины уровня, через которые прошло колесо.
+     *
+     * @param level         уровень колеса
+     * @param previousTicks номер корзины, на которой колесо стояло
+     * @param delta         на сколько корзин продвинулось колесо
+     * @param expired       собранные устаревшие узлы или null
+     * @return список устаревших узлов или null если таких нет
+     */
+    private List<ExpiringNode<K, V>> expireBuckets(int level, long previousTicks, long delta,
+                                                   List<ExpiringNode<K, V>> expired) {
+        ExpiringNode<K, V>[] buckets = wheel[level];
+        int steps = (int) Math.min(delta + 1, BUCKETS);
+        int start = (int) (previousTicks & BUCKET_MASK);
+        for (int i = start; i < start + steps; i++) {
+            ExpiringNode<K, V> sentinel = buckets[i & BUCKET_MASK];
+            ExpiringNode<K, V> node = sentinel.nextInWheel;
+            sentinel.previousInWheel = sentinel;
+            sentinel.nextInWheel = sentinel;
+            while (node != sentinel) {
+                ExpiringNode<K, V> next = node.nextInWheel;
+                node.previousInWheel = null;
+                node.nextInWheel = null;
+                if (node.expiresAt <= wheelTime) {
+                    if (expired == null) {
+                        expired = new ArrayList<>();
+                    }
+                    expired.add(node);
+                } else {
+                    schedule(node);
+                }
+                node = next;
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Ставит узел в корзину уровня, полный оборот которого покрывает оставшееся время.
+     * Срок дальше полного оборота последнего уровня попадает в последний уровень, и
+     * узел будет перенесен при проходе колеса через корзину.
+     *
+     * @param node узел, не стоящий в колесе
+     */
+    private void schedule(ExpiringNode<K, V> node) {
+        long at = Math.max(node.expiresAt, wheelTime);
+        long delay = at - wheelTime;
+        int level = 0;
+        while (level < SHIFTS.length - 1 && delay >= 1L << (SHIFTS[level] + 6)) {
+            level++;
+        }
+        ExpiringNode<K, V> sentinel = wheel[level][(int) ((at >>> SHIFTS[level]) & BUCKET_MASK)];
+        ExpiringNode<K, V> last = sentinel.previousInWheel;
+        node.previousInWheel = last;
+        node.nextInWheel = sentinel;
+        last.nextInWheel = node;
+        sentinel.previousInWheel = node;
+    }
+
+    /**
+     * Снимает узел с колеса, если он в нем стоит.
+     *
+     * @param node узел
+     */
+    private void unschedule(ExpiringNode<K, V> node) {
+        if (node.nextInWheel != null) {
+            node.previousInWheel.nextInWheel = node.nextInWheel;
+            node.nextInWheel.previousInWheel = node.previousInWheel;
+            node.previousInWheel = null;
+            node.nextInWheel = null;
+        }
+    }
+
+    /**
+     * Продлевает срок узла на его время жизни от начала текущей операции.
+     *
+     * @param node узел
+     */
+    private void reschedule(ExpiringNode<K, V> node) {
+        unschedule(node);
+        node.expiresAt = deadline(node.timeToLive);
+        schedule(node);
+    }
+
+    /**
+     * Вычисляет срок пары, записанной или прочитанной в текущей операции.
+     *
+     * @param nanos время жизни
+     * @return время, после которого пара устаревает
+     */
+    private long deadline(long nanos) {
+        long deadline = now + nanos;
+        return deadline < 0 ? Long.MAX_VALUE : deadline;
+    }
+
+    /**
+     * Возвращает время по часам карты.
+     *
+     * @return наносекунды с момента создания карты
+     */
+    private long currentTime() {
+        return ticker.read() - origin;
+    }
+
+    /**
+     * Переводит время жизни в наносекунды.
+     *
+     * @param duration время жизни
+     * @param unit     единица времени
+     * @return время жизни в наносекундах
+     * @throws IllegalArgumentException если время жизни не положительно
+     */
+    private static long toNanos(long duration, TimeUnit unit) {
+        if (duration <= 0) {
+            throw new IllegalArgumentException("Illegal time to live: " + duration);
+        }
+        return unit.toNanos(duration);
+    }
+
+    /**
+     * Узел таблицы со сроком, временем жизни и ссылками на соседей в корзине колеса.
+     *
+     * @param <K> тип ключа
+     * @param <V> тип значения
+     */
+    private static final class ExpiringNode<K, V> extends Node<K, V> {
+        long expiresAt;
+        long timeToLive;
+        ExpiringNode<K, V> previousInWheel;
+        ExpiringNode<K, V> nextInWheel;
+
+        ExpiringNode(int hash, K key, V value) {
+            super(hash, key, value, null);
+        }
+    }
+}
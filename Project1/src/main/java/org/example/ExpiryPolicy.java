@@ -0,0 +1,18 @@
+package org.example;
+
+/**
+ * Момент, от которого отсчитывается время жизни пары в {@link ExpiringHashMap}.
+ */
+public enum ExpiryPolicy {
+
+    /**
+     * Пара устаревает через время жизни после вставки или последней замены значения.
+     */
+    AFTER_WRITE,
+
+    /**
+     * Пара устаревает через время жизни после последнего обращения: чтения через get
+     * или getOrDefault, вставки или замены значения. containsKey обращением не считается.
+     */
+    AFTER_ACCESS
+}
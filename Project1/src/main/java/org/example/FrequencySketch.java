@@ -0,0 +1,127 @@
+package org.example;
+
+/**
+ * Приближенный счетчик частоты обращений к ключам для правила {@link EvictionPolicy#TINY_LFU}.
+ *
+ * <p>Count-min скетч с 4-битными счетчиками: в одном long помещается 16 счетчиков,
+ * разбитых на четыре группы по четыре. Ключ отображается на один счетчик в каждой группе,
+ * причем для каждой группы long выбирается своей хэш-функцией; оценка частоты - минимум
+ * из четырех счетчиков. Счетчики насыщаются на 15. После {@code 10 * maximumSize}
+ * увеличений все счетчики делятся пополам, поэтому скетч забывает старую популярность
+ * и следует за изменением распределения ключей.</p>
+ *
+ * <p>Память - 8 байт на ожидаемую пару, обе операции выполняются за O(1).
+ * Класс не потокобезопасен.</p>
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    private static final long RESET_MASK = 0x7777777777777777L;
+
+    private static final int MAXIMUM_TABLE_SIZE = 1 << 26;
+
+    private long[] table = new long[0];
+    private int tableMask;
+    private long sampleSize;
+    private long additions;
+
+    /**
+     * Создает скетч для указанного количества ключей.
+     *
+     * @param maximumSize ожидаемое количество пар в карте
+     */
+    FrequencySketch(long maximumSize) {
+        ensureCapacity(maximumSize);
+    }
+
+    /**
+     * Увеличивает скетч, если он слишком мал для указанного количества ключей.
+     * При увеличении накопленные счетчики сбрасываются.
+     *
+     * @param maximumSize ожидаемое количество пар в карте
+     */
+    void ensureCapacity(long maximumSize) {
+        long expected = Math.max(Math.min(maximumSize, MAXIMUM_TABLE_SIZE), 8);
+        if (table.length >= expected) {
+            return;
+        }
+        int length = Integer.highestOneBit((int) expected - 1) << 1;
+        table = new long[length];
+        tableMask = length - 1;
+        // от размера таблицы, а не от maximumSize: произведение не переполняется
+        sampleSize = 10L * length;
+        additions = 0;
+    }
+
+    /**
+     * Оценивает, сколько раз увеличивался счетчик ключа с учетом старения.
+     *
+     * @param hash хэш-код ключа
+     * @return оценка частоты от 0 до 15
+     */
+    int frequency(int hash) {
+        int frequency = 15;
+        for (int i = 0; i < 4; i++) {
+            int shift = slot(hash, i) << 2;
+            int count = (int) ((table[indexOf(hash, i)] >>> shift) & 0xFL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Увеличивает счетчики ключа и при достижении размера выборки состаривает скетч.
+     *
+     * @param hash хэш-код ключа
+     */
+    void increment(int hash) {
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            long mask = 0xFL << (slot(hash, i) << 2);
+            if ((table[index] & mask) != mask) {
+                table[index] += mask & -mask;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Делит все счетчики пополам.
+     */
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions >>>= 1;
+    }
+
+    /**
+     * Выбирает счетчик в группе: группа i занимает счетчики с 4i по 4i + 3.
+     *
+     * @param hash хэш-код ключа
+     * @param i    номер группы
+     * @return номер счетчика в long от 0 до 15
+     */
+    private static int slot(int hash, int i) {
+        return (i << 2) | ((hash >>> (i << 3)) & 3);
+    }
+
+    /**
+     * Выбирает long для группы i своей хэш-функцией.
+     *
+     * @param hash хэш-код ключа
+     * @param i    номер группы
+     * @return индекс в таблице
+     */
+    private int indexOf(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        return (int) h & tableMask;
+    }
+}
@@ -0,0 +1,310 @@
+package org.example;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Неизменяемая карта, оптимизированная для чтения.
+ *
+ * <p>Создается методом {@link MyHashMapImp#freeze()} или {@link #copyOf(Map)}. Пары
+ * хранятся в одном массиве без объекта на каждую пару: ключ слота i в ячейке 2i,
+ * значение - в 2i + 1. Коллизии разрешаются линейным пробированием, а слотов не меньше
+ * удвоенного количества пар, поэтому поиск существующего ключа в среднем делает около
+ * полутора проб, и все они обычно попадают в одну строку кэша. Ключ и значение найденной
+ * пары лежат рядом, так что поиск читает из памяти таблицы одну строку кэша, а не
+ * корзину и узел, как {@link MyHashMapImp}.</p>
+ *
+ * <p>Хэш-коды при заморозке берутся из узлов исходной карты, hashCode ключей не
+ * вызывается. Ключ сравнивается сначала по ссылке, затем через equals.</p>
+ *
+ * <p>Поддерживает null в качестве ключей и значений. Изменяющие операции выбрасывают
+ * UnsupportedOperationException. Объект безопасно публикуется через final-поля,
+ * поэтому чтение из нескольких потоков не требует синхронизации.</p>
+ *
+ * @param <K> тип ключей, поддерживаемых этой картой
+ * @param <V> тип отображаемых значений
+ */
+public final class FrozenHashMap<K, V> extends AbstractMap<K, V> {
+
+    private static final int MAXIMUM_CAPACITY = 1 << 29;
+
+    /**
+     * Ключ null в таблице, где null обозначает пустой слот.
+     */
+    private static final Object NULL_KEY = new Object();
+
+    private final int size;
+    private final int mask;
+    private final Object[] table;
+
+    private Set<Entry<K, V>> entrySet;
+
+    private FrozenHashMap(int size, Object[] table) {
+        this.size = size;
+        this.mask = (table.length >> 1) - 1;
+        this.table = table;
+    }
+
+    /**
+     * Создает неизменяемую копию карты.
+     *
+     * @param map карта для копирования
+     * @param <K> тип ключей
+     * @param <V> тип значений
+     * @return неизменяемая карта с теми же парами
+     * @throws ConcurrentModificationException если карта изменилась во время копирования
+     */
+    public static <K, V> FrozenHashMap<K, V> copyOf(Map<? extends K, ? extends V> map) {
+        if (map instanceof FrozenHashMap) {
+            @SuppressWarnings("unchecked")
+            FrozenHashMap<K, V> frozen = (FrozenHashMap<K, V>) map;
+            return frozen;
+        }
+        if (map instanceof MyHashMapImp) {
+            @SuppressWarnings("unchecked")
+            MyHashMapImp<K, V> source = (MyHashMapImp<K, V>) map;
+            return source.freeze();
+        }
+        int size = map.size();
+        int[] hashes = new int[size];
+        Object[] keys = new Object[size];
+        Object[] values = new Object[size];
+        int count = 0;
+        for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            if (count == size) {
+                throw new ConcurrentModificationException();
+            }
+            keys[count] = entry.getKey();
+            values[count] = entry.getValue();
+            hashes[count] = MyHashMapImp.getHashCode(keys[count]);
+            count++;
+        }
+        if (count != size) {
+            throw new ConcurrentModificationException();
+        }
+        return build(hashes, keys, values);
+    }
+
+    /**
+     * Раскладывает пары по слотам таблицы.
+     * Ключи должны быть различны, хэш-коды - вычислены {@link MyHashMapImp#getHashCode(Object)}.
+     *
+     * @param hashes хэш-коды ключей
+     * @param keys   ключи
+     * @param values значения
+     * @param <K>    тип ключей
+     * @param <V>    тип значений
+     * @return неизменяемая карта
+     */
+    static <K, V> FrozenHashMap<K, V> build(int[] hashes, Object[] keys, Object[] values) {
+        int size = hashes.length;
+        int capacity = capacityFor(size);
+        int mask = capacity - 1;
+        Object[] table = new Object[capacity * 2];
+        for (int i = 0; i < size; i++) {
+            int slot = hashes[i] & mask;
+            while (table[slot * 2] != null) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot * 2] = keys[i] == null ? NULL_KEY : keys[i];
+            table[slot * 2 + 1] = values[i];
+        }
+        return new FrozenHashMap<>(size, table);
+    }
+
+    /**
+     * Выбирает количество слотов: степень двойки не меньше удвоенного количества пар.
+     *
+     * @param size количество пар
+     * @return количество слотов
+     * @throws IllegalArgumentException если пар больше, чем помещается в массив
+     */
+    private static int capacityFor(int size) {
+        if (size > MAXIMUM_CAPACITY >> 1) {
+            throw new IllegalArgumentException("Too many entries to freeze: " + size);
+        }
+        return size == 0 ? 1 : Integer.highestOneBit(2 * size - 1) << 1;
+    }
+
+    /**
+     * Возвращает количество ключ-значение пар в этой карте.
+     *
+     * @return количество пар в карте
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Проверяет, содержится ли указанный ключ в карте.
+     *
+     * @param key ключ для проверки
+     * @return true если карта содержит ключ, false в противном случае
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Проверяет, содержится ли указанное значение в карте, просматривая таблицу подряд.
+     *
+     * @param value значение для проверки
+     * @return true если карта содержит значение, false в противном случае
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        for (int i = 0; i < table.length; i += 2) {
+            if (table[i] != null && Objects.equals(value, table[i + 1])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Возвращает значение, связанное с указанным ключом.
+     *
+     * @param key ключ, значение которого нужно получить
+     * @return значение, связанное с ключом, или null если ключ не найден
+     */
+    @Override
+    public V get(Object key) {
+        return getOrDefault(key, null);
+    }
+
+    /**
+     * Возвращает значение, связанное с ключом, или значение по умолчанию.
+     *
+     * @param key          ключ, значение которого нужно получить
+     * @param defaultValue значение по умолчанию
+     * @return значение ключа (в том числе null) или defaultValue если ключа нет
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(Object key, V defaultValue) {
+        int slot = find(key);
+        return slot < 0 ? defaultValue : (V) table[slot * 2 + 1];
+    }
+
+    /**
+     * Передает все пары обработчику в порядке хранения.
+     *
+     * @param action обработчик пар
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        for (int i = 0; i < table.length; i += 2) {
+            if (table[i] != null) {
+                action.accept(keyAt(i >> 1), (V) table[i + 1]);
+            }
+        }
+    }
+
+    /**
+     * Возвращает множество пар. Элементы создаются при обходе.
+     *
+     * @return множество пар ключ-значение карты
+     */
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        Set<Entry<K, V>> set = entrySet;
+        if (set == null) {
+            set = new EntrySet();
+            entrySet = set;
+        }
+        return set;
+    }
+
+    /**
+     * Находит слот с указанным ключом. Пробирование останавливается на пустом слоте.
+     *
+     * @param key ключ для поиска
+     * @return номер слота или -1 если ключ не найден
+     */
+    private int find(Object key) {
+        Object k = key == null ? NULL_KEY : key;
+        int slot = MyHashMapImp.getHashCode(key) & mask;
+        Object candidate;
+        while ((candidate = table[slot * 2]) != null) {
+            if (candidate == k || k.equals(candidate)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Возвращает ключ занятого слота.
+     *
+     * @param slot номер слота
+     * @return ключ, в том числе null
+     */
+    @SuppressWarnings("unchecked")
+    private K keyAt(int slot) {
+        Object key = table[slot * 2];
+        return key == NULL_KEY ? null : (K) key;
+    }
+
+    /**
+     * Представление пар ключ-значение: последовательный обход таблицы.
+     */
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            int slot = find(e.getKey());
+            return slot >= 0 && Objects.equals(table[slot * 2 + 1], e.getValue());
+        }
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new Iterator<>() {
+                private int slot = advance(0);
+
+                private int advance(int from) {
+                    int i = from;
+                    while (i <= mask && table[i * 2] == null) {
+                        i++;
+                    }
+                    return i;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return slot <= mask;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public Entry<K, V> next() {
+                    if (slot > mask) {
+                        throw new NoSuchElementException();
+                    }
+                    int i = slot;
+                    slot = advance(i + 1);
+                    return new SimpleImmutableEntry<>(keyAt(i), (V) table[i * 2 + 1]);
+                }
+            };
+        }
+    }
+}
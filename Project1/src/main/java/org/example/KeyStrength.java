@@ -0,0 +1,19 @@
+package org.example;
+
+/**
+ * Сила ссылки, через которую {@link ReferenceKeyHashMap} держит ключи.
+ */
+public enum KeyStrength {
+
+    /**
+     * Ключ удерживается {@link java.lang.ref.WeakReference}: пара удаляется после первой
+     * сборки мусора, на которой на ключ не осталось сильных ссылок.
+     */
+    WEAK,
+
+    /**
+     * Ключ удерживается {@link java.lang.ref.SoftReference}: сборщик очищает такие ссылки
+     * только при нехватке памяти, поэтому пара живет дольше и подходит для кэшей.
+     */
+    SOFT
+}
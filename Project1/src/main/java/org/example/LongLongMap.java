@@ -0,0 +1,366 @@
+package org.example;
+
+/**
+ * Хэш-таблица с ключами и значениями примитивного типа long.
+ * Специализированный вариант {@link MyHashMapImp} без упаковки ключей и значений.
+ *
+ * <p>Ключи и значения хранятся в двух параллельных массивах long, коллизии разрешаются
+ * линейным пробированием, удаление выполняется со сдвигом назад, поэтому таблица не
+ * содержит "надгробий". Ключ 0 используется как признак пустой ячейки и хранится отдельно.</p>
+ *
+ * <p>Семантика изменения размера совпадает с {@link MyHashMapImp}: начальная емкость 16,
+ * коэффициент загрузки 0.8, увеличение при превышении порога и уменьшение, когда
+ * таблица становится сильно разреженной. Емкость не превышает 2^30; когда такая
+ * таблица заполнена, вставка нового ключа выбрасывает IllegalStateException.</p>
+ *
+ * <p>Для отсутствующих ключей методы возвращают настраиваемое значение-маркер
+ * (по умолчанию 0).</p>
+ */
+public class LongLongMap {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Наибольшая емкость таблицы: следующее удвоение переполнило бы int.
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private static final long FREE_KEY = 0L;
+
+    private final long missingValue;
+
+    private int capacity;
+    private int mask;
+    private int size;
+    private double loadFactor = 0.8;
+
+    private long[] keys;
+    private long[] values;
+
+    private boolean hasFreeKey;
+    private long freeKeyValue;
+
+    /**
+     * Создает новую пустую карту, возвращающую 0 для отсутствующих ключей.
+     */
+    public LongLongMap() {
+        this(0L);
+    }
+
+    /**
+     * Создает новую пустую карту с указанным значением для отсутствующих ключей.
+     *
+     * @param missingValue значение, возвращаемое при отсутствии ключа
+     */
+    public LongLongMap(long missingValue) {
+        this.missingValue = missingValue;
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Возвращает количество пар в карте.
+     *
+     * @return количество пар в карте
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Проверяет, пуста ли карта.
+     *
+     * @return true если карта не содержит пар
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Возвращает значение-маркер для отсутствующих ключей.
+     *
+     * @return значение для отсутствующих ключей
+     */
+    public long getMissingValue() {
+        return missingValue;
+    }
+
+    /**
+     * Проверяет, содержится ли ключ в карте.
+     *
+     * @param key ключ для проверки
+     * @return true если ключ присутствует
+     */
+    public boolean containsKey(long key) {
+        if (key == FREE_KEY) {
+            return hasFreeKey;
+        }
+        return findSlot(key) >= 0;
+    }
+
+    /**
+     * Возвращает значение, связанное с ключом.
+     *
+     * @param key ключ
+     * @return значение или значение-маркер, если ключ не найден
+     */
+    public long get(long key) {
+        if (key == FREE_KEY) {
+            return hasFreeKey ? freeKeyValue : missingValue;
+        }
+        int slot = findSlot(key);
+        return slot < 0 ? missingValue : values[slot];
+    }
+
+    /**
+     * Связывает значение с ключом.
+     *
+     * @param key   ключ
+     * @param value значение
+     * @return предыдущее значение или значение-маркер, если ключа не было
+     */
+    public long put(long key, long value) {
+        if (key == FREE_KEY) {
+            long resVal = hasFreeKey ? freeKeyValue : missingValue;
+            if (!hasFreeKey) {
+                hasFreeKey = true;
+                size++;
+            }
+            freeKeyValue = value;
+            return resVal;
+        }
+        int slot = getIndex(key);
+        while (keys[slot] != FREE_KEY) {
+            if (keys[slot] == key) {
+                long resVal = values[slot];
+                values[slot] = value;
+                return resVal;
+            }
+            slot = (slot + 1) & mask;
+        }
+        checkNotFull();
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        resize();
+        return missingValue;
+    }
+
+    /**
+     * Прибавляет приращение к значению ключа. Если ключа нет, он добавляется
+     * со значением, равным приращению.
+     *
+     * @param key       ключ
+     * @param increment приращение
+     * @return новое значение ключа
+     */
+    public long addTo(long key, long increment) {
+        if (key == FREE_KEY) {
+            if (!hasFreeKey) {
+                hasFreeKey = true;
+                freeKeyValue = 0L;
+                size++;
+            }
+            freeKeyValue += increment;
+            return freeKeyValue;
+        }
+        int slot = getIndex(key);
+        while (keys[slot] != FREE_KEY) {
+            if (keys[slot] == key) {
+                values[slot] += increment;
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        checkNotFull();
+        keys[slot] = key;
+        values[slot] = increment;
+        size++;
+        resize();
+        return increment;
+    }
+
+    /**
+     * Удаляет ключ из карты.
+     *
+     * @param key ключ для удаления
+     * @return удаленное значение или значение-маркер, если ключа не было
+     */
+    public long remove(long key) {
+        if (key == FREE_KEY) {
+            if (!hasFreeKey) {
+                return missingValue;
+            }
+            hasFreeKey = false;
+            size--;
+            return freeKeyValue;
+        }
+        int slot = findSlot(key);
+        if (slot < 0) {
+            return missingValue;
+        }
+        long resVal = values[slot];
+        removeAt(slot);
+        resize();
+        return resVal;
+    }
+
+    /**
+     * Удаляет все пары из карты.
+     */
+    public void clear() {
+        for (int i = 0; i < capacity; i++) {
+            keys[i] = FREE_KEY;
+        }
+        hasFreeKey = false;
+        size = 0;
+    }
+
+    /**
+     * Передает все пары карты указанному обработчику.
+     *
+     * @param action обработчик пар
+     */
+    public void forEach(EntryConsumer action) {
+        if (hasFreeKey) {
+            action.accept(FREE_KEY, freeKeyValue);
+        }
+        for (int i = 0; i < capacity; i++) {
+            if (keys[i] != FREE_KEY) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * Возвращает текущий размер внутренней таблицы.
+     * Используется для тестирования метода resize.
+     *
+     * @return текущий размер внутренней таблицы
+     */
+    public int getTableSize() {
+        return capacity;
+    }
+
+    /**
+     * Вычисляет индекс ячейки для ключа, перемешивая его биты.
+     *
+     * @param key ключ
+     * @return индекс домашней ячейки
+     */
+    private int getIndex(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * Находит ячейку с ключом.
+     *
+     * @param key ненулевой ключ
+     * @return индекс ячейки или -1 если ключ не найден
+     */
+    private int findSlot(long key) {
+        int slot = getIndex(key);
+        while (keys[slot] != FREE_KEY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Удаляет запись из ячейки и сдвигает назад записи той же цепочки проб.
+     *
+     * @param slot индекс удаляемой ячейки
+     */
+    private void removeAt(int slot) {
+        int next = (slot + 1) & mask;
+        while (keys[next] != FREE_KEY) {
+            int home = getIndex(keys[next]);
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[slot] = FREE_KEY;
+        size--;
+    }
+
+    /**
+     * Изменяет размер внутренней таблицы при необходимости.
+     * Увеличивает размер вдвое при превышении коэффициента загрузки и
+     * уменьшает вдвое, когда таблица заполнена менее чем на четверть от порога.
+     */
+    private void resize() {
+        if (size >= capacity * loadFactor) {
+            if (capacity < MAXIMUM_CAPACITY) {
+                rehash(capacity << 1);
+            }
+        } else if (capacity > DEFAULT_CAPACITY && size < capacity * loadFactor / 4) {
+            rehash(capacity >> 1);
+        }
+    }
+
+    /**
+     * Проверяет, что в таблице останется пустая ячейка после вставки нового ключа.
+     * Таблица наибольшей емкости заполняется сверх коэффициента загрузки, но без
+     * пустой ячейки пробирование не завершится.
+     *
+     * @throws IllegalStateException если таблица наибольшей емкости заполнена
+     */
+    private void checkNotFull() {
+        if (size >= MAXIMUM_CAPACITY - 1) {
+            throw new IllegalStateException("Map is full: " + size + " entries");
+        }
+    }
+
+    /**
+     * Перестраивает таблицу с новой емкостью.
+     *
+     * @param newCapacity новая емкость, степень двойки
+     */
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE_KEY) {
+                int slot = getIndex(oldKeys[i]);
+                while (keys[slot] != FREE_KEY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Создает пустые массивы таблицы указанной емкости.
+     *
+     * @param newCapacity емкость, степень двойки
+     */
+    private void allocate(int newCapacity) {
+        capacity = newCapacity;
+        mask = newCapacity - 1;
+        keys = new long[newCapacity];
+        values = new long[newCapacity];
+    }
+
+    /**
+     * Обработчик пар ключ-значение без упаковки.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        /**
+         * Обрабатывает пару.
+         *
+         * @param key   ключ
+         * @param value значение
+         */
+        void accept(long key, long value);
+    }
+}
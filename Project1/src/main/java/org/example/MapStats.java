@@ -0,0 +1,153 @@
+package org.example;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Неизменяемый снимок статистики работы карты.
+ *
+ * <p>Счетчики накапливаются с момента подключения {@link StatsRecorder}, а размер
+ * и емкость таблицы отражают состояние на момент снимка. Признаки деградации карты:
+ * низкая доля попаданий при ожидаемом кэшировании, рост maxChainLength и treeifyCount
+ * (плохие хэш-коды или атака коллизиями), частые изменения размера.</p>
+ */
+public final class MapStats {
+
+    private final long hitCount;
+    private final long missCount;
+    private final long resizeCount;
+    private final long treeifyCount;
+    private final int maxChainLength;
+    private final long rehashTimeNanos;
+    private final int size;
+    private final int tableSize;
+
+    MapStats(long hitCount, long missCount, long resizeCount, long treeifyCount, int maxChainLength,
+             long rehashTimeNanos, int size, int tableSize) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.resizeCount = resizeCount;
+        this.treeifyCount = treeifyCount;
+        this.maxChainLength = maxChainLength;
+        this.rehashTimeNanos = rehashTimeNanos;
+        this.size = size;
+        this.tableSize = tableSize;
+    }
+
+    /**
+     * Возвращает количество поисков, нашедших ключ.
+     *
+     * @return количество попаданий
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Возвращает количество поисков, не нашедших ключ.
+     *
+     * @return количество промахов
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Возвращает долю успешных поисков от 0 до 1.
+     *
+     * @return доля попаданий; 1.0 если поисков не было
+     */
+    public double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    /**
+     * Возвращает количество изменений размера таблицы.
+     *
+     * @return количество изменений размера
+     */
+    public long getResizeCount() {
+        return resizeCount;
+    }
+
+    /**
+     * Возвращает количество превращений цепочек в деревья.
+     *
+     * @return количество превращений в дерево
+     */
+    public long getTreeifyCount() {
+        return treeifyCount;
+    }
+
+    /**
+     * Возвращает наибольшую длину цепочки, наблюдавшуюся при вставке.
+     *
+     * @return максимальная длина цепочки
+     */
+    public int getMaxChainLength() {
+        return maxChainLength;
+    }
+
+    /**
+     * Возвращает суммарное время переноса узлов при изменении размера.
+     *
+     * @return время в наносекундах
+     */
+    public long getRehashTimeNanos() {
+        return rehashTimeNanos;
+    }
+
+    /**
+     * Возвращает количество пар в карте на момент снимка.
+     *
+     * @return количество пар
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Возвращает емкость таблицы на момент снимка.
+     *
+     * @return емкость таблицы
+     */
+    public int getTableSize() {
+        return tableSize;
+    }
+
+    /**
+     * Возвращает заполненность таблицы: size / tableSize.
+     *
+     * @return заполненность таблицы
+     */
+    public double getLoadFactor() {
+        return tableSize == 0 ? 0 : (double) size / tableSize;
+    }
+
+    /**
+     * Возвращает значения снимка по именам метрик, например для регистрации
+     * gauge-метрик в системе мониторинга.
+     *
+     * @return упорядоченное отображение имя метрики - значение
+     */
+    public Map<String, Number> asMap() {
+        Map<String, Number> metrics = new LinkedHashMap<>();
+        metrics.put("hits", hitCount);
+        metrics.put("misses", missCount);
+        metrics.put("hitRate", getHitRate());
+        metrics.put("resizes", resizeCount);
+        metrics.put("treeifications", treeifyCount);
+        metrics.put("maxChainLength", maxChainLength);
+        metrics.put("rehashTimeNanos", rehashTimeNanos);
+        metrics.put("size", size);
+        metrics.put("tableSize", tableSize);
+        metrics.put("loadFactor", getLoadFactor());
+        return metrics;
+    }
+
+    @Override
+    public String toString() {
+        return "MapStats" + asMap();
+    }
+}
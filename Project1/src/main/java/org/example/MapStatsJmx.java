@@ -0,0 +1,125 @@
+package org.example;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Публикация статистики карты в платформенном MBeanServer.
+ *
+ * <p>Объект регистрируется под именем {@code org.example:type=MapStats,name=<name>};
+ * экспортеры JMX (например, jmx_exporter или JMX-биндинги систем метрик) снимают
+ * атрибуты {@link MapStatsMXBean} без изменения кода карты.</p>
+ */
+public final class MapStatsJmx {
+
+    private MapStatsJmx() {
+    }
+
+    /**
+     * Регистрирует MBean со статистикой карты.
+     *
+     * @param map  карта с подключенным {@link StatsRecorder}
+     * @param name имя карты в ObjectName
+     * @return имя зарегистрированного MBean
+     * @throws IllegalStateException если регистрация не удалась, например имя уже занято
+     */
+    public static ObjectName register(MyHashMapImp<?, ?> map, String name) {
+        Objects.requireNonNull(map);
+        return register(map::getStats, name);
+    }
+
+    /**
+     * Регистрирует MBean, читающий статистику из указанного источника.
+     *
+     * @param stats источник снимков статистики
+     * @param name  имя карты в ObjectName
+     * @return имя зарегистрированного MBean
+     * @throws IllegalStateException если регистрация не удалась
+     */
+    public static ObjectName register(Supplier<MapStats> stats, String name) {
+        Objects.requireNonNull(stats);
+        try {
+            ObjectName objectName = new ObjectName("org.example:type=MapStats,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(stats), objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register MBean for map " + name, e);
+        }
+    }
+
+    /**
+     * Снимает MBean с регистрации. Отсутствующий MBean игнорируется.
+     *
+     * @param objectName имя, возвращенное {@link #register}
+     */
+    public static void unregister(ObjectName objectName) {
+        try {
+            if (ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)) {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot unregister MBean " + objectName, e);
+        }
+    }
+
+    private static final class Bean implements MapStatsMXBean {
+        private final Supplier<MapStats> stats;
+
+        Bean(Supplier<MapStats> stats) {
+            this.stats = stats;
+        }
+
+        @Override
+        public long getHitCount() {
+            return stats.get().getHitCount();
+        }
+
+        @Override
+        public long getMissCount() {
+            return stats.get().getMissCount();
+        }
+
+        @Override
+        public double getHitRate() {
+            return stats.get().getHitRate();
+        }
+
+        @Override
+        public long getResizeCount() {
+            return stats.get().getResizeCount();
+        }
+
+        @Override
+        public long getTreeifyCount() {
+            return stats.get().getTreeifyCount();
+        }
+
+        @Override
+        public int getMaxChainLength() {
+            return stats.get().getMaxChainLength();
+        }
+
+        @Override
+        public long getRehashTimeNanos() {
+            return stats.get().getRehashTimeNanos();
+        }
+
+        @Override
+        public int getSize() {
+            return stats.get().getSize();
+        }
+
+        @Override
+        public int getTableSize() {
+            return stats.get().getTableSize();
+        }
+
+        @Override
+        public double getLoadFactor() {
+            return stats.get().getLoadFactor();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.example;
+
+/**
+ * JMX-интерфейс статистики карты. Регистрируется через {@link MapStatsJmx#register}.
+ * Каждый атрибут читается из нового снимка {@link MapStats}.
+ */
+public interface MapStatsMXBean {
+
+    long getHitCount();
+
+    long getMissCount();
+
+    double getHitRate();
+
+    long getResizeCount();
+
+    long getTreeifyCount();
+
+    int getMaxChainLength();
+
+    long getRehashTimeNanos();
+
+    int getSize();
+
+    int getTableSize();
+
+    double getLoadFactor();
+}
@@ -0,0 +1,472 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Карта только для чтения поверх снимка, отображенного в память через {@link FileChannel#map}.
+ *
+ * <p>Снимок создается методом {@link MyHashMapImp#snapshotTo(Path, Codec, Codec)} и
+ * открывается методом {@link MyHashMapImp#mapFrom(Path, Codec, Codec)}. Открытие не читает
+ * записи: файл только отображается в адресное пространство, а страницы подгружаются
+ * операционной системой при первом обращении. Поэтому первый поиск доступен сразу после
+ * открытия, независимо от размера карты.</p>
+ *
+ * <p>Формат файла (little-endian):</p>
+ * <pre>
+ * int magic | int version | int size | int capacity | int maxEntrySize | int reserved
+ * long[capacity + 1] смещения начала корзин
+ * записи, сгруппированные по корзинам:
+ *     int hash | int keyLength | int valueLength | key bytes | value bytes
+ * </pre>
+ * <p>Записи одной корзины лежат подряд, поэтому поиск просматривает непрерывный участок
+ * файла. Хэш-код вычисляется от закодированных байт ключа, а не от {@link Object#hashCode()},
+ * чтобы снимок оставался корректным в другом процессе. Длина -1 обозначает null.</p>
+ *
+ * <p>Изменяющие операции выбрасывают UnsupportedOperationException. Чтение из нескольких
+ * потоков безопасно; {@link #close()} освобождает отображение, после чего любые операции
+ * выбрасывают IllegalStateException.</p>
+ *
+ * @param <K> тип ключей, поддерживаемых этой картой
+ * @param <V> тип отображаемых значений
+ */
+public class MappedHashMap<K, V> extends AbstractMap<K, V> implements Closeable {
+
+    private static final int MAGIC = 0x314D484D;
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 24;
+    private static final int ENTRY_HEADER_SIZE = 12;
+    private static final int NULL_LENGTH = -1;
+
+    /**
+     * Файл отображается участками по 1 ГБ. Каждый участок захватывает еще maxEntrySize байт
+     * следующего, чтобы любая запись целиком помещалась в участок, где она начинается.
+     */
+    private static final int REGION_BITS = 30;
+    private static final long REGION_SIZE = 1L << REGION_BITS;
+    private static final int MAX_ENTRY_SIZE = 1 << 30;
+
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    private static final double LOAD_FACTOR = 0.8;
+
+    private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private final Codec<K> keyCodec;
+    private final Codec<V> valueCodec;
+    private final int size;
+    private final int capacity;
+    private final long dataEnd;
+    private volatile MappedByteBuffer[] regions;
+
+    private Set<Entry<K, V>> entrySet;
+
+    private MappedHashMap(Codec<K> keyCodec, Codec<V> valueCodec, int size, int capacity,
+                          long dataEnd, MappedByteBuffer[] regions) {
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+        this.size = size;
+        this.capacity = capacity;
+        this.dataEnd = dataEnd;
+        this.regions = regions;
+    }
+
+    /**
+     * Записывает содержимое карты в файл. Файл сначала пишется рядом под временным именем
+     * и затем переименовывается, поэтому читатели никогда не видят недописанный снимок.
+     * Карта не должна изменяться во время записи.
+     *
+     * @param map        карта для сохранения
+     * @param path       путь к файлу снимка
+     * @param keyCodec   кодек ключей
+     * @param valueCodec кодек значений
+     * @param <K>        тип ключей
+     * @param <V>        тип значений
+     * @throws IOException при ошибке записи файла
+     */
+    static <K, V> void write(Map<K, V> map, Path path, Codec<K> keyCodec, Codec<V> valueCodec)
+            throws IOException {
+        Objects.requireNonNull(keyCodec);
+        Objects.requireNonNull(valueCodec);
+        int size = map.size();
+        int capacity = capacityFor(size);
+        Encoder encoder = new Encoder();
+
+        // первый проход: размеры корзин
+        long[] bucketStarts = new long[capacity + 1];
+        int maxEntrySize = 0;
+        int count = 0;
+        for (Entry<K, V> entry : map.entrySet()) {
+            int keyLength = encoder.encode(keyCodec, entry.getKey());
+            int valueLength = entry.getValue() == null ? NULL_LENGTH : valueCodec.size(entry.getValue());
+            long entrySize = (long) ENTRY_HEADER_SIZE + Math.max(keyLength, 0) + Math.max(valueLength, 0);
+            if (entrySize > MAX_ENTRY_SIZE) {
+                throw new IllegalArgumentException("Entry of " + entrySize + " bytes is too large");
+            }
+            maxEntrySize = Math.max(maxEntrySize, (int) entrySize);
+            bucketStarts[(encoder.hash() & (capacity - 1)) + 1] += entrySize;
+            count++;
+        }
+        if (count != size) {
+            throw new ConcurrentModificationException();
+        }
+        long position = HEADER_SIZE + (long) Long.BYTES * (capacity + 1);
+        for (int i = 0; i <= capacity; i++) {
+            position += bucketStarts[i];
+            bucketStarts[i] = position;
+        }
+        long fileSize = position;
+
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        MappedByteBuffer[] regions;
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            regions = map(channel, FileChannel.MapMode.READ_WRITE, fileSize, maxEntrySize);
+        }
+        try {
+            ByteBuffer header = regions[0];
+            header.putInt(0, MAGIC);
+            header.putInt(4, VERSION);
+            header.putInt(8, size);
+            header.putInt(12, capacity);
+            header.putInt(16, maxEntrySize);
+            for (int i = 0; i <= capacity; i++) {
+                putLong(regions, HEADER_SIZE + (long) Long.BYTES * i, bucketStarts[i]);
+            }
+
+            // второй проход: записи по корзинам, bucketStarts становится курсором записи
+            for (Entry<K, V> entry : map.entrySet()) {
+                int keyLength = encoder.encode(keyCodec, entry.getKey());
+                int hash = encoder.hash();
+                int bucket = hash & (capacity - 1);
+                V value = entry.getValue();
+                int valueLength = value == null ? NULL_LENGTH : valueCodec.size(value);
+                long entryPosition = bucketStarts[bucket];
+                ByteBuffer region = region(regions, entryPosition);
+                int off = offset(entryPosition);
+                region.putInt(off, hash);
+                region.putInt(off + 4, keyLength);
+                region.putInt(off + 8, valueLength);
+                int keyOff = off + ENTRY_HEADER_SIZE;
+                for (int i = 0; i < keyLength; i++) {
+                    region.put(keyOff + i, encoder.buffer.get(i));
+                }
+                if (value != null) {
+                    valueCodec.write(value, region, keyOff + Math.max(keyLength, 0));
+                }
+                bucketStarts[bucket] = entryPosition + ENTRY_HEADER_SIZE
+                        + Math.max(keyLength, 0) + Math.max(valueLength, 0);
+            }
+            for (MappedByteBuffer region : regions) {
+                region.force();
+            }
+        } finally {
+            for (MappedByteBuffer region : regions) {
+                DirectBuffers.free(region);
+            }
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Открывает снимок, отображая файл в память. Записи не читаются.
+     *
+     * @param path       путь к файлу снимка
+     * @param keyCodec   кодек ключей, которым был записан снимок
+     * @param valueCodec кодек значений, которым был записан снимок
+     * @param <K>        тип ключей
+     * @param <V>        тип значений
+     * @return карта только для чтения
+     * @throws IOException если файл не удалось прочитать или он не является снимком
+     */
+    static <K, V> MappedHashMap<K, V> open(Path path, Codec<K> keyCodec, Codec<V> valueCodec)
+            throws IOException {
+        Objects.requireNonNull(keyCodec);
+        Objects.requireNonNull(valueCodec);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ORDER);
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                // читаем заголовок целиком
+            }
+            if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+                throw new IOException("Not a map snapshot: " + path);
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException("Unsupported snapshot version " + header.getInt(4) + ": " + path);
+            }
+            int size = header.getInt(8);
+            int capacity = header.getInt(12);
+            int maxEntrySize = header.getInt(16);
+            if (Integer.bitCount(capacity) != 1 || HEADER_SIZE + (long) Long.BYTES * (capacity + 1) > fileSize) {
+                throw new IOException("Corrupted snapshot: " + path);
+            }
+            MappedByteBuffer[] regions = map(channel, FileChannel.MapMode.READ_ONLY, fileSize, maxEntrySize);
+            return new MappedHashMap<>(keyCodec, valueCodec, size, capacity, fileSize, regions);
+        }
+    }
+
+    /**
+     * Возвращает количество ключ-значение пар в этой карте.
+     *
+     * @return количество пар в карте
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Проверяет, содержится ли указанный ключ в карте.
+     *
+     * @param key ключ для проверки
+     * @return true если карта содержит ключ, false в противном случае
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return find(regions(), key) >= 0;
+    }
+
+    /**
+     * Возвращает значение, связанное с указанным ключом.
+     * Значение восстанавливается из отображенного файла при каждом вызове.
+     *
+     * @param key ключ, значение которого нужно получить
+     * @return значение, связанное с ключом, или null если ключ не найден
+     */
+    @Override
+    public V get(Object key) {
+        MappedByteBuffer[] regions = regions();
+        long position = find(regions, key);
+        return position < 0 ? null : readValue(regions, position);
+    }
+
+    /**
+     * Возвращает множество всех пар ключ-значение. Обход читает файл последовательно.
+     *
+     * @return множество пар ключ-значение карты
+     */
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        Set<Entry<K, V>> entries = entrySet;
+        if (entries == null) {
+            entries = new EntrySet();
+            entrySet = entries;
+        }
+        return entries;
+    }
+
+    /**
+     * Освобождает отображение файла. Повторный вызов ничего не делает.
+     * Не должен выполняться одновременно с чтением из других потоков.
+     */
+    @Override
+    public void close() {
+        MappedByteBuffer[] mapped = regions;
+        if (mapped == null) {
+            return;
+        }
+        regions = null;
+        for (MappedByteBuffer region : mapped) {
+            DirectBuffers.free(region);
+        }
+    }
+
+    private MappedByteBuffer[] regions() {
+        MappedByteBuffer[] mapped = regions;
+        if (mapped == null) {
+            throw new IllegalStateException("Map is closed");
+        }
+        return mapped;
+    }
+
+    /**
+     * Находит запись по ключу.
+     *
+     * @return позиция записи в файле или -1
+     */
+    @SuppressWarnings("unchecked")
+    private long find(MappedByteBuffer[] regions, Object key) {
+        Encoder encoder = new Encoder();
+        int keyLength;
+        try {
+            keyLength = encoder.encode(keyCodec, (K) key);
+        } catch (ClassCastException e) {
+            return -1;
+        }
+        int hash = encoder.hash();
+        long bucketOffset = HEADER_SIZE + (long) Long.BYTES * (hash & (capacity - 1));
+        long position = getLong(regions, bucketOffset);
+        long end = getLong(regions, bucketOffset + Long.BYTES);
+        while (position < end) {
+            ByteBuffer region = region(regions, position);
+            int off = offset(position);
+            int entryKeyLength = region.getInt(off + 4);
+            if (region.getInt(off) == hash && entryKeyLength == keyLength
+                    && encoder.matches(region, off + ENTRY_HEADER_SIZE)) {
+                return position;
+            }
+            position += ENTRY_HEADER_SIZE + Math.max(entryKeyLength, 0) + Math.max(region.getInt(off + 8), 0);
+        }
+        return -1;
+    }
+
+    private K readKey(MappedByteBuffer[] regions, long position) {
+        ByteBuffer region = region(regions, position);
+        int off = offset(position);
+        int length = region.getInt(off + 4);
+        return length == NULL_LENGTH ? null : keyCodec.read(region, off + ENTRY_HEADER_SIZE, length);
+    }
+
+    private V readValue(MappedByteBuffer[] regions, long position) {
+        ByteBuffer region = region(regions, position);
+        int off = offset(position);
+        int length = region.getInt(off + 8);
+        return length == NULL_LENGTH ? null
+                : valueCodec.read(region, off + ENTRY_HEADER_SIZE + Math.max(region.getInt(off + 4), 0), length);
+    }
+
+    private static int capacityFor(int size) {
+        int capacity = 1;
+        while (capacity < MAXIMUM_CAPACITY && capacity * LOAD_FACTOR <= size) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static MappedByteBuffer[] map(FileChannel channel, FileChannel.MapMode mode, long fileSize,
+                                          int maxEntrySize) throws IOException {
+        int count = (int) ((fileSize + REGION_SIZE - 1) >>> REGION_BITS);
+        MappedByteBuffer[] regions = new MappedByteBuffer[Math.max(count, 1)];
+        long overlap = Math.max(maxEntrySize, Long.BYTES);
+        for (int i = 0; i < regions.length; i++) {
+            long start = (long) i << REGION_BITS;
+            long length = Math.min(REGION_SIZE + overlap, fileSize - start);
+            regions[i] = channel.map(mode, start, length);
+            regions[i].order(ORDER);
+        }
+        return regions;
+    }
+
+    private static ByteBuffer region(ByteBuffer[] regions, long position) {
+        return regions[(int) (position >>> REGION_BITS)];
+    }
+
+    private static int offset(long position) {
+        return (int) (position & (REGION_SIZE - 1));
+    }
+
+    private static long getLong(ByteBuffer[] regions, long position) {
+        return region(regions, position).getLong(offset(position));
+    }
+
+    private static void putLong(ByteBuffer[] regions, long position, long value) {
+        region(regions, position).putLong(offset(position), value);
+    }
+
+    /**
+     * Кодирует ключ во временный буфер и вычисляет хэш-код от полученных байт.
+     */
+    private static final class Encoder {
+        private ByteBuffer buffer = ByteBuffer.allocate(32).order(ORDER);
+        private int length;
+
+        <T> int encode(Codec<T> codec, T value) {
+            if (value == null) {
+                length = NULL_LENGTH;
+                return length;
+            }
+            length = codec.size(value);
+            if (buffer.capacity() < length) {
+                buffer = ByteBuffer.allocate(Math.max(length, buffer.capacity() << 1)).order(ORDER);
+            }
+            codec.write(value, buffer, 0);
+            return length;
+        }
+
+        int hash() {
+            int h = 1;
+            for (int i = 0; i < length; i++) {
+                h = 31 * h + buffer.get(i);
+            }
+            h *= 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        boolean matches(ByteBuffer region, int off) {
+            for (int i = 0; i < length; i++) {
+                if (region.get(off + i) != buffer.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Представление пар ключ-значение: последовательный обход области записей.
+     */
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            MappedByteBuffer[] mapped = regions();
+            long position = find(mapped, e.getKey());
+            return position >= 0 && Objects.equals(readValue(mapped, position), e.getValue());
+        }
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            MappedByteBuffer[] mapped = regions();
+            return new Iterator<>() {
+                private long position = HEADER_SIZE + (long) Long.BYTES * (capacity + 1);
+
+                @Override
+                public boolean hasNext() {
+                    return position < dataEnd;
+                }
+
+                @Override
+                public Entry<K, V> next() {
+                    if (regions == null) {
+                        throw new IllegalStateException("Map is closed");
+                    }
+                    if (position >= dataEnd) {
+                        throw new NoSuchElementException();
+                    }
+                    Entry<K, V> entry = new SimpleImmutableEntry<>(readKey(mapped, position),
+                            readValue(mapped, position));
+                    ByteBuffer region = region(mapped, position);
+                    int off = offset(position);
+                    position += ENTRY_HEADER_SIZE + Math.max(region.getInt(off + 4), 0)
+                            + Math.max(region.getInt(off + 8), 0);
+                    return entry;
+                }
+            };
+        }
+    }
+}
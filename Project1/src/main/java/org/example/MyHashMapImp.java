@@ -1,12 +1,26 @@
 package org.example;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.AbstractMap;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * Пользовательская реализация интерфейса Map на основе хэш-таблицы.
@@ -17,11 +31,32 @@ import java.util.AbstractMap;
  *
  * <p>Карта использует динамический массив узлов, где каждый узел представляет
  * пару ключ-значение. При возникновении коллизий узлы хранятся в виде связного списка
- * в одном и том же индексе корзины.</p>
+ * в одном и том же индексе корзины. Если цепочка вырастает до {@value #TREEIFY_THRESHOLD}
+ * узлов, корзина превращается в сбалансированное дерево, и поиск в ней выполняется
+ * за O(log n) даже при массовых коллизиях хэш-кодов.</p>
  *
  * <p>Реализация автоматически изменяет размер внутреннего массива при превышении
  * коэффициента загрузки или когда карта становится слишком разреженной, поддерживая
- * эффективную производительность для операций put и get.</p>
+ * эффективную производительность для операций put и get. Емкость таблицы всегда
+ * является степенью двойки, поэтому индекс корзины вычисляется по маске, а хэш-коды
+ * ключей предварительно перемешиваются.</p>
+ *
+ * <p>В режиме инкрементального изменения размера ({@link #setIncrementalRehash(boolean)})
+ * таблица не перестраивается за один вызов: старая и новая таблицы существуют одновременно,
+ * каждая последующая операция записи переносит ограниченное число корзин, а поиск
+ * просматривает обе таблицы, пока перенос не завершится. Это убирает паузы
+ * изменения размера на больших картах ценой небольшой дополнительной работы на запись.</p>
+ *
+ * <p>Методы {@link #keySet()}, {@link #values()} и {@link #entrySet()} возвращают
+ * представления, которые читают таблицу напрямую и отражают все изменения карты.
+ * Их итераторы не создают объектов на каждый элемент (элементы entrySet - сами узлы
+ * таблицы), поддерживают {@link Iterator#remove()} и при изменении карты в обход
+ * итератора выбрасывают {@link ConcurrentModificationException}.</p>
+ *
+ * <p>В режиме индекса значений ({@link #setValueIndex(boolean)}) карта дополнительно
+ * хранит обратный индекс значение -> ключи, который обновляется каждой записью и
+ * удалением. Тогда {@link #containsValue(Object)} и представление {@link #inverse()}
+ * работают за O(1) вместо полного просмотра таблицы.</p>
  *
  * @param <K> тип ключей, поддерживаемых этой картой
  * @param <V> тип отображаемых значений
@@ -30,19 +65,111 @@ public class MyHashMapImp<K, V> implements Map<K, V> {
 
     private static final int DEFAULT_CAPACITY = 16;
 
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * Количество корзин старой таблицы, переносимых за одну операцию записи
+     * в режиме инкрементального изменения размера. Перенос заканчивается задолго
+     * до того, как новая таблица заполнится до порога следующего изменения размера.
+     */
+    private static final int REHASH_STEP = 16;
+
+    /**
+     * Длина цепочки, при достижении которой корзина превращается в дерево.
+     */
+    static final int TREEIFY_THRESHOLD = 8;
+
+    /**
+     * Размер дерева, при уменьшении до которого корзина снова становится цепочкой.
+     * Меньше порога превращения в дерево, чтобы корзина не переключалась на каждой операции.
+     */
+    static final int UNTREEIFY_THRESHOLD = 6;
+
     private int capacity;
     private int size;
-    private double loadFactor = 0.8;
+    private ResizePolicy resizePolicy;
+
+    /**
+     * Емкость, ниже которой таблица не уменьшается. Задается конструктором и
+     * {@link #ensureCapacity(int)}, сбрасывается {@link #trimToSize()}.
+     */
+    private int minCapacity;
+
+    private Node<K, V>[] table;
+
+    /**
+     * Старая таблица, узлы которой еще переносятся в table.
+     * Равна null, если перенос не выполняется.
+     */
+    private Node<K, V>[] oldTable;
+    private int oldCapacity;
+    private int rehashIndex;
+    private boolean incrementalRehash;
+
+    /**
+     * Количество структурных изменений карты: добавлений и удалений ключей.
+     * Используется итераторами для обнаружения изменений в обход итератора.
+     */
+    int modCount;
+
+    private Set<K> keySet;
+    private Collection<V> values;
+    private Set<Entry<K, V>> entrySet;
 
-    private Node[] table;
+    private StatsRecorder stats = StatsRecorder.noop();
+
+    /**
+     * Обратный индекс значение -> ключи. Равен null, пока режим индекса значений выключен.
+     */
+    private ValueIndex valueIndex;
 
     /**
      * Создает новую пустую карту с начальной емкостью по умолчанию (16).
      */
     public MyHashMapImp() {
-        table = new Node[DEFAULT_CAPACITY];
+        this(DEFAULT_CAPACITY, ResizePolicy.DEFAULT);
+    }
+
+    /**
+     * Создает новую пустую карту с указанной начальной емкостью.
+     * Таблица не будет уменьшаться ниже этой емкости.
+     *
+     * @param initialCapacity начальное количество корзин; округляется вверх до степени двойки
+     * @throws IllegalArgumentException если емкость отрицательна
+     */
+    public MyHashMapImp(int initialCapacity) {
+        this(initialCapacity, ResizePolicy.DEFAULT);
+    }
+
+    /**
+     * Создает новую пустую карту с указанной начальной емкостью и коэффициентом загрузки.
+     * Порог уменьшения таблицы в четыре раза меньше коэффициента загрузки.
+     *
+     * @param initialCapacity начальное количество корзин; округляется вверх до степени двойки
+     * @param loadFactor      заполненность, при которой таблица увеличивается
+     * @throws IllegalArgumentException если емкость отрицательна или коэффициент не положителен
+     * @see ResizePolicy#withLoadFactor(double)
+     */
+    public MyHashMapImp(int initialCapacity, double loadFactor) {
+        this(initialCapacity, ResizePolicy.withLoadFactor(loadFactor));
+    }
+
+    /**
+     * Создает новую пустую карту с указанной начальной емкостью и правилом изменения размера.
+     *
+     * @param initialCapacity начальное количество корзин; округляется вверх до степени двойки
+     * @param resizePolicy    правило изменения размера
+     * @throws IllegalArgumentException если емкость отрицательна
+     */
+    public MyHashMapImp(int initialCapacity, ResizePolicy resizePolicy) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
+        }
+        this.resizePolicy = Objects.requireNonNull(resizePolicy);
+        capacity = tableSizeFor(initialCapacity);
+        minCapacity = capacity;
+        table = newTable(capacity);
         size = 0;
-        capacity = DEFAULT_CAPACITY;
     }
 
     /**
@@ -91,12 +218,22 @@ public class MyHashMapImp<K, V> implements Map<K, V> {
         if (size == 0) {
             return false;
         }
+        if (valueIndex != null) {
+            return valueIndex.contains(value);
+        }
         for (int i = 0; i < capacity; i++) {
             if (table[i] != null) {
                 result = checkValue(table[i], value);
             }
             if (result) {
-                break;
+                return true;
+            }
+        }
+        if (oldTable != null) {
+            for (int i = rehashIndex; i < oldCapacity; i++) {
+                if (oldTable[i] != null && checkValue(oldTable[i], value)) {
+                    return true;
+                }
             }
         }
         return result;
@@ -111,15 +248,17 @@ public class MyHashMapImp<K, V> implements Map<K, V> {
     @Override
     public V get(Object key) {
         if (size == 0) {
+            stats.recordMiss();
             return null;
         }
-        int hash = getHashCode(key);
-        int index = getIndex(hash);
-        V resVal = null;
-        if (table[index] != null) {
-            resVal = getNode(index, hash, key);
+        Node<K, V> node = findNode(getHashCode(key), key);
+        if (node == null || expireOnRead(node)) {
+            stats.recordMiss();
+            return null;
         }
-        return resVal;
+        stats.recordHit();
+        afterNodeAccess(node);
+        return node.value;
     }
 
     /**
@@ -131,18 +270,51 @@ public class MyHashMapImp<K, V> implements Map<K, V> {
      */
     @Override
     public V put(K key, V value) {
-        int hash = getHashCode(key);
+        return putVal(key, value, true);
+    }
+
+    /**
+     * Реализация put.
+     *
+     * @param key           ключ для связи со значением
+     * @param value         значение для связи с ключом
+     * @param resizeAllowed true если после вставки можно изменить размер таблицы
+     * @return предыдущее значение, связанное с ключом, или null если ключ не существовал
+     */
+    private V putVal(K key, V value, boolean resizeAllowed) {
+        return putVal(getHashCode(key), key, value, resizeAllowed);
+    }
+
+    /**
+     * Реализация put для ключа с уже вычисленным хэш-кодом.
+     *
+     * @param hash          хэш-код ключа, как его вычисляет {@link #getHashCode(Object)}
+     * @param key           ключ для связи со значением
+     * @param value         значение для связи с ключом
+     * @param resizeAllowed true если после вставки можно изменить размер таблицы
+     * @return предыдущее значение, связанное с ключом, или null если ключ не существовал
+     */
+    private V putVal(int hash, K key, V value, boolean resizeAllowed) {
+        prepareBucket(hash);
         int index = getIndex(hash);
+        int previousSize = size;
         V resVal = null;
 
         if (table[index] == null) {
-            Node<K, V> newNode = new Node(hash, key, value, null);
-            table[index] = newNode;
+            table[index] = createNode(hash, key, value);
             size++;
+            modCount++;
+        } else if (table[index] instanceof TreeBin) {
+            resVal = addTreeNode((TreeBin<K, V>) table[index], hash, key, value);
         } else {
             resVal = addNode(index, hash, key, value);
         }
-        resize();
+        if (size > previousSize) {
+            afterNodeInsertion();
+        }
+        if (resizeAllowed) {
+            resize();
+        }
         return resVal;
     }
 
@@ -154,31 +326,96 @@ public class MyHashMapImp<K, V> implements Map<K, V> {
      */
     @Override
     public V remove(Object key) {
+        Node<K, V> node = removeMapping(key, true);
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Удаляет узел с указанным ключом.
+     * Итератор удаляет узлы без изменения размера таблицы, чтобы не нарушить
+     * порядок обхода; уменьшение таблицы произойдет при следующей записи.
+     *
+     * @param key           ключ, который нужно удалить
+     * @param resizeAllowed true если после удаления можно изменить размер таблицы
+     * @return удаленный узел или null если ключ не найден
+     */
+    Node<K, V> removeMapping(Object key, boolean resizeAllowed) {
+        return size == 0 ? null : removeMapping(getHashCode(key), key, resizeAllowed);
+    }
+
+    /**
+     * Удаляет узел с указанным ключом, хэш-код которого уже вычислен, например взят
+     * из узла другой карты.
+     *
+     * @param hash          хэш-код ключа, как его вычисляет {@link #getHashCode(Object)}
+     * @param key           ключ, который нужно удалить
+     * @param resizeAllowed true если после удаления можно изменить размер таблицы
+     * @return удаленный узел или null если ключ не найден
+     */
+    Node<K, V> removeMapping(int hash, Object key, boolean resizeAllowed) {
         if (size == 0) {
             return null;
         }
-        int hash = getHashCode(key);
+        prepareBucket(hash);
         int index = getIndex(hash);
-        V resVal = null;
-        if (table[index] != null) {
-            resVal = removeNode(index, hash, key);
+        Node<K, V> removed = null;
+        if (table[index] instanceof TreeBin) {
+            removed = removeTreeNode(index, hash, key);
+        } else if (table[index] != null) {
+            removed = removeNode(index, hash, key);
         }
-        resize();
-        return resVal;
+        if (resizeAllowed) {
+            resize();
+        }
+        return removed;
+    }
+
+    /**
+     * Удаляет узел, не считая удаление структурным изменением: открытые итераторы
+     * не выбрасывают {@link ConcurrentModificationException} и продолжают обход.
+     * Размер таблицы не меняется. Узел, который итератор уже выбрал следующим,
+     * все равно будет им возвращен, поэтому метод подходит только для пар,
+     * которые вызывающий код сам умеет пропускать при обходе.
+     *
+     * @param key ключ, который нужно удалить
+     * @return удаленный узел или null если ключ не найден
+     */
+    Node<K, V> removeQuietly(Object key) {
+        int expectedModCount = modCount;
+        Node<K, V> node = removeMapping(key, false);
+        modCount = expectedModCount;
+        return node;
     }
 
     /**
      * Копирует все пары ключ-значение из указанной карты в эту карту.
+     * Таблица заранее увеличивается один раз так, чтобы вместить обе карты,
+     * после чего пары вставляются без промежуточных изменений размера.
      *
      * @param m карта, пары которой будут скопированы
      */
     @Override
     public void putAll(Map<? extends K, ? extends V> m) {
-        Set<? extends K> keys = m.keySet();
-        for (K key : keys) {
-            V value = m.get(key);
-            this.put(key, value);
+        int expectedSize = (int) Math.min((long) size + m.size(), Integer.MAX_VALUE);
+        if (resizePolicy.shouldGrow(expectedSize, capacity)) {
+            int target = resizePolicy.capacityFor(expectedSize, MAXIMUM_CAPACITY);
+            if (target > capacity) {
+                rebuild(target);
+            }
+        }
+        if (m.getClass() == MyHashMapImp.class) {
+            // порядок обхода узлов совпадает с entrySet, а хэш-коды берутся из узлов
+            for (Iterator<? extends Node<? extends K, ? extends V>> it =
+                         ((MyHashMapImp<? extends K, ? extends V>) m).nodeIterator(); it.hasNext(); ) {
+                Node<? extends K, ? extends V> node = it.next();
+                putVal(node.hash, node.key, node.value, false);
+            }
+        } else {
+            for (Entry<? extends K, ? extends V> entry : m.entrySet()) {
+                putVal(entry.getKey(), entry.getValue(), false);
+            }
         }
+        resize();
     }
 
     /**
@@ -189,344 +426,2370 @@ public class MyHashMapImp<K, V> implements Map<K, V> {
         for (int i = 0; i < capacity; i++) {
             table[i] = null;
         }
+        oldTable = null;
         size = 0;
+        modCount++;
+        if (valueIndex != null) {
+            valueIndex.clear();
+        }
     }
 
     /**
      * Возвращает множество всех ключей, содержащихся в этой карте.
+     * Множество является представлением карты: изменения карты видны в нем,
+     * а удаление ключа из множества удаляет пару из карты.
      *
      * @return множество ключей карты
      */
     @Override
     public Set<K> keySet() {
-        if (size == 0) {
-            return Collections.emptySet();
-        }
-        Set<K> keys = new HashSet<>();
-        for (int i = 0; i < capacity; i++) {
-            if (table[i] != null) {
-                addKeys(table[i], keys);
-            }
+        Set<K> keys = keySet;
+        if (keys == null) {
+            keys = new KeySet();
+            keySet = keys;
         }
         return keys;
     }
 
     /**
      * Возвращает коллекцию всех значений, содержащихся в этой карте.
+     * Коллекция является представлением карты и содержит по одному значению
+     * на каждую пару, включая повторяющиеся значения.
      *
      * @return коллекция значений карты
      */
     @Override
     public Collection<V> values() {
-        if (size == 0) {
-            return Collections.emptySet();
-        }
-        Set<V> values = new HashSet<>();
-        Set<K> keys = keySet();
-        for (K key : keys) {
-            values.add(get(key));
+        Collection<V> vals = values;
+        if (vals == null) {
+            vals = new Values();
+            values = vals;
         }
-        return values;
+        return vals;
     }
 
     /**
      * Возвращает множество всех пар ключ-значение, содержащихся в этой карте.
+     * Элементами множества являются сами узлы таблицы, поэтому
+     * {@link Entry#setValue(Object)} изменяет значение в карте.
      *
      * @return множество пар ключ-значение карты
      */
     @Override
     public Set<Entry<K, V>> entrySet() {
-        if (size == 0) {
-            return Collections.emptySet();
-        }
-        Set<Entry<K, V>> entries = new HashSet<>();
-        Set<K> keys = keySet();
-        for (K key : keys) {
-            V value = get(key);
-            Entry<K, V> entry = new AbstractMap.SimpleEntry(key, value);
-            entries.add(entry);
+        Set<Entry<K, V>> entries = entrySet;
+        if (entries == null) {
+            entries = new EntrySet();
+            entrySet = entries;
         }
         return entries;
     }
 
     /**
-     * Вычисляет хэш-код для ключа.
+     * Передает все пары карты указанному обработчику, обходя корзины напрямую.
      *
-     * @param key ключ для вычисления хэш-кода
-     * @return хэш-код ключа
+     * @param action обработчик пар
+     * @throws ConcurrentModificationException если обработчик изменил структуру карты
      */
-    private <K> int getHashCode(K key) {
-        return Objects.hashCode(key);
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        forEachInTable(table, 0, capacity, action);
+        if (oldTable != null) {
+            forEachInTable(oldTable, rehashIndex, oldCapacity, action);
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
     }
 
     /**
-     * Вычисляет индекс в массиве table на основе хэш-кода.
+     * Возвращает значение, связанное с ключом, или значение по умолчанию,
+     * если ключ не найден. Выполняет один поиск.
      *
-     * @param hash хэш-код ключа
-     * @return индекс в массиве table
+     * @param key          ключ, значение которого нужно получить
+     * @param defaultValue значение по умолчанию
+     * @return значение ключа (в том числе null) или defaultValue если ключа нет
      */
-    private int getIndex(int hash) {
-        return hash & (capacity - 1);
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        if (size == 0) {
+            stats.recordMiss();
+            return defaultValue;
+        }
+        Node<K, V> node = findNode(getHashCode(key), key);
+        if (node == null || expireOnRead(node)) {
+            stats.recordMiss();
+            return defaultValue;
+        }
+        stats.recordHit();
+        afterNodeAccess(node);
+        return node.value;
     }
 
     /**
-     * Добавляет новый узел или обновляет существующий в случае коллизии.
+     * Связывает значение с ключом, если ключ отсутствует или связан с null.
+     * Корзина просматривается один раз.
      *
-     * @param index индекс в массиве table
-     * @param hash  хэш-код ключа
      * @param key   ключ
      * @param value значение
-     * @return предыдущее значение, связанное с ключом, или null если ключ не существовал
+     * @return предыдущее значение или null если ключ отсутствовал или был связан с null
      */
-    private V addNode(int index, int hash, K key, V value) {
-        V resVal = null;
-        Node<K, V> currentNode = table[index];
-        Node<K, V> lastNode = null;
-
-        while (currentNode != null) {
-            if (currentNode.hash == hash && (currentNode.key == key || (key != null && key.equals(currentNode.key)))) {
-                resVal = currentNode.value;
-                currentNode.value = value;
-                break;
+    @Override
+    public V putIfAbsent(K key, V value) {
+        int hash = getHashCode(key);
+        prepareBucket(hash);
+        Node<K, V> node = findInBucket(getIndex(hash), hash, key);
+        if (node != null) {
+            V resVal = node.value;
+            if (resVal == null) {
+                setNodeValue(node, value);
+                afterNodeUpdate(node);
+            } else {
+                afterNodeAccess(node);
             }
-            lastNode = currentNode;
-            currentNode = currentNode.next;
-        }
-        if (resVal == null && lastNode != null && lastNode.next == null) {
-            lastNode.next = new Node<>(hash, key, value, null);
-            size++;
+            return resVal;
         }
-        return resVal;
+        insertNode(hash, key, value);
+        afterNodeInsertion();
+        resize();
+        return null;
     }
 
     /**
-     * Находит и возвращает значение узла по ключу.
+     * Если ключ отсутствует или связан с null, вычисляет значение функцией и
+     * связывает его с ключом. Результат null ничего не добавляет.
+     * Поиск и вставка выполняются за один просмотр корзины.
      *
-     * @param index индекс в массиве table
-     * @param hash  хэш-код ключа
-     * @param key   ключ для поиска
-     * @return значение, связанное с ключом, или null если ключ не найден
+     * @param key             ключ
+     * @param mappingFunction функция вычисления значения
+     * @return текущее (существующее или вычисленное) значение, или null
+     * @throws ConcurrentModificationException если функция изменила карту
      */
-    private V getNode(int index, int hash, Object key) {
-        V resVal = null;
-        Node<K, V> currentNode = table[index];
-        while (currentNode != null) {
-            if (currentNode.hash == hash && (currentNode.key == key || (key != null && key.equals(currentNode.key)))) {
-                resVal = currentNode.value;
-                break;
-            }
-            currentNode = currentNode.next;
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        Objects.requireNonNull(mappingFunction);
+        int hash = getHashCode(key);
+        prepareBucket(hash);
+        Node<K, V> node = findInBucket(getIndex(hash), hash, key);
+        if (node != null && node.value != null) {
+            afterNodeAccess(node);
+            return node.value;
         }
-        return resVal;
+        int expectedModCount = modCount;
+        V value = mappingFunction.apply(key);
+        checkModCount(expectedModCount);
+        if (value == null) {
+            return null;
+        }
+        if (node != null) {
+            setNodeValue(node, value);
+            afterNodeUpdate(node);
+            return value;
+        }
+        insertNode(hash, key, value);
+        afterNodeInsertion();
+        resize();
+        return value;
     }
 
     /**
-     * Удаляет узел по ключу.
+     * Если ключ связан со значением, отличным от null, вычисляет новое значение.
+     * Результат null удаляет пару.
      *
-     * @param index индекс в массиве table
-     * @param hash  хэш-код ключа
-     * @param key   ключ для удаления
-     * @return значение удаленного узла или null если ключ не найден
+     * @param key               ключ
+     * @param remappingFunction функция вычисления нового значения по ключу и старому значению
+     * @return новое значение или null
+     * @throws ConcurrentModificationException если функция изменила карту
      */
-    private V removeNode(int index, int hash, Object key) {
-        V resVal = null;
-        Node<K, V> currentNode = table[index];
-        Node<K, V> lastNode = null;
-
-        while (currentNode != null) {
-            if (currentNode.hash == hash && (currentNode.key == key || (key != null && key.equals(currentNode.key)))) {
-                resVal = currentNode.value;
-                size--;
-                break;
-            }
-            lastNode = currentNode;
-            currentNode = currentNode.next;
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        if (size == 0) {
+            return null;
+        }
+        int hash = getHashCode(key);
+        prepareBucket(hash);
+        int index = getIndex(hash);
+        Node<K, V> node = findInBucket(index, hash, key);
+        if (node == null || node.value == null) {
+            return null;
         }
-        if (resVal != null && lastNode != null && currentNode != null) {
-            lastNode.next = currentNode.next;
-        } else if (resVal != null && lastNode == null) {
-            table[index] = currentNode.next;
+        int expectedModCount = modCount;
+        V value = remappingFunction.apply(key, node.value);
+        checkModCount(expectedModCount);
+        if (value == null) {
+            unlinkNode(index, node);
+            resize();
+            return null;
         }
-        return resVal;
+        setNodeValue(node, value);
+        afterNodeUpdate(node);
+        return value;
     }
 
     /**
-     * Проверяет наличие ключа в карте.
+     * Вычисляет новое значение по ключу и текущему значению (null если ключа нет).
+     * Результат null удаляет пару, если она была.
      *
-     * @param key ключ для проверки
-     * @return true если ключ существует, false в противном случае
+     * @param key               ключ
+     * @param remappingFunction функция вычисления нового значения
+     * @return новое значение или null
+     * @throws ConcurrentModificationException если функция изменила карту
      */
-    private boolean checkKey(Object key) {
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
         int hash = getHashCode(key);
+        prepareBucket(hash);
         int index = getIndex(hash);
-        boolean result = false;
-        if (table[index] != null) {
-            Node<K, V> currentNode = table[index];
-            while (currentNode != null) {
-                if (currentNode.hash == hash && (currentNode.key == key || (key != null && key.equals(currentNode.key)))) {
-                    result = true;
-                    break;
-                }
-                currentNode = currentNode.next;
-            }
-        }
-        return result;
+        Node<K, V> node = findInBucket(index, hash, key);
+        int expectedModCount = modCount;
+        V value = remappingFunction.apply(key, node == null ? null : node.value);
+        checkModCount(expectedModCount);
+        return setComputed(index, hash, key, node, value);
     }
 
     /**
-     * Проверяет наличие значения в карте.
+     * Связывает ключ со значением, если ключ отсутствует или связан с null,
+     * иначе заменяет значение результатом функции от старого и переданного значений.
+     * Результат null удаляет пару. Удобно для подсчета: {@code merge(word, 1, Integer::sum)}.
      *
-     * @param node  начальный узел для поиска
-     * @param value значение для проверки
-     * @return true если значение существует, false в противном случае
+     * @param key               ключ
+     * @param value             значение, не null
+     * @param remappingFunction функция объединения старого и нового значений
+     * @return новое значение или null
+     * @throws NullPointerException            если value или функция равны null
+     * @throws ConcurrentModificationException если функция изменила карту
      */
-    private boolean checkValue(Node<K, V> node, Object value) {
-        boolean result = false;
-        while (node != null) {
-            if (value == null ? node.value == null : value.equals(node.value)) {
-                result = true;
-                break;
-            }
-            node = node.next;
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(value);
+        Objects.requireNonNull(remappingFunction);
+        int hash = getHashCode(key);
+        prepareBucket(hash);
+        int index = getIndex(hash);
+        Node<K, V> node = findInBucket(index, hash, key);
+        V newValue = value;
+        if (node != null && node.value != null) {
+            int expectedModCount = modCount;
+            newValue = remappingFunction.apply(node.value, value);
+            checkModCount(expectedModCount);
         }
-        return result;
+        return setComputed(index, hash, key, node, newValue);
     }
 
     /**
-     * Добавляет все ключи из цепочки узлов в множество.
+     * Записывает результат compute или merge: обновляет найденный узел, вставляет
+     * новый или удаляет узел, если результат равен null. Размер таблицы проверяется
+     * не более одного раза.
      *
-     * @param node начальный узел цепочки
-     * @param set  множество для добавления ключей
+     * @param index индекс корзины ключа
+     * @param hash  хэш-код ключа
+     * @param key   ключ
+     * @param node  найденный узел или null
+     * @param value новое значение
+     * @return новое значение
      */
-    void addKeys(Node<K, V> node, Set<K> set) {
-        while (node != null) {
-            set.add(node.key);
-            node = node.next;
+    private V setComputed(int index, int hash, K key, Node<K, V> node, V value) {
+        if (value == null) {
+            if (node != null) {
+                unlinkNode(index, node);
+                resize();
+            }
+            return null;
         }
+        if (node != null) {
+            setNodeValue(node, value);
+            afterNodeUpdate(node);
+            return value;
+        }
+        insertNode(hash, key, value);
+        afterNodeInsertion();
+        resize();
+        return value;
     }
 
     /**
-     * Изменяет размер внутренней таблицы при необходимости.
-     * Увеличивает размер при превышении коэффициента загрузки и
-     * уменьшает при сильном разрежении таблицы.
+     * Находит узел в корзине текущей таблицы. Во время инкрементального переноса
+     * корзина ключа должна быть предварительно перенесена вызовом prepareBucket.
+     *
+     * @param index индекс корзины
+     * @param hash  хэш-код ключа
+     * @param key   ключ для поиска
+     * @return узел с ключом или null если ключ не найден
      */
-    private void resize() {
-        if (size >= capacity * loadFactor) {
-            int oldCapacity = capacity;
-            int newCapacity = (int) (capacity * 1.5);
-            Node[] oldTable = table;
-            table = new Node[newCapacity];
-            capacity = newCapacity;
-            addAllNodes(oldTable, oldCapacity);
-        } else if (size < ((capacity / 1.5) * loadFactor - 1) && capacity > 16) {
-            int oldCapacity = capacity;
-            int newCapacity = (int) (capacity / 1.5);
-            Node[] oldTable = table;
-            table = new Node[newCapacity];
-            capacity = newCapacity;
-            addAllNodes(oldTable, oldCapacity);
+    private Node<K, V> findInBucket(int index, int hash, Object key) {
+        Node<K, V> currentNode = table[index];
+        if (currentNode instanceof TreeBin) {
+            return ((TreeBin<K, V>) currentNode).find(hash, key);
         }
+        while (currentNode != null) {
+            if (currentNode.hash == hash && (currentNode.key == key || (key != null && key.equals(currentNode.key)))) {
+                return currentNode;
+            }
+            currentNode = currentNode.next;
+        }
+        return null;
     }
 
     /**
-     * Перемещает все узлы из старой таблицы в новую при изменении размера.
+     * Вставляет новый узел в голову цепочки его корзины без изменения размера таблицы.
      *
-     * @param oldTable    старая таблица узлов
-     * @param oldCapacity емкость старой таблицы
+     * @param hash  хэш-код ключа
+     * @param key   ключ
+     * @param value значение
      */
-    private void addAllNodes(Node[] oldTable, int oldCapacity) {
-        for (int i = 0; i < oldCapacity; i++) {
-            if (oldTable[i] != null) {
-                Node<K, V> currentNode = oldTable[i];
-                while (currentNode != null) {
-                    this.putResize(currentNode.key, currentNode.value);
-                    currentNode = currentNode.next;
-                }
-            }
-        }
+    private void insertNode(int hash, K key, V value) {
+        linkNode(createNode(hash, key, value));
+        size++;
+        modCount++;
     }
 
     /**
-     * Специальная версия метода put для использования при изменении размера.
-     * Не вызывает рекурсивное изменение размера.
+     * Удаляет найденный узел из его корзины без изменения размера таблицы.
      *
-     * @param key   ключ для добавления
-     * @param value значение для добавления
+     * @param index индекс корзины
+     * @param node  узел для удаления
      */
-    public void putResize(K key, V value) {
-        int hash = getHashCode(key);
-        int index = getIndex(hash);
-
-        if (table[index] == null) {
-            Node<K, V> newNode = new Node(hash, key, value, null);
-            table[index] = newNode;
+    private void unlinkNode(int index, Node<K, V> node) {
+        if (table[index] instanceof TreeBin) {
+            removeTreeNode(index, node.hash, node.key);
         } else {
-            addNodeResize(index, hash, key, value);
+            removeNode(index, node.hash, node.key);
         }
     }
 
     /**
-     * Специальная версия метода addNode для использования при изменении размера.
+     * Проверяет, что функция, переданная в compute или merge, не изменила структуру карты.
      *
-     * @param index индекс в массиве table
-     * @param hash  хэш-код ключа
-     * @param key   ключ
-     * @param value значение
+     * @param expectedModCount значение modCount до вызова функции
+     * @throws ConcurrentModificationException если карта изменилась
      */
-    private void addNodeResize(int index, int hash, K key, V value) {
-        Node<K, V> currentNode = table[index];
-        Node<K, V> lastNode = null;
-        int flag = 0;
-        while (currentNode != null) {
-            if (currentNode.hash == hash && (currentNode.key == key || (key != null && key.equals(currentNode.key)))) {
-                currentNode.value = value;
-                flag = 1;
-                break;
-            }
-            lastNode = currentNode;
-            currentNode = currentNode.next;
-        }
-        if (flag == 0 && lastNode != null && lastNode.next == null) {
-            lastNode.next = new Node<>(hash, key, value, null);
+    private void checkModCount(int expectedModCount) {
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
         }
     }
 
+    /**
+     * Передает все пары обработчику, при достаточном размере карты - параллельно
+     * в ForkJoinPool.commonPool(). Порог задается так же, как в bulk-операциях
+     * ConcurrentHashMap: если в карте меньше parallelismThreshold пар, обход
+     * выполняется в текущем потоке; Long.MAX_VALUE отключает параллелизм, 1 дает
+     * наибольшее число подзадач.
+     *
+     * <p>Карта не должна изменяться во время операции; обработчик вызывается из разных
+     * потоков и сам отвечает за синхронизацию своего состояния.</p>
+     *
+     * @param parallelismThreshold количество пар, начиная с которого обход распараллеливается
+     * @param action               обработчик пар
+     * @throws ConcurrentModificationException если карта изменилась во время обхода
+     */
+    public void forEach(long parallelismThreshold, BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        completeRehash();
+        int expectedModCount = modCount;
+        new ForEachTask(table, 0, capacity, leafBuckets(parallelismThreshold), action).invoke();
+        checkModCount(expectedModCount);
+    }
+
+    /**
+     * Преобразует каждую пару функцией и объединяет результаты, отличные от null,
+     * функцией reducer, при достаточном размере карты - параллельно.
+     * Порядок объединения не определен, поэтому reducer должен быть ассоциативным
+     * и коммутативным.
+     *
+     * @param parallelismThreshold количество пар, начиная с которого операция распараллеливается
+     * @param transformer          функция преобразования пары; null означает пропустить пару
+     * @param reducer              функция объединения двух результатов
+     * @param <U>                  тип результата
+     * @return объединенный результат или null если все преобразования вернули null
+     * @throws ConcurrentModificationException если карта изменилась во время операции
+     * @see #forEach(long, BiConsumer)
+     */
+    public <U> U reduce(long parallelismThreshold, BiFunction<? super K, ? super V, ? extends U> transformer,
+                        BiFunction<? super U, ? super U, ? extends U> reducer) {
+        Objects.requireNonNull(transformer);
+        Objects.requireNonNull(reducer);
+        completeRehash();
+        int expectedModCount = modCount;
+        U result = new ReduceTask<U>(table, 0, capacity, leafBuckets(parallelismThreshold),
+                transformer, reducer).invoke();
+        checkModCount(expectedModCount);
+        return result;
+    }
+
+    /**
+     * Ищет пару, для которой функция возвращает не null, при достаточном размере
+     * карты - параллельно. После первого найденного результата остальные подзадачи
+     * прекращают обход. Если подходящих пар несколько, возвращается любой из результатов.
+     *
+     * @param parallelismThreshold количество пар, начиная с которого поиск распараллеливается
+     * @param searchFunction       функция, возвращающая результат для подходящей пары или null
+     * @param <U>                  тип результата
+     * @return результат функции для найденной пары или null
+     * @throws ConcurrentModificationException если карта изменилась во время поиска
+     * @see #forEach(long, BiConsumer)
+     */
+    public <U> U search(long parallelismThreshold, BiFunction<? super K, ? super V, ? extends U> searchFunction) {
+        Objects.requireNonNull(searchFunction);
+        completeRehash();
+        int expectedModCount = modCount;
+        AtomicReference<U> result = new AtomicReference<>();
+        new SearchTask<U>(table, 0, capacity, leafBuckets(parallelismThreshold), searchFunction, result).invoke();
+        checkModCount(expectedModCount);
+        return result.get();
+    }
+
+    /**
+     * Проверяет, содержится ли значение в карте, просматривая корзины параллельно.
+     *
+     * @param parallelismThreshold количество пар, начиная с которого поиск распараллеливается
+     * @param value                значение для проверки
+     * @return true если карта содержит значение, false в противном случае
+     * @see #search(long, BiFunction)
+     */
+    public boolean parallelContainsValue(long parallelismThreshold, Object value) {
+        if (size == 0) {
+            return false;
+        }
+        return search(parallelismThreshold,
+                (k, v) -> Objects.equals(v, value) ? Boolean.TRUE : null) != null;
+    }
+
+    /**
+     * Вычисляет количество корзин в одной подзадаче bulk-операции.
+     * Число подзадач ограничено учетверенным параллелизмом общего пула,
+     * чтобы работа распределялась равномерно, но накладные расходы оставались малыми.
+     *
+     * @param parallelismThreshold порог распараллеливания
+     * @return количество корзин в подзадаче; capacity если операция выполняется в одном потоке
+     */
+    private int leafBuckets(long parallelismThreshold) {
+        if (parallelismThreshold == Long.MAX_VALUE || size < parallelismThreshold) {
+            return capacity;
+        }
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        long tasks = Math.min(size / Math.max(parallelismThreshold, 1), (long) parallelism << 2);
+        if (tasks <= 1) {
+            return capacity;
+        }
+        return (int) Math.max(capacity / tasks, 1);
+    }
+
+    /**
+     * Передает обработчику пары из диапазона корзин таблицы.
+     *
+     * @param tab    таблица
+     * @param from   первая корзина диапазона
+     * @param to     корзина после последней в диапазоне
+     * @param action обработчик пар
+     */
+    private void forEachInTable(Node<K, V>[] tab, int from, int to, BiConsumer<? super K, ? super V> action) {
+        for (int i = from; i < to; i++) {
+            Node<K, V> node = tab[i];
+            if (node instanceof TreeBin) {
+                for (TreeNode<K, V> t = ((TreeBin<K, V>) node).first(); t != null; t = t.after) {
+                    action.accept(t.entry.key, t.entry.value);
+                }
+            } else {
+                for (; node != null; node = node.next) {
+                    action.accept(node.key, node.value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Вычисляет хэш-код для ключа.
+     * Исходный hashCode умножается на нечетную константу (золотое сечение), а старшие
+     * биты произведения подмешиваются к младшим. Так слабые хэш-коды, например кратные
+     * степени двойки, равномерно распределяются по корзинам, хотя индекс берется по маске.
+     *
+     * @param key ключ для вычисления хэш-кода
+     * @return перемешанный хэш-код ключа
+     */
+    static int getHashCode(Object key) {
+        int h = Objects.hashCode(key) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Вычисляет индекс в массиве table на основе хэш-кода.
+     * Емкость таблицы - степень двойки, поэтому маска capacity - 1 покрывает все корзины.
+     *
+     * @param hash хэш-код ключа
+     * @return индекс в массиве table
+     */
+    private int getIndex(int hash) {
+        return hash & (capacity - 1);
+    }
+
+    /**
+     * Добавляет новый узел или обновляет существующий в случае коллизии.
+     * Если цепочка достигает {@value #TREEIFY_THRESHOLD} узлов, корзина превращается в дерево.
+     *
+     * @param index индекс в массиве table
+     * @param hash  хэш-код ключа
+     * @param key   ключ
+     * @param value значение
+     * @return предыдущее значение, связанное с ключом, или null если ключ не существовал
+     */
+    private V addNode(int index, int hash, K key, V value) {
+        Node<K, V> currentNode = table[index];
+        Node<K, V> lastNode = null;
+        int chainLength = 0;
+
+        while (currentNode != null) {
+            if (currentNode.hash == hash && (currentNode.key == key || (key != null && key.equals(currentNode.key)))) {
+                V resVal = currentNode.value;
+                setNodeValue(currentNode, value);
+                afterNodeUpdate(currentNode);
+                return resVal;
+            }
+            lastNode = currentNode;
+            currentNode = currentNode.next;
+            chainLength++;
+        }
+        lastNode.next = createNode(hash, key, value);
+        size++;
+        modCount++;
+        stats.recordChainLength(chainLength + 1);
+        if (chainLength + 1 >= TREEIFY_THRESHOLD) {
+            table[index] = TreeBin.treeify(table[index]);
+            stats.recordTreeify();
+        }
+        return null;
+    }
+
+    /**
+     * Добавляет новый узел в корзину-дерево или обновляет существующий.
+     *
+     * @param bin   корзина-дерево
+     * @param hash  хэш-код ключа
+     * @param key   ключ
+     * @param value значение
+     * @return предыдущее значение, связанное с ключом, или null если ключ не существовал
+     */
+    private V addTreeNode(TreeBin<K, V> bin, int hash, K key, V value) {
+        Node<K, V> node = bin.find(hash, key);
+        if (node != null) {
+            V resVal = node.value;
+            setNodeValue(node, value);
+            afterNodeUpdate(node);
+            return resVal;
+        }
+        bin.add(createNode(hash, key, value));
+        size++;
+        modCount++;
+        return null;
+    }
+
+    /**
+     * Находит узел по ключу.
+     * Во время инкрементального переноса сначала просматривается корзина старой таблицы:
+     * если она еще не перенесена, все ключи с таким индексом находятся в ней.
+     *
+     * @param hash хэш-код ключа
+     * @param key  ключ для поиска
+     * @return узел с ключом или null если ключ не найден
+     */
+    private Node<K, V> findNode(int hash, Object key) {
+        Node<K, V> currentNode = null;
+        if (oldTable != null) {
+            currentNode = oldTable[hash & (oldCapacity - 1)];
+        }
+        if (currentNode == null) {
+            currentNode = table[getIndex(hash)];
+        }
+        if (currentNode instanceof TreeBin) {
+            return ((TreeBin<K, V>) currentNode).find(hash, key);
+        }
+        while (currentNode != null) {
+            if (currentNode.hash == hash && (currentNode.key == key || (key != null && key.equals(currentNode.key)))) {
+                return currentNode;
+            }
+            currentNode = currentNode.next;
+        }
+        return null;
+    }
+
+    /**
+     * Находит узел по ключу, не считая поиск обращением к паре.
+     *
+     * @param key ключ для поиска
+     * @return узел с ключом или null если ключ не найден
+     */
+    Node<K, V> getNode(Object key) {
+        return size == 0 ? null : findNode(getHashCode(key), key);
+    }
+
+    /**
+     * Находит узел по ключу с уже вычисленным хэш-кодом, не считая поиск обращением к паре.
+     *
+     * @param hash хэш-код ключа, как его вычисляет {@link #getHashCode(Object)}
+     * @param key  ключ для поиска
+     * @return узел с ключом или null если ключ не найден
+     */
+    Node<K, V> getNode(int hash, Object key) {
+        return size == 0 ? null : findNode(hash, key);
+    }
+
+    /**
+     * Вставляет пару или заменяет значение для ключа с уже вычисленным хэш-кодом.
+     *
+     * @param hash  хэш-код ключа, как его вычисляет {@link #getHashCode(Object)}
+     * @param key   ключ
+     * @param value значение
+     * @return предыдущее значение или null
+     */
+    V putHashed(int hash, K key, V value) {
+        return putVal(hash, key, value, true);
+    }
+
+    /**
+     * Возвращает итератор самих узлов таблицы. Итератор поддерживает remove.
+     *
+     * @return итератор узлов
+     */
+    Iterator<Node<K, V>> nodeIterator() {
+        return new NodeIterator();
+    }
+
+    /**
+     * Создает узел для новой пары. Подкласс может вернуть узел с дополнительными полями.
+     *
+     * @param hash  хэш-код ключа
+     * @param key   ключ
+     * @param value значение
+     * @return новый узел без следующего узла в цепочке
+     */
+    Node<K, V> newNode(int hash, K key, V value) {
+        return new Node<>(hash, key, value, null);
+    }
+
+    /**
+     * Создает узел через {@link #newNode(int, Object, Object)} и учитывает его значение
+     * в индексе значений.
+     */
+    private Node<K, V> createNode(int hash, K key, V value) {
+        Node<K, V> node = newNode(hash, key, value);
+        if (valueIndex != null) {
+            valueIndex.add(value, key);
+        }
+        return node;
+    }
+
+    /**
+     * Заменяет значение существующего узла, перенося его ключ в индексе значений.
+     */
+    private void setNodeValue(Node<K, V> node, V value) {
+        if (valueIndex != null) {
+            valueIndex.replace(node.value, value, node.key);
+        }
+        node.value = value;
+    }
+
+    /**
+     * Убирает значение удаленного узла из индекса значений.
+     */
+    private void unindexValue(Node<K, V> node) {
+        if (valueIndex != null) {
+            valueIndex.remove(node.value, node.key);
+        }
+    }
+
+    /**
+     * Возвращает пару для выдачи наружу итератором entrySet. Без индекса значений это
+     * сам узел; с индексом - обертка, чья {@link Entry#setValue(Object)} обновляет индекс.
+     *
+     * @param node узел таблицы
+     * @return пара, представляющая узел
+     */
+    Entry<K, V> entryFor(Node<K, V> node) {
+        return valueIndex == null ? node : new IndexedEntry(node);
+    }
+
+    /**
+     * Вызывается методами get и getOrDefault для найденного узла до чтения значения.
+     * Подкласс может удалить устаревшую пару через {@link #removeMapping(Object, boolean)}
+     * и вернуть true, тогда чтение считается промахом.
+     *
+     * @param node найденный узел
+     * @return true если пара удалена и ее значение читать нельзя
+     */
+    boolean expireOnRead(Node<K, V> node) {
+        return false;
+    }
+
+    /**
+     * Вызывается после чтения значения узла методами get и getOrDefault,
+     * а также когда putIfAbsent или computeIfAbsent находят существующее значение.
+     *
+     * @param node прочитанный узел
+     */
+    void afterNodeAccess(Node<K, V> node) {
+    }
+
+    /**
+     * Вызывается после замены значения существующего узла.
+     * Значение, замененное через {@link Entry#setValue(Object)}, сюда не попадает.
+     *
+     * @param node измененный узел
+     */
+    void afterNodeUpdate(Node<K, V> node) {
+    }
+
+    /**
+     * Вызывается после вставки новой пары, до проверки размера таблицы.
+     * Подкласс может здесь удалить пары через {@link #removeMapping(Object, boolean)}
+     * без изменения размера таблицы.
+     */
+    void afterNodeInsertion() {
+    }
+
+    /**
+     * Вызывается после удаления узла из таблицы.
+     *
+     * @param node удаленный узел
+     */
+    void afterNodeRemoval(Node<K, V> node) {
+    }
+
+    /**
+     * Удаляет узел по ключу.
+     *
+     * @param index индекс в массиве table
+     * @param hash  хэш-код ключа
+     * @param key   ключ для удаления
+     * @return удаленный узел или null если ключ не найден
+     */
+    private Node<K, V> removeNode(int index, int hash, Object key) {
+        Node<K, V> currentNode = table[index];
+        Node<K, V> lastNode = null;
+
+        while (currentNode != null) {
+            if (currentNode.hash == hash && (currentNode.key == key || (key != null && key.equals(currentNode.key)))) {
+                if (lastNode == null) {
+                    table[index] = currentNode.next;
+                } else {
+                    lastNode.next = currentNode.next;
+                }
+                size--;
+                modCount++;
+                unindexValue(currentNode);
+                afterNodeRemoval(currentNode);
+                return currentNode;
+            }
+            lastNode = currentNode;
+            currentNode = currentNode.next;
+        }
+        return null;
+    }
+
+    /**
+     * Удаляет узел по ключу из корзины-дерева.
+     * Если дерево уменьшилось до {@value #UNTREEIFY_THRESHOLD} узлов, корзина снова
+     * становится цепочкой.
+     *
+     * @param index индекс корзины-дерева в массиве table
+     * @param hash  хэш-код ключа
+     * @param key   ключ для удаления
+     * @return удаленный узел или null если ключ не найден
+     */
+    private Node<K, V> removeTreeNode(int index, int hash, Object key) {
+        TreeBin<K, V> bin = (TreeBin<K, V>) table[index];
+        Node<K, V> node = bin.find(hash, key);
+        if (node == null) {
+            return null;
+        }
+        bin.remove(node);
+        size--;
+        modCount++;
+        if (bin.size() <= UNTREEIFY_THRESHOLD) {
+            table[index] = bin.untreeify();
+        }
+        unindexValue(node);
+        afterNodeRemoval(node);
+        return node;
+    }
+
+    /**
+     * Проверяет наличие ключа в карте.
+     *
+     * @param key ключ для проверки
+     * @return true если ключ существует, false в противном случае
+     */
+    private boolean checkKey(Object key) {
+        return findNode(getHashCode(key), key) != null;
+    }
+
+    /**
+     * Проверяет наличие значения в карте.
+     *
+     * @param node  начальный узел для поиска
+     * @param value значение для проверки
+     * @return true если значение существует, false в противном случае
+     */
+    private boolean checkValue(Node<K, V> node, Object value) {
+        if (node instanceof TreeBin) {
+            for (TreeNode<K, V> t = ((TreeBin<K, V>) node).first(); t != null; t = t.after) {
+                if (value == null ? t.entry.value == null : value.equals(t.entry.value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        boolean result = false;
+        while (node != null) {
+            if (value == null ? node.value == null : value.equals(node.value)) {
+                result = true;
+                break;
+            }
+            node = node.next;
+        }
+        return result;
+    }
+
+    /**
+     * Изменяет размер внутренней таблицы при необходимости.
+     * Увеличивает размер вдвое при превышении коэффициента загрузки и
+     * уменьшает вдвое при сильном разрежении таблицы, но не ниже минимальной емкости.
+     * Пороги задаются {@link ResizePolicy}.
+     */
+    private void resize() {
+        if (resizePolicy.shouldGrow(size, capacity) && capacity < MAXIMUM_CAPACITY) {
+            rebuild(capacity << 1);
+        } else if (capacity > minCapacity && resizePolicy.shouldShrink(size, capacity)) {
+            rebuild(capacity >> 1);
+        }
+    }
+
+    /**
+     * Округляет емкость вверх до степени двойки.
+     *
+     * @param capacity требуемое количество корзин
+     * @return степень двойки не меньше capacity, от 1 до MAXIMUM_CAPACITY
+     */
+    private static int tableSizeFor(int capacity) {
+        if (capacity >= MAXIMUM_CAPACITY) {
+            return MAXIMUM_CAPACITY;
+        }
+        return capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    }
+
+    /**
+     * Создает таблицу корзин указанной емкости.
+     *
+     * @param capacity емкость таблицы
+     * @return пустая таблица
+     */
+    @SuppressWarnings("unchecked")
+    private static <K, V> Node<K, V>[] newTable(int capacity) {
+        return (Node<K, V>[]) new Node<?, ?>[capacity];
+    }
+
+    /**
+     * Создает таблицу новой емкости. В обычном режиме сразу переносит в нее все узлы,
+     * в инкрементальном - оставляет старую таблицу для постепенного переноса.
+     * Незавершенный перенос предыдущего изменения размера сначала доводится до конца.
+     *
+     * @param newCapacity новая емкость, степень двойки
+     */
+    private void rebuild(int newCapacity) {
+        completeRehash();
+        int previousCapacity = capacity;
+        Node<K, V>[] previousTable = table;
+        capacity = newCapacity;
+        table = newTable(newCapacity);
+        stats.recordResize(previousCapacity, newCapacity);
+        if (incrementalRehash) {
+            oldTable = previousTable;
+            oldCapacity = previousCapacity;
+            rehashIndex = 0;
+        } else {
+            long start = System.nanoTime();
+            addAllNodes(previousTable, previousCapacity);
+            stats.recordRehashTime(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Перемещает все узлы из старой таблицы в новую при изменении размера.
+     *
+     * @param oldTable    старая таблица узлов
+     * @param oldCapacity емкость старой таблицы
+     */
+    private void addAllNodes(Node<K, V>[] oldTable, int oldCapacity) {
+        for (int i = 0; i < oldCapacity; i++) {
+            moveChain(oldTable[i]);
+        }
+    }
+
+    /**
+     * Перецепляет узлы корзины в текущую таблицу.
+     * Узлы не создаются заново и не сравниваются: сохраненный хэш-код сразу
+     * дает новый индекс, и узел перецепляется в голову новой цепочки.
+     * Узлы корзины-дерева переносятся по одному и снова образуют дерево
+     * только там, где новая цепочка становится длинной.
+     *
+     * @param currentNode первый узел цепочки или корзина-дерево
+     */
+    private void moveChain(Node<K, V> currentNode) {
+        if (currentNode instanceof TreeBin) {
+            for (TreeNode<K, V> t = ((TreeBin<K, V>) currentNode).first(); t != null; t = t.after) {
+                linkNode(t.entry);
+            }
+            return;
+        }
+        while (currentNode != null) {
+            Node<K, V> nextNode = currentNode.next;
+            linkNode(currentNode);
+            currentNode = nextNode;
+        }
+    }
+
+    /**
+     * Вставляет существующий узел в текущую таблицу по его сохраненному хэш-коду.
+     *
+     * @param node узел для вставки
+     */
+    private void linkNode(Node<K, V> node) {
+        int index = getIndex(node.hash);
+        Node<K, V> head = table[index];
+        if (head instanceof TreeBin) {
+            node.next = null;
+            ((TreeBin<K, V>) head).add(node);
+            return;
+        }
+        node.next = head;
+        table[index] = node;
+        int chainLength = 0;
+        for (Node<K, V> n = node; n != null && chainLength < TREEIFY_THRESHOLD; n = n.next) {
+            chainLength++;
+        }
+        if (chainLength >= TREEIFY_THRESHOLD) {
+            table[index] = TreeBin.treeify(node);
+            stats.recordTreeify();
+        }
+    }
+
+    /**
+     * Готовит корзину ключа к записи во время инкрементального переноса:
+     * переносит очередную порцию корзин и корзину самого ключа, после чего
+     * запись выполняется только в новой таблице.
+     *
+     * @param hash хэш-код ключа
+     */
+    private void prepareBucket(int hash) {
+        if (oldTable == null) {
+            return;
+        }
+        boolean timed = stats != StatsRecorder.noop();
+        long start = timed ? System.nanoTime() : 0;
+        int limit = Math.min(rehashIndex + REHASH_STEP, oldCapacity);
+        while (rehashIndex < limit) {
+            migrateBucket(rehashIndex++);
+        }
+        if (rehashIndex == oldCapacity) {
+            oldTable = null;
+        } else {
+            migrateBucket(hash & (oldCapacity - 1));
+        }
+        if (timed) {
+            stats.recordRehashTime(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Переносит одну корзину старой таблицы в новую.
+     *
+     * @param index индекс корзины в старой таблице
+     */
+    private void migrateBucket(int index) {
+        Node<K, V> head = oldTable[index];
+        if (head != null) {
+            oldTable[index] = null;
+            moveChain(head);
+        }
+    }
+
+    /**
+     * Завершает незаконченный инкрементальный перенос.
+     */
+    private void completeRehash() {
+        if (oldTable == null) {
+            return;
+        }
+        while (rehashIndex < oldCapacity) {
+            migrateBucket(rehashIndex++);
+        }
+        oldTable = null;
+    }
+
+    /**
+     * Увеличивает таблицу так, чтобы указанное количество пар поместилось без
+     * изменения размера. Пока не вызван {@link #trimToSize()}, таблица не уменьшается
+     * ниже этой емкости, даже если пары удаляются.
+     *
+     * @param expectedSize ожидаемое количество пар
+     * @throws IllegalArgumentException если количество отрицательно
+     */
+    public void ensureCapacity(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Illegal expected size: " + expectedSize);
+        }
+        int target = resizePolicy.capacityFor(expectedSize, MAXIMUM_CAPACITY);
+        if (target > capacity) {
+            rebuild(target);
+        }
+        minCapacity = Math.max(minCapacity, target);
+    }
+
+    /**
+     * Уменьшает таблицу до наименьшей емкости, вмещающей текущие пары, и снимает
+     * нижнюю границу, заданную конструктором или {@link #ensureCapacity(int)}.
+     * Дальше таблица не уменьшается ниже емкости по умолчанию (16) или текущей,
+     * если она меньше.
+     */
+    public void trimToSize() {
+        int target = resizePolicy.capacityFor(size, MAXIMUM_CAPACITY);
+        if (target != capacity) {
+            rebuild(target);
+        }
+        minCapacity = Math.min(target, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Заменяет правило изменения размера. Таблица проверяется по новому правилу
+     * при следующей операции записи.
+     *
+     * @param resizePolicy новое правило
+     */
+    public void setResizePolicy(ResizePolicy resizePolicy) {
+        this.resizePolicy = Objects.requireNonNull(resizePolicy);
+    }
+
+    /**
+     * Возвращает текущее правило изменения размера.
+     *
+     * @return правило изменения размера
+     */
+    public ResizePolicy getResizePolicy() {
+        return resizePolicy;
+    }
+
+    /**
+     * Подключает приемник статистики. По умолчанию используется {@link StatsRecorder#noop()},
+     * и статистика не собирается.
+     *
+     * @param recorder приемник событий карты
+     * @see ConcurrentStatsRecorder
+     * @see MapStatsJmx#register(MyHashMapImp, String)
+     */
+    public void setStatsRecorder(StatsRecorder recorder) {
+        stats = Objects.requireNonNull(recorder);
+    }
+
+    /**
+     * Возвращает снимок статистики: счетчики подключенного приемника, текущий размер
+     * и емкость таблицы. Без приемника счетчики равны нулю.
+     *
+     * @return снимок статистики
+     */
+    public MapStats getStats() {
+        return stats.snapshot(size, capacity);
+    }
+
+    /**
+     * Создает неизменяемую копию карты, оптимизированную для чтения: ключи и значения
+     * лежат в одном плоском массиве с открытой адресацией, без объекта на каждую пару.
+     * Сохраненные хэш-коды переиспользуются, hashCode ключей не вызывается.
+     * Последующие изменения этой карты на копию не влияют.
+     *
+     * @return неизменяемая копия карты
+     * @see FrozenHashMap
+     */
+    public FrozenHashMap<K, V> freeze() {
+        completeRehash();
+        int[] hashes = new int[size];
+        Object[] keys = new Object[size];
+        Object[] values = new Object[size];
+        int count = 0;
+        for (Iterator<Node<K, V>> it = new NodeIterator(); it.hasNext(); count++) {
+            Node<K, V> node = it.next();
+            hashes[count] = node.hash;
+            keys[count] = node.key;
+            values[count] = node.value;
+        }
+        return FrozenHashMap.build(hashes, keys, values);
+    }
+
+    /**
+     * Сохраняет содержимое карты в файл снимка в компактном двоичном формате.
+     * Снимок открывается методом {@link #mapFrom(Path, Codec, Codec)} без повторной
+     * вставки всех пар.
+     *
+     * @param path       путь к файлу снимка; существующий файл заменяется
+     * @param keyCodec   кодек ключей
+     * @param valueCodec кодек значений
+     * @throws IOException при ошибке записи файла
+     * @see MappedHashMap
+     */
+    public void snapshotTo(Path path, Codec<K> keyCodec, Codec<V> valueCodec) throws IOException {
+        MappedHashMap.write(this, path, keyCodec, valueCodec);
+    }
+
+    /**
+     * Открывает снимок, созданный методом {@link #snapshotTo(Path, Codec, Codec)}.
+     * Файл отображается в память, и пары читаются из него лениво при обращении,
+     * поэтому время открытия не зависит от размера карты.
+     *
+     * @param path       путь к файлу снимка
+     * @param keyCodec   кодек ключей, которым был записан снимок
+     * @param valueCodec кодек значений, которым был записан снимок
+     * @param <K>        тип ключей
+     * @param <V>        тип значений
+     * @return карта только для чтения; ее нужно закрыть после использования
+     * @throws IOException если файл не удалось прочитать или он не является снимком
+     */
+    public static <K, V> MappedHashMap<K, V> mapFrom(Path path, Codec<K> keyCodec, Codec<V> valueCodec)
+            throws IOException {
+        return MappedHashMap.open(path, keyCodec, valueCodec);
+    }
+
+    /**
+     * Включает или выключает режим инкрементального изменения размера.
+     * При выключении незавершенный перенос выполняется сразу.
+     *
+     * @param enabled true чтобы переносить корзины постепенно
+     */
+    public void setIncrementalRehash(boolean enabled) {
+        incrementalRehash = enabled;
+        if (!enabled) {
+            completeRehash();
+        }
+    }
+
+    /**
+     * Проверяет, включен ли режим инкрементального изменения размера.
+     *
+     * @return true если корзины переносятся постепенно
+     */
+    public boolean isIncrementalRehash() {
+        return incrementalRehash;
+    }
+
+    /**
+     * Проверяет, выполняется ли сейчас перенос корзин из старой таблицы.
+     *
+     * @return true если старая таблица еще не перенесена полностью
+     */
+    public boolean isRehashing() {
+        return oldTable != null;
+    }
+
+    /**
+     * Включает или выключает режим индекса значений. При включении индекс строится
+     * за один проход по карте, при выключении отбрасывается.
+     *
+     * <p>Индекс хранит по узлу на каждое различное значение и по узлу на каждый
+     * повторный ключ, поэтому расходует память и замедляет запись. Значения должны
+     * корректно реализовывать equals и hashCode и не менять их, пока лежат в карте.</p>
+     *
+     * @param enabled true чтобы поддерживать обратный индекс значение -> ключи
+     */
+    public void setValueIndex(boolean enabled) {
+        if (!enabled) {
+            valueIndex = null;
+            return;
+        }
+        if (valueIndex == null) {
+            ValueIndex index = new ValueIndex();
+            for (Iterator<Entry<K, V>> it = new EntryIterator(); it.hasNext(); ) {
+                Entry<K, V> entry = it.next();
+                index.add(entry.getValue(), entry.getKey());
+            }
+            valueIndex = index;
+        }
+    }
+
+    /**
+     * Проверяет, включен ли режим индекса значений.
+     *
+     * @return true если поддерживается обратный индекс значение -> ключи
+     */
+    public boolean isValueIndex() {
+        return valueIndex != null;
+    }
+
+    /**
+     * Возвращает количество ключей, связанных со значением. С индексом значений
+     * выполняется за O(1), без него - полным просмотром карты.
+     *
+     * @param value значение
+     * @return количество ключей с этим значением
+     */
+    public int countValue(Object value) {
+        if (valueIndex != null) {
+            return valueIndex.count(value);
+        }
+        int count = 0;
+        for (Iterator<V> it = new ValueIterator(); it.hasNext(); ) {
+            if (Objects.equals(it.next(), value)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Возвращает обратное представление значение -> ключ, доступное только для чтения.
+     * Представление читает индекс значений и отражает все изменения карты. Если одно
+     * значение связано с несколькими ключами, get возвращает один из них, а size равен
+     * количеству различных значений.
+     *
+     * @return обратное представление карты
+     * @throws IllegalStateException если режим индекса значений выключен
+     */
+    public Map<V, K> inverse() {
+        requireValueIndex();
+        return new Inverse();
+    }
+
+    private ValueIndex requireValueIndex() {
+        ValueIndex index = valueIndex;
+        if (index == null) {
+            throw new IllegalStateException("Value index is not enabled");
+        }
+        return index;
+    }
+
+    /**
+     * Собирает статистику распределения узлов по корзинам.
+     * Позволяет проверить, что на реальном наборе ключей цепочки остаются короткими
+     * и операции выполняются за O(1). Для корзины-дерева длиной пробы считается высота
+     * дерева. Незавершенный инкрементальный перенос предварительно доводится до конца.
+     *
+     * @return снимок статистики распределения
+     */
+    public TableDiagnostics getDiagnostics() {
+        completeRehash();
+        int[] chainLengths = new int[capacity];
+        int maxProbeLength = 0;
+        for (int i = 0; i < capacity; i++) {
+            int length = 0;
+            int probeLength;
+            if (table[i] instanceof TreeBin) {
+                TreeBin<K, V> bin = (TreeBin<K, V>) table[i];
+                length = bin.size();
+                probeLength = bin.height();
+            } else {
+                for (Node<K, V> node = table[i]; node != null; node = node.next) {
+                    length++;
+                }
+                probeLength = length;
+            }
+            chainLengths[i] = length;
+            maxProbeLength = Math.max(maxProbeLength, probeLength);
+        }
+        return TableDiagnostics.fromBuckets(size, chainLengths, maxProbeLength);
+    }
+
     /**
      * Возвращает текущий размер внутренней таблицы.
      * Используется для тестирования метода resize.
      *
      * @return текущий размер внутренней таблицы
      */
-    public int getTableSize() {
-        return table.length;
+    public int getTableSize() {
+        return table.length;
+    }
+
+    /**
+     * Внутренний класс для представления узла в хэш-таблице.
+     * Содержит пару ключ-значение и ссылку на следующий узел в цепочке.
+     * Сам является элементом {@link #entrySet()}. Подклассы карты расширяют узел
+     * через {@link #newNode(int, Object, Object)}.
+     *
+     * @param <K> тип ключа
+     * @param <V> тип значения
+     */
+    static class Node<K, V> implements Entry<K, V> {
+        final int hash;
+        final K key;
+        V value;
+        Node<K, V> next;
+
+        /**
+         * Создает новый узел с указанными параметрами.
+         *
+         * @param hash  хэш-код ключа
+         * @param key   ключ узла
+         * @param value значение узла
+         * @param next  следующий узел в цепочке
+         */
+        Node(int hash, K key, V value, Node<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            V oldValue = this.value;
+            this.value = value;
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) {
+                return true;
+            }
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            return Objects.equals(key, e.getKey()) && Objects.equals(value, e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /**
+     * Базовый итератор по узлам таблицы.
+     * При создании завершает незаконченный инкрементальный перенос, поэтому обходит
+     * только текущую таблицу: корзины по порядку, внутри корзины - цепочку или
+     * список узлов дерева.
+     */
+    private abstract class HashIterator {
+        private final Node<K, V>[] tab;
+        private Node<K, V> next;
+        private TreeNode<K, V> nextTreeNode;
+        private Node<K, V> current;
+        private int index;
+        private int expectedModCount;
+
+        HashIterator() {
+            completeRehash();
+            tab = table;
+            expectedModCount = modCount;
+            advanceBucket();
+        }
+
+        /**
+         * Переходит к первому узлу следующей непустой корзины.
+         */
+        private void advanceBucket() {
+            while (index < tab.length) {
+                Node<K, V> head = tab[index++];
+                if (head instanceof TreeBin) {
+                    nextTreeNode = ((TreeBin<K, V>) head).first();
+                    if (nextTreeNode != null) {
+                        next = nextTreeNode.entry;
+                        return;
+                    }
+                } else if (head != null) {
+                    nextTreeNode = null;
+                    next = head;
+                    return;
+                }
+            }
+            nextTreeNode = null;
+            next = null;
+        }
+
+        public final boolean hasNext() {
+            return next != null;
+        }
+
+        final Node<K, V> nextNode() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            Node<K, V> e = next;
+            if (e == null) {
+                throw new NoSuchElementException();
+            }
+            current = e;
+            if (nextTreeNode != null) {
+                nextTreeNode = nextTreeNode.after;
+                if (nextTreeNode != null) {
+                    next = nextTreeNode.entry;
+                    return e;
+                }
+            } else if (e.next != null) {
+                next = e.next;
+                return e;
+            }
+            advanceBucket();
+            return e;
+        }
+
+        public final void remove() {
+            if (current == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeMapping(current.key, false);
+            current = null;
+            expectedModCount = modCount;
+        }
+    }
+
+    private final class KeyIterator extends HashIterator implements Iterator<K> {
+        @Override
+        public K next() {
+            return nextNode().key;
+        }
+    }
+
+    private final class ValueIterator extends HashIterator implements Iterator<V> {
+        @Override
+        public V next() {
+            return nextNode().value;
+        }
+    }
+
+    /**
+     * Итератор самих узлов таблицы, в том числе в режиме индекса значений.
+     */
+    private final class NodeIterator extends HashIterator implements Iterator<Node<K, V>> {
+        @Override
+        public Node<K, V> next() {
+            return nextNode();
+        }
+    }
+
+    private final class EntryIterator extends HashIterator implements Iterator<Entry<K, V>> {
+        @Override
+        public Entry<K, V> next() {
+            return entryFor(nextNode());
+        }
+    }
+
+    /**
+     * Подзадача {@link #forEach(long, BiConsumer)} над диапазоном корзин.
+     */
+    private final class ForEachTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Node<K, V>[] tab;
+        private final int lo;
+        private final int hi;
+        private final int leaf;
+        private final BiConsumer<? super K, ? super V> action;
+
+        ForEachTask(Node<K, V>[] tab, int lo, int hi, int leaf, BiConsumer<? super K, ? super V> action) {
+            this.tab = tab;
+            this.lo = lo;
+            this.hi = hi;
+            this.leaf = leaf;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= leaf) {
+                forEachInTable(tab, lo, hi, action);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new ForEachTask(tab, lo, mid, leaf, action), new ForEachTask(tab, mid, hi, leaf, action));
+        }
+    }
+
+    /**
+     * Подзадача {@link #reduce(long, BiFunction, BiFunction)} над диапазоном корзин.
+     *
+     * @param <U> тип результата
+     */
+    private final class ReduceTask<U> extends RecursiveTask<U> {
+        private static final long serialVersionUID = 1L;
+
+        private final Node<K, V>[] tab;
+        private final int lo;
+        private final int hi;
+        private final int leaf;
+        private final BiFunction<? super K, ? super V, ? extends U> transformer;
+        private final BiFunction<? super U, ? super U, ? extends U> reducer;
+
+        ReduceTask(Node<K, V>[] tab, int lo, int hi, int leaf, BiFunction<? super K, ? super V, ? extends U> transformer,
+                   BiFunction<? super U, ? super U, ? extends U> reducer) {
+            this.tab = tab;
+            this.lo = lo;
+            this.hi = hi;
+            this.leaf = leaf;
+            this.transformer = transformer;
+            this.reducer = reducer;
+        }
+
+        @Override
+        protected U compute() {
+            if (hi - lo <= leaf) {
+                U result = null;
+                for (int i = lo; i < hi; i++) {
+                    Node<K, V> node = tab[i];
+                    if (node instanceof TreeBin) {
+                        for (TreeNode<K, V> t = ((TreeBin<K, V>) node).first(); t != null; t = t.after) {
+                            result = combine(result, transformer.apply(t.entry.key, t.entry.value));
+                        }
+                    } else {
+                        for (; node != null; node = node.next) {
+                            result = combine(result, transformer.apply(node.key, node.value));
+                        }
+                    }
+                }
+                return result;
+            }
+            int mid = (lo + hi) >>> 1;
+            ReduceTask<U> left = new ReduceTask<>(tab, lo, mid, leaf, transformer, reducer);
+            left.fork();
+            U right = new ReduceTask<>(tab, mid, hi, leaf, transformer, reducer).compute();
+            return combine(left.join(), right);
+        }
+
+        private U combine(U a, U b) {
+            if (a == null) {
+                return b;
+            }
+            return b == null ? a : reducer.apply(a, b);
+        }
+    }
+
+    /**
+     * Подзадача {@link #search(long, BiFunction)} над диапазоном корзин.
+     * Найденный результат записывается в общую ссылку, которую проверяют все подзадачи.
+     *
+     * @param <U> тип результата
+     */
+    private final class SearchTask<U> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Node<K, V>[] tab;
+        private final int lo;
+        private final int hi;
+        private final int leaf;
+        private final BiFunction<? super K, ? super V, ? extends U> searchFunction;
+        private final AtomicReference<U> result;
+
+        SearchTask(Node<K, V>[] tab, int lo, int hi, int leaf, BiFunction<? super K, ? super V, ? extends U> searchFunction,
+                   AtomicReference<U> result) {
+            this.tab = tab;
+            this.lo = lo;
+            this.hi = hi;
+            this.leaf = leaf;
+            this.searchFunction = searchFunction;
+            this.result = result;
+        }
+
+        @Override
+        protected void compute() {
+            if (result.get() != null) {
+                return;
+            }
+            if (hi - lo > leaf) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new SearchTask<>(tab, lo, mid, leaf, searchFunction, result),
+                        new SearchTask<>(tab, mid, hi, leaf, searchFunction, result));
+                return;
+            }
+            for (int i = lo; i < hi && result.get() == null; i++) {
+                Node<K, V> node = tab[i];
+                if (node instanceof TreeBin) {
+                    for (TreeNode<K, V> t = ((TreeBin<K, V>) node).first(); t != null; t = t.after) {
+                        if (found(t.entry)) {
+                            return;
+                        }
+                    }
+                } else {
+                    for (; node != null; node = node.next) {
+                        if (found(node)) {
+                            return;
+                        }
+                    }
+                }
+            }
+        }
+
+        private boolean found(Node<K, V> node) {
+            U u = searchFunction.apply(node.key, node.value);
+            if (u == null) {
+                return false;
+            }
+            result.compareAndSet(null, u);
+            return true;
+        }
+    }
+
+    /**
+     * Базовый сплитератор по диапазону корзин таблицы.
+     *
+     * <p>Делится пополам по индексам корзин; корзина, обход которой уже начат, остается
+     * у исходного сплитератора. Точное количество элементов известно только для всей
+     * таблицы, поэтому характеристика SIZED есть только у сплитератора, который еще не делился,
+     * а после деления размер оценивается как половина.</p>
+     */
+    private abstract class BucketSpliterator {
+        final Node<K, V>[] tab;
+        final int expectedModCount;
+        boolean root;
+        int index;
+        int fence;
+        long est;
+        private Node<K, V> next;
+        private TreeNode<K, V> nextTreeNode;
+
+        BucketSpliterator(Node<K, V>[] tab, int origin, int fence, long est, int expectedModCount, boolean root) {
+            this.tab = tab;
+            this.index = origin;
+            this.fence = fence;
+            this.est = est;
+            this.expectedModCount = expectedModCount;
+            this.root = root;
+        }
+
+        /**
+         * Возвращает следующий узел диапазона.
+         *
+         * @return узел или null если диапазон пройден
+         */
+        final Node<K, V> advance() {
+            if (next != null) {
+                Node<K, V> e = next;
+                if (nextTreeNode != null) {
+                    nextTreeNode = nextTreeNode.after;
+                    next = nextTreeNode == null ? null : nextTreeNode.entry;
+                } else {
+                    next = e.next;
+                }
+                return e;
+            }
+            while (index < fence) {
+                Node<K, V> head = tab[index++];
+                if (head instanceof TreeBin) {
+                    nextTreeNode = ((TreeBin<K, V>) head).first();
+                    if (nextTreeNode != null) {
+                        next = nextTreeNode.entry;
+                        return advance();
+                    }
+                } else if (head != null) {
+                    nextTreeNode = null;
+                    next = head;
+                    return advance();
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Отделяет нижнюю половину оставшихся корзин.
+         *
+         * @return начало диапазона для нового сплитератора или -1 если делить нечего
+         */
+        final int splitIndex() {
+            int lo = index;
+            int mid = (lo + fence) >>> 1;
+            if (lo >= mid || next != null) {
+                return -1;
+            }
+            index = mid;
+            est >>>= 1;
+            root = false;
+            return lo;
+        }
+
+        final void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        public final long estimateSize() {
+            return est;
+        }
+
+        final int sizeCharacteristics() {
+            return root ? Spliterator.SIZED : 0;
+        }
+    }
+
+    private final class KeySpliterator extends BucketSpliterator implements Spliterator<K> {
+        KeySpliterator(Node<K, V>[] tab, int origin, int fence, long est, int expectedModCount, boolean root) {
+            super(tab, origin, fence, est, expectedModCount, root);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super K> action) {
+            Objects.requireNonNull(action);
+            Node<K, V> e = advance();
+            if (e == null) {
+                return false;
+            }
+            action.accept(e.key);
+            checkForComodification();
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super K> action) {
+            Objects.requireNonNull(action);
+            for (Node<K, V> e = advance(); e != null; e = advance()) {
+                action.accept(e.key);
+            }
+            checkForComodification();
+        }
+
+        @Override
+        public Spliterator<K> trySplit() {
+            int lo = splitIndex();
+            return lo < 0 ? null : new KeySpliterator(tab, lo, (lo + fence) >>> 1, est, expectedModCount, false);
+        }
+
+        @Override
+        public int characteristics() {
+            return sizeCharacteristics() | Spliterator.DISTINCT;
+        }
+    }
+
+    private final class ValueSpliterator extends BucketSpliterator implements Spliterator<V> {
+        ValueSpliterator(Node<K, V>[] tab, int origin, int fence, long est, int expectedModCount, boolean root) {
+            super(tab, origin, fence, est, expectedModCount, root);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super V> action) {
+            Objects.requireNonNull(action);
+            Node<K, V> e = advance();
+            if (e == null) {
+                return false;
+            }
+            action.accept(e.value);
+            checkForComodification();
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super V> action) {
+            Objects.requireNonNull(action);
+            for (Node<K, V> e = advance(); e != null; e = advance()) {
+                action.accept(e.value);
+            }
+            checkForComodification();
+        }
+
+        @Override
+        public Spliterator<V> trySplit() {
+            int lo = splitIndex();
+            return lo < 0 ? null : new ValueSpliterator(tab, lo, (lo + fence) >>> 1, est, expectedModCount, false);
+        }
+
+        @Override
+        public int characteristics() {
+            return sizeCharacteristics();
+        }
+    }
+
+    private final class EntrySpliterator extends BucketSpliterator implements Spliterator<Entry<K, V>> {
+        EntrySpliterator(Node<K, V>[] tab, int origin, int fence, long est, int expectedModCount, boolean root) {
+            super(tab, origin, fence, est, expectedModCount, root);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Entry<K, V>> action) {
+            Objects.requireNonNull(action);
+            Node<K, V> e = advance();
+            if (e == null) {
+                return false;
+            }
+            action.accept(entryFor(e));
+            checkForComodification();
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Entry<K, V>> action) {
+            Objects.requireNonNull(action);
+            for (Node<K, V> e = advance(); e != null; e = advance()) {
+                action.accept(entryFor(e));
+            }
+            checkForComodification();
+        }
+
+        @Override
+        public Spliterator<Entry<K, V>> trySplit() {
+            int lo = splitIndex();
+            return lo < 0 ? null : new EntrySpliterator(tab, lo, (lo + fence) >>> 1, est, expectedModCount, false);
+        }
+
+        @Override
+        public int characteristics() {
+            return sizeCharacteristics() | Spliterator.DISTINCT;
+        }
+    }
+
+    /**
+     * Представление ключей карты.
+     */
+    private final class KeySet extends AbstractSet<K> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            return new KeyIterator();
+        }
+
+        @Override
+        public Spliterator<K> spliterator() {
+            completeRehash();
+            return new KeySpliterator(table, 0, capacity, size, modCount, true);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return removeMapping(o, true) != null;
+        }
+
+        @Override
+        public void clear() {
+            MyHashMapImp.this.clear();
+        }
     }
 
     /**
-     * Внутренний класс для представления узла в хэш-таблице.
-     * Содержит пару ключ-значение и ссылку на следующий узел в цепочке.
+     * Представление значений карты.
+     */
+    private final class Values extends AbstractCollection<V> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new ValueIterator();
+        }
+
+        @Override
+        public Spliterator<V> spliterator() {
+            completeRehash();
+            return new ValueSpliterator(table, 0, capacity, size, modCount, true);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsValue(o);
+        }
+
+        @Override
+        public void clear() {
+            MyHashMapImp.this.clear();
+        }
+    }
+
+    /**
+     * Пара, выдаваемая итераторами entrySet в режиме индекса значений.
+     * Замена значения через нее обновляет индекс.
+     */
+    private final class IndexedEntry implements Entry<K, V> {
+        private final Node<K, V> node;
+
+        IndexedEntry(Node<K, V> node) {
+            this.node = node;
+        }
+
+        @Override
+        public K getKey() {
+            return node.key;
+        }
+
+        @Override
+        public V getValue() {
+            return node.value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            V oldValue = node.value;
+            if (valueIndex != null) {
+                valueIndex.replace(oldValue, value, node.key);
+            }
+            node.value = value;
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return node.equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            return node.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return node.toString();
+        }
+    }
+
+    /**
+     * Обратное представление значение -> ключ поверх индекса значений.
+     */
+    private final class Inverse extends AbstractMap<V, K> {
+        private Set<Entry<V, K>> entries;
+
+        @Override
+        public int size() {
+            return requireValueIndex().size();
+        }
+
+        @Override
+        public boolean containsKey(Object value) {
+            return requireValueIndex().contains(value);
+        }
+
+        @Override
+        public boolean containsValue(Object key) {
+            return MyHashMapImp.this.containsKey(key);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public K get(Object value) {
+            return (K) requireValueIndex().anyKey(value);
+        }
+
+        @Override
+        public Set<Entry<V, K>> entrySet() {
+            Set<Entry<V, K>> es = entries;
+            if (es == null) {
+                es = new AbstractSet<Entry<V, K>>() {
+                    @Override
+                    public int size() {
+                        return Inverse.this.size();
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public Iterator<Entry<V, K>> iterator() {
+                        Iterator<Entry<Object, Object>> it = requireValueIndex().iterator();
+                        return new Iterator<Entry<V, K>>() {
+                            @Override
+                            public boolean hasNext() {
+                                return it.hasNext();
+                            }
+
+                            @Override
+                            public Entry<V, K> next() {
+                                return (Entry<V, K>) (Entry<?, ?>) it.next();
+                            }
+                        };
+                    }
+                };
+                entries = es;
+            }
+            return es;
+        }
+    }
+
+    /**
+     * Представление пар ключ-значение карты.
+     */
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public Spliterator<Entry<K, V>> spliterator() {
+            completeRehash();
+            return new EntrySpliterator(table, 0, capacity, size, modCount, true);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Entry) || size == 0) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            Node<K, V> node = findNode(getHashCode(e.getKey()), e.getKey());
+            return node != null && Objects.equals(node.value, e.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            removeMapping(((Entry<?, ?>) o).getKey(), true);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            MyHashMapImp.this.clear();
+        }
+    }
+
+    /**
+     * Корзина, узлы которой организованы в сбалансированное (AVL) дерево.
+     * Хранится в массиве table вместо первого узла цепочки.
+     *
+     * <p>Сами узлы при превращении в дерево не пересоздаются: дерево состоит из оберток
+     * {@link TreeNode}, которые ссылаются на узлы. Узлы упорядочены по хэш-коду, затем
+     * по {@link Comparable#compareTo}, если ключи одного сравнимого класса, и в последнюю
+     * очередь по имени класса и идентификационному хэш-коду. При поиске ключа, порядок
+     * которого относительно узла не определен, просматриваются оба поддерева.</p>
+     *
+     * <p>Обертки также связаны в двусвязный список, по которому корзина обходится
+     * без рекурсии и из которого обертка удаляется за O(1).</p>
      *
      * @param <K> тип ключа
      * @param <V> тип значения
      */
-    private static class Node<K, V> {
-        final int hash;
-        final K key;
-        V value;
-        Node next;
+    private static final class TreeBin<K, V> extends Node<K, V> {
+        private TreeNode<K, V> root;
+        private TreeNode<K, V> first;
+        private int count;
+
+        private TreeBin() {
+            super(0, null, null, null);
+        }
 
         /**
-         * Создает новый узел с указанными параметрами.
+         * Строит корзину-дерево из цепочки узлов.
          *
-         * @param hash  хэш-код ключа
-         * @param key   ключ узла
-         * @param value значение узла
-         * @param next  следующий узел в цепочке
+         * @param head первый узел цепочки
+         * @param <K>  тип ключа
+         * @param <V>  тип значения
+         * @return корзина-дерево с теми же узлами
          */
-        Node(int hash, K key, V value, Node next) {
-            this.hash = hash;
-            this.key = key;
-            this.value = value;
-            this.next = next;
+        static <K, V> TreeBin<K, V> treeify(Node<K, V> head) {
+            TreeBin<K, V> bin = new TreeBin<>();
+            Node<K, V> node = head;
+            while (node != null) {
+                Node<K, V> nextNode = node.next;
+                node.next = null;
+                bin.add(node);
+                node = nextNode;
+            }
+            return bin;
+        }
+
+        /**
+         * Превращает корзину обратно в цепочку из тех же узлов.
+         *
+         * @return первый узел цепочки
+         */
+        Node<K, V> untreeify() {
+            Node<K, V> head = null;
+            for (TreeNode<K, V> t = first; t != null; t = t.after) {
+                t.entry.next = head;
+                head = t.entry;
+            }
+            return head;
+        }
+
+        /**
+         * Возвращает количество узлов в корзине.
+         *
+         * @return количество узлов
+         */
+        int size() {
+            return count;
+        }
+
+        /**
+         * Возвращает высоту дерева, то есть наибольшее число сравнений при поиске.
+         *
+         * @return высота дерева
+         */
+        int height() {
+            return height(root);
+        }
+
+        /**
+         * Возвращает первую обертку в списке обхода корзины.
+         *
+         * @return первая обертка или null для пустой корзины
+         */
+        TreeNode<K, V> first() {
+            return first;
+        }
+
+        /**
+         * Находит узел по ключу.
+         *
+         * @param hash хэш-код ключа
+         * @param key  ключ
+         * @return узел или null если ключ не найден
+         */
+        Node<K, V> find(int hash, Object key) {
+            return find(root, hash, key);
+        }
+
+        /**
+         * Добавляет узел, ключа которого еще нет в корзине.
+         *
+         * @param node узел для добавления
+         */
+        void add(Node<K, V> node) {
+            TreeNode<K, V> t = new TreeNode<>(node);
+            t.after = first;
+            if (first != null) {
+                first.before = t;
+            }
+            first = t;
+            root = insert(root, t);
+            count++;
+        }
+
+        /**
+         * Удаляет узел из корзины.
+         *
+         * @param node узел, находящийся в корзине
+         */
+        @SuppressWarnings("unchecked")
+        void remove(Node<K, V> node) {
+            TreeNode<K, V>[] removed = (TreeNode<K, V>[]) new TreeNode<?, ?>[1];
+            root = remove(root, node, removed);
+            TreeNode<K, V> t = removed[0];
+            if (t == null) {
+                return;
+            }
+            if (t.before == null) {
+                first = t.after;
+            } else {
+                t.before.after = t.after;
+            }
+            if (t.after != null) {
+                t.after.before = t.before;
+            }
+            count--;
+        }
+
+        private static <K, V> Node<K, V> find(TreeNode<K, V> t, int hash, Object key) {
+            while (t != null) {
+                Node<K, V> e = t.entry;
+                if (e.hash == hash && (e.key == key || (key != null && key.equals(e.key)))) {
+                    return e;
+                }
+                int dir = compareKeys(hash, key, e);
+                if (dir < 0) {
+                    t = t.left;
+                } else if (dir > 0) {
+                    t = t.right;
+                } else {
+                    Node<K, V> found = find(t.right, hash, key);
+                    if (found != null) {
+                        return found;
+                    }
+                    t = t.left;
+                }
+            }
+            return null;
+        }
+
+        private static <K, V> TreeNode<K, V> insert(TreeNode<K, V> t, TreeNode<K, V> x) {
+            if (t == null) {
+                return x;
+            }
+            Node<K, V> e = x.entry;
+            int dir = compareKeys(e.hash, e.key, t.entry);
+            if (dir == 0) {
+                dir = tieBreakOrder(e.key, t.entry.key);
+            }
+            if (dir < 0) {
+                t.left = insert(t.left, x);
+            } else {
+                t.right = insert(t.right, x);
+            }
+            return balance(t);
+        }
+
+        private static <K, V> TreeNode<K, V> remove(TreeNode<K, V> t, Node<K, V> node,
+                                                    TreeNode<K, V>[] removed) {
+            if (t == null) {
+                return null;
+            }
+            if (t.entry == node) {
+                removed[0] = t;
+                if (t.left == null) {
+                    return t.right;
+                }
+                if (t.right == null) {
+                    return t.left;
+                }
+                TreeNode<K, V> min = t.right;
+                while (min.left != null) {
+                    min = min.left;
+                }
+                min.right = removeMin(t.right);
+                min.left = t.left;
+                return balance(min);
+            }
+            int dir = compareKeys(node.hash, node.key, t.entry);
+            if (dir < 0) {
+                t.left = remove(t.left, node, removed);
+            } else if (dir > 0) {
+                t.right = remove(t.right, node, removed);
+            } else {
+                t.left = remove(t.left, node, removed);
+                if (removed[0] == null) {
+                    t.right = remove(t.right, node, removed);
+                }
+            }
+            return balance(t);
+        }
+
+        private static <K, V> TreeNode<K, V> removeMin(TreeNode<K, V> t) {
+            if (t.left == null) {
+                return t.right;
+            }
+            t.left = removeMin(t.left);
+            return balance(t);
+        }
+
+        private static int height(TreeNode<?, ?> t) {
+            return t == null ? 0 : t.height;
+        }
+
+        private static <K, V> TreeNode<K, V> balance(TreeNode<K, V> t) {
+            int diff = height(t.left) - height(t.right);
+            if (diff > 1) {
+                if (height(t.left.left) < height(t.left.right)) {
+                    t.left = rotateLeft(t.left);
+                }
+                return rotateRight(t);
+            }
+            if (diff < -1) {
+                if (height(t.right.right) < height(t.right.left)) {
+                    t.right = rotateRight(t.right);
+                }
+                return rotateLeft(t);
+            }
+            updateHeight(t);
+            return t;
+        }
+
+        private static <K, V> TreeNode<K, V> rotateRight(TreeNode<K, V> t) {
+            TreeNode<K, V> l = t.left;
+            t.left = l.right;
+            l.right = t;
+            updateHeight(t);
+            updateHeight(l);
+            return l;
+        }
+
+        private static <K, V> TreeNode<K, V> rotateLeft(TreeNode<K, V> t) {
+            TreeNode<K, V> r = t.right;
+            t.right = r.left;
+            r.left = t;
+            updateHeight(t);
+            updateHeight(r);
+            return r;
+        }
+
+        private static void updateHeight(TreeNode<?, ?> t) {
+            t.height = Math.max(height(t.left), height(t.right)) + 1;
+        }
+
+        /**
+         * Сравнивает ключ с ключом узла по хэш-коду и, если возможно, через Comparable.
+         *
+         * @param hash хэш-код ключа
+         * @param key  ключ
+         * @param e    узел для сравнения
+         * @return знак сравнения или 0, если порядок не определен
+         */
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        private static int compareKeys(int hash, Object key, Node<?, ?> e) {
+            if (hash != e.hash) {
+                return hash < e.hash ? -1 : 1;
+            }
+            Object other = e.key;
+            if (key instanceof Comparable && other != null && key.getClass() == other.getClass()) {
+                return Integer.signum(((Comparable) key).compareTo(other));
+            }
+            return 0;
+        }
+
+        /**
+         * Задает произвольный, но постоянный порядок для ключей, которые нельзя
+         * сравнить иначе. Используется только при вставке.
+         *
+         * @param a первый ключ
+         * @param b второй ключ
+         * @return -1 или 1
+         */
+        private static int tieBreakOrder(Object a, Object b) {
+            int d = 0;
+            if (a != null && b != null) {
+                d = a.getClass().getName().compareTo(b.getClass().getName());
+            }
+            if (d == 0) {
+                d = System.identityHashCode(a) <= System.identityHashCode(b) ? -1 : 1;
+            }
+            return d < 0 ? -1 : 1;
+        }
+    }
+
+    /**
+     * Обертка узла в корзине-дереве: вершина AVL-дерева и элемент списка обхода.
+     *
+     * @param <K> тип ключа
+     * @param <V> тип значения
+     */
+    private static final class TreeNode<K, V> {
+        final Node<K, V> entry;
+        TreeNode<K, V> left;
+        TreeNode<K, V> right;
+        TreeNode<K, V> before;
+        TreeNode<K, V> after;
+        int height = 1;
+
+        TreeNode(Node<K, V> entry) {
+            this.entry = entry;
         }
     }
-}
\ No newline at end of file
+}
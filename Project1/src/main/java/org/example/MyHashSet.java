@@ -0,0 +1,295 @@
+package org.example;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Множество, хранящее элементы прямо в таблице {@link MyHashMapImp}: элемент - ключ узла,
+ * значение - общий объект-заглушка. Допускается null-элемент.
+ *
+ * <p>Массовые операции {@link #containsAll}, {@link #addAll}, {@link #removeAll},
+ * {@link #retainAll}, {@link #union} и {@link #intersection} для другого
+ * {@code MyHashSet} обходят меньшее из двух множеств, заранее задают емкость
+ * результата и ищут элементы по хэш-кодам, сохраненным в узлах, не вызывая hashCode
+ * повторно. Для остальных коллекций используется обычный обход с вызовом contains.</p>
+ *
+ * <p>Класс не потокобезопасен. Итератор поддерживает remove и при изменении множества
+ * в обход итератора выбрасывает {@link java.util.ConcurrentModificationException}.</p>
+ *
+ * @param <E> тип элементов
+ */
+public class MyHashSet<E> extends AbstractSet<E> {
+
+    private static final Object PRESENT = new Object();
+
+    private MyHashMapImp<E, Object> map;
+
+    /**
+     * Создает пустое множество с емкостью по умолчанию.
+     */
+    public MyHashSet() {
+        map = new MyHashMapImp<>();
+    }
+
+    /**
+     * Создает пустое множество, вмещающее указанное количество элементов без изменения
+     * размера таблицы.
+     *
+     * @param expectedSize ожидаемое количество элементов
+     * @throws IllegalArgumentException если количество отрицательно
+     */
+    public MyHashSet(int expectedSize) {
+        map = presized(expectedSize);
+    }
+
+    /**
+     * Создает множество из элементов коллекции.
+     *
+     * @param c исходная коллекция
+     */
+    public MyHashSet(Collection<? extends E> c) {
+        map = presized(c.size());
+        addAll(c);
+    }
+
+    private MyHashSet(MyHashMapImp<E, Object> map) {
+        this.map = map;
+    }
+
+    private static <E> MyHashMapImp<E, Object> presized(int expectedSize) {
+        MyHashMapImp<E, Object> m = new MyHashMapImp<>();
+        m.ensureCapacity(expectedSize);
+        return m;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return map.keySet().iterator();
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return map.containsKey(o);
+    }
+
+    @Override
+    public boolean add(E e) {
+        return map.put(e, PRESENT) == null;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return map.remove(o) == PRESENT;
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+    }
+
+    /**
+     * Проверяет, что множество содержит все элементы коллекции. Множество большего
+     * размера заведомо не содержится и не просматривается.
+     *
+     * @param c проверяемая коллекция
+     * @return true если все элементы коллекции есть в множестве
+     */
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        if (!(c instanceof MyHashSet)) {
+            return super.containsAll(c);
+        }
+        MyHashMapImp<?, Object> other = ((MyHashSet<?>) c).map;
+        if (other.size() > map.size()) {
+            return false;
+        }
+        for (Iterator<? extends MyHashMapImp.Node<?, Object>> it = other.nodeIterator(); it.hasNext(); ) {
+            MyHashMapImp.Node<?, Object> node = it.next();
+            if (map.getNode(node.hash, node.key) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Добавляет все элементы коллекции. Таблица заранее увеличивается под сумму размеров,
+     * элементы другого {@code MyHashSet} вставляются по сохраненным хэш-кодам.
+     *
+     * @param c добавляемые элементы
+     * @return true если множество изменилось
+     */
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        int before = map.size();
+        if (c instanceof MyHashSet) {
+            map.putAll(((MyHashSet<? extends E>) c).map);
+        } else {
+            for (E e : c) {
+                map.put(e, PRESENT);
+            }
+        }
+        return map.size() != before;
+    }
+
+    /**
+     * Удаляет все элементы коллекции. Для другого {@code MyHashSet} обходится меньшее
+     * из множеств: элементы меньшего другого удаляются по хэш-кодам, а большой другой
+     * только опрашивается при обходе этого множества.
+     *
+     * @param c удаляемые элементы
+     * @return true если множество изменилось
+     */
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        if (!(c instanceof MyHashSet)) {
+            return super.removeAll(c);
+        }
+        if (c == this) {
+            boolean changed = !isEmpty();
+            clear();
+            return changed;
+        }
+        MyHashMapImp<?, Object> other = ((MyHashSet<?>) c).map;
+        int before = map.size();
+        if (other.size() <= map.size()) {
+            for (Iterator<? extends MyHashMapImp.Node<?, Object>> it = other.nodeIterator(); it.hasNext(); ) {
+                MyHashMapImp.Node<?, Object> node = it.next();
+                map.removeMapping(node.hash, node.key, true);
+            }
+        } else {
+            for (Iterator<MyHashMapImp.Node<E, Object>> it = map.nodeIterator(); it.hasNext(); ) {
+                MyHashMapImp.Node<E, Object> node = it.next();
+                if (other.getNode(node.hash, node.key) != null) {
+                    it.remove();
+                }
+            }
+        }
+        return map.size() != before;
+    }
+
+    /**
+     * Оставляет только элементы, которые есть в коллекции. Если другой {@code MyHashSet}
+     * меньше этого, пересечение собирается в новую таблицу обходом другого множества,
+     * и она заменяет текущую; итераторы, открытые до вызова, после этого выбрасывают
+     * {@link java.util.ConcurrentModificationException}.
+     *
+     * @param c сохраняемые элементы
+     * @return true если множество изменилось
+     */
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        if (!(c instanceof MyHashSet)) {
+            return super.retainAll(c);
+        }
+        MyHashMapImp<?, Object> other = ((MyHashSet<?>) c).map;
+        int before = map.size();
+        if (other.size() < map.size()) {
+            // результат меньше текущего множества, поэтому оно обязательно изменится
+            MyHashMapImp<E, Object> result = intersect(map, other);
+            map.modCount++;
+            map = result;
+            return true;
+        }
+        for (Iterator<MyHashMapImp.Node<E, Object>> it = map.nodeIterator(); it.hasNext(); ) {
+            MyHashMapImp.Node<E, Object> node = it.next();
+            if (other.getNode(node.hash, node.key) == null) {
+                it.remove();
+            }
+        }
+        return map.size() != before;
+    }
+
+    /**
+     * Возвращает новое множество из элементов этого множества и коллекции. Емкость
+     * результата задается под сумму размеров; для другого {@code MyHashSet} сначала
+     * копируется большее множество, затем добавляется меньшее.
+     *
+     * @param other второе множество
+     * @return объединение
+     */
+    public MyHashSet<E> union(Set<? extends E> other) {
+        Objects.requireNonNull(other);
+        MyHashSet<E> result = new MyHashSet<>((int) Math.min((long) size() + other.size(), Integer.MAX_VALUE));
+        if (other instanceof MyHashSet && other.size() > size()) {
+            result.addAll(other);
+            result.addAll(this);
+        } else {
+            result.addAll(this);
+            result.addAll(other);
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает новое множество из элементов этого множества, которые есть в другом.
+     * Обходится меньшее из множеств, емкость результата задается под его размер.
+     *
+     * @param other второе множество
+     * @return пересечение; элементы берутся из этого множества
+     */
+    public MyHashSet<E> intersection(Set<?> other) {
+        if (other instanceof MyHashSet) {
+            return new MyHashSet<>(intersect(map, ((MyHashSet<?>) other).map));
+        }
+        MyHashSet<E> result = new MyHashSet<>(Math.min(size(), other.size()));
+        if (other.size() < size()) {
+            for (Object o : other) {
+                MyHashMapImp.Node<E, Object> node = map.getNode(o);
+                if (node != null) {
+                    result.map.putHashed(node.hash, node.key, PRESENT);
+                }
+            }
+        } else {
+            for (Iterator<MyHashMapImp.Node<E, Object>> it = map.nodeIterator(); it.hasNext(); ) {
+                MyHashMapImp.Node<E, Object> node = it.next();
+                if (other.contains(node.key)) {
+                    result.map.putHashed(node.hash, node.key, PRESENT);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Собирает пересечение таблиц, обходя меньшую. Хэш-коды берутся из узлов,
+     * элементы - из первой таблицы.
+     *
+     * @param self  таблица, чьи элементы попадают в результат
+     * @param other вторая таблица
+     * @return новая таблица с емкостью под размер меньшей
+     */
+    private static <E> MyHashMapImp<E, Object> intersect(MyHashMapImp<E, Object> self, MyHashMapImp<?, Object> other) {
+        MyHashMapImp<E, Object> result = presized(Math.min(self.size(), other.size()));
+        if (other.size() < self.size()) {
+            for (Iterator<? extends MyHashMapImp.Node<?, Object>> it = other.nodeIterator(); it.hasNext(); ) {
+                MyHashMapImp.Node<?, Object> node = it.next();
+                MyHashMapImp.Node<E, Object> own = self.getNode(node.hash, node.key);
+                if (own != null) {
+                    result.putHashed(own.hash, own.key, PRESENT);
+                }
+            }
+        } else {
+            for (Iterator<MyHashMapImp.Node<E, Object>> it = self.nodeIterator(); it.hasNext(); ) {
+                MyHashMapImp.Node<E, Object> node = it.next();
+                if (other.getNode(node.hash, node.key) != null) {
+                    result.putHashed(node.hash, node.key, PRESENT);
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,588 @@
+package org.example;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Карта на основе {@link MyHashMapImp}, которая хранит порядок обращений к парам
+ * и может работать как ограниченный кэш.
+ *
+ * <p>Узлы таблицы дополнительно связаны в двусвязный список: от пары, к которой дольше
+ * всех не обращались, к последней использованной. Обращением считаются get, getOrDefault,
+ * замена значения и вставка; containsKey порядок не меняет. Представления и forEach
+ * обходят пары в этом порядке. Перемещение пары в конец списка меняет порядок обхода,
+ * поэтому, как и в {@link java.util.LinkedHashMap} с порядком доступа, обращение к карте
+ * во время обхода ее представлений приводит к {@link ConcurrentModificationException}.</p>
+ *
+ * <p>Карту можно ограничить количеством пар и суммарным весом пар ({@link Weigher}).
+ * Когда после вставки или замены значения ограничение превышено, из начала списка
+ * вытесняются давно не использованные пары, а {@link EvictionListener} получает каждую
+ * из них. Правило {@link EvictionPolicy#TINY_LFU} дополнительно сравнивает по частотному
+ * скетчу новую пару с кандидатом на вытеснение и вытесняет новую пару, если ее ключ
+ * используется реже. Учет порядка, веса и частоты выполняется за O(1) на операцию.</p>
+ *
+ * <p>Значение, замененное через {@link java.util.Map.Entry#setValue(Object)}, не
+ * перевзвешивается и не считается обращением.</p>
+ *
+ * @param <K> тип ключей, поддерживаемых этой картой
+ * @param <V> тип отображаемых значений
+ */
+public class MyLinkedHashMapImp<K, V> extends MyHashMapImp<K, V> {
+
+    private final long maximumSize;
+    private final long maximumWeight;
+    private final Weigher<? super K, ? super V> weigher;
+    private final EvictionPolicy evictionPolicy;
+
+    /**
+     * Частотный скетч правила TINY_LFU; null для LRU.
+     */
+    private final FrequencySketch sketch;
+
+    private EvictionListener<? super K, ? super V> evictionListener;
+
+    /**
+     * Пара, к которой дольше всех не обращались, - первый кандидат на вытеснение.
+     */
+    private LinkedNode<K, V> head;
+
+    /**
+     * Последняя использованная пара.
+     */
+    private LinkedNode<K, V> tail;
+
+    private long weightedSize;
+    private long evictionCount;
+
+    private Set<K> keySet;
+    private Collection<V> values;
+    private Set<Entry<K, V>> entrySet;
+
+    /**
+     * Создает неограниченную карту с порядком обращений.
+     */
+    public MyLinkedHashMapImp() {
+        this(Long.MAX_VALUE, Long.MAX_VALUE, null, EvictionPolicy.LRU);
+    }
+
+    /**
+     * Создает кэш, вытесняющий давно не использованные пары, когда их больше maximumSize.
+     *
+     * @param maximumSize наибольшее количество пар
+     * @throws IllegalArgumentException если ограничение отрицательно
+     */
+    public MyLinkedHashMapImp(long maximumSize) {
+        this(maximumSize, Long.MAX_VALUE, null, EvictionPolicy.LRU);
+    }
+
+    /**
+     * Создает кэш, ограниченный количеством пар, с указанным правилом вытеснения.
+     *
+     * @param maximumSize    наибольшее количество пар
+     * @param evictionPolicy правило вытеснения
+     * @throws IllegalArgumentException если ограничение отрицательно
+     */
+    public MyLinkedHashMapImp(long maximumSize, EvictionPolicy evictionPolicy) {
+        this(maximumSize, Long.MAX_VALUE, null, evictionPolicy);
+    }
+
+    /**
+     * Создает кэш, ограниченный суммарным весом пар.
+     *
+     * @param maximumWeight  наибольший суммарный вес пар
+     * @param weigher        функция веса пары
+     * @param evictionPolicy правило вытеснения
+     * @throws IllegalArgumentException если ограничение отрицательно
+     */
+    public MyLinkedHashMapImp(long maximumWeight, Weigher<? super K, ? super V> weigher,
+                              EvictionPolicy evictionPolicy) {
+        this(Long.MAX_VALUE, maximumWeight, Objects.requireNonNull(weigher), evictionPolicy);
+    }
+
+    /**
+     * Создает кэш, ограниченный одновременно количеством пар и суммарным весом.
+     *
+     * @param maximumSize    наибольшее количество пар; Long.MAX_VALUE - без ограничения
+     * @param maximumWeight  наибольший суммарный вес; Long.MAX_VALUE - без ограничения
+     * @param weigher        функция веса пары; null - вес каждой пары равен 1
+     * @param evictionPolicy правило вытеснения
+     * @throws IllegalArgumentException если ограничение отрицательно
+     */
+    public MyLinkedHashMapImp(long maximumSize, long maximumWeight, Weigher<? super K, ? super V> weigher,
+                              EvictionPolicy evictionPolicy) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("Illegal maximum size: " + maximumSize);
+        }
+        if (maximumWeight < 0) {
+            throw new IllegalArgumentException("Illegal maximum weight: " + maximumWeight);
+        }
+        this.maximumSize = maximumSize;
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.evictionPolicy = Objects.requireNonNull(evictionPolicy);
+        // без ограничения количества скетч начинается с наименьшей таблицы и растет вместе с картой
+        sketch = evictionPolicy == EvictionPolicy.TINY_LFU
+                ? new FrequencySketch(maximumSize == Long.MAX_VALUE ? 0 : maximumSize) : null;
+    }
+
+    /**
+     * Подключает получателя вытесненных пар.
+     *
+     * @param listener получатель или null, чтобы отключить уведомления
+     */
+    public void setEvictionListener(EvictionListener<? super K, ? super V> listener) {
+        evictionListener = listener;
+    }
+
+    /**
+     * Возвращает наибольшее количество пар.
+     *
+     * @return ограничение количества пар; Long.MAX_VALUE если карта не ограничена
+     */
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Возвращает наибольший суммарный вес пар.
+     *
+     * @return ограничение веса; Long.MAX_VALUE если вес не ограничен
+     */
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * Возвращает суммарный вес пар. Без функции веса равен количеству пар.
+     *
+     * @return суммарный вес
+     */
+    public long getWeightedSize() {
+        return weightedSize;
+    }
+
+    /**
+     * Возвращает количество пар, вытесненных с момента создания карты,
+     * включая новые пары, которые не прошли проверку частоты.
+     *
+     * @return количество вытесненных пар
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Возвращает правило вытеснения.
+     *
+     * @return правило вытеснения
+     */
+    public EvictionPolicy getEvictionPolicy() {
+        return evictionPolicy;
+    }
+
+    /**
+     * Удаляет все пары. Получатель вытесненных пар не вызывается.
+     */
+    @Override
+    public void clear() {
+        super.clear();
+        head = null;
+        tail = null;
+        weightedSize = 0;
+    }
+
+    /**
+     * Возвращает множество ключей в порядке от давно не использованного к последнему.
+     *
+     * @return множество ключей карты
+     */
+    @Override
+    public Set<K> keySet() {
+        Set<K> keys = keySet;
+        if (keys == null) {
+            keys = new LinkedKeySet();
+            keySet = keys;
+        }
+        return keys;
+    }
+
+    /**
+     * Возвращает коллекцию значений в порядке от давно не использованной пары к последней.
+     *
+     * @return коллекция значений карты
+     */
+    @Override
+    public Collection<V> values() {
+        Collection<V> vals = values;
+        if (vals == null) {
+            vals = new LinkedValues();
+            values = vals;
+        }
+        return vals;
+    }
+
+    /**
+     * Возвращает множество пар в порядке от давно не использованной к последней.
+     *
+     * @return множество пар ключ-значение карты
+     */
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        Set<Entry<K, V>> entries = entrySet;
+        if (entries == null) {
+            entries = new LinkedEntrySet();
+            entrySet = entries;
+        }
+        return entries;
+    }
+
+    /**
+     * Передает пары обработчику в порядке от давно не использованной к последней.
+     *
+     * @param action обработчик пар
+     * @throws ConcurrentModificationException если обработчик изменил карту
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        for (LinkedNode<K, V> node = head; node != null; node = node.after) {
+            action.accept(node.key, node.value);
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    @Override
+    Node<K, V> newNode(int hash, K key, V value) {
+        int weight = weigh(key, value);
+        LinkedNode<K, V> node = new LinkedNode<>(hash, key, value);
+        node.weight = weight;
+        weightedSize += weight;
+        LinkedNode<K, V> last = tail;
+        tail = node;
+        if (last == null) {
+            head = node;
+        } else {
+            node.before = last;
+            last.after = node;
+        }
+        return node;
+    }
+
+    @Override
+    void afterNodeAccess(Node<K, V> node) {
+        LinkedNode<K, V> linked = (LinkedNode<K, V>) node;
+        if (sketch != null) {
+            sketch.increment(linked.hash);
+        }
+        moveToTail(linked);
+    }
+
+    @Override
+    void afterNodeUpdate(Node<K, V> node) {
+        LinkedNode<K, V> linked = (LinkedNode<K, V>) node;
+        int weight = weigh(linked.key, linked.value);
+        weightedSize += weight - linked.weight;
+        linked.weight = weight;
+        afterNodeAccess(linked);
+        evict(null);
+    }
+
+    @Override
+    void afterNodeInsertion() {
+        LinkedNode<K, V> candidate = tail;
+        if (sketch != null) {
+            if (maximumSize == Long.MAX_VALUE) {
+                sketch.ensureCapacity(size());
+            }
+            sketch.increment(candidate.hash);
+        }
+        evict(candidate);
+    }
+
+    @Override
+    void afterNodeRemoval(Node<K, V> node) {
+        LinkedNode<K, V> linked = (LinkedNode<K, V>) node;
+        unlink(linked);
+        weightedSize -= linked.weight;
+    }
+
+    /**
+     * Вытесняет пары, пока карта превышает ограничения. Первым кандидатом служит
+     * давно не использованная пара; новая пара, которая одна тяжелее ограничения
+     * или по правилу TINY_LFU используется реже кандидата, вытесняется сама.
+     *
+     * @param candidate только что вставленная пара или null
+     */
+    private void evict(LinkedNode<K, V> candidate) {
+        while (size() > maximumSize || weightedSize > maximumWeight) {
+            LinkedNode<K, V> victim = head;
+            if (candidate != null && victim != candidate
+                    && (candidate.weight > maximumWeight || !admit(candidate, victim))) {
+                victim = candidate;
+            }
+            if (victim == candidate) {
+                candidate = null;
+            }
+            removeMapping(victim.key, false);
+            evictionCount++;
+            if (evictionListener != null) {
+                evictionListener.onEviction(victim.key, victim.value);
+            }
+        }
+    }
+
+    /**
+     * Решает, вытеснить ли кандидата ради новой пары.
+     *
+     * @param candidate новая пара
+     * @param victim    давно не использованная пара
+     * @return true если новая пара остается, а кандидат вытесняется
+     */
+    private boolean admit(LinkedNode<K, V> candidate, LinkedNode<K, V> victim) {
+        return sketch == null || sketch.frequency(candidate.hash) > sketch.frequency(victim.hash);
+    }
+
+    /**
+     * Вычисляет вес пары.
+     *
+     * @param key   ключ
+     * @param value значение
+     * @return вес пары; 1 если функция веса не задана
+     * @throws IllegalArgumentException если функция вернула отрицательный вес
+     */
+    private int weigh(K key, V value) {
+        if (weigher == null) {
+            return 1;
+        }
+        int weight = weigher.weigh(key, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Negative weight " + weight + " for key " + key);
+        }
+        return weight;
+    }
+
+    /**
+     * Перемещает узел в конец списка. Перемещение меняет порядок обхода
+     * и поэтому увеличивает modCount.
+     *
+     * @param node узел
+     */
+    private void moveToTail(LinkedNode<K, V> node) {
+        if (node == tail) {
+            return;
+        }
+        unlink(node);
+        LinkedNode<K, V> last = tail;
+        node.before = last;
+        node.after = null;
+        tail = node;
+        if (last == null) {
+            head = node;
+        } else {
+            last.after = node;
+        }
+        modCount++;
+    }
+
+    /**
+     * Исключает узел из списка.
+     *
+     * @param node узел
+     */
+    private void unlink(LinkedNode<K, V> node) {
+        LinkedNode<K, V> before = node.before;
+        LinkedNode<K, V> after = node.after;
+        if (before == null) {
+            head = after;
+        } else {
+            before.after = after;
+        }
+        if (after == null) {
+            tail = before;
+        } else {
+            after.before = before;
+        }
+        node.before = null;
+        node.after = null;
+    }
+
+    /**
+     * Узел таблицы со ссылками на соседей в порядке обращений и весом пары.
+     *
+     * @param <K> тип ключа
+     * @param <V> тип значения
+     */
+    private static final class LinkedNode<K, V> extends Node<K, V> {
+        LinkedNode<K, V> before;
+        LinkedNode<K, V> after;
+        int weight;
+
+        LinkedNode(int hash, K key, V value) {
+            super(hash, key, value, null);
+        }
+    }
+
+    /**
+     * Базовый итератор по списку обращений.
+     */
+    private abstract class LinkedIterator {
+        private LinkedNode<K, V> next = head;
+        private LinkedNode<K, V> current;
+        private int expectedModCount = modCount;
+
+        public final boolean hasNext() {
+            return next != null;
+        }
+
+        final LinkedNode<K, V> nextNode() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            LinkedNode<K, V> e = next;
+            if (e == null) {
+                throw new NoSuchElementException();
+            }
+            current = e;
+            next = e.after;
+            return e;
+        }
+
+        public final void remove() {
+            if (current == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeMapping(current.key, false);
+            current = null;
+            expectedModCount = modCount;
+        }
+    }
+
+    private final class LinkedKeyIterator extends LinkedIterator implements Iterator<K> {
+        @Override
+        public K next() {
+            return nextNode().key;
+        }
+    }
+
+    private final class LinkedValueIterator extends LinkedIterator implements Iterator<V> {
+        @Override
+        public V next() {
+            return nextNode().value;
+        }
+    }
+
+    private final class LinkedEntryIterator extends LinkedIterator implements Iterator<Entry<K, V>> {
+        @Override
+        public Entry<K, V> next() {
+            return entryFor(nextNode());
+        }
+    }
+
+    /**
+     * Представление ключей в порядке обращений.
+     */
+    private final class LinkedKeySet extends AbstractSet<K> {
+        @Override
+        public int size() {
+            return MyLinkedHashMapImp.this.size();
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            return new LinkedKeyIterator();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return removeMapping(o, true) != null;
+        }
+
+        @Override
+        public void clear() {
+            MyLinkedHashMapImp.this.clear();
+        }
+    }
+
+    /**
+     * Представление значений в порядке обращений.
+     */
+    private final class LinkedValues extends AbstractCollection<V> {
+        @Override
+        public int size() {
+            return MyLinkedHashMapImp.this.size();
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new LinkedValueIterator();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsValue(o);
+        }
+
+        @Override
+        public void clear() {
+            MyLinkedHashMapImp.this.clear();
+        }
+    }
+
+    /**
+     * Представление пар в порядке обращений. Проверка и удаление пары
+     * не считаются обращением.
+     */
+    private final class LinkedEntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public int size() {
+            return MyLinkedHashMapImp.this.size();
+        }
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new LinkedEntryIterator();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            Node<K, V> node = getNode(e.getKey());
+            return node != null && Objects.equals(node.value, e.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            removeMapping(((Entry<?, ?>) o).getKey(), true);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            MyLinkedHashMapImp.this.clear();
+        }
+    }
+}
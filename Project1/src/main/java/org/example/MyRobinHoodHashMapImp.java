@@ -0,0 +1,616 @@
+package org.example;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Реализация интерфейса Map на основе хэш-таблицы с открытой адресацией.
+ * Использует линейное пробирование по схеме Robin Hood и удаление со сдвигом назад.
+ *
+ * <p>В отличие от {@link MyHashMapImp}, карта не создает объект узла для каждой пары:
+ * хэши, ключи и значения хранятся в трех параллельных массивах. Это уменьшает
+ * количество байт на запись и число промахов кэша при поиске.</p>
+ *
+ * <p>При вставке запись, которая ушла от своей "домашней" ячейки дальше, чем текущая,
+ * занимает ее место, а вытесненная запись продолжает поиск свободной ячейки.
+ * Благодаря этому длины проб выравниваются и поиск отсутствующего ключа
+ * останавливается рано даже при высоком коэффициенте загрузки.</p>
+ *
+ * <p>Поддерживает null в качестве ключей и значений.</p>
+ *
+ * @param <K> тип ключей, поддерживаемых этой картой
+ * @param <V> тип отображаемых значений
+ */
+public class MyRobinHoodHashMapImp<K, V> implements Map<K, V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Значение в массиве hashes, обозначающее пустую ячейку.
+     */
+    private static final int EMPTY = 0;
+
+    private int capacity;
+    private int mask;
+    private int size;
+    private int modCount;
+    private double loadFactor = 0.8;
+
+    private int[] hashes;
+    private Object[] keys;
+    private Object[] values;
+
+    /**
+     * Создает новую пустую карту с начальной емкостью по умолчанию (16).
+     */
+    public MyRobinHoodHashMapImp() {
+        allocate(DEFAULT_CAPACITY);
+        size = 0;
+    }
+
+    /**
+     * Возвращает количество ключ-значение пар в этой карте.
+     *
+     * @return количество пар в карте
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Проверяет, пуста ли карта.
+     *
+     * @return true если карта не содержит пар, false в противном случае
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Проверяет, содержится ли указанный ключ в карте.
+     *
+     * @param key ключ для проверки
+     * @return true если карта содержит ключ, false в противном случае
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        if (size == 0) {
+            return false;
+        }
+        return findSlot(key) >= 0;
+    }
+
+    /**
+     * Проверяет, содержится ли указанное значение в карте.
+     * Просматривает массив значений последовательно.
+     *
+     * @param value значение для проверки
+     * @return true если карта содержит значение, false в противном случае
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        if (size == 0) {
+            return false;
+        }
+        for (int i = 0; i < capacity; i++) {
+            if (hashes[i] != EMPTY && Objects.equals(value, values[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Возвращает значение, связанное с указанным ключом.
+     *
+     * @param key ключ, значение которого нужно получить
+     * @return значение, связанное с ключом, или null если ключ не найден
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (size == 0) {
+            return null;
+        }
+        int slot = findSlot(key);
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    /**
+     * Связывает указанное значение с указанным ключом в этой карте.
+     *
+     * @param key   ключ для связи со значением
+     * @param value значение для связи с ключом
+     * @return предыдущее значение, связанное с ключом, или null если ключ не существовал
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        int hash = getHashCode(key);
+        int slot = hash & mask;
+        int distance = 0;
+
+        while (hashes[slot] != EMPTY) {
+            if (hashes[slot] == hash && eq(key, keys[slot])) {
+                V resVal = (V) values[slot];
+                values[slot] = value;
+                return resVal;
+            }
+            if (probeDistance(slot) < distance) {
+                break;
+            }
+            slot = (slot + 1) & mask;
+            distance++;
+        }
+        insertAt(slot, distance, hash, key, value);
+        size++;
+        modCount++;
+        resize();
+        return null;
+    }
+
+    /**
+     * Удаляет пару ключ-значение для указанного ключа.
+     *
+     * @param key ключ, который нужно удалить
+     * @return значение, связанное с удаленным ключом, или null если ключ не найден
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        if (size == 0) {
+            return null;
+        }
+        int slot = findSlot(key);
+        if (slot < 0) {
+            return null;
+        }
+        V resVal = (V) values[slot];
+        removeAt(slot);
+        resize();
+        return resVal;
+    }
+
+    /**
+     * Копирует все пары ключ-значение из указанной карты в эту карту.
+     *
+     * @param m карта, пары которой будут скопированы
+     */
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        for (Entry<? extends K, ? extends V> entry : m.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Удаляет все пары ключ-значение из карты.
+     */
+    @Override
+    public void clear() {
+        for (int i = 0; i < capacity; i++) {
+            hashes[i] = EMPTY;
+            keys[i] = null;
+            values[i] = null;
+        }
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Возвращает множество ключей, основанное на таблице карты.
+     *
+     * @return множество ключей карты
+     */
+    @Override
+    public Set<K> keySet() {
+        return new AbstractSet<K>() {
+            @Override
+            public Iterator<K> iterator() {
+                return new SlotIterator<K>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    K element(int slot) {
+                        return (K) keys[slot];
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+        };
+    }
+
+    /**
+     * Возвращает коллекцию значений, основанную на таблице карты.
+     * Повторяющиеся значения присутствуют в коллекции столько раз, сколько раз встречаются в карте.
+     *
+     * @return коллекция значений карты
+     */
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new SlotIterator<V>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    V element(int slot) {
+                        return (V) values[slot];
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Возвращает множество пар ключ-значение, основанное на таблице карты.
+     *
+     * @return множество пар ключ-значение карты
+     */
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new SlotIterator<Entry<K, V>>() {
+                    @Override
+                    Entry<K, V> element(int slot) {
+                        return new SlotEntry(slot);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Возвращает текущий размер внутренней таблицы.
+     * Используется для тестирования метода resize.
+     *
+     * @return текущий размер внутренней таблицы
+     */
+    public int getTableSize() {
+        return capacity;
+    }
+
+    /**
+     * Вычисляет хэш-код для ключа.
+     * Старшие биты подмешиваются к младшим, так как индекс берется по маске.
+     * Ноль зарезервирован под пустую ячейку, поэтому заменяется единицей.
+     *
+     * @param key ключ для вычисления хэш-кода
+     * @return ненулевой хэш-код ключа
+     */
+    private static int getHashCode(Object key) {
+        int h = Objects.hashCode(key);
+        h ^= (h >>> 16);
+        return h == EMPTY ? 1 : h;
+    }
+
+    /**
+     * Сравнивает ключи с учетом null.
+     *
+     * @param key      искомый ключ
+     * @param tableKey ключ из таблицы
+     * @return true если ключи равны
+     */
+    private static boolean eq(Object key, Object tableKey) {
+        return key == tableKey || (key != null && key.equals(tableKey));
+    }
+
+    /**
+     * Вычисляет расстояние записи в ячейке от ее домашней ячейки.
+     *
+     * @param slot индекс занятой ячейки
+     * @return длина пробы для записи в ячейке
+     */
+    private int probeDistance(int slot) {
+        return (slot - (hashes[slot] & mask)) & mask;
+    }
+
+    /**
+     * Находит ячейку, в которой хранится ключ.
+     * Поиск прекращается, как только встречается запись, которая ближе к своему дому,
+     * чем искомая была бы к своему, так как дальше ключ находиться не может.
+     *
+     * @param key ключ для поиска
+     * @return индекс ячейки или -1 если ключ не найден
+     */
+    private int findSlot(Object key) {
+        int hash = getHashCode(key);
+        int slot = hash & mask;
+        int distance = 0;
+        while (hashes[slot] != EMPTY && probeDistance(slot) >= distance) {
+            if (hashes[slot] == hash && eq(key, keys[slot])) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+            distance++;
+        }
+        return -1;
+    }
+
+    /**
+     * Вставляет запись начиная с указанной ячейки, вытесняя более "богатые" записи.
+     *
+     * @param slot     ячейка, с которой начинается вставка
+     * @param distance текущая длина пробы вставляемой записи
+     * @param hash     хэш-код ключа
+     * @param key      ключ
+     * @param value    значение
+     */
+    private void insertAt(int slot, int distance, int hash, Object key, Object value) {
+        while (hashes[slot] != EMPTY) {
+            int existing = probeDistance(slot);
+            if (existing < distance) {
+                int tmpHash = hashes[slot];
+                Object tmpKey = keys[slot];
+                Object tmpValue = values[slot];
+                hashes[slot] = hash;
+                keys[slot] = key;
+                values[slot] = value;
+                hash = tmpHash;
+                key = tmpKey;
+                value = tmpValue;
+                distance = existing;
+            }
+            slot = (slot + 1) & mask;
+            distance++;
+        }
+        hashes[slot] = hash;
+        keys[slot] = key;
+        values[slot] = value;
+    }
+
+    /**
+     * Удаляет запись из ячейки и сдвигает назад следующие за ней записи,
+     * пока не встретится пустая ячейка или запись в своей домашней ячейке.
+     *
+     * @param slot индекс удаляемой ячейки
+     * @return true если при сдвиге запись из первой ячейки перенесена в последнюю
+     */
+    private boolean removeAt(int slot) {
+        boolean wrapped = false;
+        int next = (slot + 1) & mask;
+        while (hashes[next] != EMPTY && probeDistance(next) > 0) {
+            if (next < slot) {
+                wrapped = true;
+            }
+            hashes[slot] = hashes[next];
+            keys[slot] = keys[next];
+            values[slot] = values[next];
+            slot = next;
+            next = (next + 1) & mask;
+        }
+        hashes[slot] = EMPTY;
+        keys[slot] = null;
+        values[slot] = null;
+        size--;
+        modCount++;
+        return wrapped;
+    }
+
+    /**
+     * Изменяет размер внутренней таблицы при необходимости.
+     * Увеличивает размер вдвое при превышении коэффициента загрузки и
+     * уменьшает вдвое, когда таблица заполнена менее чем на четверть от порога.
+     */
+    private void resize() {
+        if (size >= capacity * loadFactor) {
+            rehash(capacity << 1);
+        } else if (capacity > DEFAULT_CAPACITY && size < capacity * loadFactor / 4) {
+            rehash(capacity >> 1);
+        }
+    }
+
+    /**
+     * Перестраивает таблицу с новой емкостью, заново вставляя все записи.
+     *
+     * @param newCapacity новая емкость, степень двойки
+     */
+    private void rehash(int newCapacity) {
+        int[] oldHashes = hashes;
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldHashes.length; i++) {
+            if (oldHashes[i] != EMPTY) {
+                insertAt(oldHashes[i] & mask, 0, oldHashes[i], oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    /**
+     * Создает пустые массивы таблицы указанной емкости.
+     *
+     * @param newCapacity емкость, степень двойки
+     */
+    private void allocate(int newCapacity) {
+        capacity = newCapacity;
+        mask = newCapacity - 1;
+        hashes = new int[newCapacity];
+        keys = new Object[newCapacity];
+        values = new Object[newCapacity];
+    }
+
+    /**
+     * Итератор по занятым ячейкам таблицы.
+     * Обходит таблицу от конца к началу: при удалении со сдвигом назад записи
+     * переезжают на одну ячейку вниз, поэтому следующая ячейка ищется лениво от
+     * последней возвращенной. Единственное исключение - запись, перенесенная
+     * из начала таблицы в конец; ее ключ запоминается и возвращается в конце обхода.
+     *
+     * @param <E> тип возвращаемых элементов
+     */
+    private abstract class SlotIterator<E> implements Iterator<E> {
+        private int position = capacity;
+        private int nextSlot = -1;
+        private boolean nextFound;
+        private int last = -1;
+        private int expectedModCount = modCount;
+        private List<Object> wrapped;
+        private Object lastWrappedKey;
+        private boolean lastWasWrapped;
+
+        /**
+         * Возвращает элемент для занятой ячейки.
+         *
+         * @param slot индекс ячейки
+         * @return элемент итерации
+         */
+        abstract E element(int slot);
+
+        /**
+         * Находит ближайшую занятую ячейку ниже последней возвращенной.
+         *
+         * @return индекс ячейки или -1 если таких ячеек нет
+         */
+        private int findNext() {
+            if (!nextFound) {
+                int slot = position - 1;
+                while (slot >= 0 && hashes[slot] == EMPTY) {
+                    slot--;
+                }
+                nextSlot = slot;
+                nextFound = true;
+            }
+            return nextSlot;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return findNext() >= 0 || (wrapped != null && !wrapped.isEmpty());
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            int slot = findNext();
+            if (slot >= 0) {
+                position = slot;
+                last = slot;
+                nextFound = false;
+                lastWasWrapped = false;
+                return element(slot);
+            }
+            if (wrapped == null || wrapped.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            lastWrappedKey = wrapped.remove(wrapped.size() - 1);
+            lastWasWrapped = true;
+            last = -1;
+            return element(findSlot(lastWrappedKey));
+        }
+
+        @Override
+        public void remove() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (lastWasWrapped) {
+                lastWasWrapped = false;
+                removeAt(findSlot(lastWrappedKey));
+                expectedModCount = modCount;
+                return;
+            }
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            Object movedKey = keys[0];
+            if (removeAt(last)) {
+                if (wrapped == null) {
+                    wrapped = new ArrayList<>();
+                }
+                wrapped.add(movedKey);
+            }
+            last = -1;
+            nextFound = false;
+            expectedModCount = modCount;
+        }
+    }
+
+    /**
+     * Представление пары ключ-значение, запомненной итератором.
+     * Изменение значения записывается обратно в карту.
+     */
+    private final class SlotEntry implements Entry<K, V> {
+        private final K key;
+        private V value;
+
+        @SuppressWarnings("unchecked")
+        SlotEntry(int slot) {
+            this.key = (K) keys[slot];
+            this.value = (V) values[slot];
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V newValue) {
+            V oldValue = value;
+            value = newValue;
+            int slot = findSlot(key);
+            if (slot >= 0) {
+                values[slot] = newValue;
+            }
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            return Objects.equals(key, e.getKey()) && Objects.equals(value, e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+}
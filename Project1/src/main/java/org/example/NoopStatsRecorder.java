@@ -0,0 +1,38 @@
+package org.example;
+
+/**
+ * Приемник статистики, который ничего не записывает.
+ */
+enum NoopStatsRecorder implements StatsRecorder {
+
+    INSTANCE;
+
+    @Override
+    public void recordHit() {
+    }
+
+    @Override
+    public void recordMiss() {
+    }
+
+    @Override
+    public void recordChainLength(int chainLength) {
+    }
+
+    @Override
+    public void recordTreeify() {
+    }
+
+    @Override
+    public void recordResize(int oldCapacity, int newCapacity) {
+    }
+
+    @Override
+    public void recordRehashTime(long nanos) {
+    }
+
+    @Override
+    public MapStats snapshot(int size, int tableSize) {
+        return new MapStats(0, 0, 0, 0, 0, 0, size, tableSize);
+    }
+}
@@ -0,0 +1,943 @@
+package org.example;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Хэш-таблица с методом цепочек, хранящая ключи, значения и саму таблицу корзин
+ * вне кучи Java, в прямых (direct) буферах.
+ *
+ * <p>Каждая запись сериализуется через {@link Codec} в слаб - набор буферов по
+ * {@value #CHUNK_SIZE} байт - и занимает непрерывный участок:</p>
+ * <pre>
+ * int hash | long next | int keyLength | int valueLength | key bytes | value bytes
+ * </pre>
+ * <p>Вместо ссылок на узлы используются 8-байтовые адреса (номер буфера и смещение),
+ * поэтому в куче не остается ни узлов, ни упакованных ключей, и сборщик мусора
+ * не обходит записи карты. Ключи сравниваются побайтно после проверки хэш-кода,
+ * поэтому кодек ключей должен быть детерминированным. Хэш-код вычисляется
+ * от объекта ключа так же, как в {@link MyHashMapImp}.</p>
+ *
+ * <p>Удаление и замена значения другой длины оставляют в слабе неиспользуемые байты.
+ * Когда их становится больше, чем живых данных, карта уплотняется: живые записи
+ * копируются в новые буферы подряд, а старые буферы освобождаются.</p>
+ *
+ * <p>Память вне кучи освобождается методом {@link #close()}; после закрытия любые
+ * операции выбрасывают IllegalStateException. Поддерживает null в качестве ключей
+ * и значений. Не потокобезопасна.</p>
+ *
+ * @param <K> тип ключей, поддерживаемых этой картой
+ * @param <V> тип отображаемых значений
+ */
+public class OffHeapHashMap<K, V> implements Map<K, V>, Closeable {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Таблица корзин - один буфер по 8 байт на корзину, а размер буфера и смещения
+     * в нем ограничены int: 2^27 корзин занимают 1 ГБ, 2^28 уже не помещаются.
+     * Дальше таблица не растет, и цепочки удлиняются.
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 27;
+
+    /**
+     * Размер одного буфера слаба. Запись не может быть больше.
+     */
+    public static final int CHUNK_SIZE = 1 << 26;
+
+    private static final int CHUNK_BITS = 26;
+
+    private static final int HASH_OFFSET = 0;
+    private static final int NEXT_OFFSET = 4;
+    private static final int KEY_LENGTH_OFFSET = 12;
+    private static final int VALUE_LENGTH_OFFSET = 16;
+    private static final int HEADER_SIZE = 20;
+
+    /**
+     * Длина, которой обозначается ключ или значение null.
+     */
+    private static final int NULL_LENGTH = -1;
+
+    /**
+     * Адрес, обозначающий отсутствие записи. Первые байты первого буфера не выделяются.
+     */
+    private static final long NULL_ADDRESS = 0L;
+
+    /**
+     * Уплотнение не запускается, пока неиспользуемых байт меньше этого порога.
+     */
+    private static final long MIN_COMPACTION_BYTES = 1 << 20;
+
+    private final Codec<K> keyCodec;
+    private final Codec<V> valueCodec;
+
+    private int capacity;
+    private int size;
+    private double loadFactor = 0.8;
+    private int modCount;
+    private boolean closed;
+
+    private ByteBuffer buckets;
+    private List<ByteBuffer> chunks = new ArrayList<>();
+    private int allocOffset;
+    private long liveBytes;
+    private long garbageBytes;
+
+    /**
+     * Буфер в куче для закодированного ключа поиска и значения для сравнения.
+     */
+    private ByteBuffer scratch = ByteBuffer.allocate(64).order(ByteOrder.nativeOrder());
+
+    private Set<K> keySet;
+    private Collection<V> values;
+    private Set<Entry<K, V>> entrySet;
+
+    /**
+     * Создает новую пустую карту с начальной емкостью по умолчанию (16).
+     *
+     * @param keyCodec   кодек ключей
+     * @param valueCodec кодек значений
+     */
+    public OffHeapHashMap(Codec<K> keyCodec, Codec<V> valueCodec) {
+        this.keyCodec = Objects.requireNonNull(keyCodec);
+        this.valueCodec = Objects.requireNonNull(valueCodec);
+        capacity = DEFAULT_CAPACITY;
+        buckets = allocateBuckets(capacity);
+    }
+
+    /**
+     * Возвращает количество ключ-значение пар в этой карте.
+     *
+     * @return количество пар в карте
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Проверяет, пуста ли карта.
+     *
+     * @return true если карта не содержит пар, false в противном случае
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Проверяет, содержится ли указанный ключ в карте.
+     *
+     * @param key ключ для проверки
+     * @return true если карта содержит ключ, false в противном случае
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        ensureOpen();
+        return size != 0 && findEntry(key) != NULL_ADDRESS;
+    }
+
+    /**
+     * Проверяет, содержится ли указанное значение в карте.
+     * Значение кодируется один раз и сравнивается с записями побайтно.
+     *
+     * @param value значение для проверки
+     * @return true если карта содержит значение, false в противном случае
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean containsValue(Object value) {
+        ensureOpen();
+        if (size == 0) {
+            return false;
+        }
+        int length;
+        try {
+            length = encode(valueCodec, (V) value);
+        } catch (ClassCastException e) {
+            return false;
+        }
+        for (int i = 0; i < capacity; i++) {
+            for (long addr = head(i); addr != NULL_ADDRESS; addr = next(addr)) {
+                ByteBuffer chunk = chunk(addr);
+                int off = offset(addr);
+                if (chunk.getInt(off + VALUE_LENGTH_OFFSET) == length
+                        && bytesEqual(chunk, valueOffset(chunk, off), length)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Возвращает значение, связанное с указанным ключом.
+     * Значение каждый раз восстанавливается из байт.
+     *
+     * @param key ключ, значение которого нужно получить
+     * @return значение, связанное с ключом, или null если ключ не найден
+     */
+    @Override
+    public V get(Object key) {
+        ensureOpen();
+        if (size == 0) {
+            return null;
+        }
+        long addr = findEntry(key);
+        return addr == NULL_ADDRESS ? null : readValue(addr);
+    }
+
+    /**
+     * Связывает указанное значение с указанным ключом в этой карте.
+     * Значение той же длины перезаписывается на месте, иначе запись копируется.
+     *
+     * @param key   ключ для связи со значением
+     * @param value значение для связи с ключом
+     * @return предыдущее значение, связанное с ключом, или null если ключ не существовал
+     */
+    @Override
+    public V put(K key, V value) {
+        return putValue(key, value, true);
+    }
+
+    /**
+     * Реализация put.
+     *
+     * @param key            ключ
+     * @param value          значение
+     * @param compactAllowed можно ли уплотнять слаб; false при записи через итератор,
+     *                       так как уплотнение меняет адреса записей
+     * @return предыдущее значение или null
+     */
+    private V putValue(K key, V value, boolean compactAllowed) {
+        ensureOpen();
+        int hash = MyHashMapImp.getHashCode(key);
+        int keyLength = encode(keyCodec, key);
+        int index = hash & (capacity - 1);
+        int valueLength = value == null ? NULL_LENGTH : valueCodec.size(value);
+
+        long prev = NULL_ADDRESS;
+        for (long addr = head(index); addr != NULL_ADDRESS; prev = addr, addr = next(addr)) {
+            if (!keyMatches(addr, hash, keyLength)) {
+                continue;
+            }
+            V resVal = readValue(addr);
+            ByteBuffer chunk = chunk(addr);
+            int off = offset(addr);
+            if (chunk.getInt(off + VALUE_LENGTH_OFFSET) == valueLength) {
+                if (value != null) {
+                    valueCodec.write(value, chunk, valueOffset(chunk, off));
+                }
+            } else {
+                long copy = allocateEntry(hash, keyLength, value, valueLength);
+                setNext(copy, next(addr));
+                if (prev == NULL_ADDRESS) {
+                    setHead(index, copy);
+                } else {
+                    setNext(prev, copy);
+                }
+                release(addr);
+                if (compactAllowed) {
+                    compactIfNeeded();
+                }
+            }
+            return resVal;
+        }
+        long addr = allocateEntry(hash, keyLength, value, valueLength);
+        setNext(addr, head(index));
+        setHead(index, addr);
+        size++;
+        modCount++;
+        resize();
+        return null;
+    }
+
+    /**
+     * Удаляет пару ключ-значение для указанного ключа.
+     *
+     * @param key ключ, который нужно удалить
+     * @return значение, связанное с удаленным ключом, или null если ключ не найден
+     */
+    @Override
+    public V remove(Object key) {
+        ensureOpen();
+        if (size == 0) {
+            return null;
+        }
+        long addr = removeEntry(key);
+        if (addr == NULL_ADDRESS) {
+            return null;
+        }
+        V resVal = readValue(addr);
+        resize();
+        compactIfNeeded();
+        return resVal;
+    }
+
+    /**
+     * Копирует все пары ключ-значение из указанной карты в эту карту.
+     *
+     * @param m карта, пары которой будут скопированы
+     */
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        for (Entry<? extends K, ? extends V> entry : m.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Удаляет все пары ключ-значение из карты и освобождает слаб.
+     */
+    @Override
+    public void clear() {
+        ensureOpen();
+        freeChunks(chunks);
+        chunks = new ArrayList<>();
+        allocOffset = 0;
+        liveBytes = 0;
+        garbageBytes = 0;
+        DirectBuffers.free(buckets);
+        capacity = DEFAULT_CAPACITY;
+        buckets = allocateBuckets(capacity);
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Возвращает множество всех ключей, содержащихся в этой карте.
+     * Множество является представлением карты; ключи восстанавливаются при обходе.
+     *
+     * @return множество ключей карты
+     */
+    @Override
+    public Set<K> keySet() {
+        Set<K> keys = keySet;
+        if (keys == null) {
+            keys = new KeySet();
+            keySet = keys;
+        }
+        return keys;
+    }
+
+    /**
+     * Возвращает коллекцию всех значений, содержащихся в этой карте.
+     *
+     * @return коллекция значений карты
+     */
+    @Override
+    public Collection<V> values() {
+        Collection<V> vals = values;
+        if (vals == null) {
+            vals = new Values();
+            values = vals;
+        }
+        return vals;
+    }
+
+    /**
+     * Возвращает множество всех пар ключ-значение, содержащихся в этой карте.
+     * {@link Entry#setValue(Object)} записывает значение в карту через {@link #put}.
+     *
+     * @return множество пар ключ-значение карты
+     */
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        Set<Entry<K, V>> entries = entrySet;
+        if (entries == null) {
+            entries = new EntrySet();
+            entrySet = entries;
+        }
+        return entries;
+    }
+
+    /**
+     * Освобождает всю память вне кучи. Повторный вызов ничего не делает.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        freeChunks(chunks);
+        chunks = new ArrayList<>();
+        DirectBuffers.free(buckets);
+        buckets = null;
+        size = 0;
+        liveBytes = 0;
+        garbageBytes = 0;
+        modCount++;
+    }
+
+    /**
+     * Уплотняет слаб: копирует живые записи подряд в новые буферы и освобождает старые.
+     * Порядок записей в цепочках сохраняется.
+     */
+    public void compact() {
+        ensureOpen();
+        List<ByteBuffer> oldChunks = chunks;
+        chunks = new ArrayList<>();
+        allocOffset = 0;
+        for (int i = 0; i < capacity; i++) {
+            long tail = NULL_ADDRESS;
+            long addr = head(i);
+            while (addr != NULL_ADDRESS) {
+                ByteBuffer src = oldChunks.get((int) (addr >>> CHUNK_BITS));
+                int srcOff = offset(addr);
+                long nextAddr = src.getLong(srcOff + NEXT_OFFSET);
+                int entrySize = entrySize(src, srcOff);
+                long copy = allocate(entrySize);
+                ByteBuffer dst = chunk(copy);
+                copyBytes(src, srcOff, dst, offset(copy), entrySize);
+                dst.putLong(offset(copy) + NEXT_OFFSET, NULL_ADDRESS);
+                if (tail == NULL_ADDRESS) {
+                    setHead(i, copy);
+                } else {
+                    setNext(tail, copy);
+                }
+                tail = copy;
+                addr = nextAddr;
+            }
+        }
+        freeChunks(oldChunks);
+        garbageBytes = 0;
+        modCount++;
+    }
+
+    /**
+     * Возвращает объем памяти вне кучи, занятой картой: буферы слаба и таблица корзин.
+     *
+     * @return количество байт
+     */
+    public long getOffHeapBytes() {
+        long bytes = buckets == null ? 0 : buckets.capacity();
+        for (ByteBuffer chunk : chunks) {
+            bytes += chunk.capacity();
+        }
+        return bytes;
+    }
+
+    /**
+     * Возвращает количество байт слаба, занятых живыми записями.
+     *
+     * @return количество байт живых записей
+     */
+    public long getLiveBytes() {
+        return liveBytes;
+    }
+
+    /**
+     * Возвращает количество байт слаба, оставшихся от удаленных и замененных записей.
+     *
+     * @return количество неиспользуемых байт
+     */
+    public long getGarbageBytes() {
+        return garbageBytes;
+    }
+
+    /**
+     * Возвращает текущий размер таблицы корзин.
+     * Используется для тестирования метода resize.
+     *
+     * @return текущий размер таблицы корзин
+     */
+    public int getTableSize() {
+        return capacity;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Map is closed");
+        }
+    }
+
+    /**
+     * Кодирует объект во временный буфер.
+     *
+     * @param codec кодек
+     * @param value объект или null
+     * @param <T>   тип объекта
+     * @return длина представления или NULL_LENGTH для null
+     */
+    private <T> int encode(Codec<T> codec, T value) {
+        if (value == null) {
+            return NULL_LENGTH;
+        }
+        int length = codec.size(value);
+        if (scratch.capacity() < length) {
+            scratch = ByteBuffer.allocate(Math.max(length, scratch.capacity() << 1)).order(ByteOrder.nativeOrder());
+        }
+        codec.write(value, scratch, 0);
+        return length;
+    }
+
+    /**
+     * Находит запись по ключу.
+     *
+     * @param key ключ
+     * @return адрес записи или NULL_ADDRESS
+     */
+    @SuppressWarnings("unchecked")
+    private long findEntry(Object key) {
+        int keyLength;
+        try {
+            keyLength = encode(keyCodec, (K) key);
+        } catch (ClassCastException e) {
+            return NULL_ADDRESS;
+        }
+        int hash = MyHashMapImp.getHashCode(key);
+        for (long addr = head(hash & (capacity - 1)); addr != NULL_ADDRESS; addr = next(addr)) {
+            if (keyMatches(addr, hash, keyLength)) {
+                return addr;
+            }
+        }
+        return NULL_ADDRESS;
+    }
+
+    /**
+     * Отцепляет запись с ключом от цепочки без изменения размера таблицы и уплотнения.
+     * Байты записи остаются в слабе до следующего уплотнения.
+     *
+     * @param key ключ
+     * @return адрес удаленной записи или NULL_ADDRESS
+     */
+    @SuppressWarnings("unchecked")
+    private long removeEntry(Object key) {
+        int keyLength;
+        try {
+            keyLength = encode(keyCodec, (K) key);
+        } catch (ClassCastException e) {
+            return NULL_ADDRESS;
+        }
+        int hash = MyHashMapImp.getHashCode(key);
+        int index = hash & (capacity - 1);
+        long prev = NULL_ADDRESS;
+        for (long addr = head(index); addr != NULL_ADDRESS; prev = addr, addr = next(addr)) {
+            if (keyMatches(addr, hash, keyLength)) {
+                if (prev == NULL_ADDRESS) {
+                    setHead(index, next(addr));
+                } else {
+                    setNext(prev, next(addr));
+                }
+                release(addr);
+                size--;
+                modCount++;
+                return addr;
+            }
+        }
+        return NULL_ADDRESS;
+    }
+
+    /**
+     * Сравнивает ключ записи с закодированным ключом во временном буфере.
+     */
+    private boolean keyMatches(long addr, int hash, int keyLength) {
+        ByteBuffer chunk = chunk(addr);
+        int off = offset(addr);
+        return chunk.getInt(off + HASH_OFFSET) == hash
+                && chunk.getInt(off + KEY_LENGTH_OFFSET) == keyLength
+                && bytesEqual(chunk, off + HEADER_SIZE, keyLength);
+    }
+
+    /**
+     * Сравнивает байты слаба с началом временного буфера.
+     */
+    private boolean bytesEqual(ByteBuffer chunk, int off, int length) {
+        int i = 0;
+        for (; i + Long.BYTES <= length; i += Long.BYTES) {
+            if (chunk.getLong(off + i) != scratch.getLong(i)) {
+                return false;
+            }
+        }
+        for (; i < length; i++) {
+            if (chunk.get(off + i) != scratch.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Выделяет и заполняет новую запись; ключ берется из временного буфера.
+     *
+     * @return адрес записи
+     */
+    private long allocateEntry(int hash, int keyLength, V value, int valueLength) {
+        int entrySize = HEADER_SIZE + Math.max(keyLength, 0) + Math.max(valueLength, 0);
+        long addr = allocate(entrySize);
+        ByteBuffer chunk = chunk(addr);
+        int off = offset(addr);
+        chunk.putInt(off + HASH_OFFSET, hash);
+        chunk.putLong(off + NEXT_OFFSET, NULL_ADDRESS);
+        chunk.putInt(off + KEY_LENGTH_OFFSET, keyLength);
+        chunk.putInt(off + VALUE_LENGTH_OFFSET, valueLength);
+        copyBytes(scratch, 0, chunk, off + HEADER_SIZE, Math.max(keyLength, 0));
+        if (value != null) {
+            valueCodec.write(value, chunk, off + HEADER_SIZE + Math.max(keyLength, 0));
+        }
+        liveBytes += entrySize;
+        return addr;
+    }
+
+    /**
+     * Выделяет участок слаба; при нехватке места в текущем буфере создает новый.
+     *
+     * @param bytes размер участка
+     * @return адрес участка
+     */
+    private long allocate(int bytes) {
+        if (bytes > CHUNK_SIZE) {
+            throw new IllegalArgumentException("Entry of " + bytes + " bytes exceeds chunk size " + CHUNK_SIZE);
+        }
+        if (chunks.isEmpty() || allocOffset + bytes > CHUNK_SIZE) {
+            chunks.add(ByteBuffer.allocateDirect(CHUNK_SIZE).order(ByteOrder.nativeOrder()));
+            allocOffset = chunks.size() == 1 ? Long.BYTES : 0;
+        }
+        long addr = ((long) (chunks.size() - 1) << CHUNK_BITS) | allocOffset;
+        allocOffset += bytes;
+        return addr;
+    }
+
+    /**
+     * Учитывает байты отцепленной записи как неиспользуемые.
+     */
+    private void release(long addr) {
+        int entrySize = entrySize(chunk(addr), offset(addr));
+        liveBytes -= entrySize;
+        garbageBytes += entrySize;
+    }
+
+    private void compactIfNeeded() {
+        if (garbageBytes >= MIN_COMPACTION_BYTES && garbageBytes > liveBytes) {
+            compact();
+        }
+    }
+
+    private V readValue(long addr) {
+        ByteBuffer chunk = chunk(addr);
+        int off = offset(addr);
+        int length = chunk.getInt(off + VALUE_LENGTH_OFFSET);
+        return length == NULL_LENGTH ? null : valueCodec.read(chunk, valueOffset(chunk, off), length);
+    }
+
+    private K readKey(long addr) {
+        ByteBuffer chunk = chunk(addr);
+        int off = offset(addr);
+        int length = chunk.getInt(off + KEY_LENGTH_OFFSET);
+        return length == NULL_LENGTH ? null : keyCodec.read(chunk, off + HEADER_SIZE, length);
+    }
+
+    private static int valueOffset(ByteBuffer chunk, int off) {
+        return off + HEADER_SIZE + Math.max(chunk.getInt(off + KEY_LENGTH_OFFSET), 0);
+    }
+
+    private static int entrySize(ByteBuffer chunk, int off) {
+        return HEADER_SIZE + Math.max(chunk.getInt(off + KEY_LENGTH_OFFSET), 0)
+                + Math.max(chunk.getInt(off + VALUE_LENGTH_OFFSET), 0);
+    }
+
+    private ByteBuffer chunk(long addr) {
+        return chunks.get((int) (addr >>> CHUNK_BITS));
+    }
+
+    private static int offset(long addr) {
+        return (int) addr & (CHUNK_SIZE - 1);
+    }
+
+    private long next(long addr) {
+        return chunk(addr).getLong(offset(addr) + NEXT_OFFSET);
+    }
+
+    private void setNext(long addr, long next) {
+        chunk(addr).putLong(offset(addr) + NEXT_OFFSET, next);
+    }
+
+    private long head(int index) {
+        return buckets.getLong(index << 3);
+    }
+
+    private void setHead(int index, long addr) {
+        buckets.putLong(index << 3, addr);
+    }
+
+    private static ByteBuffer allocateBuckets(int capacity) {
+        return ByteBuffer.allocateDirect(capacity << 3).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Изменяет размер таблицы корзин при необходимости по тем же правилам, что
+     * {@link MyHashMapImp}. Записи не копируются: меняются только ссылки next.
+     */
+    private void resize() {
+        int newCapacity;
+        if (size >= capacity * loadFactor && capacity < MAXIMUM_CAPACITY) {
+            newCapacity = capacity << 1;
+        } else if (size < ((capacity >> 1) * loadFactor - 1) && capacity > DEFAULT_CAPACITY) {
+            newCapacity = capacity >> 1;
+        } else {
+            return;
+        }
+        ByteBuffer oldBuckets = buckets;
+        int oldCapacity = capacity;
+        buckets = allocateBuckets(newCapacity);
+        capacity = newCapacity;
+        for (int i = 0; i < oldCapacity; i++) {
+            long addr = oldBuckets.getLong(i << 3);
+            while (addr != NULL_ADDRESS) {
+                long nextAddr = next(addr);
+                int index = chunk(addr).getInt(offset(addr) + HASH_OFFSET) & (newCapacity - 1);
+                setNext(addr, head(index));
+                setHead(index, addr);
+                addr = nextAddr;
+            }
+        }
+        DirectBuffers.free(oldBuckets);
+    }
+
+    private static void copyBytes(ByteBuffer src, int srcOff, ByteBuffer dst, int dstOff, int length) {
+        int i = 0;
+        for (; i + Long.BYTES <= length; i += Long.BYTES) {
+            dst.putLong(dstOff + i, src.getLong(srcOff + i));
+        }
+        for (; i < length; i++) {
+            dst.put(dstOff + i, src.get(srcOff + i));
+        }
+    }
+
+    private static void freeChunks(List<ByteBuffer> list) {
+        for (ByteBuffer chunk : list) {
+            DirectBuffers.free(chunk);
+        }
+        list.clear();
+    }
+
+    /**
+     * Базовый итератор по адресам записей.
+     */
+    private abstract class AddressIterator {
+        private long next = NULL_ADDRESS;
+        private int index;
+        private long current = NULL_ADDRESS;
+        private int expectedModCount = modCount;
+
+        AddressIterator() {
+            ensureOpen();
+            advanceBucket();
+        }
+
+        private void advanceBucket() {
+            while (next == NULL_ADDRESS && index < capacity) {
+                next = head(index++);
+            }
+        }
+
+        public final boolean hasNext() {
+            return next != NULL_ADDRESS;
+        }
+
+        final long nextAddress() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next == NULL_ADDRESS) {
+                throw new NoSuchElementException();
+            }
+            current = next;
+            next = OffHeapHashMap.this.next(current);
+            advanceBucket();
+            return current;
+        }
+
+        public final void remove() {
+            if (current == NULL_ADDRESS) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeEntry(readKey(current));
+            current = NULL_ADDRESS;
+            expectedModCount = modCount;
+        }
+    }
+
+    private final class KeyIterator extends AddressIterator implements Iterator<K> {
+        @Override
+        public K next() {
+            return readKey(nextAddress());
+        }
+    }
+
+    private final class ValueIterator extends AddressIterator implements Iterator<V> {
+        @Override
+        public V next() {
+            return readValue(nextAddress());
+        }
+    }
+
+    private final class EntryIterator extends AddressIterator implements Iterator<Entry<K, V>> {
+        @Override
+        public Entry<K, V> next() {
+            long addr = nextAddress();
+            return new MapEntry(readKey(addr), readValue(addr));
+        }
+    }
+
+    /**
+     * Элемент entrySet: копия пары, записывающая новое значение в карту.
+     */
+    private final class MapEntry implements Entry<K, V> {
+        private final K key;
+        private V value;
+
+        MapEntry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V newValue) {
+            V oldValue = value;
+            value = newValue;
+            putValue(key, newValue, false);
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            return Objects.equals(key, e.getKey()) && Objects.equals(value, e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /**
+     * Представление ключей карты.
+     */
+    private final class KeySet extends AbstractSet<K> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            return new KeyIterator();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            int oldSize = size;
+            OffHeapHashMap.this.remove(o);
+            return size != oldSize;
+        }
+
+        @Override
+        public void clear() {
+            OffHeapHashMap.this.clear();
+        }
+    }
+
+    /**
+     * Представление значений карты.
+     */
+    private final class Values extends AbstractCollection<V> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new ValueIterator();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsValue(o);
+        }
+
+        @Override
+        public void clear() {
+            OffHeapHashMap.this.clear();
+        }
+    }
+
+    /**
+     * Представление пар ключ-значение карты.
+     */
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            return containsKey(e.getKey()) && Objects.equals(get(e.getKey()), e.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            OffHeapHashMap.this.remove(((Entry<?, ?>) o).getKey());
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            OffHeapHashMap.this.clear();
+        }
+    }
+}
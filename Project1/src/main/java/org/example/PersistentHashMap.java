@@ -0,0 +1,805 @@
+package org.example;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Карта на основе постоянного (persistent) префиксного дерева хэш-кодов (HAMT)
+ * с неизменяемыми узлами и мгновенными снимками.
+ *
+ * <p>Хэш-код ключа (тот же, что в {@link MyHashMapImp}) разбивается на порции по 5 бит;
+ * каждая порция выбирает одну из 32 ветвей узла. Узел хранит только существующие ветви
+ * в плотном массиве и битовые маски: {@code dataMap} отмечает ветви, где лежит одна пара
+ * (ключ и значение хранятся прямо в массиве узла), {@code nodeMap} - ветви с дочерним
+ * узлом. Глубина дерева - O(log32 n), пары с полностью совпадающими хэш-кодами хранятся
+ * в узле коллизий на нижнем уровне.</p>
+ *
+ * <p>Узлы никогда не изменяются. Запись копирует только путь от корня до изменяемого узла
+ * (не больше 7 узлов), остальное дерево разделяется между версиями. Текущая версия
+ * публикуется через volatile-ссылку, поэтому:</p>
+ * <ul>
+ *     <li>чтение не берет блокировок и всегда видит целостную версию;</li>
+ *     <li>{@link #snapshot()} стоит O(1): снимок - это ссылка на текущий корень,
+ *     и последующие записи его не меняют;</li>
+ *     <li>{@link #putAll(Map)} публикует все пары одной версией.</li>
+ * </ul>
+ *
+ * <p>Запись выполняется под монитором карты, так что писателей может быть несколько,
+ * но рассчитана карта на одного писателя и много читателей. Операции putIfAbsent,
+ * compute и merge атомарны относительно других писателей. Итераторы обходят версию,
+ * текущую на момент их создания, и не выбрасывают ConcurrentModificationException.
+ * Поддерживает null в качестве ключей и значений.</p>
+ *
+ * @param <K> тип ключей, поддерживаемых этой картой
+ * @param <V> тип отображаемых значений
+ */
+public class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+
+    private static final int BITS = 5;
+    private static final int BRANCH_MASK = (1 << BITS) - 1;
+
+    /**
+     * Наибольшая глубина пути: 7 уровней по 5 бит покрывают 32-битный хэш-код.
+     */
+    private static final int MAX_DEPTH = 8;
+
+    /**
+     * Результат поиска отсутствующего ключа; отличается от значения null.
+     */
+    private static final Object NOT_FOUND = new Object();
+
+    private static final Version<?, ?> EMPTY = new Version<>(BitmapNode.EMPTY, 0);
+
+    private volatile Version<K, V> version;
+
+    private Set<Entry<K, V>> entrySet;
+
+    /**
+     * Создает новую пустую карту.
+     */
+    @SuppressWarnings("unchecked")
+    public PersistentHashMap() {
+        version = (Version<K, V>) EMPTY;
+    }
+
+    /**
+     * Создает карту с парами указанной карты.
+     *
+     * @param map карта, пары которой будут скопированы
+     */
+    public PersistentHashMap(Map<? extends K, ? extends V> map) {
+        this();
+        putAll(map);
+    }
+
+    /**
+     * Возвращает неизменяемый снимок текущего содержимого карты за O(1).
+     * Снимок разделяет узлы с картой и не меняется при ее дальнейших изменениях.
+     *
+     * @return неизменяемая карта с текущими парами
+     */
+    public Map<K, V> snapshot() {
+        return new Snapshot<>(version);
+    }
+
+    /**
+     * Возвращает количество ключ-значение пар в этой карте.
+     *
+     * @return количество пар в карте
+     */
+    @Override
+    public int size() {
+        return version.size;
+    }
+
+    /**
+     * Проверяет, содержится ли указанный ключ в карте.
+     *
+     * @param key ключ для проверки
+     * @return true если карта содержит ключ, false в противном случае
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return version.root.find(key, MyHashMapImp.getHashCode(key), 0) != NOT_FOUND;
+    }
+
+    /**
+     * Возвращает значение, связанное с указанным ключом. Не берет блокировок.
+     *
+     * @param key ключ, значение которого нужно получить
+     * @return значение, связанное с ключом, или null если ключ не найден
+     */
+    @Override
+    public V get(Object key) {
+        return version.get(key, null);
+    }
+
+    /**
+     * Возвращает значение, связанное с ключом, или значение по умолчанию.
+     *
+     * @param key          ключ, значение которого нужно получить
+     * @param defaultValue значение по умолчанию
+     * @return значение ключа (в том числе null) или defaultValue если ключа нет
+     */
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        return version.get(key, defaultValue);
+    }
+
+    /**
+     * Связывает указанное значение с указанным ключом и публикует новую версию.
+     *
+     * @param key   ключ для связи со значением
+     * @param value значение для связи с ключом
+     * @return предыдущее значение, связанное с ключом, или null если ключ не существовал
+     */
+    @Override
+    public synchronized V put(K key, V value) {
+        Change change = new Change();
+        Version<K, V> current = version;
+        TrieNode root = current.root.put(key, value, MyHashMapImp.getHashCode(key), 0, change);
+        if (root != current.root) {
+            version = new Version<>(root, current.size + (change.added ? 1 : 0));
+        }
+        return change.oldValue();
+    }
+
+    /**
+     * Удаляет пару ключ-значение для указанного ключа и публикует новую версию.
+     *
+     * @param key ключ, который нужно удалить
+     * @return значение, связанное с удаленным ключом, или null если ключ не найден
+     */
+    @Override
+    public synchronized V remove(Object key) {
+        Change change = new Change();
+        Version<K, V> current = version;
+        TrieNode root = current.root.remove(key, MyHashMapImp.getHashCode(key), 0, change);
+        if (root != current.root) {
+            version = new Version<>(root, current.size - 1);
+        }
+        return change.oldValue();
+    }
+
+    /**
+     * Копирует все пары указанной карты. Читатели увидят либо ни одной, либо все
+     * новые пары: промежуточные версии не публикуются.
+     *
+     * @param m карта, пары которой будут скопированы
+     */
+    @Override
+    public synchronized void putAll(Map<? extends K, ? extends V> m) {
+        Version<K, V> current = version;
+        TrieNode root = current.root;
+        int size = current.size;
+        Change change = new Change();
+        for (Entry<? extends K, ? extends V> entry : m.entrySet()) {
+            change.added = false;
+            root = root.put(entry.getKey(), entry.getValue(), MyHashMapImp.getHashCode(entry.getKey()), 0, change);
+            if (change.added) {
+                size++;
+            }
+        }
+        if (root != current.root) {
+            version = new Version<>(root, size);
+        }
+    }
+
+    /**
+     * Удаляет все пары из карты. Существующие снимки не меняются.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized void clear() {
+        version = (Version<K, V>) EMPTY;
+    }
+
+    @Override
+    public synchronized V putIfAbsent(K key, V value) {
+        return super.putIfAbsent(key, value);
+    }
+
+    @Override
+    public synchronized V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        return super.computeIfAbsent(key, mappingFunction);
+    }
+
+    @Override
+    public synchronized V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        return super.computeIfPresent(key, remappingFunction);
+    }
+
+    @Override
+    public synchronized V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        return super.compute(key, remappingFunction);
+    }
+
+    @Override
+    public synchronized V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        return super.merge(key, value, remappingFunction);
+    }
+
+    /**
+     * Передает обработчику пары текущей версии.
+     *
+     * @param action обработчик пар
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        version.root.forEach(action);
+    }
+
+    /**
+     * Возвращает множество пар. Итератор обходит версию, текущую на момент его создания;
+     * удаление через итератор удаляет пару из карты.
+     *
+     * @return множество пар ключ-значение карты
+     */
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        Set<Entry<K, V>> entries = entrySet;
+        if (entries == null) {
+            entries = new EntrySet();
+            entrySet = entries;
+        }
+        return entries;
+    }
+
+    /**
+     * Возвращает высоту дерева текущей версии. Используется для тестирования.
+     *
+     * @return количество уровней от корня до самого глубокого узла
+     */
+    int depth() {
+        return version.root.depth();
+    }
+
+    /**
+     * Вычисляет ветвь узла для хэш-кода на указанном уровне.
+     *
+     * @param hash  хэш-код ключа
+     * @param shift сдвиг уровня
+     * @return бит ветви в маске узла
+     */
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & BRANCH_MASK);
+    }
+
+    private static boolean keyEquals(Object a, Object b) {
+        return a == b || (a != null && a.equals(b));
+    }
+
+    /**
+     * Неизменяемая версия карты: корень дерева и количество пар.
+     */
+    private static final class Version<K, V> {
+        final TrieNode root;
+        final int size;
+
+        Version(TrieNode root, int size) {
+            this.root = root;
+            this.size = size;
+        }
+
+        @SuppressWarnings("unchecked")
+        V get(Object key, V defaultValue) {
+            Object value = root.find(key, MyHashMapImp.getHashCode(key), 0);
+            return value == NOT_FOUND ? defaultValue : (V) value;
+        }
+    }
+
+    /**
+     * Сведения об изменении, которые узлы передают вверх по пути записи.
+     */
+    private static final class Change {
+        boolean added;
+        boolean found;
+        Object oldValue;
+
+        @SuppressWarnings("unchecked")
+        <V> V oldValue() {
+            return found ? (V) oldValue : null;
+        }
+    }
+
+    /**
+     * Неизменяемый узел дерева. Операции записи возвращают новый узел
+     * или тот же, если ничего не изменилось.
+     */
+    private abstract static class TrieNode {
+
+        abstract Object find(Object key, int hash, int shift);
+
+        abstract TrieNode put(Object key, Object value, int hash, int shift, Change change);
+
+        abstract TrieNode remove(Object key, int hash, int shift, Change change);
+
+        /**
+         * Количество пар, хранящихся прямо в узле.
+         */
+        abstract int payloadArity();
+
+        /**
+         * Количество дочерних узлов.
+         */
+        abstract int nodeArity();
+
+        abstract Object keyAt(int index);
+
+        abstract Object valueAt(int index);
+
+        abstract TrieNode nodeAt(int index);
+
+        @SuppressWarnings("unchecked")
+        final <K, V> void forEach(BiConsumer<? super K, ? super V> action) {
+            for (int i = 0; i < payloadArity(); i++) {
+                action.accept((K) keyAt(i), (V) valueAt(i));
+            }
+            for (int i = 0; i < nodeArity(); i++) {
+                nodeAt(i).forEach(action);
+            }
+        }
+
+        final int depth() {
+            int depth = 0;
+            for (int i = 0; i < nodeArity(); i++) {
+                depth = Math.max(depth, nodeAt(i).depth());
+            }
+            return depth + 1;
+        }
+    }
+
+    /**
+     * Узел с битовыми масками. Массив content хранит сначала пары
+     * (ключ, значение) в порядке ветвей, затем дочерние узлы в обратном порядке.
+     */
+    private static final class BitmapNode extends TrieNode {
+        static final BitmapNode EMPTY = new BitmapNode(0, 0, new Object[0]);
+
+        final int dataMap;
+        final int nodeMap;
+        final Object[] content;
+
+        BitmapNode(int dataMap, int nodeMap, Object[] content) {
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.content = content;
+        }
+
+        private int dataIndex(int bit) {
+            return Integer.bitCount(dataMap & (bit - 1));
+        }
+
+        private int nodeIndex(int bit) {
+            return Integer.bitCount(nodeMap & (bit - 1));
+        }
+
+        private TrieNode nodeFor(int bit) {
+            return (TrieNode) content[content.length - 1 - nodeIndex(bit)];
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            int bit = bit(hash, shift);
+            if ((dataMap & bit) != 0) {
+                int index = dataIndex(bit) << 1;
+                return keyEquals(key, content[index]) ? content[index + 1] : NOT_FOUND;
+            }
+            if ((nodeMap & bit) != 0) {
+                return nodeFor(bit).find(key, hash, shift + BITS);
+            }
+            return NOT_FOUND;
+        }
+
+        @Override
+        TrieNode put(Object key, Object value, int hash, int shift, Change change) {
+            int bit = bit(hash, shift);
+            if ((dataMap & bit) != 0) {
+                int index = dataIndex(bit) << 1;
+                Object currentKey = content[index];
+                if (keyEquals(key, currentKey)) {
+                    change.found = true;
+                    change.oldValue = content[index + 1];
+                    if (content[index + 1] == value) {
+                        return this;
+                    }
+                    Object[] copy = content.clone();
+                    copy[index + 1] = value;
+                    return new BitmapNode(dataMap, nodeMap, copy);
+                }
+                TrieNode child = mergeTwo(currentKey, content[index + 1], MyHashMapImp.getHashCode(currentKey),
+                        key, value, hash, shift + BITS);
+                change.added = true;
+                return migrateToNode(bit, index, child);
+            }
+            if ((nodeMap & bit) != 0) {
+                int index = content.length - 1 - nodeIndex(bit);
+                TrieNode child = (TrieNode) content[index];
+                TrieNode newChild = child.put(key, value, hash, shift + BITS, change);
+                if (newChild == child) {
+                    return this;
+                }
+                Object[] copy = content.clone();
+                copy[index] = newChild;
+                return new BitmapNode(dataMap, nodeMap, copy);
+            }
+            change.added = true;
+            int index = dataIndex(bit) << 1;
+            Object[] copy = new Object[content.length + 2];
+            System.arraycopy(content, 0, copy, 0, index);
+            copy[index] = key;
+            copy[index + 1] = value;
+            System.arraycopy(content, index, copy, index + 2, content.length - index);
+            return new BitmapNode(dataMap | bit, nodeMap, copy);
+        }
+
+        @Override
+        TrieNode remove(Object key, int hash, int shift, Change change) {
+            int bit = bit(hash, shift);
+            if ((dataMap & bit) != 0) {
+                int index = dataIndex(bit) << 1;
+                if (!keyEquals(key, content[index])) {
+                    return this;
+                }
+                change.found = true;
+                change.oldValue = content[index + 1];
+                Object[] copy = new Object[content.length - 2];
+                System.arraycopy(content, 0, copy, 0, index);
+                System.arraycopy(content, index + 2, copy, index, content.length - index - 2);
+                return new BitmapNode(dataMap ^ bit, nodeMap, copy);
+            }
+            if ((nodeMap & bit) != 0) {
+                int index = content.length - 1 - nodeIndex(bit);
+                TrieNode child = (TrieNode) content[index];
+                TrieNode newChild = child.remove(key, hash, shift + BITS, change);
+                if (newChild == child) {
+                    return this;
+                }
+                if (newChild.nodeArity() == 0 && newChild.payloadArity() == 1) {
+                    return migrateToInline(bit, index, newChild.keyAt(0), newChild.valueAt(0));
+                }
+                Object[] copy = content.clone();
+                copy[index] = newChild;
+                return new BitmapNode(dataMap, nodeMap, copy);
+            }
+            return this;
+        }
+
+        /**
+         * Заменяет пару в ветви bit дочерним узлом.
+         */
+        private TrieNode migrateToNode(int bit, int dataIndex, TrieNode child) {
+            int nodeIndex = content.length - 2 - nodeIndex(bit);
+            Object[] copy = new Object[content.length - 1];
+            System.arraycopy(content, 0, copy, 0, dataIndex);
+            System.arraycopy(content, dataIndex + 2, copy, dataIndex, nodeIndex - dataIndex);
+            copy[nodeIndex] = child;
+            System.arraycopy(content, nodeIndex + 2, copy, nodeIndex + 1, content.length - nodeIndex - 2);
+            return new BitmapNode(dataMap ^ bit, nodeMap | bit, copy);
+        }
+
+        /**
+         * Заменяет дочерний узел в ветви bit единственной оставшейся в нем парой.
+         */
+        private TrieNode migrateToInline(int bit, int nodeIndex, Object key, Object value) {
+            int dataIndex = dataIndex(bit) << 1;
+            Object[] copy = new Object[content.length + 1];
+            System.arraycopy(content, 0, copy, 0, dataIndex);
+            copy[dataIndex] = key;
+            copy[dataIndex + 1] = value;
+            System.arraycopy(content, dataIndex, copy, dataIndex + 2, nodeIndex - dataIndex);
+            System.arraycopy(content, nodeIndex + 1, copy, nodeIndex + 2, content.length - nodeIndex - 1);
+            return new BitmapNode(dataMap | bit, nodeMap ^ bit, copy);
+        }
+
+        /**
+         * Создает узел из двух пар с разными ключами, спускаясь, пока их ветви совпадают.
+         */
+        private static TrieNode mergeTwo(Object key0, Object value0, int hash0,
+                                         Object key1, Object value1, int hash1, int shift) {
+            if (shift >= Integer.SIZE) {
+                return new CollisionNode(hash0, new Object[]{key0, value0, key1, value1});
+            }
+            int bit0 = bit(hash0, shift);
+            int bit1 = bit(hash1, shift);
+            if (bit0 == bit1) {
+                TrieNode child = mergeTwo(key0, value0, hash0, key1, value1, hash1, shift + BITS);
+                return new BitmapNode(0, bit0, new Object[]{child});
+            }
+            Object[] content = Integer.compareUnsigned(bit0, bit1) < 0
+                    ? new Object[]{key0, value0, key1, value1}
+                    : new Object[]{key1, value1, key0, value0};
+            return new BitmapNode(bit0 | bit1, 0, content);
+        }
+
+        @Override
+        int payloadArity() {
+            return Integer.bitCount(dataMap);
+        }
+
+        @Override
+        int nodeArity() {
+            return Integer.bitCount(nodeMap);
+        }
+
+        @Override
+        Object keyAt(int index) {
+            return content[index << 1];
+        }
+
+        @Override
+        Object valueAt(int index) {
+            return content[(index << 1) + 1];
+        }
+
+        @Override
+        TrieNode nodeAt(int index) {
+            return (TrieNode) content[content.length - 1 - index];
+        }
+    }
+
+    /**
+     * Узел пар с одинаковым полным хэш-кодом: линейный массив ключей и значений.
+     */
+    private static final class CollisionNode extends TrieNode {
+        final int hash;
+        final Object[] content;
+
+        CollisionNode(int hash, Object[] content) {
+            this.hash = hash;
+            this.content = content;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < content.length; i += 2) {
+                if (keyEquals(key, content[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            int index = this.hash == hash ? indexOf(key) : -1;
+            return index < 0 ? NOT_FOUND : content[index + 1];
+        }
+
+        @Override
+        TrieNode put(Object key, Object value, int hash, int shift, Change change) {
+            int index = indexOf(key);
+            if (index >= 0) {
+                change.found = true;
+                change.oldValue = content[index + 1];
+                if (content[index + 1] == value) {
+                    return this;
+                }
+                Object[] copy = content.clone();
+                copy[index + 1] = value;
+                return new CollisionNode(hash, copy);
+            }
+            change.added = true;
+            Object[] copy = Arrays.copyOf(content, content.length + 2);
+            copy[content.length] = key;
+            copy[content.length + 1] = value;
+            return new CollisionNode(hash, copy);
+        }
+
+        @Override
+        TrieNode remove(Object key, int hash, int shift, Change change) {
+            int index = indexOf(key);
+            if (index < 0) {
+                return this;
+            }
+            change.found = true;
+            change.oldValue = content[index + 1];
+            Object[] copy = new Object[content.length - 2];
+            System.arraycopy(content, 0, copy, 0, index);
+            System.arraycopy(content, index + 2, copy, index, content.length - index - 2);
+            return new CollisionNode(this.hash, copy);
+        }
+
+        @Override
+        int payloadArity() {
+            return content.length >> 1;
+        }
+
+        @Override
+        int nodeArity() {
+            return 0;
+        }
+
+        @Override
+        Object keyAt(int index) {
+            return content[index << 1];
+        }
+
+        @Override
+        Object valueAt(int index) {
+            return content[(index << 1) + 1];
+        }
+
+        @Override
+        TrieNode nodeAt(int index) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    /**
+     * Итератор по парам одной версии: обход дерева в глубину с явным стеком.
+     */
+    private static final class TrieIterator<K, V> implements Iterator<Entry<K, V>> {
+        private final TrieNode[] nodes = new TrieNode[MAX_DEPTH];
+        private final int[] nextChild = new int[MAX_DEPTH];
+        private int depth;
+        private TrieNode current;
+        private int nextPayload;
+
+        TrieIterator(TrieNode root) {
+            nodes[0] = root;
+            current = root;
+            advance();
+        }
+
+        /**
+         * Находит следующий узел, в котором остались непрочитанные пары.
+         */
+        private void advance() {
+            while (current != null && nextPayload >= current.payloadArity()) {
+                current = null;
+                while (depth >= 0) {
+                    TrieNode node = nodes[depth];
+                    if (nextChild[depth] < node.nodeArity()) {
+                        TrieNode child = node.nodeAt(nextChild[depth]++);
+                        depth++;
+                        nodes[depth] = child;
+                        nextChild[depth] = 0;
+                        current = child;
+                        nextPayload = 0;
+                        break;
+                    }
+                    depth--;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return current != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Entry<K, V> next() {
+            if (current == null) {
+                throw new NoSuchElementException();
+            }
+            Entry<K, V> entry = new SimpleImmutableEntry<>((K) current.keyAt(nextPayload),
+                    (V) current.valueAt(nextPayload));
+            nextPayload++;
+            advance();
+            return entry;
+        }
+    }
+
+    /**
+     * Представление пар живой карты.
+     */
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public int size() {
+            return PersistentHashMap.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            Object value = version.root.find(e.getKey(), MyHashMapImp.getHashCode(e.getKey()), 0);
+            return value != NOT_FOUND && Objects.equals(value, e.getValue());
+        }
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            Iterator<Entry<K, V>> it = new TrieIterator<>(version.root);
+            return new Iterator<>() {
+                private Entry<K, V> last;
+
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public Entry<K, V> next() {
+                    last = it.next();
+                    return last;
+                }
+
+                @Override
+                public void remove() {
+                    if (last == null) {
+                        throw new IllegalStateException();
+                    }
+                    PersistentHashMap.this.remove(last.getKey());
+                    last = null;
+                }
+            };
+        }
+
+        @Override
+        public void clear() {
+            PersistentHashMap.this.clear();
+        }
+    }
+
+    /**
+     * Неизменяемый снимок одной версии.
+     */
+    private static final class Snapshot<K, V> extends AbstractMap<K, V> {
+        private final Version<K, V> version;
+        private Set<Entry<K, V>> entrySet;
+
+        Snapshot(Version<K, V> version) {
+            this.version = version;
+        }
+
+        @Override
+        public int size() {
+            return version.size;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return version.root.find(key, MyHashMapImp.getHashCode(key), 0) != NOT_FOUND;
+        }
+
+        @Override
+        public V get(Object key) {
+            return version.get(key, null);
+        }
+
+        @Override
+        public V getOrDefault(Object key, V defaultValue) {
+            return version.get(key, defaultValue);
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super K, ? super V> action) {
+            Objects.requireNonNull(action);
+            version.root.forEach(action);
+        }
+
+        @Override
+        public Set<Entry<K, V>> entrySet() {
+            Set<Entry<K, V>> entries = entrySet;
+            if (entries == null) {
+                entries = new AbstractSet<>() {
+                    @Override
+                    public int size() {
+                        return version.size;
+                    }
+
+                    @Override
+                    public Iterator<Entry<K, V>> iterator() {
+                        return new TrieIterator<>(version.root);
+                    }
+                };
+                entrySet = entries;
+            }
+            return entries;
+        }
+    }
+}
@@ -0,0 +1,432 @@
+package org.example;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Карта, которая держит ключи через слабые или мягкие ссылки и сама удаляет пары,
+ * ключи которых собраны сборщиком мусора. Подходит для метаданных, привязанных
+ * к короткоживущим объектам: пару не нужно удалять вручную.
+ *
+ * <p>Пары хранятся в {@link MyHashMapImp}, ключами которой служат сами ссылки,
+ * поэтому цепочки, корзины-деревья и изменение размера таблицы работают так же,
+ * как в {@link MyHashMapImp}. Ссылка запоминает хэш-код ключа и регистрируется
+ * в {@link ReferenceQueue}. Каждая операция карты сначала забирает из очереди
+ * очищенные ссылки и удаляет их пары по хэш-коду за O(1), так что устаревшие пары
+ * убираются постепенно, без просмотра таблицы, а работа пропорциональна числу
+ * собранных ключей.</p>
+ *
+ * <p>Ключи сравниваются через equals, как в {@link MyHashMapImp}; допускается
+ * null-ключ, он удерживается сильно. Значения удерживаются сильно: значение,
+ * ссылающееся на собственный ключ, не даст собрать пару. Пара, ключ которой уже
+ * собран, но ссылка еще не выбрана из очереди, может учитываться в size,
+ * но не видна в поиске и при обходе. Класс не потокобезопасен.</p>
+ *
+ * @param <K> тип ключей
+ * @param <V> тип значений
+ */
+public class ReferenceKeyHashMap<K, V> extends AbstractMap<K, V> {
+
+    /**
+     * Ключ, которым заменяется null. Удерживается статическим полем и никогда не собирается.
+     */
+    private static final Object NULL_KEY = new Object();
+
+    private final MyHashMapImp<KeyReference, V> table;
+    private final KeyStrength strength;
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+    private long collectedCount;
+
+    private Set<Entry<K, V>> entrySet;
+
+    /**
+     * Создает пустую карту со слабыми ключами.
+     */
+    public ReferenceKeyHashMap() {
+        this(KeyStrength.WEAK);
+    }
+
+    /**
+     * Создает пустую карту с указанной силой ссылок на ключи.
+     *
+     * @param strength слабые или мягкие ссылки
+     */
+    public ReferenceKeyHashMap(KeyStrength strength) {
+        this(16, strength);
+    }
+
+    /**
+     * Создает пустую карту с указанной начальной емкостью и силой ссылок на ключи.
+     *
+     * @param initialCapacity начальное количество корзин; округляется вверх до степени двойки
+     * @param strength        слабые или мягкие ссылки
+     * @throws IllegalArgumentException если емкость отрицательна
+     */
+    public ReferenceKeyHashMap(int initialCapacity, KeyStrength strength) {
+        if (strength == null) {
+            throw new NullPointerException("strength");
+        }
+        this.table = new MyHashMapImp<>(initialCapacity);
+        this.strength = strength;
+    }
+
+    /**
+     * Возвращает силу ссылок, через которые карта держит ключи.
+     *
+     * @return слабые или мягкие ссылки
+     */
+    public KeyStrength getKeyStrength() {
+        return strength;
+    }
+
+    /**
+     * Возвращает количество пар, удаленных потому, что их ключи собраны сборщиком мусора.
+     *
+     * @return число удаленных устаревших пар
+     */
+    public long getCollectedCount() {
+        return collectedCount;
+    }
+
+    /**
+     * Удаляет пары, ключи которых уже собраны и ссылки на которые поставлены в очередь.
+     * Вызывается каждой операцией карты; явный вызов нужен, только если карта
+     * долго не используется, а ее значения велики. Удаление собранных пар не мешает
+     * открытым итераторам: они и так пропускают такие пары.
+     */
+    public void expungeStaleEntries() {
+        for (Reference<?> ref; (ref = queue.poll()) != null; ) {
+            if (table.removeQuietly(ref) != null) {
+                collectedCount++;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        expungeStaleEntries();
+        return table.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public V get(Object key) {
+        expungeStaleEntries();
+        MyHashMapImp.Node<KeyReference, V> node = table.getNode(new Lookup(maskNull(key)));
+        return node == null ? null : node.value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        expungeStaleEntries();
+        return table.getNode(new Lookup(maskNull(key))) != null;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        expungeStaleEntries();
+        return table.containsValue(value);
+    }
+
+    /**
+     * Связывает значение с ключом. Новая ссылка создается только для ключа,
+     * которого еще нет в карте.
+     *
+     * @param key   ключ
+     * @param value значение
+     * @return предыдущее значение или null
+     */
+    @Override
+    public V put(K key, V value) {
+        expungeStaleEntries();
+        Object k = maskNull(key);
+        MyHashMapImp.Node<KeyReference, V> node = table.getNode(new Lookup(k));
+        if (node != null) {
+            return node.setValue(value);
+        }
+        table.put(newReference(k), value);
+        return null;
+    }
+
+    @Override
+    public V remove(Object key) {
+        expungeStaleEntries();
+        MyHashMapImp.Node<KeyReference, V> node = table.getNode(new Lookup(maskNull(key)));
+        if (node == null) {
+            return null;
+        }
+        table.remove(node.key);
+        return node.value;
+    }
+
+    @Override
+    public void clear() {
+        while (queue.poll() != null) {
+            // ссылки удаленных пар больше не нужны
+        }
+        table.clear();
+    }
+
+    /**
+     * Возвращает представление пар. Итератор удерживает ключ текущей и следующей пары
+     * сильной ссылкой и пропускает пары, ключи которых уже собраны.
+     *
+     * @return множество пар карты
+     */
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        Set<Entry<K, V>> es = entrySet;
+        if (es == null) {
+            es = new EntrySet();
+            entrySet = es;
+        }
+        return es;
+    }
+
+    private KeyReference newReference(Object key) {
+        int hash = key.hashCode();
+        return strength == KeyStrength.WEAK
+                ? new WeakKey(key, hash, queue)
+                : new SoftKey(key, hash, queue);
+    }
+
+    private static Object maskNull(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K> K unmaskNull(Object key) {
+        return key == NULL_KEY ? null : (K) key;
+    }
+
+    /**
+     * Ссылка на ключ, которая хранится в таблице вместо самого ключа.
+     * Хэш-код запоминается, чтобы найти пару после очистки ссылки. Очищенная ссылка
+     * равна только самой себе.
+     */
+    private interface KeyReference {
+
+        Object referent();
+    }
+
+    private static final class WeakKey extends WeakReference<Object> implements KeyReference {
+        private final int hash;
+
+        WeakKey(Object key, int hash, ReferenceQueue<Object> queue) {
+            super(key, queue);
+            this.hash = hash;
+        }
+
+        @Override
+        public Object referent() {
+            return get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return referenceEquals(this, o);
+        }
+    }
+
+    private static final class SoftKey extends SoftReference<Object> implements KeyReference {
+        private final int hash;
+
+        SoftKey(Object key, int hash, ReferenceQueue<Object> queue) {
+            super(key, queue);
+            this.hash = hash;
+        }
+
+        @Override
+        public Object referent() {
+            return get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return referenceEquals(this, o);
+        }
+    }
+
+    private static boolean referenceEquals(KeyReference ref, Object o) {
+        if (ref == o) {
+            return true;
+        }
+        if (!(o instanceof KeyReference)) {
+            return false;
+        }
+        Object key = ref.referent();
+        return key != null && key.equals(((KeyReference) o).referent());
+    }
+
+    /**
+     * Ключ для поиска: равен ссылке, чей ключ равен искомому. Таблица сравнивает
+     * искомый ключ с ключом узла вызовом {@code key.equals(node.key)}, поэтому поиск
+     * не создает ссылок и не регистрирует их в очереди.
+     */
+    private static final class Lookup {
+        private final Object key;
+
+        Lookup(Object key) {
+            this.key = key;
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof KeyReference)) {
+                return false;
+            }
+            Object other = ((KeyReference) o).referent();
+            return key == other || (other != null && key.equals(other));
+        }
+    }
+
+    /**
+     * Представление пар карты поверх таблицы ссылок.
+     */
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public int size() {
+            return ReferenceKeyHashMap.this.size();
+        }
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            expungeStaleEntries();
+            return new EntryIterator(table.entrySet().iterator());
+        }
+
+        @Override
+        public void clear() {
+            ReferenceKeyHashMap.this.clear();
+        }
+    }
+
+    /**
+     * Итератор пар, пропускающий собранные ключи. Пока пара выдана итератором,
+     * ее ключ удерживается сильной ссылкой.
+     */
+    private final class EntryIterator implements Iterator<Entry<K, V>> {
+        private final Iterator<Entry<KeyReference, V>> it;
+        private Entry<KeyReference, V> nextEntry;
+        private Object nextKey;
+        private Object currentKey;
+
+        EntryIterator(Iterator<Entry<KeyReference, V>> it) {
+            this.it = it;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (nextKey == null && it.hasNext()) {
+                Entry<KeyReference, V> e = it.next();
+                Object key = e.getKey().referent();
+                if (key != null) {
+                    nextEntry = e;
+                    nextKey = key;
+                }
+            }
+            return nextKey != null;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Entry<KeyReference, V> e = nextEntry;
+            currentKey = nextKey;
+            nextEntry = null;
+            nextKey = null;
+            return new ReferenceEntry(unmaskNull(currentKey), e);
+        }
+
+        @Override
+        public void remove() {
+            if (currentKey == null) {
+                throw new IllegalStateException();
+            }
+            if (nextKey != null) {
+                // итератор таблицы уже выдал следующую пару, поэтому удаляем по ключу
+                table.removeQuietly(new Lookup(currentKey));
+            } else {
+                it.remove();
+            }
+            currentKey = null;
+        }
+    }
+
+    /**
+     * Пара, выдаваемая итератором: ключ удерживается сильно, замена значения
+     * записывается в узел таблицы.
+     */
+    private final class ReferenceEntry implements Entry<K, V> {
+        private final K key;
+        private final Entry<KeyReference, V> entry;
+
+        ReferenceEntry(K key, Entry<KeyReference, V> entry) {
+            this.key = key;
+            this.entry = entry;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return entry.getValue();
+        }
+
+        @Override
+        public V setValue(V value) {
+            return entry.setValue(value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            return Objects.equals(key, e.getKey()) && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.example;
+
+/**
+ * Правило изменения размера таблицы {@link MyHashMapImp}.
+ *
+ * <p>Таблица увеличивается вдвое, когда количество пар достигает
+ * {@code capacity * loadFactor}, и уменьшается вдвое, когда оно опускается ниже
+ * {@code capacity * shrinkLoadFactor}. Порог уменьшения должен быть строго меньше
+ * половины порога увеличения: тогда после уменьшения заполненность таблицы остается
+ * ниже порога увеличения, а после увеличения - выше порога уменьшения. Между порогами
+ * остается зазор (гистерезис), и чередование put/remove около границы не перестраивает
+ * таблицу на каждой операции.</p>
+ *
+ * <p>Объекты неизменяемы.</p>
+ */
+public final class ResizePolicy {
+
+    /**
+     * Правило по умолчанию: увеличение при заполненности 0.8, уменьшение при 0.2.
+     */
+    public static final ResizePolicy DEFAULT = new ResizePolicy(0.8, 0.2);
+
+    private final double loadFactor;
+    private final double shrinkLoadFactor;
+
+    private ResizePolicy(double loadFactor, double shrinkLoadFactor) {
+        this.loadFactor = loadFactor;
+        this.shrinkLoadFactor = shrinkLoadFactor;
+    }
+
+    /**
+     * Создает правило с указанными порогами.
+     *
+     * @param loadFactor       заполненность, при которой таблица увеличивается; больше 0
+     * @param shrinkLoadFactor заполненность, ниже которой таблица уменьшается;
+     *                         от 0 (не уменьшать) до loadFactor / 2, не включая
+     * @return правило изменения размера
+     * @throws IllegalArgumentException если пороги не образуют зазора
+     */
+    public static ResizePolicy of(double loadFactor, double shrinkLoadFactor) {
+        if (!(loadFactor > 0) || Double.isInfinite(loadFactor)) {
+            throw new IllegalArgumentException("Illegal load factor: " + loadFactor);
+        }
+        if (!(shrinkLoadFactor >= 0) || shrinkLoadFactor >= loadFactor / 2) {
+            throw new IllegalArgumentException("Shrink load factor " + shrinkLoadFactor
+                    + " must be in [0, " + loadFactor / 2 + ")");
+        }
+        return new ResizePolicy(loadFactor, shrinkLoadFactor);
+    }
+
+    /**
+     * Создает правило с указанным порогом увеличения и порогом уменьшения
+     * в четыре раза меньше.
+     *
+     * @param loadFactor заполненность, при которой таблица увеличивается
+     * @return правило изменения размера
+     * @throws IllegalArgumentException если loadFactor не положителен
+     */
+    public static ResizePolicy withLoadFactor(double loadFactor) {
+        return of(loadFactor, loadFactor / 4);
+    }
+
+    /**
+     * Создает правило, при котором таблица только растет.
+     *
+     * @param loadFactor заполненность, при которой таблица увеличивается
+     * @return правило изменения размера
+     * @throws IllegalArgumentException если loadFactor не положителен
+     */
+    public static ResizePolicy growOnly(double loadFactor) {
+        return of(loadFactor, 0);
+    }
+
+    /**
+     * Возвращает заполненность, при которой таблица увеличивается.
+     *
+     * @return порог увеличения
+     */
+    public double getLoadFactor() {
+        return loadFactor;
+    }
+
+    /**
+     * Возвращает заполненность, ниже которой таблица уменьшается.
+     *
+     * @return порог уменьшения; 0 если таблица не уменьшается
+     */
+    public double getShrinkLoadFactor() {
+        return shrinkLoadFactor;
+    }
+
+    /**
+     * Проверяет, нужно ли увеличить таблицу.
+     *
+     * @param size     количество пар
+     * @param capacity емкость таблицы
+     * @return true если заполненность достигла порога увеличения
+     */
+    boolean shouldGrow(int size, int capacity) {
+        return size >= capacity * loadFactor;
+    }
+
+    /**
+     * Проверяет, нужно ли уменьшить таблицу.
+     *
+     * @param size     количество пар
+     * @param capacity емкость таблицы
+     * @return true если заполненность опустилась ниже порога уменьшения
+     */
+    boolean shouldShrink(int size, int capacity) {
+        return size < capacity * shrinkLoadFactor;
+    }
+
+    /**
+     * Вычисляет наименьшую емкость - степень двойки, при которой указанное количество
+     * пар помещается без увеличения таблицы.
+     *
+     * @param expectedSize ожидаемое количество пар
+     * @param maxCapacity  наибольшая допустимая емкость
+     * @return емкость таблицы
+     */
+    int capacityFor(int expectedSize, int maxCapacity) {
+        int capacity = 1;
+        while (capacity < maxCapacity && shouldGrow(expectedSize, capacity)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    @Override
+    public String toString() {
+        return "ResizePolicy{loadFactor=" + loadFactor + ", shrinkLoadFactor=" + shrinkLoadFactor + '}';
+    }
+}
@@ -0,0 +1,72 @@
+package org.example;
+
+/**
+ * Приемник событий {@link MyHashMapImp} для сбора статистики работы карты.
+ *
+ * <p>По умолчанию карта использует {@link #noop()}: его методы пустые, JIT-компилятор
+ * встраивает и удаляет их вызовы, поэтому карта без статистики ничего не платит.
+ * {@link ConcurrentStatsRecorder} считает события в полосатых счетчиках
+ * ({@link java.util.concurrent.atomic.LongAdder}); его можно читать из другого потока
+ * и разделять между несколькими картами.</p>
+ *
+ * @see MyHashMapImp#setStatsRecorder(StatsRecorder)
+ * @see MapStats
+ */
+public interface StatsRecorder {
+
+    /**
+     * Поиск нашел ключ.
+     */
+    void recordHit();
+
+    /**
+     * Поиск не нашел ключ.
+     */
+    void recordMiss();
+
+    /**
+     * Новый ключ добавлен в цепочку.
+     *
+     * @param chainLength длина цепочки после добавления
+     */
+    void recordChainLength(int chainLength);
+
+    /**
+     * Цепочка превращена в дерево.
+     */
+    void recordTreeify();
+
+    /**
+     * Таблица изменила размер.
+     *
+     * @param oldCapacity прежняя емкость
+     * @param newCapacity новая емкость
+     */
+    void recordResize(int oldCapacity, int newCapacity);
+
+    /**
+     * Потрачено время на перенос узлов в новую таблицу: всю при обычном изменении
+     * размера или порцию корзин в инкрементальном режиме.
+     *
+     * @param nanos время в наносекундах
+     */
+    void recordRehashTime(long nanos);
+
+    /**
+     * Возвращает снимок накопленных счетчиков вместе с текущим состоянием таблицы.
+     *
+     * @param size      количество пар в карте
+     * @param tableSize емкость таблицы
+     * @return снимок статистики
+     */
+    MapStats snapshot(int size, int tableSize);
+
+    /**
+     * Возвращает приемник, который ничего не записывает.
+     *
+     * @return общий пустой приемник
+     */
+    static StatsRecorder noop() {
+        return NoopStatsRecorder.INSTANCE;
+    }
+}
@@ -0,0 +1,627 @@
+package org.example;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Реализация интерфейса Map на основе хэш-таблицы с открытой адресацией в стиле Swiss table.
+ *
+ * <p>Помимо массива пар ключ-значение карта хранит массив управляющих байтов,
+ * по одному на слот: пустой слот, удаленный слот (надгробие) или младшие 7 бит хэш-кода
+ * ключа для занятого слота. Слоты разбиты на группы по 8; байты группы читаются одним
+ * long, и все 8 сравниваются с искомыми 7 битами за несколько арифметических операций
+ * (SWAR). К массиву пар поиск обращается только при совпадении этих 7 бит, то есть
+ * в среднем реже одного раза на 100 чужих слотов. Поиск отсутствующего ключа обычно
+ * читает одну строку кэша управляющих байтов и не трогает ни ключи, ни узлы, тогда как
+ * {@link MyHashMapImp} проходит по цепочке и вызывает equals для каждого узла корзины.</p>
+ *
+ * <p>Группа выбирается старшими битами хэш-кода, следующие группы перебираются
+ * треугольной последовательностью, которая при числе групп, равном степени двойки,
+ * обходит их все. Поиск останавливается на первой группе со свободным слотом.
+ * Удаление ставит надгробие, только если группа заполнена полностью: через группу
+ * со свободным слотом не проходит ни одна проба, и слот можно сразу освободить.
+ * Когда свободные слоты заканчиваются, таблица перестраивается: с удвоением емкости
+ * или, если большую часть занятых слотов составляют надгробия, с прежней емкостью.</p>
+ *
+ * <p>Поддерживает null в качестве ключей и значений.</p>
+ *
+ * @param <K> тип ключей, поддерживаемых этой картой
+ * @param <V> тип отображаемых значений
+ */
+public class SwissHashMap<K, V> extends AbstractMap<K, V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAXIMUM_CAPACITY = 1 << 29;
+    private static final int GROUP_WIDTH = 8;
+
+    /**
+     * Управляющий байт свободного слота.
+     */
+    private static final byte EMPTY = (byte) 0x80;
+
+    /**
+     * Управляющий байт удаленного слота (надгробие).
+     */
+    private static final byte DELETED = (byte) 0xFE;
+
+    /**
+     * Младший бит каждого байта слова.
+     */
+    private static final long LSB = 0x0101010101010101L;
+
+    /**
+     * Старший бит каждого байта слова.
+     */
+    private static final long MSB = 0x8080808080808080L;
+
+    /**
+     * Чтение 8 управляющих байтов группы одним long. Байт слота с меньшим номером
+     * попадает в младшие биты, поэтому номер слота в группе - число младших нулей / 8.
+     */
+    private static final VarHandle GROUP =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private int capacity;
+    private int groupMask;
+    private int size;
+    private int deleted;
+    private int growthLeft;
+    private int modCount;
+
+    private byte[] ctrl;
+
+    /**
+     * Ключ слота i в ячейке 2i, значение - в 2i + 1, чтобы найденная пара
+     * читалась из одной строки кэша.
+     */
+    private Object[] table;
+
+    private Set<Entry<K, V>> entrySet;
+
+    /**
+     * Создает новую пустую карту с начальной емкостью по умолчанию (16).
+     */
+    public SwissHashMap() {
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Создает новую пустую карту, вмещающую указанное количество пар без перестройки.
+     *
+     * @param expectedSize ожидаемое количество пар
+     * @throws IllegalArgumentException если expectedSize отрицателен
+     */
+    public SwissHashMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Illegal expected size: " + expectedSize);
+        }
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Возвращает количество ключ-значение пар в этой карте.
+     *
+     * @return количество пар в карте
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Проверяет, пуста ли карта.
+     *
+     * @return true если карта не содержит пар, false в противном случае
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Проверяет, содержится ли указанный ключ в карте.
+     *
+     * @param key ключ для проверки
+     * @return true если карта содержит ключ, false в противном случае
+     */
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key, MyHashMapImp.getHashCode(key)) >= 0;
+    }
+
+    /**
+     * Проверяет, содержится ли указанное значение в карте.
+     * Просматривает занятые слоты последовательно.
+     *
+     * @param value значение для проверки
+     * @return true если карта содержит значение, false в противном случае
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        for (int i = 0; i < capacity; i++) {
+            if (ctrl[i] >= 0 && Objects.equals(value, table[2 * i + 1])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Возвращает значение, связанное с указанным ключом.
+     *
+     * @param key ключ, значение которого нужно получить
+     * @return значение, связанное с ключом, или null если ключ не найден
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int slot = find(key, MyHashMapImp.getHashCode(key));
+        return slot < 0 ? null : (V) table[2 * slot + 1];
+    }
+
+    /**
+     * Возвращает значение, связанное с ключом, или значение по умолчанию.
+     *
+     * @param key          ключ, значение которого нужно получить
+     * @param defaultValue значение по умолчанию
+     * @return значение ключа (в том числе null) или defaultValue если ключа нет
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(Object key, V defaultValue) {
+        int slot = find(key, MyHashMapImp.getHashCode(key));
+        return slot < 0 ? defaultValue : (V) table[2 * slot + 1];
+    }
+
+    /**
+     * Связывает указанное значение с указанным ключом в этой карте.
+     *
+     * @param key   ключ для связи со значением
+     * @param value значение для связи с ключом
+     * @return предыдущее значение, связанное с ключом, или null если ключ не существовал
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        int hash = MyHashMapImp.getHashCode(key);
+        int slot = find(key, hash);
+        if (slot >= 0) {
+            V resVal = (V) table[2 * slot + 1];
+            table[2 * slot + 1] = value;
+            return resVal;
+        }
+        slot = findInsertSlot(hash);
+        if (ctrl[slot] == EMPTY && growthLeft == 0) {
+            rehash(size + 1 > maxLoad(capacity) / 2 ? capacity << 1 : capacity);
+            slot = findInsertSlot(hash);
+        }
+        if (ctrl[slot] == EMPTY) {
+            growthLeft--;
+        } else {
+            deleted--;
+        }
+        ctrl[slot] = h2(hash);
+        table[2 * slot] = key;
+        table[2 * slot + 1] = value;
+        size++;
+        modCount++;
+        return null;
+    }
+
+    /**
+     * Удаляет пару ключ-значение для указанного ключа.
+     *
+     * @param key ключ, который нужно удалить
+     * @return значение, связанное с удаленным ключом, или null если ключ не найден
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        int slot = find(key, MyHashMapImp.getHashCode(key));
+        if (slot < 0) {
+            return null;
+        }
+        V resVal = (V) table[2 * slot + 1];
+        removeAt(slot);
+        return resVal;
+    }
+
+    /**
+     * Удаляет все пары ключ-значение из карты. Емкость таблицы сохраняется.
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(ctrl, EMPTY);
+        Arrays.fill(table, null);
+        size = 0;
+        deleted = 0;
+        growthLeft = maxLoad(capacity);
+        modCount++;
+    }
+
+    /**
+     * Передает все пары обработчику в порядке слотов.
+     *
+     * @param action обработчик пар
+     * @throws ConcurrentModificationException если карта изменилась во время обхода
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        for (int i = 0; i < capacity; i++) {
+            if (ctrl[i] >= 0) {
+                action.accept((K) table[2 * i], (V) table[2 * i + 1]);
+            }
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Возвращает множество пар ключ-значение, основанное на таблице карты.
+     *
+     * @return множество пар ключ-значение карты
+     */
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        Set<Entry<K, V>> set = entrySet;
+        if (set == null) {
+            set = new EntrySet();
+            entrySet = set;
+        }
+        return set;
+    }
+
+    /**
+     * Возвращает текущий размер внутренней таблицы.
+     * Используется для тестирования перестройки.
+     *
+     * @return текущее количество слотов
+     */
+    public int getTableSize() {
+        return capacity;
+    }
+
+    /**
+     * Возвращает количество надгробий в таблице.
+     * Используется для тестирования удаления.
+     *
+     * @return количество удаленных слотов, еще не освобожденных перестройкой
+     */
+    int getDeletedCount() {
+        return deleted;
+    }
+
+    /**
+     * Находит слот с указанным ключом.
+     *
+     * @param key  ключ для поиска
+     * @param hash хэш-код ключа
+     * @return номер слота или -1 если ключ не найден
+     */
+    private int find(Object key, int hash) {
+        long pattern = LSB * h2(hash);
+        int group = (hash >>> 7) & groupMask;
+        for (int step = 1; ; step++) {
+            int base = group * GROUP_WIDTH;
+            long word = (long) GROUP.get(ctrl, base);
+            for (long match = matchByte(word, pattern); match != 0; match &= match - 1) {
+                int slot = base + (Long.numberOfTrailingZeros(match) >>> 3);
+                Object k = table[2 * slot];
+                if (k == key || (key != null && key.equals(k))) {
+                    return slot;
+                }
+            }
+            if (matchEmpty(word) != 0) {
+                return -1;
+            }
+            group = (group + step) & groupMask;
+        }
+    }
+
+    /**
+     * Находит первый свободный или удаленный слот на пути пробы хэш-кода.
+     *
+     * @param hash хэш-код ключа
+     * @return номер слота
+     */
+    private int findInsertSlot(int hash) {
+        int group = (hash >>> 7) & groupMask;
+        for (int step = 1; ; step++) {
+            int base = group * GROUP_WIDTH;
+            long match = matchEmptyOrDeleted((long) GROUP.get(ctrl, base));
+            if (match != 0) {
+                return base + (Long.numberOfTrailingZeros(match) >>> 3);
+            }
+            group = (group + step) & groupMask;
+        }
+    }
+
+    /**
+     * Освобождает слот. Надгробие нужно, только если группа полностью занята:
+     * иначе поиск и так остановился бы на этой группе.
+     *
+     * @param slot номер занятого слота
+     */
+    private void removeAt(int slot) {
+        int base = slot & -GROUP_WIDTH;
+        if (matchEmpty((long) GROUP.get(ctrl, base)) != 0) {
+            ctrl[slot] = EMPTY;
+            growthLeft++;
+        } else {
+            ctrl[slot] = DELETED;
+            deleted++;
+        }
+        table[2 * slot] = null;
+        table[2 * slot + 1] = null;
+        size--;
+        modCount++;
+    }
+
+    /**
+     * Отмечает байты слова, равные искомому. Возможны ложные срабатывания в байте
+     * сразу над совпавшим, поэтому ключ все равно сравнивается через equals.
+     *
+     * @param word    управляющие байты группы
+     * @param pattern искомый байт, повторенный 8 раз
+     * @return слово, где старший бит байта установлен для совпавших слотов
+     */
+    private static long matchByte(long word, long pattern) {
+        long x = word ^ pattern;
+        return (x - LSB) & ~x & MSB;
+    }
+
+    /**
+     * Отмечает свободные слоты: старший бит установлен, а бит 1 сброшен.
+     *
+     * @param word управляющие байты группы
+     * @return слово, где старший бит байта установлен для свободных слотов
+     */
+    private static long matchEmpty(long word) {
+        return word & ~(word << 6) & MSB;
+    }
+
+    /**
+     * Отмечает свободные и удаленные слоты: старший бит установлен, а бит 0 сброшен.
+     *
+     * @param word управляющие байты группы
+     * @return слово, где старший бит байта установлен для незанятых слотов
+     */
+    private static long matchEmptyOrDeleted(long word) {
+        return word & ~(word << 7) & MSB;
+    }
+
+    /**
+     * Возвращает 7 младших бит хэш-кода - управляющий байт занятого слота.
+     *
+     * @param hash хэш-код ключа
+     * @return управляющий байт от 0 до 127
+     */
+    private static byte h2(int hash) {
+        return (byte) (hash & 0x7F);
+    }
+
+    /**
+     * Вычисляет наибольшее количество занятых и удаленных слотов - 7/8 емкости.
+     *
+     * @param capacity количество слотов
+     * @return допустимое число занятых и удаленных слотов
+     */
+    private static int maxLoad(int capacity) {
+        return capacity - capacity / 8;
+    }
+
+    /**
+     * Выбирает наименьшую емкость, вмещающую указанное количество пар.
+     *
+     * @param expectedSize ожидаемое количество пар
+     * @return количество слотов, степень двойки не меньше 16
+     * @throws IllegalArgumentException если пары не помещаются в таблицу
+     */
+    private static int capacityFor(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (maxLoad(capacity) < expectedSize) {
+            if (capacity == MAXIMUM_CAPACITY) {
+                throw new IllegalArgumentException("Too many entries: " + expectedSize);
+            }
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Перестраивает таблицу с указанной емкостью, заново вставляя все пары.
+     * Надгробия при этом исчезают.
+     *
+     * @param newCapacity новая емкость, степень двойки
+     * @throws IllegalStateException если емкость превышает максимальную
+     */
+    private void rehash(int newCapacity) {
+        if (newCapacity > MAXIMUM_CAPACITY) {
+            throw new IllegalStateException("Hash table is full");
+        }
+        byte[] oldCtrl = ctrl;
+        Object[] oldTable = table;
+        allocate(newCapacity);
+        for (int i = 0; i < oldCtrl.length; i++) {
+            if (oldCtrl[i] >= 0) {
+                int hash = MyHashMapImp.getHashCode(oldTable[2 * i]);
+                int slot = findInsertSlot(hash);
+                ctrl[slot] = h2(hash);
+                table[2 * slot] = oldTable[2 * i];
+                table[2 * slot + 1] = oldTable[2 * i + 1];
+            }
+        }
+        growthLeft -= size;
+        modCount++;
+    }
+
+    /**
+     * Создает пустые массивы таблицы указанной емкости.
+     *
+     * @param newCapacity емкость, степень двойки не меньше ширины группы
+     */
+    private void allocate(int newCapacity) {
+        capacity = newCapacity;
+        groupMask = newCapacity / GROUP_WIDTH - 1;
+        ctrl = new byte[newCapacity];
+        Arrays.fill(ctrl, EMPTY);
+        table = new Object[newCapacity * 2];
+        deleted = 0;
+        growthLeft = maxLoad(newCapacity);
+    }
+
+    /**
+     * Представление пар ключ-значение: последовательный обход слотов.
+     * Удаление не сдвигает другие пары, поэтому итератор поддерживает remove без
+     * дополнительного учета.
+     */
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            int slot = find(e.getKey(), MyHashMapImp.getHashCode(e.getKey()));
+            return slot >= 0 && Objects.equals(table[2 * slot + 1], e.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            Object key = ((Entry<?, ?>) o).getKey();
+            removeAt(find(key, MyHashMapImp.getHashCode(key)));
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            SwissHashMap.this.clear();
+        }
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new Iterator<>() {
+                private int next = advance(0);
+                private int last = -1;
+                private int expectedModCount = modCount;
+
+                private int advance(int from) {
+                    int i = from;
+                    while (i < capacity && ctrl[i] < 0) {
+                        i++;
+                    }
+                    return i;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next < capacity;
+                }
+
+                @Override
+                public Entry<K, V> next() {
+                    if (modCount != expectedModCount) {
+                        throw new ConcurrentModificationException();
+                    }
+                    if (next >= capacity) {
+                        throw new NoSuchElementException();
+                    }
+                    last = next;
+                    next = advance(next + 1);
+                    return new SlotEntry(last);
+                }
+
+                @Override
+                public void remove() {
+                    if (last < 0) {
+                        throw new IllegalStateException();
+                    }
+                    if (modCount != expectedModCount) {
+                        throw new ConcurrentModificationException();
+                    }
+                    removeAt(last);
+                    last = -1;
+                    expectedModCount = modCount;
+                }
+            };
+        }
+    }
+
+    /**
+     * Представление пары ключ-значение, запомненной итератором.
+     * Изменение значения записывается обратно в карту.
+     */
+    private final class SlotEntry implements Entry<K, V> {
+        private final K key;
+        private V value;
+
+        @SuppressWarnings("unchecked")
+        SlotEntry(int slot) {
+            this.key = (K) table[2 * slot];
+            this.value = (V) table[2 * slot + 1];
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V newValue) {
+            V oldValue = value;
+            value = newValue;
+            int slot = find(key, MyHashMapImp.getHashCode(key));
+            if (slot >= 0) {
+                table[2 * slot + 1] = newValue;
+            }
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            return Objects.equals(key, e.getKey()) && Objects.equals(value, e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+}
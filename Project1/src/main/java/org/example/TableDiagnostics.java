@@ -0,0 +1,156 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Неизменяемый снимок распределения записей по корзинам хэш-таблицы.
+ *
+ * <p>Содержит гистограмму длин цепочек (размеров корзин), долю пустых корзин и
+ * максимальную длину пробы, то есть наибольшее число ключей, которые придется
+ * сравнить при поиске.
+ * При хорошем распределении почти все корзины содержат 0-2 узла, а максимальная длина
+ * пробы растет очень медленно с размером карты.</p>
+ */
+public final class TableDiagnostics {
+
+    private final int tableSize;
+    private final int size;
+    private final int emptyBuckets;
+    private final int maxChainLength;
+    private final int maxProbeLength;
+    private final int[] chainLengthHistogram;
+
+    private TableDiagnostics(int tableSize, int size, int emptyBuckets, int maxChainLength,
+                             int maxProbeLength, int[] chainLengthHistogram) {
+        this.tableSize = tableSize;
+        this.size = size;
+        this.emptyBuckets = emptyBuckets;
+        this.maxChainLength = maxChainLength;
+        this.maxProbeLength = maxProbeLength;
+        this.chainLengthHistogram = chainLengthHistogram;
+    }
+
+    /**
+     * Строит снимок по длинам цепочек всех корзин.
+     * Для метода цепочек максимальная длина пробы равна длине самой длинной цепочки.
+     *
+     * @param size         количество записей в карте
+     * @param chainLengths длина цепочки для каждой корзины
+     * @return снимок статистики
+     */
+    static TableDiagnostics fromChainLengths(int size, int[] chainLengths) {
+        int maxChainLength = 0;
+        for (int length : chainLengths) {
+            maxChainLength = Math.max(maxChainLength, length);
+        }
+        return fromBuckets(size, chainLengths, maxChainLength);
+    }
+
+    /**
+     * Строит снимок по размерам всех корзин и заранее вычисленной длине пробы.
+     * Используется, когда часть корзин организована не цепочкой, а деревом.
+     *
+     * @param size           количество записей в карте
+     * @param bucketSizes    количество узлов в каждой корзине
+     * @param maxProbeLength наибольшее число сравнений при поиске
+     * @return снимок статистики
+     */
+    static TableDiagnostics fromBuckets(int size, int[] bucketSizes, int maxProbeLength) {
+        int maxChainLength = 0;
+        for (int length : bucketSizes) {
+            maxChainLength = Math.max(maxChainLength, length);
+        }
+        int[] histogram = new int[maxChainLength + 1];
+        for (int length : bucketSizes) {
+            histogram[length]++;
+        }
+        return new TableDiagnostics(bucketSizes.length, size, histogram[0], maxChainLength,
+                maxProbeLength, histogram);
+    }
+
+    /**
+     * Возвращает количество корзин в таблице.
+     *
+     * @return размер таблицы
+     */
+    public int getTableSize() {
+        return tableSize;
+    }
+
+    /**
+     * Возвращает количество записей в карте на момент снимка.
+     *
+     * @return количество записей
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Возвращает количество пустых корзин.
+     *
+     * @return количество пустых корзин
+     */
+    public int getEmptyBuckets() {
+        return emptyBuckets;
+    }
+
+    /**
+     * Возвращает долю пустых корзин от 0 до 1.
+     *
+     * @return доля пустых корзин
+     */
+    public double getEmptyBucketRatio() {
+        return tableSize == 0 ? 0 : (double) emptyBuckets / tableSize;
+    }
+
+    /**
+     * Возвращает длину самой длинной цепочки.
+     *
+     * @return максимальная длина цепочки
+     */
+    public int getMaxChainLength() {
+        return maxChainLength;
+    }
+
+    /**
+     * Возвращает наибольшее число сравнений ключей, необходимое для поиска.
+     *
+     * @return максимальная длина пробы
+     */
+    public int getMaxProbeLength() {
+        return maxProbeLength;
+    }
+
+    /**
+     * Возвращает среднюю длину непустой цепочки.
+     *
+     * @return средняя длина непустой цепочки или 0 для пустой карты
+     */
+    public double getAverageChainLength() {
+        int used = tableSize - emptyBuckets;
+        return used == 0 ? 0 : (double) size / used;
+    }
+
+    /**
+     * Возвращает гистограмму длин цепочек: элемент с индексом i равен количеству
+     * корзин, содержащих ровно i узлов.
+     *
+     * @return копия гистограммы длин цепочек
+     */
+    public int[] getChainLengthHistogram() {
+        return chainLengthHistogram.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "TableDiagnostics{"
+                + "tableSize=" + tableSize
+                + ", size=" + size
+                + ", emptyBucketRatio=" + String.format("%.3f", getEmptyBucketRatio())
+                + ", maxChainLength=" + maxChainLength
+                + ", maxProbeLength=" + maxProbeLength
+                + ", histogram=" + Arrays.toString(chainLengthHistogram)
+                + '}';
+    }
+}
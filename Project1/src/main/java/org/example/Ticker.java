@@ -0,0 +1,25 @@
+package org.example;
+
+/**
+ * Источник времени для {@link ExpiringHashMap}. В тестах подменяется управляемыми часами.
+ */
+@FunctionalInterface
+public interface Ticker {
+
+    /**
+     * Возвращает текущее время в наносекундах от произвольной точки отсчета.
+     * Значения должны не убывать; сравниваются только разности.
+     *
+     * @return время в наносекундах
+     */
+    long read();
+
+    /**
+     * Возвращает часы на основе {@link System#nanoTime()}.
+     *
+     * @return системные часы
+     */
+    static Ticker systemTicker() {
+        return System::nanoTime;
+    }
+}
@@ -0,0 +1,205 @@
+package org.example;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Map.Entry;
+
+/**
+ * Обратный индекс значение -> ключи для режима {@link MyHashMapImp#setValueIndex(boolean)}.
+ *
+ * <p>Индекс - это {@link MyHashMapImp}, где ключом служит значение исходной карты.
+ * Пока значение связано с одним ключом, в индексе лежит сам ключ, без дополнительных
+ * объектов. Для повторяющегося значения ключ заменяется объектом {@link Keys}:
+ * пока ключей немного, они лежат в маленьком массиве и ищутся перебором, а при большей
+ * кратности переносятся во вложенную карту, поэтому добавление и удаление ключа
+ * выполняются за O(1) при любой кратности значения, а редкие повторы не требуют
+ * целой таблицы.</p>
+ *
+ * <p>Класс не потокобезопасен.</p>
+ */
+final class ValueIndex {
+
+    private final MyHashMapImp<Object, Object> keysByValue = new MyHashMapImp<>();
+
+    /**
+     * Связывает ключ со значением.
+     *
+     * @param value значение
+     * @param key   ключ, впервые получивший это значение
+     */
+    void add(Object value, Object key) {
+        MyHashMapImp.Node<Object, Object> node = keysByValue.getNode(value);
+        if (node == null) {
+            keysByValue.put(value, key);
+        } else if (node.value instanceof Keys) {
+            ((Keys) node.value).add(key);
+        } else {
+            node.value = new Keys(node.value, key);
+        }
+    }
+
+    /**
+     * Убирает связь ключа со значением. Значение без ключей удаляется из индекса.
+     *
+     * @param value значение
+     * @param key   ключ, который больше не связан с этим значением
+     */
+    void remove(Object value, Object key) {
+        MyHashMapImp.Node<Object, Object> node = keysByValue.getNode(value);
+        if (node == null) {
+            return;
+        }
+        if (node.value instanceof Keys) {
+            Keys keys = (Keys) node.value;
+            keys.remove(key);
+            if (keys.size() == 1) {
+                node.value = keys.any();
+            }
+        } else {
+            keysByValue.remove(value);
+        }
+    }
+
+    /**
+     * Переносит ключ от старого значения к новому.
+     *
+     * @param oldValue прежнее значение ключа
+     * @param newValue новое значение ключа
+     * @param key      ключ
+     */
+    void replace(Object oldValue, Object newValue, Object key) {
+        if (oldValue == newValue) {
+            return;
+        }
+        remove(oldValue, key);
+        add(newValue, key);
+    }
+
+    boolean contains(Object value) {
+        return keysByValue.containsKey(value);
+    }
+
+    /**
+     * Возвращает один из ключей, связанных со значением.
+     *
+     * @param value значение
+     * @return ключ или null, если значения нет в индексе
+     */
+    Object anyKey(Object value) {
+        MyHashMapImp.Node<Object, Object> node = keysByValue.getNode(value);
+        if (node == null) {
+            return null;
+        }
+        return node.value instanceof Keys ? ((Keys) node.value).any() : node.value;
+    }
+
+    /**
+     * Возвращает количество ключей, связанных со значением.
+     *
+     * @param value значение
+     * @return кратность значения, 0 если его нет
+     */
+    int count(Object value) {
+        MyHashMapImp.Node<Object, Object> node = keysByValue.getNode(value);
+        if (node == null) {
+            return 0;
+        }
+        return node.value instanceof Keys ? ((Keys) node.value).size() : 1;
+    }
+
+    /**
+     * Возвращает количество различных значений.
+     *
+     * @return размер индекса
+     */
+    int size() {
+        return keysByValue.size();
+    }
+
+    void clear() {
+        keysByValue.clear();
+    }
+
+    /**
+     * Возвращает итератор пар значение - один из его ключей. Удаление не поддерживается.
+     *
+     * @return итератор по различным значениям
+     */
+    Iterator<Entry<Object, Object>> iterator() {
+        Iterator<Entry<Object, Object>> it = keysByValue.entrySet().iterator();
+        return new Iterator<Entry<Object, Object>>() {
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public Entry<Object, Object> next() {
+                Entry<Object, Object> e = it.next();
+                Object key = e.getValue() instanceof Keys ? ((Keys) e.getValue()).any() : e.getValue();
+                return new AbstractMap.SimpleImmutableEntry<>(e.getKey(), key);
+            }
+        };
+    }
+
+    /**
+     * Ключи значения, встречающегося в карте больше одного раза.
+     */
+    private static final class Keys {
+        /**
+         * Наибольшее количество ключей в массиве; следующий ключ переводит их в карту.
+         */
+        private static final int ARRAY_LIMIT = 8;
+
+        private Object[] array;
+        private int arraySize;
+        private MyHashMapImp<Object, Boolean> map;
+
+        Keys(Object first, Object second) {
+            array = new Object[]{first, second};
+            arraySize = 2;
+        }
+
+        void add(Object key) {
+            if (map != null) {
+                map.put(key, Boolean.TRUE);
+            } else if (arraySize == ARRAY_LIMIT) {
+                map = new MyHashMapImp<>(2 * ARRAY_LIMIT);
+                for (int i = 0; i < arraySize; i++) {
+                    map.put(array[i], Boolean.TRUE);
+                }
+                map.put(key, Boolean.TRUE);
+                array = null;
+            } else {
+                if (arraySize == array.length) {
+                    array = Arrays.copyOf(array, Math.min(2 * arraySize, ARRAY_LIMIT));
+                }
+                array[arraySize++] = key;
+            }
+        }
+
+        void remove(Object key) {
+            if (map != null) {
+                map.remove(key);
+                return;
+            }
+            for (int i = 0; i < arraySize; i++) {
+                if (Objects.equals(array[i], key)) {
+                    array[i] = array[--arraySize];
+                    array[arraySize] = null;
+                    return;
+                }
+            }
+        }
+
+        int size() {
+            return map != null ? map.size() : arraySize;
+        }
+
+        Object any() {
+            return map != null ? map.keySet().iterator().next() : array[0];
+        }
+    }
+}
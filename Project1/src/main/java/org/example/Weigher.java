@@ -0,0 +1,20 @@
+package org.example;
+
+/**
+ * Вычисляет вес пары для ограничения {@link MyLinkedHashMapImp} по суммарному весу.
+ *
+ * @param <K> тип ключей
+ * @param <V> тип значений
+ */
+@FunctionalInterface
+public interface Weigher<K, V> {
+
+    /**
+     * Возвращает вес пары. Вес вычисляется при вставке и замене значения.
+     *
+     * @param key   ключ
+     * @param value значение
+     * @return вес пары, не меньше 0
+     */
+    int weigh(K key, V value);
+}
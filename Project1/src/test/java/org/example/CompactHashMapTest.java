@@ -0,0 +1,167 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CompactHashMapTest {
+
+    @Test
+    public void testMatchesLinkedHashMap() {
+        Random random = new Random(19);
+        Map<Integer, Integer> expected = new LinkedHashMap<>();
+        CompactHashMap<Integer, Integer> map = new CompactHashMap<>();
+        for (int i = 0; i < 300_000; i++) {
+            Integer key = random.nextInt(20_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        assertEquals(new ArrayList<>(expected.entrySet()), new ArrayList<>(map.entrySet()));
+        assertEquals(expected, map);
+        assertEquals(expected.hashCode(), map.hashCode());
+        for (int i = 0; i < 20_000; i++) {
+            assertEquals(expected.containsKey(i), map.containsKey(i));
+        }
+    }
+
+    @Test
+    public void testIterationFollowsInsertionOrder() {
+        CompactHashMap<String, Integer> map = new CompactHashMap<>();
+        map.put("c", 1);
+        map.put("a", 2);
+        map.put("b", 3);
+        map.put("a", 20);
+        map.remove("c");
+        map.put("c", 4);
+        assertEquals(Arrays.asList("a", "b", "c"), new ArrayList<>(map.keySet()));
+        assertEquals(Arrays.asList(20, 3, 4), new ArrayList<>(map.values()));
+    }
+
+    @Test
+    public void testNullKeyAndValue() {
+        CompactHashMap<String, String> map = new CompactHashMap<>();
+        assertNull(map.put(null, "n"));
+        assertNull(map.put("a", null));
+        assertTrue(map.containsKey(null));
+        assertTrue(map.containsValue(null));
+        assertEquals("n", map.get(null));
+        assertEquals("d", map.getOrDefault("b", "d"));
+        assertNull(map.getOrDefault("a", "d"));
+        assertEquals("n", map.remove(null));
+        assertFalse(map.containsKey(null));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void testDeletionsAreCompactedLazily() {
+        CompactHashMap<Integer, Integer> map = new CompactHashMap<>(1000);
+        int tableSize = map.getTableSize();
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+        for (int i = 0; i < 990; i++) {
+            map.remove(i);
+        }
+        assertEquals(990, map.getDeletedCount());
+        assertEquals(tableSize, map.getTableSize());
+        for (int i = 1000; i < tableSize; i++) {
+            map.put(i, i);
+            map.remove(i);
+        }
+        assertEquals(tableSize - 10, map.getDeletedCount());
+        map.put(-1, -1);
+        assertEquals(0, map.getDeletedCount());
+        assertEquals(11, map.size());
+        assertTrue(map.getTableSize() < tableSize);
+        assertEquals(Integer.valueOf(995), map.get(995));
+        assertEquals(Integer.valueOf(990), map.keySet().iterator().next());
+    }
+
+    @Test
+    public void testCloneIsIndependent() {
+        CompactHashMap<Integer, Integer> map = new CompactHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+        }
+        map.remove(0);
+        CompactHashMap<Integer, Integer> copy = map.clone();
+        assertEquals(map, copy);
+        copy.put(1, -1);
+        copy.remove(2);
+        copy.put(100, 100);
+        map.remove(3);
+        assertEquals(Integer.valueOf(1), map.get(1));
+        assertTrue(map.containsKey(2));
+        assertFalse(map.containsKey(100));
+        assertTrue(copy.containsKey(3));
+        assertEquals(98, map.size());
+        assertEquals(99, copy.size());
+        assertEquals(Integer.valueOf(1), copy.keySet().iterator().next());
+    }
+
+    @Test
+    public void testIteratorRemoveAndSetValue() {
+        CompactHashMap<Integer, Integer> map = new CompactHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+        Iterator<Map.Entry<Integer, Integer>> it = map.entrySet().iterator();
+        int expectedKey = 0;
+        while (it.hasNext()) {
+            Map.Entry<Integer, Integer> entry = it.next();
+            assertEquals(expectedKey++, entry.getKey().intValue());
+            if (entry.getKey() % 2 == 0) {
+                it.remove();
+            } else {
+                entry.setValue(-entry.getKey());
+            }
+        }
+        assertEquals(500, map.size());
+        map.forEach((k, v) -> assertEquals(-k, v.intValue()));
+        map.keySet().removeIf(k -> k < 500);
+        map.values().remove(-999);
+        assertEquals(249, map.size());
+        assertEquals(new HashMap<>(map), map.clone());
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testModificationDuringIterationFails() {
+        CompactHashMap<Integer, Integer> map = new CompactHashMap<>();
+        map.put(1, 1);
+        map.put(2, 2);
+        for (Integer key : map.keySet()) {
+            map.put(key + 10, 0);
+        }
+    }
+
+    @Test
+    public void testClearKeepsCapacity() {
+        CompactHashMap<Integer, Integer> map = new CompactHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+        }
+        int tableSize = map.getTableSize();
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.keySet().iterator().hasNext());
+        assertEquals(tableSize, map.getTableSize());
+        map.put(7, 7);
+        assertEquals(Integer.valueOf(7), map.get(7));
+    }
+}
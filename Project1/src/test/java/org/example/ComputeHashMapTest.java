@@ -0,0 +1,171 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ComputeHashMapTest {
+
+    @Test
+    public void testGetOrDefault() {
+        MyHashMapImp<String, String> map = new MyHashMapImp<>();
+        assertEquals("d", map.getOrDefault("a", "d"));
+        map.put("a", null);
+        assertNull(map.getOrDefault("a", "d"));
+        map.put("b", "x");
+        assertEquals("x", map.getOrDefault("b", "d"));
+    }
+
+    @Test
+    public void testPutIfAbsentReplacesNullValue() {
+        MyHashMapImp<String, String> map = new MyHashMapImp<>();
+        assertNull(map.putIfAbsent("a", "1"));
+        assertEquals("1", map.putIfAbsent("a", "2"));
+        map.put("b", null);
+        assertNull(map.putIfAbsent("b", "3"));
+        assertEquals("3", map.get("b"));
+        assertNull(map.putIfAbsent(null, "n"));
+        assertEquals("n", map.get(null));
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    public void testComputeIfAbsent() {
+        MyHashMapImp<String, Integer> map = new MyHashMapImp<>();
+        assertEquals(Integer.valueOf(1), map.computeIfAbsent("a", k -> 1));
+        assertEquals(Integer.valueOf(1), map.computeIfAbsent("a", k -> 2));
+        assertNull(map.computeIfAbsent("b", k -> null));
+        assertFalse(map.containsKey("b"));
+        map.put("c", null);
+        assertNull(map.computeIfAbsent("c", k -> null));
+        assertTrue(map.containsKey("c"));
+        assertEquals(Integer.valueOf(3), map.computeIfAbsent("c", k -> 3));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    public void testComputeIfPresent() {
+        MyHashMapImp<String, Integer> map = new MyHashMapImp<>();
+        assertNull(map.computeIfPresent("a", (k, v) -> 1));
+        assertFalse(map.containsKey("a"));
+        map.put("a", null);
+        assertNull(map.computeIfPresent("a", (k, v) -> 1));
+        assertTrue(map.containsKey("a"));
+        map.put("a", 1);
+        assertEquals(Integer.valueOf(2), map.computeIfPresent("a", (k, v) -> v + 1));
+        assertNull(map.computeIfPresent("a", (k, v) -> null));
+        assertFalse(map.containsKey("a"));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testCompute() {
+        MyHashMapImp<String, Integer> map = new MyHashMapImp<>();
+        assertEquals(Integer.valueOf(1), map.compute("a", (k, v) -> v == null ? 1 : v + 1));
+        assertEquals(Integer.valueOf(2), map.compute("a", (k, v) -> v == null ? 1 : v + 1));
+        assertNull(map.compute("b", (k, v) -> null));
+        assertFalse(map.containsKey("b"));
+        map.put("c", null);
+        assertNull(map.compute("c", (k, v) -> null));
+        assertFalse(map.containsKey("c"));
+        assertNull(map.compute("a", (k, v) -> null));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testMerge() {
+        MyHashMapImp<String, Integer> map = new MyHashMapImp<>();
+        assertEquals(Integer.valueOf(1), map.merge("a", 1, Integer::sum));
+        assertEquals(Integer.valueOf(3), map.merge("a", 2, Integer::sum));
+        map.put("b", null);
+        assertEquals(Integer.valueOf(5), map.merge("b", 5, (a, b) -> {
+            throw new AssertionError("function must not be called for a null value");
+        }));
+        assertNull(map.merge("a", 1, (a, b) -> null));
+        assertFalse(map.containsKey("a"));
+        assertEquals(1, map.size());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testMergeRejectsNullValue() {
+        new MyHashMapImp<String, Integer>().merge("a", null, Integer::sum);
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testFunctionModifyingMapFails() {
+        MyHashMapImp<Integer, Integer> map = new MyHashMapImp<>();
+        map.computeIfAbsent(1, k -> map.put(2, 2));
+    }
+
+    @Test
+    public void testWordCountMatchesHashMap() {
+        Random random = new Random(3);
+        Map<Integer, Integer> expected = new HashMap<>();
+        MyHashMapImp<Integer, Integer> map = new MyHashMapImp<>();
+        map.setIncrementalRehash(true);
+        for (int i = 0; i < 100_000; i++) {
+            Integer word = random.nextInt(5_000);
+            switch (random.nextInt(4)) {
+                case 0:
+                    assertEquals(expected.merge(word, 1, Integer::sum), map.merge(word, 1, Integer::sum));
+                    break;
+                case 1:
+                    assertEquals(expected.compute(word, (k, v) -> v == null || v > 3 ? null : v + 1),
+                            map.compute(word, (k, v) -> v == null || v > 3 ? null : v + 1));
+                    break;
+                case 2:
+                    assertEquals(expected.computeIfAbsent(word, k -> k), map.computeIfAbsent(word, k -> k));
+                    break;
+                default:
+                    assertEquals(expected.computeIfPresent(word, (k, v) -> v % 2 == 0 ? null : v + 1),
+                            map.computeIfPresent(word, (k, v) -> v % 2 == 0 ? null : v + 1));
+                    break;
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected, new HashMap<>(map));
+    }
+
+    @Test
+    public void testMergeInTreeBin() {
+        MyHashMapImp<CollidingKey, Integer> map = new MyHashMapImp<>();
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 50; i++) {
+                map.merge(new CollidingKey(i), 1, Integer::sum);
+            }
+        }
+        assertEquals(50, map.size());
+        assertEquals(Integer.valueOf(3), map.get(new CollidingKey(7)));
+        for (int i = 0; i < 45; i++) {
+            assertNull(map.computeIfPresent(new CollidingKey(i), (k, v) -> null));
+        }
+        assertEquals(5, map.size());
+        assertEquals(Integer.valueOf(3), map.getOrDefault(new CollidingKey(49), 0));
+    }
+
+    private static final class CollidingKey {
+        private final int id;
+
+        CollidingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CollidingKey && ((CollidingKey) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+}
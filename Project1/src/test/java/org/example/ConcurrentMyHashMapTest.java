@@ -0,0 +1,218 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ConcurrentMyHashMapTest {
+
+    private static final int THREADS = 8;
+
+    @Test
+    public void testBasicOperations() {
+        ConcurrentMap<Integer, String> map = new ConcurrentMyHashMap<>();
+        assertNull(map.put(1, "a"));
+        assertEquals("a", map.put(1, "b"));
+        assertEquals("b", map.putIfAbsent(1, "c"));
+        assertNull(map.putIfAbsent(2, "c"));
+        assertEquals(2, map.size());
+        assertTrue(map.containsValue("c"));
+        assertFalse(map.remove(1, "a"));
+        assertTrue(map.replace(1, "b", "d"));
+        assertEquals("d", map.replace(1, "e"));
+        assertNull(map.replace(3, "x"));
+        assertTrue(map.remove(1, "e"));
+        assertEquals("c", map.remove(2));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullKeyRejected() {
+        new ConcurrentMyHashMap<String, String>().put(null, "a");
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullValueRejected() {
+        new ConcurrentMyHashMap<String, String>().put("a", null);
+    }
+
+    @Test
+    public void testComputeOperations() {
+        ConcurrentMap<String, Integer> map = new ConcurrentMyHashMap<>();
+        assertEquals(Integer.valueOf(1), map.computeIfAbsent("a", k -> 1));
+        assertEquals(Integer.valueOf(1), map.computeIfAbsent("a", k -> 2));
+        assertNull(map.computeIfAbsent("b", k -> null));
+        assertFalse(map.containsKey("b"));
+        assertEquals(Integer.valueOf(11), map.computeIfPresent("a", (k, v) -> v + 10));
+        assertNull(map.computeIfPresent("b", (k, v) -> 1));
+        assertEquals(Integer.valueOf(5), map.merge("b", 5, Integer::sum));
+        assertEquals(Integer.valueOf(10), map.merge("b", 5, Integer::sum));
+        assertNull(map.merge("b", 5, (a, b) -> null));
+        assertNull(map.compute("a", (k, v) -> null));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testResizeKeepsAllKeys() {
+        ConcurrentMyHashMap<Integer, Integer> map = new ConcurrentMyHashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            map.put(i, i);
+        }
+        assertEquals(10_000, map.size());
+        assertEquals(16384, map.getTableSize());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(Integer.valueOf(i), map.get(i));
+        }
+    }
+
+    @Test
+    public void testInitialCapacityAvoidsResize() {
+        ConcurrentMyHashMap<Integer, Integer> map = new ConcurrentMyHashMap<>(1000);
+        map.put(0, 0);
+        int tableSize = map.getTableSize();
+        for (int i = 1; i < 1000; i++) {
+            map.put(i, i);
+        }
+        assertEquals(tableSize, map.getTableSize());
+    }
+
+    @Test
+    public void testViewsAndIteratorRemove() {
+        ConcurrentMap<Integer, Integer> map = new ConcurrentMyHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+        Set<Integer> seen = new HashSet<>();
+        Iterator<Integer> iterator = map.keySet().iterator();
+        while (iterator.hasNext()) {
+            Integer key = iterator.next();
+            assertTrue(seen.add(key));
+            if (key % 2 == 0) {
+                iterator.remove();
+            }
+        }
+        assertEquals(1000, seen.size());
+        assertEquals(500, map.size());
+        for (Map.Entry<Integer, Integer> entry : map.entrySet()) {
+            entry.setValue(-entry.getValue());
+        }
+        assertEquals(Integer.valueOf(-1), map.get(1));
+        Map<Integer, Integer> copy = new HashMap<>();
+        map.forEach(copy::put);
+        assertEquals(500, copy.size());
+    }
+
+    @Test
+    public void testConcurrentMergeCountsExactly() throws Exception {
+        ConcurrentMap<Integer, Integer> map = new ConcurrentMyHashMap<>();
+        int perThread = 20_000;
+        runThreads(t -> {
+            for (int i = 0; i < perThread; i++) {
+                map.merge(i % 1000, 1, Integer::sum);
+            }
+        });
+        assertEquals(1000, map.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Integer.valueOf(THREADS * perThread / 1000), map.get(i));
+        }
+    }
+
+    @Test
+    public void testConcurrentComputeIfAbsentCallsFunctionOnce() throws Exception {
+        ConcurrentMap<Integer, Integer> map = new ConcurrentMyHashMap<>();
+        AtomicInteger calls = new AtomicInteger();
+        runThreads(t -> {
+            for (int i = 0; i < 5_000; i++) {
+                map.computeIfAbsent(i, k -> {
+                    calls.incrementAndGet();
+                    return k;
+                });
+            }
+        });
+        assertEquals(5_000, calls.get());
+        assertEquals(5_000, map.size());
+    }
+
+    @Test
+    public void testConcurrentPutsDuringResize() throws Exception {
+        ConcurrentMyHashMap<Integer, Integer> map = new ConcurrentMyHashMap<>();
+        int perThread = 50_000;
+        runThreads(t -> {
+            Random random = new Random(t);
+            for (int i = 0; i < perThread; i++) {
+                int key = t * perThread + i;
+                map.put(key, key);
+                int probe = t * perThread + random.nextInt(i + 1);
+                assertEquals(Integer.valueOf(probe), map.get(probe));
+            }
+        });
+        assertEquals(THREADS * perThread, map.size());
+        Set<Integer> keys = new HashSet<>(map.keySet());
+        assertEquals(THREADS * perThread, keys.size());
+        for (int i = 0; i < THREADS * perThread; i++) {
+            assertEquals(Integer.valueOf(i), map.get(i));
+        }
+    }
+
+    @Test
+    public void testConcurrentPutRemove() throws Exception {
+        ConcurrentMap<Integer, Integer> map = new ConcurrentMyHashMap<>();
+        runThreads(t -> {
+            for (int i = 0; i < 20_000; i++) {
+                int key = t * 20_000 + i;
+                map.put(key, key);
+                if (i % 2 == 1) {
+                    assertEquals(Integer.valueOf(key), map.remove(key));
+                }
+            }
+        });
+        assertEquals(THREADS * 10_000, map.size());
+    }
+
+    private static void runThreads(ThreadBody body) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> errors = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int id = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    body.run(id);
+                } catch (Throwable e) {
+                    synchronized (errors) {
+                        errors.add(e);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (!errors.isEmpty()) {
+            throw new AssertionError(errors.get(0));
+        }
+    }
+
+    private interface ThreadBody {
+        void run(int threadId) throws Exception;
+    }
+}
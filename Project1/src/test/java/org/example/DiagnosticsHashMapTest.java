@@ -0,0 +1,63 @@
+package org.example;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DiagnosticsHashMapTest {
+
+    @Test
+    public void testEmptyHashMapDiagnostics() {
+        MyHashMapImp<Integer, String> map = new MyHashMapImp<>();
+        TableDiagnostics diagnostics = map.getDiagnostics();
+        assertEquals(16, diagnostics.getTableSize());
+        assertEquals(16, diagnostics.getEmptyBuckets());
+        assertEquals(1.0, diagnostics.getEmptyBucketRatio(), 0.0);
+        assertEquals(0, diagnostics.getMaxProbeLength());
+    }
+
+    @Test
+    public void testHistogramCoversAllBuckets() {
+        MyHashMapImp<Integer, String> map = new MyHashMapImp<>();
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, "value_" + i);
+        }
+        TableDiagnostics diagnostics = map.getDiagnostics();
+        int[] histogram = diagnostics.getChainLengthHistogram();
+        int buckets = 0;
+        int nodes = 0;
+        for (int length = 0; length < histogram.length; length++) {
+            buckets += histogram[length];
+            nodes += length * histogram[length];
+        }
+        assertEquals(map.getTableSize(), buckets);
+        assertEquals(1000, nodes);
+        assertEquals(histogram.length - 1, diagnostics.getMaxChainLength());
+    }
+
+    @Test
+    public void testTableSizeIsPowerOfTwo() {
+        MyHashMapImp<Integer, String> map = new MyHashMapImp<>();
+        for (int i = 0; i < 5000; i++) {
+            map.put(i, "value_" + i);
+            assertEquals(0, map.getTableSize() & (map.getTableSize() - 1));
+        }
+        for (int i = 0; i < 5000; i++) {
+            map.remove(i);
+            assertEquals(0, map.getTableSize() & (map.getTableSize() - 1));
+        }
+        assertEquals(16, map.getTableSize());
+    }
+
+    @Test
+    public void testWeakHashCodesAreSpread() {
+        MyHashMapImp<Integer, String> map = new MyHashMapImp<>();
+        for (int i = 0; i < 4096; i++) {
+            map.put(i * 1024, "value_" + i);
+        }
+        TableDiagnostics diagnostics = map.getDiagnostics();
+        assertTrue(diagnostics.toString(), diagnostics.getEmptyBucketRatio() < 0.6);
+        assertTrue(diagnostics.toString(), diagnostics.getMaxProbeLength() <= 8);
+    }
+}
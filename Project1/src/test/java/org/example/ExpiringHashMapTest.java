@@ -0,0 +1,168 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ExpiringHashMapTest {
+
+    @Test
+    public void testExpireAfterWrite() {
+        FakeTicker ticker = new FakeTicker();
+        ExpiringHashMap<String, Integer> map =
+                new ExpiringHashMap<>(10, TimeUnit.SECONDS, ExpiryPolicy.AFTER_WRITE, ticker);
+        List<String> expired = new ArrayList<>();
+        map.setExpirationListener((k, v) -> expired.add(k + "=" + v));
+        map.put("a", 1);
+        ticker.advance(5, TimeUnit.SECONDS);
+        map.put("b", 2);
+        assertEquals(Integer.valueOf(1), map.get("a"));
+        ticker.advance(5, TimeUnit.SECONDS);
+        assertNull(map.get("a"));
+        assertFalse(map.containsKey("a"));
+        assertTrue(map.containsKey("b"));
+        assertEquals(Arrays.asList("a=1"), expired);
+        map.put("b", 3);
+        ticker.advance(9, TimeUnit.SECONDS);
+        assertEquals(Integer.valueOf(3), map.get("b"));
+        ticker.advance(1, TimeUnit.SECONDS);
+        map.cleanUp();
+        assertTrue(map.isEmpty());
+        assertEquals(Arrays.asList("a=1", "b=3"), expired);
+        assertEquals(2, map.getExpirationCount());
+    }
+
+    @Test
+    public void testExpireAfterAccess() {
+        FakeTicker ticker = new FakeTicker();
+        ExpiringHashMap<String, Integer> map =
+                new ExpiringHashMap<>(10, TimeUnit.SECONDS, ExpiryPolicy.AFTER_ACCESS, ticker);
+        map.put("a", 1);
+        map.put("b", 2);
+        for (int i = 0; i < 5; i++) {
+            ticker.advance(6, TimeUnit.SECONDS);
+            assertEquals(Integer.valueOf(1), map.get("a"));
+        }
+        assertFalse(map.containsKey("b"));
+        ticker.advance(10, TimeUnit.SECONDS);
+        assertEquals("d", new ExpiringHashMap<String, String>(1, TimeUnit.SECONDS).getOrDefault("a", "d"));
+        assertEquals(Integer.valueOf(-1), map.getOrDefault("a", -1));
+    }
+
+    @Test
+    public void testPerEntryTimeToLive() {
+        FakeTicker ticker = new FakeTicker();
+        ExpiringHashMap<String, Integer> map =
+                new ExpiringHashMap<>(1, TimeUnit.HOURS, ExpiryPolicy.AFTER_WRITE, ticker);
+        map.put("short", 1, 2, TimeUnit.SECONDS);
+        map.put("long", 2);
+        ticker.advance(1, TimeUnit.SECONDS);
+        map.put("short", 3);
+        ticker.advance(2, TimeUnit.SECONDS);
+        map.cleanUp();
+        assertFalse(map.containsKey("short"));
+        assertTrue(map.containsKey("long"));
+        assertEquals(1, map.size());
+        assertEquals(1, map.getTimeToLive(TimeUnit.HOURS));
+    }
+
+    @Test
+    public void testWheelExpiresUnreadEntriesOnTime() {
+        FakeTicker ticker = new FakeTicker();
+        ExpiringHashMap<Integer, Long> map =
+                new ExpiringHashMap<>(1, TimeUnit.DAYS, ExpiryPolicy.AFTER_WRITE, ticker);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        List<Long> lateness = new ArrayList<>();
+        map.setExpirationListener((k, deadline) -> {
+            assertTrue(deadline <= ticker.time);
+            lateness.add(ticker.time - deadline);
+            deadlines.remove(k);
+        });
+        Random random = new Random(20);
+        for (int i = 0; i < 20_000; i++) {
+            long ttl = 1 + (long) Math.exp(random.nextDouble() * Math.log(TimeUnit.DAYS.toNanos(2)));
+            map.put(i, ticker.time + ttl, ttl, TimeUnit.NANOSECONDS);
+            deadlines.put(i, ticker.time + ttl);
+            if (random.nextInt(10) == 0) {
+                ticker.time += (long) Math.exp(random.nextDouble() * Math.log(TimeUnit.MINUTES.toNanos(10)));
+            }
+        }
+        while (!deadlines.isEmpty()) {
+            ticker.time += (long) Math.exp(random.nextDouble() * Math.log(TimeUnit.HOURS.toNanos(1)));
+            map.cleanUp();
+            assertEquals(deadlines.size(), map.size());
+            for (long deadline : deadlines.values()) {
+                assertTrue(deadline > ticker.time - TimeUnit.MILLISECONDS.toNanos(2));
+            }
+        }
+        assertEquals(20_000, map.getExpirationCount());
+        assertEquals(20_000, lateness.size());
+    }
+
+    @Test
+    public void testWritesTreatExpiredEntriesAsAbsent() {
+        FakeTicker ticker = new FakeTicker();
+        ExpiringHashMap<String, Integer> map =
+                new ExpiringHashMap<>(1, TimeUnit.SECONDS, ExpiryPolicy.AFTER_WRITE, ticker);
+        List<String> expired = new ArrayList<>();
+        map.setExpirationListener((k, v) -> expired.add(k));
+        map.put("a", 1);
+        map.put("b", 2);
+        map.put("c", 3);
+        map.put("d", 4);
+        ticker.advance(1, TimeUnit.SECONDS);
+        assertNull(map.putIfAbsent("a", 10));
+        assertEquals(Integer.valueOf(20), map.merge("b", 20, Integer::sum));
+        assertEquals(Integer.valueOf(30), map.compute("c", (k, v) -> v == null ? 30 : v + 30));
+        assertNull(map.remove("d"));
+        assertEquals(4, map.getExpirationCount());
+        assertEquals(3, map.size());
+        map.remove("a");
+        assertEquals(4, expired.size());
+    }
+
+    @Test
+    public void testClearResetsWheel() {
+        FakeTicker ticker = new FakeTicker();
+        ExpiringHashMap<Integer, Integer> map =
+                new ExpiringHashMap<>(1, TimeUnit.MINUTES, ExpiryPolicy.AFTER_WRITE, ticker);
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+        map.clear();
+        map.put(1, 1);
+        ticker.advance(2, TimeUnit.MINUTES);
+        map.cleanUp();
+        assertTrue(map.isEmpty());
+        assertEquals(1, map.getExpirationCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonPositiveTimeToLiveRejected() {
+        new ExpiringHashMap<String, Integer>(10, TimeUnit.SECONDS).put("a", 1, 0, TimeUnit.SECONDS);
+    }
+
+    private static final class FakeTicker implements Ticker {
+        private long time = 1_000_000_000L;
+
+        void advance(long duration, TimeUnit unit) {
+            time += unit.toNanos(duration);
+        }
+
+        @Override
+        public long read() {
+            return time;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class FrozenHashMapTest {
+
+    @Test
+    public void testFreezeCopiesAllPairs() {
+        MyHashMapImp<Integer, String> map = new MyHashMapImp<>();
+        Map<Integer, String> expected = new HashMap<>();
+        Random random = new Random(9);
+        for (int i = 0; i < 10_000; i++) {
+            int key = random.nextInt();
+            map.put(key, "v" + key);
+            expected.put(key, "v" + key);
+        }
+        FrozenHashMap<Integer, String> frozen = map.freeze();
+        assertEquals(expected.size(), frozen.size());
+        for (Map.Entry<Integer, String> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), frozen.get(entry.getKey()));
+        }
+        for (int i = 0; i < 1000; i++) {
+            int key = random.nextInt();
+            assertEquals(expected.containsKey(key), frozen.containsKey(key));
+        }
+        assertEquals(expected, frozen);
+        assertEquals(expected.hashCode(), frozen.hashCode());
+    }
+
+    @Test
+    public void testNullKeyAndValue() {
+        MyHashMapImp<String, String> map = new MyHashMapImp<>();
+        map.put(null, "n");
+        map.put("a", null);
+        FrozenHashMap<String, String> frozen = map.freeze();
+        assertEquals("n", frozen.get(null));
+        assertTrue(frozen.containsKey("a"));
+        assertNull(frozen.get("a"));
+        assertEquals("d", frozen.getOrDefault("b", "d"));
+        assertNull(frozen.getOrDefault("a", "d"));
+        assertTrue(frozen.containsValue(null));
+        assertTrue(frozen.containsValue("n"));
+        assertFalse(frozen.containsValue("x"));
+    }
+
+    @Test
+    public void testFreezeIsIndependentOfSource() {
+        MyHashMapImp<Integer, Integer> map = new MyHashMapImp<>();
+        map.setIncrementalRehash(true);
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+        }
+        FrozenHashMap<Integer, Integer> frozen = map.freeze();
+        map.put(100, 100);
+        map.remove(0);
+        assertEquals(100, frozen.size());
+        assertEquals(Integer.valueOf(0), frozen.get(0));
+        assertFalse(frozen.containsKey(100));
+    }
+
+    @Test
+    public void testCollidingKeys() {
+        MyHashMapImp<CollidingKey, Integer> map = new MyHashMapImp<>();
+        for (int i = 0; i < 50; i++) {
+            map.put(new CollidingKey(i), i);
+        }
+        FrozenHashMap<CollidingKey, Integer> frozen = map.freeze();
+        for (int i = 0; i < 50; i++) {
+            assertEquals(Integer.valueOf(i), frozen.get(new CollidingKey(i)));
+        }
+        assertNull(frozen.get(new CollidingKey(50)));
+    }
+
+    @Test
+    public void testCopyOfAndEmptyMap() {
+        Map<String, Integer> source = new HashMap<>();
+        source.put("a", 1);
+        source.put("b", 2);
+        FrozenHashMap<String, Integer> frozen = FrozenHashMap.copyOf(source);
+        assertEquals(source, frozen);
+        assertSame(frozen, FrozenHashMap.copyOf(frozen));
+
+        FrozenHashMap<String, Integer> empty = new MyHashMapImp<String, Integer>().freeze();
+        assertTrue(empty.isEmpty());
+        assertNull(empty.get("a"));
+        assertFalse(empty.entrySet().iterator().hasNext());
+    }
+
+    @Test
+    public void testForEachVisitsAllPairs() {
+        MyHashMapImp<Integer, Integer> map = new MyHashMapImp<>();
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i * 2);
+        }
+        Map<Integer, Integer> visited = new HashMap<>();
+        map.freeze().forEach(visited::put);
+        assertEquals(new HashMap<>(map), visited);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testPutRejected() {
+        MyHashMapImp<String, Integer> map = new MyHashMapImp<>();
+        map.freeze().put("a", 1);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testRemoveRejected() {
+        MyHashMapImp<String, Integer> map = new MyHashMapImp<>();
+        map.put("a", 1);
+        map.freeze().remove("a");
+    }
+
+    private static final class CollidingKey {
+        private final int id;
+
+        CollidingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CollidingKey && ((CollidingKey) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+}
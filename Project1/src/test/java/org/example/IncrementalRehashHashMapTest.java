@@ -0,0 +1,92 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class IncrementalRehashHashMapTest {
+
+    @Test
+    public void testLookupsDuringRehash() {
+        MyHashMapImp<Integer, String> map = new MyHashMapImp<>();
+        map.setIncrementalRehash(true);
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, "value_" + i);
+        }
+        while (!map.isRehashing()) {
+            map.put(map.size(), "value_" + map.size());
+        }
+        for (int i = 0; i < map.size(); i++) {
+            assertEquals("value_" + i, map.get(i));
+            assertTrue(map.containsKey(i));
+        }
+        assertTrue(map.containsValue("value_3"));
+        assertEquals(map.size(), map.keySet().size());
+        assertNull(map.get(-1));
+    }
+
+    @Test
+    public void testRehashFinishesWithWrites() {
+        MyHashMapImp<Integer, String> map = new MyHashMapImp<>();
+        map.setIncrementalRehash(true);
+        int i = 0;
+        while (!map.isRehashing()) {
+            map.put(i, "value_" + i);
+            i++;
+        }
+        int tableSize = map.getTableSize();
+        int writes = 0;
+        while (map.isRehashing()) {
+            map.put(i, "value_" + i);
+            i++;
+            writes++;
+        }
+        assertTrue(writes <= tableSize / 2 / 16 + 1);
+        assertEquals(tableSize, map.getTableSize());
+    }
+
+    @Test
+    public void testDisableCompletesRehash() {
+        MyHashMapImp<Integer, String> map = new MyHashMapImp<>();
+        map.setIncrementalRehash(true);
+        int i = 0;
+        while (!map.isRehashing()) {
+            map.put(i, "value_" + i);
+            i++;
+        }
+        map.setIncrementalRehash(false);
+        assertFalse(map.isRehashing());
+        assertEquals(i, map.size());
+        assertEquals("value_0", map.get(0));
+    }
+
+    @Test
+    public void testRandomOperationsMatchHashMap() {
+        Map<Integer, Integer> expected = new HashMap<>();
+        MyHashMapImp<Integer, Integer> actual = new MyHashMapImp<>();
+        actual.setIncrementalRehash(true);
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(i < 100_000 ? 50_000 : 5_000);
+            int op = random.nextInt(4);
+            if (op == 0) {
+                assertEquals(expected.remove(key), actual.remove(key));
+            } else if (op == 1) {
+                assertEquals(expected.get(key), actual.get(key));
+            } else {
+                assertEquals(expected.put(key, i), actual.put(key, i));
+            }
+        }
+        assertEquals(expected.size(), actual.size());
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), actual.get(entry.getKey()));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IntIntMapTest {
+
+    @Test
+    public void testPutAndGet() {
+        IntIntMap map = new IntIntMap(-1);
+        assertEquals(-1, map.put(1, 10));
+        assertEquals(-1, map.put(2, 20));
+        assertEquals(10, map.put(1, 11));
+        assertEquals(2, map.size());
+        assertEquals(11, map.get(1));
+        assertEquals(-1, map.get(3));
+    }
+
+    @Test
+    public void testZeroKey() {
+        IntIntMap map = new IntIntMap();
+        map.put(0, 5);
+        assertTrue(map.containsKey(0));
+        assertEquals(5, map.get(0));
+        assertEquals(5, map.remove(0));
+        assertFalse(map.containsKey(0));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testAddTo() {
+        IntIntMap map = new IntIntMap();
+        assertEquals(3, map.addTo(-7, 3));
+        assertEquals(1, map.addTo(-7, -2));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void testResizeIntIntMap() {
+        IntIntMap map = new IntIntMap();
+        for (int i = 1; i <= 20; i++) {
+            map.put(i, i);
+        }
+        assertEquals(20, map.size());
+        assertEquals(32, map.getTableSize());
+        map.clear();
+        assertEquals(0, map.size());
+        assertFalse(map.containsKey(5));
+    }
+
+    @Test
+    public void testRandomOperationsMatchHashMap() {
+        Map<Integer, Integer> expected = new HashMap<>();
+        IntIntMap actual = new IntIntMap(Integer.MIN_VALUE);
+        Random random = new Random(11);
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(3_000) - 1_000;
+            if (random.nextInt(3) == 0) {
+                Integer removed = expected.remove(key);
+                assertEquals(removed == null ? Integer.MIN_VALUE : removed, actual.remove(key));
+            } else {
+                Integer previous = expected.put(key, i);
+                assertEquals(previous == null ? Integer.MIN_VALUE : previous, actual.put(key, i));
+            }
+        }
+        assertEquals(expected.size(), actual.size());
+        actual.forEach((key, value) -> assertEquals(expected.get(key).intValue(), value));
+    }
+}
@@ -0,0 +1,218 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LinkedHashMapCacheTest {
+
+    @Test
+    public void testIterationFollowsAccessOrder() {
+        MyLinkedHashMapImp<String, Integer> map = new MyLinkedHashMapImp<>();
+        map.put("a", 1);
+        map.put("b", 2);
+        map.put("c", 3);
+        assertEquals(Arrays.asList("a", "b", "c"), new ArrayList<>(map.keySet()));
+        map.get("a");
+        map.put("b", 20);
+        assertTrue(map.containsKey("c"));
+        assertEquals(Arrays.asList("c", "a", "b"), new ArrayList<>(map.keySet()));
+        assertEquals(Arrays.asList(3, 1, 20), new ArrayList<>(map.values()));
+        map.remove("a");
+        assertEquals(Arrays.asList("c", "b"), new ArrayList<>(map.keySet()));
+    }
+
+    @Test
+    public void testLruEvictsLeastRecentlyUsed() {
+        MyLinkedHashMapImp<Integer, Integer> map = new MyLinkedHashMapImp<>(3);
+        List<Integer> evicted = new ArrayList<>();
+        map.setEvictionListener((k, v) -> evicted.add(k));
+        map.put(1, 1);
+        map.put(2, 2);
+        map.put(3, 3);
+        map.get(1);
+        map.put(4, 4);
+        assertEquals(Arrays.asList(2), evicted);
+        assertEquals(3, map.size());
+        assertFalse(map.containsKey(2));
+        map.merge(5, 5, Integer::sum);
+        map.computeIfAbsent(6, k -> k);
+        assertEquals(Arrays.asList(2, 3, 1), evicted);
+        assertEquals(Arrays.asList(4, 5, 6), new ArrayList<>(map.keySet()));
+        assertEquals(3, map.getEvictionCount());
+    }
+
+    @Test
+    public void testExplicitRemovalIsNotEviction() {
+        MyLinkedHashMapImp<Integer, Integer> map = new MyLinkedHashMapImp<>(2);
+        List<Integer> evicted = new ArrayList<>();
+        map.setEvictionListener((k, v) -> evicted.add(k));
+        map.put(1, 1);
+        map.put(2, 2);
+        map.remove(1);
+        map.compute(2, (k, v) -> null);
+        map.put(3, 3);
+        map.clear();
+        assertTrue(evicted.isEmpty());
+        assertTrue(map.isEmpty());
+        assertEquals(0, map.getWeightedSize());
+    }
+
+    @Test
+    public void testWeightBound() {
+        MyLinkedHashMapImp<String, String> map =
+                new MyLinkedHashMapImp<>(10, (k, v) -> v.length(), EvictionPolicy.LRU);
+        map.put("a", "xxxx");
+        map.put("b", "xxxx");
+        assertEquals(8, map.getWeightedSize());
+        map.put("c", "xxx");
+        assertFalse(map.containsKey("a"));
+        assertEquals(7, map.getWeightedSize());
+        map.put("b", "xxxxxxxx");
+        assertFalse(map.containsKey("c"));
+        assertEquals(8, map.getWeightedSize());
+        map.put("d", "xxxxxxxxxxxx");
+        assertFalse(map.containsKey("d"));
+        assertTrue(map.containsKey("b"));
+        assertEquals(8, map.getWeightedSize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeWeightRejected() {
+        new MyLinkedHashMapImp<String, Integer>(10, (k, v) -> v, EvictionPolicy.LRU).put("a", -1);
+    }
+
+    @Test
+    public void testTinyLfuRejectsRareCandidate() {
+        MyLinkedHashMapImp<Integer, Integer> map = new MyLinkedHashMapImp<>(2, EvictionPolicy.TINY_LFU);
+        map.put(1, 1);
+        map.put(2, 2);
+        for (int i = 0; i < 5; i++) {
+            map.get(1);
+            map.get(2);
+        }
+        assertNull(map.put(3, 3));
+        assertFalse(map.containsKey(3));
+        assertTrue(map.containsKey(1));
+        assertTrue(map.containsKey(2));
+
+        for (int i = 0; i < 10; i++) {
+            map.put(4, 4);
+        }
+        assertTrue(map.containsKey(4));
+        assertEquals(2, map.size());
+    }
+
+    @Test(timeout = 2000)
+    public void testTinyLfuWithWeigherStartsWithSmallSketch() {
+        MyLinkedHashMapImp<Integer, Integer> map = new MyLinkedHashMapImp<>(1000L, (k, v) -> 1,
+                EvictionPolicy.TINY_LFU);
+        for (int i = 0; i < 10_000; i++) {
+            map.put(i % 3000, i);
+            map.get(i % 10);
+        }
+        assertTrue(map.getWeightedSize() <= 1000);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(map.containsKey(i));
+        }
+    }
+
+    @Test
+    public void testTinyLfuHitRateOnSkewedTrace() {
+        int cacheSize = 100;
+        MyLinkedHashMapImp<Integer, Integer> lfu = new MyLinkedHashMapImp<>(cacheSize, EvictionPolicy.TINY_LFU);
+        MyLinkedHashMapImp<Integer, Integer> lru = new MyLinkedHashMapImp<>(cacheSize);
+        Random random = new Random(11);
+        int lfuHits = 0;
+        int lruHits = 0;
+        for (int i = 0; i < 200_000; i++) {
+            int key = (int) Math.exp(random.nextDouble() * Math.log(100_000));
+            if (lfu.get(key) != null) {
+                lfuHits++;
+            } else {
+                lfu.put(key, key);
+            }
+            if (lru.get(key) != null) {
+                lruHits++;
+            } else {
+                lru.put(key, key);
+            }
+            assertTrue(lfu.size() <= cacheSize);
+        }
+        assertTrue(lfuHits + " vs " + lruHits, lfuHits > lruHits);
+    }
+
+    @Test
+    public void testMatchesLinkedHashMapLru() {
+        int cacheSize = 50;
+        Map<Integer, Integer> expected = new LinkedHashMap<Integer, Integer>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        MyLinkedHashMapImp<Integer, Integer> map = new MyLinkedHashMapImp<>(cacheSize);
+        map.setIncrementalRehash(true);
+        Random random = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            Integer key = random.nextInt(200);
+            switch (random.nextInt(4)) {
+                case 0:
+                    assertEquals(expected.get(key), map.get(key));
+                    break;
+                case 1:
+                    assertEquals(expected.remove(key), map.remove(key));
+                    break;
+                default:
+                    assertEquals(expected.put(key, i), map.put(key, i));
+                    break;
+            }
+        }
+        assertEquals(new ArrayList<>(expected.entrySet()), new ArrayList<>(map.entrySet()));
+        assertEquals(expected, new HashMap<>(map));
+        assertEquals(map.size(), map.getWeightedSize());
+    }
+
+    @Test
+    public void testIteratorRemoveKeepsOrder() {
+        MyLinkedHashMapImp<Integer, Integer> map = new MyLinkedHashMapImp<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+        }
+        Iterator<Integer> it = map.keySet().iterator();
+        while (it.hasNext()) {
+            if (it.next() % 2 == 0) {
+                it.remove();
+            }
+        }
+        assertEquals(50, map.size());
+        int previous = -1;
+        for (Integer key : map.keySet()) {
+            assertTrue(key > previous && key % 2 == 1);
+            previous = key;
+        }
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testAccessDuringIterationFails() {
+        MyLinkedHashMapImp<Integer, Integer> map = new MyLinkedHashMapImp<>();
+        map.put(1, 1);
+        map.put(2, 2);
+        for (Integer key : map.keySet()) {
+            map.get(1);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LongLongMapTest {
+
+    @Test
+    public void testPutAndGet() {
+        LongLongMap map = new LongLongMap(-1L);
+        assertEquals(-1L, map.put(1L, 10L));
+        assertEquals(-1L, map.put(2L, 20L));
+        assertEquals(10L, map.put(1L, 11L));
+        assertEquals(2, map.size());
+        assertEquals(11L, map.get(1L));
+        assertEquals(-1L, map.get(3L));
+    }
+
+    @Test
+    public void testZeroKey() {
+        LongLongMap map = new LongLongMap(-1L);
+        assertFalse(map.containsKey(0L));
+        map.put(0L, 5L);
+        assertTrue(map.containsKey(0L));
+        assertEquals(5L, map.get(0L));
+        assertEquals(1, map.size());
+        assertEquals(5L, map.remove(0L));
+        assertEquals(0, map.size());
+        assertEquals(-1L, map.get(0L));
+    }
+
+    @Test
+    public void testAddTo() {
+        LongLongMap map = new LongLongMap();
+        assertEquals(3L, map.addTo(7L, 3L));
+        assertEquals(5L, map.addTo(7L, 2L));
+        assertEquals(4L, map.addTo(0L, 4L));
+        assertEquals(2, map.size());
+        assertEquals(5L, map.get(7L));
+    }
+
+    @Test
+    public void testRemove() {
+        LongLongMap map = new LongLongMap();
+        map.put(1L, 1L);
+        map.put(2L, 2L);
+        map.put(3L, 3L);
+        assertEquals(2L, map.remove(2L));
+        assertEquals(2, map.size());
+        assertEquals(0L, map.remove(2L));
+        assertFalse(map.containsKey(2L));
+    }
+
+    @Test
+    public void testResizeLongLongMap() {
+        LongLongMap map = new LongLongMap();
+        for (long i = 1; i <= 20; i++) {
+            map.put(i, i * 10);
+        }
+        assertEquals(20, map.size());
+        assertEquals(32, map.getTableSize());
+        for (long i = 1; i <= 20; i++) {
+            map.remove(i);
+        }
+        assertEquals(16, map.getTableSize());
+    }
+
+    @Test
+    public void testRandomOperationsMatchHashMap() {
+        Map<Long, Long> expected = new HashMap<>();
+        LongLongMap actual = new LongLongMap(Long.MIN_VALUE);
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextInt(3_000) - 1_000;
+            if (random.nextInt(3) == 0) {
+                Long removed = expected.remove(key);
+                assertEquals(removed == null ? Long.MIN_VALUE : removed, actual.remove(key));
+            } else {
+                Long previous = expected.put(key, (long) i);
+                assertEquals(previous == null ? Long.MIN_VALUE : previous, actual.put(key, i));
+            }
+        }
+        assertEquals(expected.size(), actual.size());
+        actual.forEach((key, value) -> assertEquals(expected.get(key).longValue(), value));
+    }
+}
@@ -0,0 +1,74 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LongObjectMapTest {
+
+    @Test
+    public void testPutAndGet() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        assertNull(map.put(1L, "a"));
+        assertNull(map.put(2L, "b"));
+        assertEquals("a", map.put(1L, "c"));
+        assertEquals(2, map.size());
+        assertEquals("c", map.get(1L));
+        assertNull(map.get(3L));
+    }
+
+    @Test
+    public void testMissingValue() {
+        LongObjectMap<String> map = new LongObjectMap<>("none");
+        assertEquals("none", map.get(42L));
+        assertEquals("none", map.remove(42L));
+        assertEquals("none", map.put(42L, "x"));
+        assertEquals("x", map.get(42L));
+    }
+
+    @Test
+    public void testZeroKey() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        map.put(0L, "zero");
+        assertTrue(map.containsKey(0L));
+        assertEquals("zero", map.get(0L));
+        assertEquals("zero", map.remove(0L));
+        assertFalse(map.containsKey(0L));
+    }
+
+    @Test
+    public void testResizeLongObjectMap() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        for (long i = 1; i <= 20; i++) {
+            map.put(i, "value_" + i);
+        }
+        assertEquals(20, map.size());
+        assertEquals("value_19", map.get(19L));
+        assertEquals(32, map.getTableSize());
+    }
+
+    @Test
+    public void testRandomOperationsMatchHashMap() {
+        Map<Long, String> expected = new HashMap<>();
+        LongObjectMap<String> actual = new LongObjectMap<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextLong() % 2_000;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), actual.remove(key));
+            } else {
+                String value = "v" + i;
+                assertEquals(expected.put(key, value), actual.put(key, value));
+            }
+        }
+        assertEquals(expected.size(), actual.size());
+        actual.forEach((key, value) -> assertEquals(expected.get(key), value));
+    }
+}
@@ -0,0 +1,110 @@
+package org.example;
+
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MapStatsHashMapTest {
+
+    @Test
+    public void testNoStatsByDefault() {
+        MyHashMapImp<Integer, Integer> map = new MyHashMapImp<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+            map.get(i);
+        }
+        MapStats stats = map.getStats();
+        assertEquals(0, stats.getHitCount());
+        assertEquals(0, stats.getResizeCount());
+        assertEquals(100, stats.getSize());
+        assertEquals(map.getTableSize(), stats.getTableSize());
+    }
+
+    @Test
+    public void testHitsAndMisses() {
+        MyHashMapImp<Integer, Integer> map = new MyHashMapImp<>();
+        map.setStatsRecorder(new ConcurrentStatsRecorder());
+        map.get(1);
+        map.put(1, 1);
+        map.get(1);
+        map.get(2);
+        map.getOrDefault(1, 0);
+        MapStats stats = map.getStats();
+        assertEquals(2, stats.getHitCount());
+        assertEquals(2, stats.getMissCount());
+        assertEquals(0.5, stats.getHitRate(), 1e-9);
+    }
+
+    @Test
+    public void testResizesAndRehashTime() {
+        MyHashMapImp<Integer, Integer> map = new MyHashMapImp<>();
+        ConcurrentStatsRecorder recorder = new ConcurrentStatsRecorder();
+        map.setStatsRecorder(recorder);
+        for (int i = 0; i < 10_000; i++) {
+            map.put(i, i);
+        }
+        MapStats stats = map.getStats();
+        assertEquals(10, stats.getResizeCount());
+        assertTrue(stats.getRehashTimeNanos() > 0);
+        assertEquals(16384, stats.getTableSize());
+        assertEquals(10_000.0 / 16384, stats.getLoadFactor(), 1e-9);
+
+        recorder.reset();
+        assertEquals(0, map.getStats().getResizeCount());
+    }
+
+    @Test
+    public void testIncrementalRehashIsTimed() {
+        MyHashMapImp<Integer, Integer> map = new MyHashMapImp<>();
+        map.setIncrementalRehash(true);
+        map.setStatsRecorder(new ConcurrentStatsRecorder());
+        for (int i = 0; i < 10_000; i++) {
+            map.put(i, i);
+        }
+        assertEquals(10, map.getStats().getResizeCount());
+        assertTrue(map.getStats().getRehashTimeNanos() > 0);
+    }
+
+    @Test
+    public void testChainLengthAndTreeify() {
+        MyHashMapImp<String, Integer> map = new MyHashMapImp<>();
+        map.setStatsRecorder(new ConcurrentStatsRecorder());
+        String[] keys = {"Aa", "BB"};
+        for (int i = 0; i < 16; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int bit = 0; bit < 4; bit++) {
+                sb.append(keys[(i >> bit) & 1]);
+            }
+            map.put(sb.toString(), i);
+        }
+        MapStats stats = map.getStats();
+        assertEquals(MyHashMapImp.TREEIFY_THRESHOLD, stats.getMaxChainLength());
+        assertTrue(stats.getTreeifyCount() > 0);
+        assertTrue(stats.toString().contains("maxChainLength=8"));
+    }
+
+    @Test
+    public void testMBeanRegistration() throws Exception {
+        MyHashMapImp<Integer, Integer> map = new MyHashMapImp<>();
+        map.setStatsRecorder(new ConcurrentStatsRecorder());
+        map.put(1, 1);
+        map.get(1);
+        ObjectName name = MapStatsJmx.register(map, "test map");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertEquals(1L, server.getAttribute(name, "HitCount"));
+            assertEquals(1, server.getAttribute(name, "Size"));
+            map.get(2);
+            assertEquals(1L, server.getAttribute(name, "MissCount"));
+        } finally {
+            MapStatsJmx.unregister(name);
+        }
+        assertFalse(server.isRegistered(name));
+    }
+}
@@ -0,0 +1,117 @@
+package org.example;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MappedHashMapTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        MyHashMapImp<String, String> source = new MyHashMapImp<>();
+        source.put("one", "1");
+        source.put("кириллица", "значение");
+        source.put(null, "null key");
+        source.put("null value", null);
+        source.put("", "");
+        Path path = folder.getRoot().toPath().resolve("map.snapshot");
+        source.snapshotTo(path, Codecs.STRING, Codecs.STRING);
+
+        try (MappedHashMap<String, String> restored = MyHashMapImp.mapFrom(path, Codecs.STRING, Codecs.STRING)) {
+            assertEquals(5, restored.size());
+            assertEquals("1", restored.get("one"));
+            assertEquals("значение", restored.get("кириллица"));
+            assertEquals("null key", restored.get(null));
+            assertTrue(restored.containsKey("null value"));
+            assertNull(restored.get("null value"));
+            assertEquals("", restored.get(""));
+            assertFalse(restored.containsKey("two"));
+            assertEquals(restored, source);
+        }
+        assertFalse(Files.exists(path.resolveSibling("map.snapshot.tmp")));
+    }
+
+    @Test
+    public void testLargeRandomMap() throws IOException {
+        Random random = new Random(7);
+        MyHashMapImp<Long, Long> source = new MyHashMapImp<>();
+        for (int i = 0; i < 100_000; i++) {
+            source.put(random.nextLong(), (long) i);
+        }
+        Path path = folder.newFile().toPath();
+        source.snapshotTo(path, Codecs.LONG, Codecs.LONG);
+        try (MappedHashMap<Long, Long> restored = MyHashMapImp.mapFrom(path, Codecs.LONG, Codecs.LONG)) {
+            assertEquals(source.size(), restored.size());
+            for (Map.Entry<Long, Long> entry : source.entrySet()) {
+                assertEquals(entry.getValue(), restored.get(entry.getKey()));
+            }
+            assertEquals(new HashMap<>(source), new HashMap<>(restored));
+        }
+    }
+
+    @Test
+    public void testEmptyMap() throws IOException {
+        Path path = folder.newFile().toPath();
+        new MyHashMapImp<Integer, Integer>().snapshotTo(path, Codecs.INTEGER, Codecs.INTEGER);
+        try (MappedHashMap<Integer, Integer> restored = MyHashMapImp.mapFrom(path, Codecs.INTEGER, Codecs.INTEGER)) {
+            assertTrue(restored.isEmpty());
+            assertNull(restored.get(1));
+            assertFalse(restored.entrySet().iterator().hasNext());
+        }
+    }
+
+    @Test
+    public void testSnapshotReplacesExistingFile() throws IOException {
+        Path path = folder.newFile().toPath();
+        MyHashMapImp<Integer, Integer> source = new MyHashMapImp<>();
+        source.put(1, 1);
+        source.snapshotTo(path, Codecs.INTEGER, Codecs.INTEGER);
+        source.put(1, 2);
+        source.put(2, 3);
+        source.snapshotTo(path, Codecs.INTEGER, Codecs.INTEGER);
+        try (MappedHashMap<Integer, Integer> restored = MyHashMapImp.mapFrom(path, Codecs.INTEGER, Codecs.INTEGER)) {
+            assertEquals(2, restored.size());
+            assertEquals(Integer.valueOf(2), restored.get(1));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotASnapshot() throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.write(path, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24});
+        MyHashMapImp.mapFrom(path, Codecs.INTEGER, Codecs.INTEGER);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testReadOnly() throws IOException {
+        Path path = folder.newFile().toPath();
+        new MyHashMapImp<Integer, Integer>().snapshotTo(path, Codecs.INTEGER, Codecs.INTEGER);
+        try (MappedHashMap<Integer, Integer> restored = MyHashMapImp.mapFrom(path, Codecs.INTEGER, Codecs.INTEGER)) {
+            restored.put(1, 1);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testClosedMapThrows() throws IOException {
+        Path path = folder.newFile().toPath();
+        new MyHashMapImp<Integer, Integer>().snapshotTo(path, Codecs.INTEGER, Codecs.INTEGER);
+        MappedHashMap<Integer, Integer> restored = MyHashMapImp.mapFrom(path, Codecs.INTEGER, Codecs.INTEGER);
+        restored.close();
+        restored.get(1);
+    }
+}
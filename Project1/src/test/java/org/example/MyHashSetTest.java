@@ -0,0 +1,156 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MyHashSetTest {
+
+    @Test
+    public void testBasicOperations() {
+        MyHashSet<String> set = new MyHashSet<>();
+        assertTrue(set.add("a"));
+        assertFalse(set.add("a"));
+        assertTrue(set.add(null));
+        assertTrue(set.contains(null));
+        assertEquals(2, set.size());
+        assertEquals(new HashSet<>(Arrays.asList("a", null)), set);
+        assertTrue(set.remove(null));
+        assertFalse(set.remove("b"));
+        for (Iterator<String> it = set.iterator(); it.hasNext(); ) {
+            it.next();
+            it.remove();
+        }
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    public void testBulkOperationsMatchHashSet() {
+        Random random = new Random(23);
+        for (int round = 0; round < 200; round++) {
+            Set<Integer> a = randomSet(random);
+            Set<Integer> b = randomSet(random);
+            MyHashSet<Integer> myA = new MyHashSet<>(a);
+            MyHashSet<Integer> myB = new MyHashSet<>(b);
+
+            assertEquals(a.containsAll(b), myA.containsAll(myB));
+            assertEquals(a.containsAll(b), myA.containsAll(b));
+
+            Set<Integer> union = new HashSet<>(a);
+            union.addAll(b);
+            assertEquals(union, myA.union(myB));
+            assertEquals(union, myA.union(b));
+
+            Set<Integer> intersection = new HashSet<>(a);
+            intersection.retainAll(b);
+            assertEquals(intersection, myA.intersection(myB));
+            assertEquals(intersection, myA.intersection(b));
+
+            Set<Integer> difference = new HashSet<>(a);
+            difference.removeAll(b);
+
+            MyHashSet<Integer> s = new MyHashSet<>(a);
+            assertEquals(!union.equals(a), s.addAll(myB));
+            assertEquals(union, s);
+            s = new MyHashSet<>(a);
+            assertEquals(!intersection.equals(a), s.retainAll(myB));
+            assertEquals(intersection, s);
+            s = new MyHashSet<>(a);
+            assertEquals(!difference.equals(a), s.removeAll(myB));
+            assertEquals(difference, s);
+            s = new MyHashSet<>(a);
+            s.retainAll(b);
+            assertEquals(intersection, s);
+        }
+    }
+
+    @Test
+    public void testIntersectionKeepsOwnElements() {
+        String copy = new String("x");
+        MyHashSet<String> a = new MyHashSet<>(Arrays.asList("x", "y", "z"));
+        MyHashSet<String> b = new MyHashSet<>(Arrays.asList(copy, "q"));
+        assertSame("x", a.intersection(b).iterator().next());
+        assertSame(copy, b.intersection(a).iterator().next());
+        assertSame(copy, b.intersection(new HashSet<>(a)).iterator().next());
+        MyHashSet<String> self = new MyHashSet<>(Arrays.asList("x", "y"));
+        assertTrue(self.removeAll(self));
+        assertTrue(self.isEmpty());
+    }
+
+    @Test
+    public void testRetainAllWithSmallerSetInvalidatesIterators() {
+        MyHashSet<Integer> set = new MyHashSet<>();
+        for (int i = 0; i < 100; i++) {
+            set.add(i);
+        }
+        Iterator<Integer> it = set.iterator();
+        it.next();
+        assertTrue(set.retainAll(new MyHashSet<>(Arrays.asList(1, 2, 500))));
+        assertEquals(new HashSet<>(Arrays.asList(1, 2)), set);
+        try {
+            it.next();
+            fail();
+        } catch (ConcurrentModificationException expected) {
+            // множество заменило таблицу
+        }
+    }
+
+    @Test
+    public void testCollidingElements() {
+        MyHashSet<CollidingKey> a = new MyHashSet<>();
+        MyHashSet<CollidingKey> b = new MyHashSet<>();
+        for (int i = 0; i < 100; i++) {
+            a.add(new CollidingKey(i));
+            if (i % 3 == 0) {
+                b.add(new CollidingKey(i));
+            }
+        }
+        assertEquals(34, a.intersection(b).size());
+        assertTrue(a.containsAll(b));
+        a.removeAll(b);
+        assertEquals(66, a.size());
+        assertTrue(a.union(b).containsAll(b));
+    }
+
+    private static Set<Integer> randomSet(Random random) {
+        Set<Integer> set = new HashSet<>();
+        int size = random.nextInt(4) == 0 ? 0 : random.nextInt(300);
+        int range = 1 + random.nextInt(500);
+        for (int i = 0; i < size; i++) {
+            set.add(random.nextInt(range));
+        }
+        return set;
+    }
+
+    /**
+     * Элемент с малым числом различных хэш-кодов, чтобы корзины превращались в деревья.
+     */
+    private static final class CollidingKey {
+        private final int id;
+
+        CollidingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CollidingKey && ((CollidingKey) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id % 4;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OffHeapHashMapTest {
+
+    @Test
+    public void testBasicOperations() {
+        try (OffHeapHashMap<String, Long> map = new OffHeapHashMap<>(Codecs.STRING, Codecs.LONG)) {
+            assertNull(map.put("one", 1L));
+            assertNull(map.put("two", 2L));
+            assertEquals(Long.valueOf(1L), map.put("one", 10L));
+            assertEquals(2, map.size());
+            assertEquals(Long.valueOf(10L), map.get("one"));
+            assertTrue(map.containsKey("two"));
+            assertTrue(map.containsValue(2L));
+            assertFalse(map.containsValue(1L));
+            assertEquals(Long.valueOf(2L), map.remove("two"));
+            assertNull(map.remove("two"));
+            assertEquals(1, map.size());
+        }
+    }
+
+    @Test
+    public void testNullKeyAndValue() {
+        try (OffHeapHashMap<String, String> map = new OffHeapHashMap<>(Codecs.STRING, Codecs.STRING)) {
+            assertNull(map.put(null, "a"));
+            assertNull(map.put("b", null));
+            assertEquals("a", map.get(null));
+            assertTrue(map.containsKey("b"));
+            assertNull(map.get("b"));
+            assertTrue(map.containsValue(null));
+            assertEquals("a", map.remove(null));
+            assertFalse(map.containsKey(null));
+        }
+    }
+
+    @Test
+    public void testWrongKeyTypeIsAbsent() {
+        try (OffHeapHashMap<String, Long> map = new OffHeapHashMap<>(Codecs.STRING, Codecs.LONG)) {
+            map.put("1", 1L);
+            assertFalse(((Map<?, ?>) map).containsKey(1));
+            assertNull(((Map<?, ?>) map).get(1));
+        }
+    }
+
+    @Test
+    public void testValueLengthChange() {
+        try (OffHeapHashMap<Integer, String> map = new OffHeapHashMap<>(Codecs.INTEGER, Codecs.STRING)) {
+            map.put(1, "short");
+            long live = map.getLiveBytes();
+            assertEquals("short", map.put(1, "a much longer value"));
+            assertEquals("a much longer value", map.get(1));
+            assertTrue(map.getLiveBytes() > live);
+            assertTrue(map.getGarbageBytes() > 0);
+            assertEquals("a much longer value", map.put(1, "same length value!!"));
+            assertEquals("same length value!!", map.get(1));
+        }
+    }
+
+    @Test
+    public void testUnicodeStrings() {
+        String[] words = {"", "ascii", "кириллица", "日本語", "😀 emoji"};
+        try (OffHeapHashMap<String, String> map = new OffHeapHashMap<>(Codecs.STRING, Codecs.STRING)) {
+            for (String word : words) {
+                map.put(word, word + word);
+            }
+            for (String word : words) {
+                assertEquals(word + word, map.get(word));
+            }
+            assertEquals(words.length, map.size());
+        }
+    }
+
+    @Test
+    public void testRandomOperationsMatchHashMap() {
+        Random random = new Random(42);
+        Map<Long, Long> expected = new HashMap<>();
+        try (OffHeapHashMap<Long, Long> map = new OffHeapHashMap<>(Codecs.LONG, Codecs.LONG)) {
+            for (int i = 0; i < 200_000; i++) {
+                long key = random.nextInt(5_000);
+                if (random.nextInt(3) == 0) {
+                    assertEquals(expected.remove(key), map.remove(key));
+                } else {
+                    assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+                }
+            }
+            assertEquals(expected.size(), map.size());
+            assertEquals(expected, map);
+            assertEquals(expected.keySet(), map.keySet());
+        }
+    }
+
+    @Test
+    public void testResizeKeepsEntries() {
+        try (OffHeapHashMap<Integer, Integer> map = new OffHeapHashMap<>(Codecs.INTEGER, Codecs.INTEGER)) {
+            for (int i = 0; i < 10_000; i++) {
+                map.put(i, i * 2);
+            }
+            assertEquals(16384, map.getTableSize());
+            for (int i = 0; i < 10_000; i++) {
+                assertEquals(Integer.valueOf(i * 2), map.get(i));
+            }
+            for (int i = 0; i < 9_990; i++) {
+                map.remove(i);
+            }
+            assertEquals(16, map.getTableSize());
+            assertEquals(Integer.valueOf(19_990), map.get(9_995));
+        }
+    }
+
+    @Test
+    public void testCompactionReclaimsGarbage() {
+        try (OffHeapHashMap<Integer, String> map = new OffHeapHashMap<>(Codecs.INTEGER, Codecs.STRING)) {
+            for (int i = 0; i < 1_000; i++) {
+                map.put(i, "v");
+            }
+            for (int round = 0; round < 200; round++) {
+                for (int i = 0; i < 1_000; i++) {
+                    map.put(i, round % 2 == 0 ? "value " + i : "v");
+                }
+            }
+            assertTrue(map.getGarbageBytes() <= Math.max(map.getLiveBytes(), 1 << 20));
+            for (int i = 0; i < 1_000; i++) {
+                assertEquals("v", map.get(i));
+            }
+            map.compact();
+            assertEquals(0, map.getGarbageBytes());
+            assertEquals(1_000, map.size());
+            assertEquals("v", map.get(999));
+        }
+    }
+
+    @Test
+    public void testIteratorRemoveAndSetValue() {
+        try (OffHeapHashMap<Integer, String> map = new OffHeapHashMap<>(Codecs.INTEGER, Codecs.STRING)) {
+            for (int i = 0; i < 100; i++) {
+                map.put(i, "v" + i);
+            }
+            Iterator<Map.Entry<Integer, String>> it = map.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Integer, String> entry = it.next();
+                if (entry.getKey() % 2 == 0) {
+                    it.remove();
+                } else {
+                    entry.setValue("odd " + entry.getKey());
+                }
+            }
+            assertEquals(50, map.size());
+            assertNull(map.get(2));
+            assertEquals("odd 3", map.get(3));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testClosedMapThrows() {
+        OffHeapHashMap<Long, Long> map = new OffHeapHashMap<>(Codecs.LONG, Codecs.LONG);
+        map.put(1L, 1L);
+        map.close();
+        map.close();
+        map.get(1L);
+    }
+
+    @Test
+    public void testClear() {
+        try (OffHeapHashMap<Long, Long> map = new OffHeapHashMap<>(Codecs.LONG, Codecs.LONG)) {
+            for (long i = 0; i < 1_000; i++) {
+                map.put(i, i);
+            }
+            map.clear();
+            assertTrue(map.isEmpty());
+            assertEquals(0, map.getLiveBytes());
+            assertNull(map.get(1L));
+            map.put(1L, 2L);
+            assertEquals(Long.valueOf(2L), map.get(1L));
+        }
+    }
+}
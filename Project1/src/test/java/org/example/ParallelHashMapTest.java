@@ -0,0 +1,125 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelHashMapTest {
+
+    private static MyHashMapImp<Integer, Integer> filledMap(int count) {
+        MyHashMapImp<Integer, Integer> map = new MyHashMapImp<>();
+        for (int i = 0; i < count; i++) {
+            map.put(i, i);
+        }
+        return map;
+    }
+
+    @Test
+    public void testRootSpliteratorIsSized() {
+        MyHashMapImp<Integer, Integer> map = filledMap(1000);
+        Spliterator<Map.Entry<Integer, Integer>> spliterator = map.entrySet().spliterator();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED));
+        assertTrue(spliterator.hasCharacteristics(Spliterator.DISTINCT));
+        assertEquals(1000, spliterator.getExactSizeIfKnown());
+
+        Spliterator<Map.Entry<Integer, Integer>> prefix = spliterator.trySplit();
+        assertNotNull(prefix);
+        assertFalse(prefix.hasCharacteristics(Spliterator.SIZED));
+        assertFalse(spliterator.hasCharacteristics(Spliterator.SIZED));
+        assertEquals(500, prefix.estimateSize());
+    }
+
+    @Test
+    public void testSplitsCoverAllElementsOnce() {
+        MyHashMapImp<Integer, Integer> map = filledMap(10_000);
+        Set<Integer> seen = new HashSet<>();
+        Spliterator<Integer> spliterator = map.keySet().spliterator();
+        Spliterator<Integer> a = spliterator.trySplit();
+        Spliterator<Integer> b = spliterator.trySplit();
+        Spliterator<Integer> c = a.trySplit();
+        for (Spliterator<Integer> part : List.of(spliterator, a, b, c)) {
+            part.forEachRemaining(key -> assertTrue(seen.add(key)));
+        }
+        assertEquals(10_000, seen.size());
+    }
+
+    @Test
+    public void testParallelStreams() {
+        MyHashMapImp<Integer, Integer> map = filledMap(100_000);
+        map.put(null, -1);
+        assertEquals(100_001, map.entrySet().parallelStream().count());
+        long expected = 100_000L * 99_999 / 2 - 1;
+        assertEquals(expected, map.values().parallelStream().mapToLong(Integer::longValue).sum());
+        Set<Integer> keys = map.keySet().parallelStream().collect(Collectors.toSet());
+        assertEquals(100_001, keys.size());
+    }
+
+    @Test
+    public void testSpliteratorWalksTreeBins() {
+        MyHashMapImp<String, Integer> map = new MyHashMapImp<>();
+        for (int i = 0; i < 64; i++) {
+            map.put(collidingString(i), i);
+        }
+        assertEquals(64, map.getDiagnostics().getMaxChainLength());
+        assertEquals(64, map.keySet().stream().count());
+        assertEquals(Integer.valueOf(63 * 64 / 2), map.reduce(1, (k, v) -> v, Integer::sum));
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testSpliteratorIsFailFast() {
+        MyHashMapImp<Integer, Integer> map = filledMap(100);
+        map.keySet().spliterator().forEachRemaining(key -> map.remove(key));
+    }
+
+    @Test
+    public void testBulkForEach() {
+        MyHashMapImp<Integer, Integer> map = filledMap(100_000);
+        LongAdder sum = new LongAdder();
+        map.forEach(1, (k, v) -> sum.add(v));
+        assertEquals(100_000L * 99_999 / 2, sum.sum());
+        LongAdder count = new LongAdder();
+        map.forEach(Long.MAX_VALUE, (k, v) -> count.increment());
+        assertEquals(100_000, count.sum());
+    }
+
+    @Test
+    public void testBulkReduce() {
+        MyHashMapImp<Integer, Integer> map = filledMap(100_000);
+        assertEquals(Long.valueOf(100_000L * 99_999 / 2), map.reduce(1, (k, v) -> (long) v, Long::sum));
+        assertEquals(Integer.valueOf(99_999), map.reduce(1000, (k, v) -> v, Math::max));
+        assertNull(map.reduce(1, (k, v) -> null, Integer::sum));
+        assertNull(new MyHashMapImp<Integer, Integer>().reduce(1, (k, v) -> v, Integer::sum));
+    }
+
+    @Test
+    public void testBulkSearch() {
+        MyHashMapImp<Integer, Integer> map = filledMap(100_000);
+        assertEquals("found 77777", map.search(1, (k, v) -> v == 77_777 ? "found " + k : null));
+        assertNull(map.search(1, (k, v) -> v < 0 ? v : null));
+        assertTrue(map.parallelContainsValue(1, 12_345));
+        assertFalse(map.parallelContainsValue(1, -5));
+        map.put(-1, null);
+        assertTrue(map.parallelContainsValue(1, null));
+    }
+
+    private static String collidingString(int i) {
+        StringBuilder sb = new StringBuilder();
+        for (int bit = 0; bit < 6; bit++) {
+            sb.append((i & (1 << bit)) == 0 ? "Aa" : "BB");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,204 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PersistentHashMapTest {
+
+    @Test
+    public void testMatchesHashMap() {
+        Random random = new Random(21);
+        Map<Integer, Integer> expected = new HashMap<>();
+        PersistentHashMap<Integer, Integer> map = new PersistentHashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            Integer key = random.nextInt(20_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        assertEquals(expected, map);
+        assertEquals(expected, new HashMap<>(map));
+        for (int i = 0; i < 20_000; i++) {
+            assertEquals(expected.containsKey(i), map.containsKey(i));
+        }
+    }
+
+    @Test
+    public void testSnapshotIsUnaffectedByLaterWrites() {
+        PersistentHashMap<Integer, String> map = new PersistentHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, "a" + i);
+        }
+        Map<Integer, String> snapshot = map.snapshot();
+        for (int i = 0; i < 1000; i += 2) {
+            map.remove(i);
+        }
+        map.put(5, "changed");
+        map.put(2000, "new");
+        assertEquals(1000, snapshot.size());
+        assertEquals("a0", snapshot.get(0));
+        assertEquals("a5", snapshot.get(5));
+        assertFalse(snapshot.containsKey(2000));
+        assertEquals(501, map.size());
+        assertEquals("changed", map.get(5));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(1000, snapshot.size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSnapshotIsImmutable() {
+        PersistentHashMap<Integer, Integer> map = new PersistentHashMap<>();
+        map.snapshot().put(1, 1);
+    }
+
+    @Test
+    public void testNullKeyAndValue() {
+        PersistentHashMap<String, String> map = new PersistentHashMap<>();
+        assertNull(map.put(null, "n"));
+        assertNull(map.put("a", null));
+        assertTrue(map.containsKey("a"));
+        assertNull(map.get("a"));
+        assertEquals("d", map.getOrDefault("b", "d"));
+        assertNull(map.getOrDefault("a", "d"));
+        assertEquals("n", map.remove(null));
+        assertFalse(map.containsKey(null));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void testFullHashCollisions() {
+        PersistentHashMap<CollidingKey, Integer> map = new PersistentHashMap<>();
+        for (int i = 0; i < 20; i++) {
+            map.put(new CollidingKey(i), i);
+        }
+        Map<CollidingKey, Integer> snapshot = map.snapshot();
+        for (int i = 0; i < 19; i++) {
+            assertEquals(Integer.valueOf(i), map.remove(new CollidingKey(i)));
+        }
+        assertEquals(1, map.size());
+        assertEquals(Integer.valueOf(19), map.get(new CollidingKey(19)));
+        assertEquals(1, map.depth());
+        assertEquals(20, snapshot.size());
+        assertEquals(Integer.valueOf(7), snapshot.get(new CollidingKey(7)));
+    }
+
+    @Test
+    public void testDepthIsLogarithmic() {
+        PersistentHashMap<Integer, Integer> map = new PersistentHashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            map.put(i, i);
+        }
+        assertTrue(map.depth() <= 6);
+        for (int i = 0; i < 100_000; i++) {
+            map.remove(i);
+        }
+        assertTrue(map.isEmpty());
+        assertEquals(1, map.depth());
+    }
+
+    @Test
+    public void testIteratorSeesVersionAtCreation() {
+        PersistentHashMap<Integer, Integer> map = new PersistentHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+        }
+        int count = 0;
+        Iterator<Map.Entry<Integer, Integer>> it = map.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, Integer> entry = it.next();
+            map.put(entry.getKey() + 1000, 0);
+            if (entry.getKey() % 2 == 0) {
+                it.remove();
+            }
+            count++;
+        }
+        assertEquals(100, count);
+        assertEquals(150, map.size());
+    }
+
+    @Test
+    public void testPutAllAndCompute() {
+        Map<Integer, Integer> source = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            source.put(i, i);
+        }
+        PersistentHashMap<Integer, Integer> map = new PersistentHashMap<>(source);
+        assertEquals(source, map);
+        map.merge(1, 10, Integer::sum);
+        map.compute(2, (k, v) -> null);
+        map.computeIfAbsent(5000, k -> k);
+        assertEquals(Integer.valueOf(11), map.get(1));
+        assertFalse(map.containsKey(2));
+        assertEquals(Integer.valueOf(5000), map.get(5000));
+        assertEquals(1000, map.size());
+    }
+
+    @Test
+    public void testReadersSeeConsistentVersions() throws InterruptedException {
+        PersistentHashMap<Integer, Integer> map = new PersistentHashMap<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            for (int round = 1; round <= 200; round++) {
+                Map<Integer, Integer> batch = new HashMap<>();
+                for (int i = 0; i < 100; i++) {
+                    batch.put(i, round);
+                }
+                map.putAll(batch);
+            }
+        });
+        Thread reader = new Thread(() -> {
+            try {
+                while (writer.isAlive()) {
+                    Map<Integer, Integer> snapshot = map.snapshot();
+                    Integer first = snapshot.get(0);
+                    for (int i = 1; i < 100; i++) {
+                        assertEquals(first, snapshot.get(i));
+                    }
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        writer.start();
+        reader.start();
+        writer.join();
+        reader.join();
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        assertEquals(Integer.valueOf(200), map.get(99));
+    }
+
+    private static final class CollidingKey {
+        private final int id;
+
+        CollidingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CollidingKey && ((CollidingKey) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+}
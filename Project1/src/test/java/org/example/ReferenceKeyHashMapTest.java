@@ -0,0 +1,185 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ReferenceKeyHashMapTest {
+
+    @Test
+    public void testBasicOperations() {
+        ReferenceKeyHashMap<String, Integer> map = new ReferenceKeyHashMap<>();
+        assertEquals(KeyStrength.WEAK, map.getKeyStrength());
+        String a = "a";
+        assertNull(map.put(a, 1));
+        assertEquals(Integer.valueOf(1), map.put(new String("a"), 2));
+        assertEquals(Integer.valueOf(2), map.get("a"));
+        assertNull(map.put(null, 3));
+        assertEquals(Integer.valueOf(3), map.get(null));
+        assertTrue(map.containsKey(null));
+        assertTrue(map.containsValue(2));
+        assertEquals(2, map.size());
+        Map<String, Integer> expected = new HashMap<>();
+        expected.put("a", 2);
+        expected.put(null, 3);
+        assertEquals(expected, map);
+        for (Map.Entry<String, Integer> e : map.entrySet()) {
+            e.setValue(e.getValue() * 10);
+        }
+        assertEquals(Integer.valueOf(20), map.get("a"));
+        assertEquals(Integer.valueOf(30), map.remove(null));
+        assertFalse(map.containsKey(null));
+        map.clear();
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testCollectedKeysAreExpunged() {
+        ReferenceKeyHashMap<Object, Integer> map = new ReferenceKeyHashMap<>();
+        List<Object> live = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Object key = new Object();
+            map.put(key, i);
+            if (i % 10 == 0) {
+                live.add(key);
+            }
+        }
+        awaitSize(map, live.size());
+        assertEquals(900, map.getCollectedCount());
+        for (Object key : live) {
+            assertTrue(map.containsKey(key));
+        }
+    }
+
+    @Test
+    public void testCollidingKeysInTreeBins() {
+        ReferenceKeyHashMap<CollidingKey, Integer> map = new ReferenceKeyHashMap<>();
+        List<CollidingKey> live = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            CollidingKey key = new CollidingKey(i);
+            map.put(key, i);
+            if (i < 20) {
+                live.add(key);
+            }
+        }
+        assertEquals(Integer.valueOf(7), map.get(new CollidingKey(7)));
+        awaitSize(map, 20);
+        for (int i = 0; i < 20; i++) {
+            assertEquals(Integer.valueOf(i), map.get(new CollidingKey(i)));
+        }
+        assertEquals(20, live.size());
+    }
+
+    @Test
+    public void testHeapStaysBoundedUnderChurn() {
+        ReferenceKeyHashMap<Object, byte[]> map = new ReferenceKeyHashMap<>();
+        Object[] live = new Object[100];
+        long maxUsed = 0;
+        for (int i = 0; i < 200_000; i++) {
+            Object key = new Object();
+            live[i % live.length] = key;
+            map.put(key, new byte[16 * 1024]);
+            if (i % 20_000 == 0) {
+                maxUsed = Math.max(maxUsed, usedHeap());
+            }
+        }
+        awaitSize(map, live.length);
+        assertTrue("used heap " + maxUsed, maxUsed < 512L * 1024 * 1024);
+        assertTrue(map.getCollectedCount() >= 200_000 - live.length);
+    }
+
+    @Test
+    public void testIterationToleratesExpunging() {
+        ReferenceKeyHashMap<Object, Integer> map = new ReferenceKeyHashMap<>();
+        List<Object> live = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Object key = new Object();
+            map.put(key, i);
+            if (i % 2 == 0) {
+                live.add(key);
+            }
+        }
+        int seen = 0;
+        for (Iterator<Map.Entry<Object, Integer>> it = map.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Object, Integer> e = it.next();
+            if (seen == 0) {
+                gc();
+            }
+            assertEquals(e.getValue(), map.get(e.getKey()));
+            boolean hasNext = it.hasNext(); // итератор заранее выбирает следующую пару
+            if (e.getValue() % 4 == 0) {
+                it.remove();
+            }
+            assertEquals(hasNext, it.hasNext());
+            seen++;
+        }
+        assertTrue(seen >= live.size());
+        awaitSize(map, live.size() / 2);
+        for (Object key : live) {
+            assertEquals(map.get(key) != null, map.containsKey(key));
+        }
+    }
+
+    @Test
+    public void testSoftKeysSurviveCollectionWithoutMemoryPressure() {
+        ReferenceKeyHashMap<Object, Integer> map = new ReferenceKeyHashMap<>(16, KeyStrength.SOFT);
+        for (int i = 0; i < 100; i++) {
+            map.put(new Object(), i);
+        }
+        gc();
+        assertEquals(100, map.size());
+        assertEquals(0, map.getCollectedCount());
+    }
+
+    private static void awaitSize(ReferenceKeyHashMap<?, ?> map, int expected) {
+        for (int i = 0; i < 100 && map.size() != expected; i++) {
+            gc();
+        }
+        assertEquals(expected, map.size());
+    }
+
+    private static void gc() {
+        System.gc();
+        try {
+            Thread.sleep(10);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Ключ с одинаковым хэш-кодом, чтобы все пары попадали в одну корзину-дерево.
+     */
+    private static final class CollidingKey {
+        private final int id;
+
+        CollidingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CollidingKey && ((CollidingKey) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+}
@@ -16,6 +16,6 @@ public class ResizeHashMapTest {
         boolean result=map.containsValue("value_19");
         assertEquals(result,true);
         int tableSize=map.getTableSize();
-        assertEquals(36,tableSize);
+        assertEquals(32,tableSize);
     }
 }
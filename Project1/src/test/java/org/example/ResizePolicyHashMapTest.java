@@ -0,0 +1,138 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ResizePolicyHashMapTest {
+
+    @Test
+    public void testInitialCapacityIsRoundedToPowerOfTwo() {
+        assertEquals(128, new MyHashMapImp<Integer, Integer>(100).getTableSize());
+        assertEquals(1, new MyHashMapImp<Integer, Integer>(0).getTableSize());
+        assertEquals(64, new MyHashMapImp<Integer, Integer>(64, 0.5).getTableSize());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeCapacityRejected() {
+        new MyHashMapImp<Integer, Integer>(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonPositiveLoadFactorRejected() {
+        new MyHashMapImp<Integer, Integer>(16, 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPolicyWithoutGapRejected() {
+        ResizePolicy.of(0.8, 0.4);
+    }
+
+    @Test
+    public void testLoadFactorControlsGrowth() {
+        MyHashMapImp<Integer, Integer> map = new MyHashMapImp<>(16, 0.5);
+        for (int i = 0; i < 7; i++) {
+            map.put(i, i);
+        }
+        assertEquals(16, map.getTableSize());
+        map.put(7, 7);
+        assertEquals(32, map.getTableSize());
+    }
+
+    @Test
+    public void testAlternatingPutRemoveDoesNotResize() {
+        MyHashMapImp<Integer, Integer> map = new MyHashMapImp<>();
+        int key = 0;
+        while (map.getTableSize() == 16) {
+            map.put(key, key);
+            key++;
+        }
+        int tableSize = map.getTableSize();
+        for (int i = 0; i < 100; i++) {
+            map.remove(--key);
+            map.remove(--key);
+            assertEquals(tableSize, map.getTableSize());
+            map.put(key, key);
+            key++;
+            map.put(key, key);
+            key++;
+            assertEquals(tableSize, map.getTableSize());
+        }
+    }
+
+    @Test
+    public void testShrinkStopsAtInitialCapacity() {
+        MyHashMapImp<Integer, Integer> map = new MyHashMapImp<>(256);
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            map.remove(i);
+        }
+        assertEquals(256, map.getTableSize());
+    }
+
+    @Test
+    public void testEnsureCapacityAndTrimToSize() {
+        MyHashMapImp<Integer, Integer> map = new MyHashMapImp<>();
+        map.ensureCapacity(1000);
+        int tableSize = map.getTableSize();
+        assertEquals(2048, tableSize);
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+        assertEquals(tableSize, map.getTableSize());
+        for (int i = 10; i < 1000; i++) {
+            map.remove(i);
+        }
+        assertEquals(tableSize, map.getTableSize());
+
+        map.trimToSize();
+        assertEquals(16, map.getTableSize());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Integer.valueOf(i), map.get(i));
+        }
+        map.remove(0);
+        map.trimToSize();
+        assertEquals(16, map.getTableSize());
+        for (int i = 1; i < 10; i++) {
+            map.remove(i);
+        }
+        map.trimToSize();
+        assertEquals(1, map.getTableSize());
+        map.put(1, 1);
+        assertEquals(Integer.valueOf(1), map.get(1));
+    }
+
+    @Test
+    public void testPutAllPresizesOnce() {
+        Map<Integer, Integer> source = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            source.put(i, i);
+        }
+        MyHashMapImp<Integer, Integer> map = new MyHashMapImp<>();
+        map.setIncrementalRehash(true);
+        map.putAll(source);
+        assertEquals(16384, map.getTableSize());
+        assertEquals(source.size(), map.size());
+        assertEquals(source, new HashMap<>(map));
+    }
+
+    @Test
+    public void testGrowOnlyPolicy() {
+        MyHashMapImp<Integer, Integer> map = new MyHashMapImp<>(16, ResizePolicy.growOnly(0.75));
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+        int tableSize = map.getTableSize();
+        for (int i = 0; i < 1000; i++) {
+            map.remove(i);
+        }
+        assertEquals(tableSize, map.getTableSize());
+        assertTrue(map.isEmpty());
+    }
+}
@@ -0,0 +1,152 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class RobinHoodHashMapTest {
+
+    @Test
+    public void testPutAndGet() {
+        Map<Integer, String> map = new MyRobinHoodHashMapImp<>();
+        assertNull(map.put(1, "a"));
+        assertNull(map.put(2, "b"));
+        assertEquals("a", map.put(1, "c"));
+        assertEquals(2, map.size());
+        assertEquals("c", map.get(1));
+        assertEquals("b", map.get(2));
+        assertNull(map.get(3));
+    }
+
+    @Test
+    public void testNullKeyAndValue() {
+        Map<Integer, String> map = new MyRobinHoodHashMapImp<>();
+        map.put(null, "a");
+        map.put(1, null);
+        assertTrue(map.containsKey(null));
+        assertTrue(map.containsKey(1));
+        assertTrue(map.containsValue(null));
+        assertEquals("a", map.get(null));
+        assertEquals("a", map.remove(null));
+        assertFalse(map.containsKey(null));
+    }
+
+    @Test
+    public void testRemove() {
+        Map<Integer, String> map = new MyRobinHoodHashMapImp<>();
+        map.put(1, "a");
+        map.put(2, "b");
+        map.put(3, "c");
+        assertEquals("b", map.remove(2));
+        assertEquals(2, map.size());
+        assertNull(map.remove(2));
+        assertTrue(map.containsValue("c"));
+        assertFalse(map.containsValue("b"));
+    }
+
+    @Test
+    public void testResizePlusHashMap() {
+        MyRobinHoodHashMapImp<Integer, String> map = new MyRobinHoodHashMapImp<>();
+        for (int i = 1; i <= 20; i++) {
+            map.put(i, "value_" + i);
+        }
+        assertEquals(20, map.size());
+        assertTrue(map.containsValue("value_19"));
+        assertEquals(32, map.getTableSize());
+        for (int i = 1; i <= 20; i++) {
+            map.remove(i);
+        }
+        assertEquals(16, map.getTableSize());
+    }
+
+    @Test
+    public void testViews() {
+        Map<Integer, String> map = new MyRobinHoodHashMapImp<>();
+        map.put(1, "a");
+        map.put(2, "b");
+        map.put(3, "b");
+        Set<Integer> keys = map.keySet();
+        Collection<String> values = map.values();
+        Set<Map.Entry<Integer, String>> entries = map.entrySet();
+        assertEquals(3, keys.size());
+        assertEquals(3, values.size());
+        assertEquals(3, entries.size());
+        assertEquals(new HashSet<>(List.of("a", "b")), new HashSet<>(values));
+        for (Map.Entry<Integer, String> entry : entries) {
+            entry.setValue(entry.getValue() + "!");
+        }
+        assertEquals("b!", map.get(3));
+    }
+
+    @Test
+    public void testIteratorRemoveVisitsEveryEntry() {
+        Map<Integer, Integer> map = new MyRobinHoodHashMapImp<>();
+        for (int i = 0; i < 1000; i++) {
+            map.put(i * 31, i);
+        }
+        Set<Integer> seen = new HashSet<>();
+        Iterator<Integer> iterator = map.keySet().iterator();
+        while (iterator.hasNext()) {
+            Integer key = iterator.next();
+            assertTrue(seen.add(key));
+            if (key % 2 == 0) {
+                iterator.remove();
+            }
+        }
+        assertEquals(1000, seen.size());
+        assertEquals(500, map.size());
+        for (Integer key : map.keySet()) {
+            assertTrue(key % 2 != 0);
+        }
+    }
+
+    @Test
+    public void testIteratorRemoveWithWrapAround() {
+        Map<Integer, String> map = new MyRobinHoodHashMapImp<>();
+        map.put(15, "a");
+        map.put(31, "b");
+        map.put(47, "c");
+        Set<Integer> seen = new HashSet<>();
+        Iterator<Integer> iterator = map.keySet().iterator();
+        while (iterator.hasNext()) {
+            seen.add(iterator.next());
+            iterator.remove();
+        }
+        assertEquals(new HashSet<>(List.of(15, 31, 47)), seen);
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testRandomOperationsMatchHashMap() {
+        Map<Integer, Integer> expected = new HashMap<>();
+        Map<Integer, Integer> actual = new MyRobinHoodHashMapImp<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), actual.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), actual.put(key, i));
+            }
+        }
+        assertEquals(expected.size(), actual.size());
+        List<Integer> keys = new ArrayList<>(actual.keySet());
+        assertEquals(expected.size(), keys.size());
+        for (Integer key : keys) {
+            assertEquals(expected.get(key), actual.get(key));
+        }
+    }
+}
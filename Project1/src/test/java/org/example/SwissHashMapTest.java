@@ -0,0 +1,159 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SwissHashMapTest {
+
+    @Test
+    public void testMatchesHashMap() {
+        Random random = new Random(18);
+        Map<Integer, Integer> expected = new HashMap<>();
+        SwissHashMap<Integer, Integer> map = new SwissHashMap<>();
+        for (int i = 0; i < 300_000; i++) {
+            Integer key = random.nextInt(30_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        assertEquals(expected, map);
+        assertEquals(map, expected);
+        assertEquals(expected.hashCode(), map.hashCode());
+        for (int i = 0; i < 30_000; i++) {
+            assertEquals(expected.containsKey(i), map.containsKey(i));
+        }
+    }
+
+    @Test
+    public void testNullKeyAndValue() {
+        SwissHashMap<String, String> map = new SwissHashMap<>();
+        assertNull(map.put(null, "n"));
+        assertNull(map.put("a", null));
+        assertTrue(map.containsKey(null));
+        assertTrue(map.containsKey("a"));
+        assertTrue(map.containsValue(null));
+        assertEquals("n", map.get(null));
+        assertEquals("d", map.getOrDefault("b", "d"));
+        assertNull(map.getOrDefault("a", "d"));
+        assertEquals("n", map.remove(null));
+        assertFalse(map.containsKey(null));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void testTableGrowsAtSevenEighths() {
+        SwissHashMap<Integer, Integer> map = new SwissHashMap<>();
+        for (int i = 0; i < 14; i++) {
+            map.put(i, i);
+        }
+        assertEquals(16, map.getTableSize());
+        map.put(14, 14);
+        assertEquals(32, map.getTableSize());
+        assertEquals(64, new SwissHashMap<Integer, Integer>(29).getTableSize());
+    }
+
+    @Test
+    public void testTombstonesAreReclaimedWithoutGrowth() {
+        SwissHashMap<Integer, Integer> map = new SwissHashMap<>(1000);
+        int tableSize = map.getTableSize();
+        for (int i = 0; i < 1_000_000; i++) {
+            map.put(i, i);
+            if (i >= 100) {
+                assertEquals(Integer.valueOf(i - 100), map.remove(i - 100));
+            }
+        }
+        assertEquals(100, map.size());
+        assertEquals(tableSize, map.getTableSize());
+        assertTrue(map.getDeletedCount() < tableSize);
+        for (int i = 999_900; i < 1_000_000; i++) {
+            assertEquals(Integer.valueOf(i), map.get(i));
+        }
+    }
+
+    @Test
+    public void testCollidingKeys() {
+        SwissHashMap<CollidingKey, Integer> map = new SwissHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(new CollidingKey(i), i);
+        }
+        for (int i = 0; i < 100; i += 2) {
+            assertEquals(Integer.valueOf(i), map.remove(new CollidingKey(i)));
+        }
+        assertEquals(50, map.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i % 2 == 0 ? null : Integer.valueOf(i), map.get(new CollidingKey(i)));
+        }
+        assertNull(map.get(new CollidingKey(100)));
+    }
+
+    @Test
+    public void testIteratorRemoveAndSetValue() {
+        SwissHashMap<Integer, Integer> map = new SwissHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+        Iterator<Map.Entry<Integer, Integer>> it = map.entrySet().iterator();
+        int count = 0;
+        while (it.hasNext()) {
+            Map.Entry<Integer, Integer> entry = it.next();
+            if (entry.getKey() % 2 == 0) {
+                it.remove();
+            } else {
+                entry.setValue(-entry.getKey());
+            }
+            count++;
+        }
+        assertEquals(1000, count);
+        assertEquals(500, map.size());
+        map.forEach((k, v) -> assertEquals(-k, v.intValue()));
+        map.keySet().removeIf(k -> k < 500);
+        map.values().removeIf(v -> v == -999);
+        assertEquals(249, map.size());
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testModificationDuringIterationFails() {
+        SwissHashMap<Integer, Integer> map = new SwissHashMap<>();
+        map.put(1, 1);
+        map.put(2, 2);
+        for (Integer key : map.keySet()) {
+            map.put(key + 10, 0);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeExpectedSizeRejected() {
+        new SwissHashMap<Integer, Integer>(-1);
+    }
+
+    private static final class CollidingKey {
+        private final int id;
+
+        CollidingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CollidingKey && ((CollidingKey) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+}
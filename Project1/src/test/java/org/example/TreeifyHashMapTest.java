@@ -0,0 +1,159 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TreeifyHashMapTest {
+
+    @Test
+    public void testComparableCollisionsAreTreeified() {
+        MyHashMapImp<ComparableKey, Integer> map = new MyHashMapImp<>();
+        for (int i = 0; i < 1000; i++) {
+            map.put(new ComparableKey(i), i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Integer.valueOf(i), map.get(new ComparableKey(i)));
+        }
+        assertNull(map.get(new ComparableKey(1000)));
+        TableDiagnostics diagnostics = map.getDiagnostics();
+        assertEquals(250, diagnostics.getMaxChainLength());
+        assertTrue(diagnostics.getMaxProbeLength() <= 15);
+    }
+
+    @Test
+    public void testNonComparableCollisions() {
+        MyHashMapImp<OpaqueKey, Integer> map = new MyHashMapImp<>();
+        for (int i = 0; i < 200; i++) {
+            map.put(new OpaqueKey(i), i);
+        }
+        for (int i = 0; i < 200; i++) {
+            assertTrue(map.containsKey(new OpaqueKey(i)));
+            assertEquals(Integer.valueOf(i), map.remove(new OpaqueKey(i)));
+        }
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testUntreeifyAfterRemove() {
+        MyHashMapImp<ComparableKey, Integer> map = new MyHashMapImp<>();
+        for (int i = 0; i < MyHashMapImp.TREEIFY_THRESHOLD; i++) {
+            map.put(new ComparableKey(i * 4), i);
+        }
+        assertTrue(map.getDiagnostics().getMaxProbeLength() < MyHashMapImp.TREEIFY_THRESHOLD);
+        map.remove(new ComparableKey(0));
+        map.remove(new ComparableKey(4));
+        assertEquals(MyHashMapImp.UNTREEIFY_THRESHOLD, map.getDiagnostics().getMaxProbeLength());
+        for (int i = 2; i < MyHashMapImp.TREEIFY_THRESHOLD; i++) {
+            assertEquals(Integer.valueOf(i), map.get(new ComparableKey(i * 4)));
+        }
+    }
+
+    @Test
+    public void testNullValuesInTreeBin() {
+        MyHashMapImp<ComparableKey, Integer> map = new MyHashMapImp<>();
+        for (int i = 0; i < 20; i++) {
+            map.put(new ComparableKey(i), null);
+        }
+        assertEquals(20, map.size());
+        assertTrue(map.containsValue(null));
+        assertFalse(map.containsValue(1));
+        assertNull(map.put(new ComparableKey(3), 3));
+        assertEquals(20, map.size());
+        assertTrue(map.containsValue(3));
+        assertNull(map.remove(new ComparableKey(4)));
+        assertEquals(19, map.size());
+        assertFalse(map.containsKey(new ComparableKey(4)));
+    }
+
+    @Test
+    public void testTreeBinsSurviveResizeAndRehash() {
+        for (boolean incremental : new boolean[]{false, true}) {
+            MyHashMapImp<Object, Integer> map = new MyHashMapImp<>();
+            map.setIncrementalRehash(incremental);
+            Map<Object, Integer> expected = new HashMap<>();
+            Random random = new Random(7);
+            for (int i = 0; i < 50_000; i++) {
+                int id = random.nextInt(3_000);
+                Object key = id % 3 == 0 ? new OpaqueKey(id) : new ComparableKey(id);
+                if (random.nextInt(3) == 0) {
+                    assertEquals(expected.remove(key), map.remove(key));
+                } else {
+                    assertEquals(expected.put(key, i), map.put(key, i));
+                }
+            }
+            assertEquals(expected.size(), map.size());
+            assertEquals(expected.keySet(), map.keySet());
+            for (Map.Entry<Object, Integer> entry : expected.entrySet()) {
+                assertEquals(entry.getValue(), map.get(entry.getKey()));
+            }
+        }
+    }
+
+    @Test
+    public void testKeySetOfTreeBin() {
+        MyHashMapImp<ComparableKey, Integer> map = new MyHashMapImp<>();
+        Set<ComparableKey> expected = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(new ComparableKey(i), i);
+            expected.add(new ComparableKey(i));
+        }
+        assertEquals(expected, map.keySet());
+    }
+
+    /**
+     * Сравнимый ключ, хэш-код которого зависит только от остатка от деления на 4.
+     */
+    private static final class ComparableKey implements Comparable<ComparableKey> {
+        private final int id;
+
+        ComparableKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(ComparableKey o) {
+            return Integer.compare(id, o.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ComparableKey && ((ComparableKey) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id & 3;
+        }
+    }
+
+    /**
+     * Несравнимый ключ с постоянным хэш-кодом.
+     */
+    private static final class OpaqueKey {
+        private final int id;
+
+        OpaqueKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof OpaqueKey && ((OpaqueKey) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ValueIndexTest {
+
+    @Test
+    public void testContainsValueFollowsWrites() {
+        MyHashMapImp<String, Integer> map = new MyHashMapImp<>();
+        map.setValueIndex(true);
+        map.put("a", 1);
+        map.put("b", 1);
+        map.put("c", 2);
+        assertEquals(2, map.countValue(1));
+        map.put("a", 3);
+        assertEquals(1, map.countValue(1));
+        assertTrue(map.containsValue(3));
+        map.remove("b");
+        assertFalse(map.containsValue(1));
+        map.put("d", null);
+        assertTrue(map.containsValue(null));
+        map.clear();
+        assertFalse(map.containsValue(2));
+        assertFalse(map.containsValue(null));
+        assertEquals(0, map.countValue(3));
+    }
+
+    @Test
+    public void testInverseView() {
+        MyHashMapImp<String, Integer> map = new MyHashMapImp<>();
+        map.setValueIndex(true);
+        Map<Integer, String> inverse = map.inverse();
+        map.put("a", 1);
+        map.put("b", 2);
+        map.put("c", 2);
+        assertEquals(2, inverse.size());
+        assertEquals("a", inverse.get(1));
+        assertTrue(inverse.get(2).equals("b") || inverse.get(2).equals("c"));
+        assertNull(inverse.get(3));
+        assertTrue(inverse.containsValue("c"));
+        map.remove(inverse.get(2));
+        assertEquals(map.containsKey("b") ? "b" : "c", inverse.get(2));
+        assertEquals(new HashMap<>(inverse).keySet(), map.values().stream().collect(Collectors.toSet()));
+        try {
+            inverse.put(5, "e");
+            fail();
+        } catch (UnsupportedOperationException expected) {
+            // представление только для чтения
+        }
+        map.setValueIndex(false);
+        try {
+            inverse.size();
+            fail();
+        } catch (IllegalStateException expected) {
+            // индекс отключен
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testInverseRequiresValueIndex() {
+        new MyHashMapImp<String, Integer>().inverse();
+    }
+
+    @Test
+    public void testEnableOnPopulatedMap() {
+        MyHashMapImp<Integer, Integer> map = new MyHashMapImp<>();
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i % 10);
+        }
+        assertEquals(100, map.countValue(7));
+        map.setValueIndex(true);
+        assertTrue(map.isValueIndex());
+        assertEquals(100, map.countValue(7));
+        assertEquals(10, map.inverse().size());
+        assertEquals(new HashMap<>(map), map.freeze());
+        map.setValueIndex(false);
+        assertFalse(map.isValueIndex());
+        assertTrue(map.containsValue(9));
+    }
+
+    @Test
+    public void testEntrySetValueUpdatesIndex() {
+        MyHashMapImp<String, Integer> map = new MyHashMapImp<>();
+        map.setValueIndex(true);
+        map.put("a", 1);
+        map.put("b", 2);
+        for (Map.Entry<String, Integer> e : map.entrySet()) {
+            e.setValue(e.getValue() * 10);
+        }
+        assertFalse(map.containsValue(1));
+        assertTrue(map.containsValue(20));
+        map.replaceAll((k, v) -> v + 1);
+        assertTrue(map.containsValue(11));
+        assertFalse(map.containsValue(10));
+        map.entrySet().stream().forEach(e -> e.setValue(0));
+        assertEquals(2, map.countValue(0));
+        assertEquals(1, map.inverse().size());
+    }
+
+    @Test
+    public void testKeysOfRepeatedValueGrowAndShrink() {
+        MyHashMapImp<Integer, String> map = new MyHashMapImp<>();
+        map.setValueIndex(true);
+        for (int i = 0; i < 20; i++) {
+            map.put(i, "v");
+            assertEquals(i + 1, map.countValue("v"));
+        }
+        for (int i = 0; i < 19; i++) {
+            map.remove(i);
+            assertEquals(19 - i, map.countValue("v"));
+            assertEquals("v", map.get(map.inverse().get("v")));
+        }
+        assertEquals(Integer.valueOf(19), map.inverse().get("v"));
+        map.remove(19);
+        assertFalse(map.containsValue("v"));
+    }
+
+    @Test
+    public void testRandomOperationsMatchFullScan() {
+        checkRandomOperations(new MyHashMapImp<>());
+        MyHashMapImp<CollidingKey, Integer> incremental = new MyHashMapImp<>();
+        incremental.setIncrementalRehash(true);
+        checkRandomOperations(incremental);
+        checkRandomOperations(new MyLinkedHashMapImp<>());
+    }
+
+    private static void checkRandomOperations(MyHashMapImp<CollidingKey, Integer> map) {
+        map.setValueIndex(true);
+        Map<CollidingKey, Integer> expected = new HashMap<>();
+        Random random = new Random(21);
+        for (int i = 0; i < 50_000; i++) {
+            CollidingKey key = new CollidingKey(random.nextInt(500));
+            Integer value = random.nextInt(8) == 0 ? null : random.nextInt(40);
+            switch (random.nextInt(9)) {
+                case 0:
+                case 1:
+                    map.put(key, value);
+                    expected.put(key, value);
+                    break;
+                case 2:
+                    map.remove(key);
+                    expected.remove(key);
+                    break;
+                case 3:
+                    map.putIfAbsent(key, value);
+                    expected.putIfAbsent(key, value);
+                    break;
+                case 4:
+                    map.merge(key, 1, Integer::sum);
+                    expected.merge(key, 1, Integer::sum);
+                    break;
+                case 5:
+                    map.computeIfPresent(key, (k, v) -> v % 3 == 0 ? null : v + 1);
+                    expected.computeIfPresent(key, (k, v) -> v % 3 == 0 ? null : v + 1);
+                    break;
+                case 6:
+                    map.compute(key, (k, v) -> value);
+                    expected.compute(key, (k, v) -> value);
+                    break;
+                case 7:
+                    for (Iterator<Map.Entry<CollidingKey, Integer>> it = map.entrySet().iterator(); it.hasNext(); ) {
+                        Map.Entry<CollidingKey, Integer> e = it.next();
+                        if (e.getKey().equals(key)) {
+                            it.remove();
+                            expected.remove(key);
+                        } else if (Objects.equals(e.getValue(), value)) {
+                            e.setValue(-1);
+                            expected.put(e.getKey(), -1);
+                        }
+                    }
+                    break;
+                default:
+                    if (random.nextInt(200) == 0) {
+                        map.clear();
+                        expected.clear();
+                    }
+                    break;
+            }
+            Integer probe = random.nextInt(6) == 0 ? null : random.nextInt(42) - 1;
+            assertEquals(expected.containsValue(probe), map.containsValue(probe));
+        }
+        assertEquals(expected, map);
+        for (int v = -1; v < 42; v++) {
+            int count = 0;
+            for (Integer value : expected.values()) {
+                if (Objects.equals(value, v)) {
+                    count++;
+                }
+            }
+            assertEquals(count, map.countValue(v));
+            if (count > 0) {
+                assertEquals(Integer.valueOf(v), map.get(map.inverse().get(v)));
+            }
+        }
+        assertEquals(new HashSet<>(expected.values()).size(), map.inverse().size());
+    }
+
+    /**
+     * Ключ с малым числом различных хэш-кодов, чтобы корзины превращались в деревья.
+     */
+    private static final class CollidingKey implements Comparable<CollidingKey> {
+        private final int id;
+
+        CollidingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(CollidingKey o) {
+            return Integer.compare(id, o.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CollidingKey && ((CollidingKey) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id % 16;
+        }
+    }
+}
@@ -1,8 +1,8 @@
 package org.example;
 
 import org.junit.Test;
+import java.util.Collection;
 import java.util.Map;
-import java.util.Set;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
@@ -10,7 +10,7 @@ public class ValuesHashMapTest {
     @Test
     public void testEmptyHashMapSize(){
         Map<Integer,String> map=new MyHashMapImp<>();
-        Set<Integer> values=(Set)map.values();
+        Collection<String> values=map.values();
         assertNotNull(values);
         assertEquals(0,values.size());
     }
@@ -21,7 +21,7 @@ public class ValuesHashMapTest {
         map.put(1,"a");
         map.put(2,"b");
         map.put(3,"c");
-        Set<Integer> values=(Set)map.values();
+        Collection<String> values=map.values();
         assertNotNull(values);
         assertEquals(3,values.size());
 
@@ -33,8 +33,8 @@ public class ValuesHashMapTest {
         map.put(1,"a");
         map.put(2,"b");
         map.put(3,"b");
-        Set<Integer> values=(Set)map.values();
+        Collection<String> values=map.values();
         assertNotNull(values);
-        assertEquals(2,values.size());
+        assertEquals(3,values.size());
     }
 }
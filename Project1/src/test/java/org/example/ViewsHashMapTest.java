@@ -0,0 +1,168 @@
+package org.example;
+
+import org.junit.Test;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ViewsHashMapTest {
+
+    @Test
+    public void testViewsAreLive() {
+        Map<Integer, String> map = new MyHashMapImp<>();
+        Set<Integer> keys = map.keySet();
+        Collection<String> values = map.values();
+        Set<Map.Entry<Integer, String>> entries = map.entrySet();
+        assertTrue(keys.isEmpty());
+        map.put(1, "a");
+        map.put(2, "b");
+        assertEquals(2, keys.size());
+        assertTrue(keys.contains(2));
+        assertTrue(values.contains("b"));
+        assertEquals(2, entries.size());
+        map.remove(1);
+        assertFalse(keys.contains(1));
+        assertFalse(values.contains("a"));
+    }
+
+    @Test
+    public void testRemoveThroughViews() {
+        Map<Integer, String> map = new MyHashMapImp<>();
+        map.put(1, "a");
+        map.put(2, "b");
+        map.put(3, "c");
+        assertTrue(map.keySet().remove(1));
+        assertFalse(map.keySet().remove(1));
+        assertFalse(map.entrySet().remove(new AbstractMap.SimpleEntry<>(2, "x")));
+        assertTrue(map.entrySet().remove(new AbstractMap.SimpleEntry<>(2, "b")));
+        assertEquals(1, map.size());
+        map.values().clear();
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testEntrySetValueWritesThrough() {
+        Map<Integer, String> map = new MyHashMapImp<>();
+        map.put(1, "a");
+        map.put(2, "b");
+        for (Map.Entry<Integer, String> entry : map.entrySet()) {
+            entry.setValue(entry.getValue() + "!");
+        }
+        assertEquals("a!", map.get(1));
+        assertEquals("b!", map.get(2));
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        MyHashMapImp<Integer, Integer> map = new MyHashMapImp<>();
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+        int tableSize = map.getTableSize();
+        Set<Integer> seen = new HashSet<>();
+        Iterator<Integer> iterator = map.keySet().iterator();
+        while (iterator.hasNext()) {
+            Integer key = iterator.next();
+            assertTrue(seen.add(key));
+            if (key % 10 != 0) {
+                iterator.remove();
+            }
+        }
+        assertEquals(1000, seen.size());
+        assertEquals(100, map.size());
+        assertEquals(tableSize, map.getTableSize());
+        for (Integer key : map.keySet()) {
+            assertEquals(0, key % 10);
+        }
+        map.put(-1, -1);
+        assertTrue(map.getTableSize() < tableSize);
+    }
+
+    @Test
+    public void testIteratorRemoveInTreeBin() {
+        Map<CollidingKey, Integer> map = new MyHashMapImp<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(new CollidingKey(i), i);
+        }
+        Iterator<Map.Entry<CollidingKey, Integer>> iterator = map.entrySet().iterator();
+        int seen = 0;
+        while (iterator.hasNext()) {
+            Map.Entry<CollidingKey, Integer> entry = iterator.next();
+            seen++;
+            if (entry.getValue() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+        assertEquals(100, seen);
+        assertEquals(50, map.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i % 2 == 0 ? null : Integer.valueOf(i), map.get(new CollidingKey(i)));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testIteratorRemoveTwice() {
+        Map<Integer, String> map = new MyHashMapImp<>();
+        map.put(1, "a");
+        Iterator<Integer> iterator = map.keySet().iterator();
+        iterator.next();
+        iterator.remove();
+        iterator.remove();
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testIteratorFailFast() {
+        Map<Integer, String> map = new MyHashMapImp<>();
+        map.put(1, "a");
+        map.put(2, "b");
+        for (Integer key : map.keySet()) {
+            map.remove(key);
+        }
+    }
+
+    @Test
+    public void testForEach() {
+        MyHashMapImp<Integer, Integer> map = new MyHashMapImp<>();
+        map.setIncrementalRehash(true);
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            map.put(i, i * 2);
+            expected.put(i, i * 2);
+        }
+        Map<Integer, Integer> actual = new HashMap<>();
+        map.forEach((key, value) -> assertNull(actual.put(key, value)));
+        assertEquals(expected, actual);
+    }
+
+    /**
+     * Ключ, хэш-код которого одинаков у всех экземпляров.
+     */
+    private static final class CollidingKey {
+        private final int id;
+
+        CollidingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CollidingKey && ((CollidingKey) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 7;
+        }
+    }
+}
@@ -41,5 +41,11 @@ public enum Action {
      * Получение списка всех сущностей.
      * Операция чтения всех доступных записей без фильтрации.
      */
-    READ_ALL
+    READ_ALL,
+
+    /**
+     * Просмотр состояния пула соединений.
+     * Выводит число активных и свободных соединений и время ожидания соединения.
+     */
+    POOL_STATS
 }
\ No newline at end of file
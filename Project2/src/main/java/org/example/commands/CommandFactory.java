@@ -35,5 +35,6 @@ public class CommandFactory {
         map.put(Action.UPDATE, new UpdateCommand());
         map.put(Action.DELETE, new DeleteCommand());
         map.put(Action.READ_ALL, new ReadAllCommand());
+        map.put(Action.POOL_STATS, new PoolStatsCommand());
     }
 }
@@ -0,0 +1,27 @@
+package org.example.commands;
+
+import org.example.util.HibernateUtil;
+import org.example.util.PoolMetrics;
+import org.example.util.UtilReader;
+
+/**
+ * Команда вывода состояния пула соединений
+ */
+public class PoolStatsCommand implements Command {
+    /**
+     * Отображает текущее число соединений и накопленное время ожидания
+     */
+    @Override
+    public void execute() {
+        PoolMetrics metrics = HibernateUtil.getPoolMetrics();
+        UtilReader.writeMessage(String.format("соединения: активные %d, свободные %d, всего %d из %d",
+                metrics.getActiveConnections(), metrics.getIdleConnections(),
+                metrics.getActiveConnections() + metrics.getIdleConnections(), metrics.getMaxConnections()));
+        UtilReader.writeMessage("потоков ждут соединение: " + metrics.getPendingThreads());
+        UtilReader.writeMessage(String.format("ожидание соединения: выдач %d, среднее %.3f мс, максимум %.3f мс, таймаутов %d",
+                metrics.getAcquisitionCount(), metrics.getAverageWaitMillis(),
+                metrics.getMaxWaitMillis(), metrics.getTimeoutCount()));
+        UtilReader.writeMessage(String.format("использование соединения: среднее %.1f мс, открыто соединений %d",
+                metrics.getAverageUsageMillis(), metrics.getCreatedConnections()));
+    }
+}
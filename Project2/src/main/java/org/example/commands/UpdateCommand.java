@@ -5,6 +5,7 @@ import org.example.entitybuilders.ClassTag;
 import org.example.entitybuilders.EntityBuilder;
 import org.example.entitybuilders.EntityBuilderFactory;
 import org.example.exceptions.MyCustomException;
+import org.example.repository.TransactionManager;
 import org.example.repository.UserRepository;
 import org.example.util.UtilReader;
 
@@ -13,7 +14,9 @@ import org.example.util.UtilReader;
  */
 public class UpdateCommand implements Command {
     /**
-     * Обновляет данные пользователя
+     * Обновляет данные пользователя.
+     * Новые данные читаются до начала транзакции, чтобы не держать соединение
+     * во время ввода; проверка и обновление выполняются в одной транзакции.
      */
     @Override
     public void execute() {
@@ -21,13 +24,15 @@ public class UpdateCommand implements Command {
             UserRepository userRepository = new UserRepository();
             EntityBuilder<UserEntity> entityBuilder = EntityBuilderFactory.getBuilder(ClassTag.USER);
             Long userId = UtilReader.readId();
-            UserEntity currentUser = userRepository.getUserById(userId);
-            if (currentUser == null) {
-                throw new MyCustomException("User with id " + userId + " not found");
-            }
             UserEntity user = entityBuilder.build();
-            user.setId(currentUser.getId());
-            userRepository.updateUser(user);
+            TransactionManager.executeInTransaction(session -> {
+                UserEntity currentUser = userRepository.getUserById(userId);
+                if (currentUser == null) {
+                    throw new MyCustomException("User with id " + userId + " not found");
+                }
+                user.setId(currentUser.getId());
+                userRepository.updateUser(user);
+            });
         } catch (MyCustomException e) {
             throw new MyCustomException(e.getMessage());
         }
@@ -46,6 +46,9 @@ public class MenuHandler {
             case "6":
                 CommandFactory.getCommand(Action.READ_ALL).execute();
                 break;
+            case "7":
+                CommandFactory.getCommand(Action.POOL_STATS).execute();
+                break;
             default:
                 throw new MyCustomException("неверный пункт меню");
         }
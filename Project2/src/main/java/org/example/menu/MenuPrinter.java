@@ -27,5 +27,6 @@ public class MenuPrinter {
         UtilReader.writeMessage("4-UPDATE USER");
         UtilReader.writeMessage("5-DELETE USER");
         UtilReader.writeMessage("6-GET ALL USERS");
+        UtilReader.writeMessage("7-CONNECTION POOL STATS");
     }
 }
@@ -9,12 +9,47 @@ import org.example.exceptions.MyCustomException;
  * Менеджер транзакций для работы с Hibernate.
  * Предоставляет методы для выполнения операций в транзакционном контексте.
  * Обеспечивает автоматическое управление жизненным циклом транзакций и сессий.
+ *
+ * <p>Сессия внешней транзакции привязывается к текущему потоку. Вложенный вызов
+ * {@code executeInTransaction} в том же потоке не открывает новую сессию, а выполняет
+ * операцию в сессии и транзакции внешнего вызова, поэтому несколько обращений к
+ * репозиторию внутри одной внешней операции образуют единицу работы: одно соединение
+ * из пула и один коммит. Ошибка во вложенной операции помечает всю транзакцию для отката.</p>
  */
 public class TransactionManager {
 
+    /**
+     * Сессия транзакции, выполняющейся в текущем потоке.
+     */
+    private static final ThreadLocal<Session> currentSession = new ThreadLocal<>();
+
+    /**
+     * Возвращает сессию транзакции, выполняющейся в текущем потоке.
+     *
+     * @return текущая сессия
+     * @throws MyCustomException если поток не выполняет транзакцию
+     */
+    public static Session getCurrentSession() {
+        Session session = currentSession.get();
+        if (session == null) {
+            throw new MyCustomException("нет активной транзакции");
+        }
+        return session;
+    }
+
+    /**
+     * Проверяет, выполняет ли текущий поток транзакцию.
+     *
+     * @return true если вызов executeInTransaction присоединится к существующей транзакции
+     */
+    public static boolean isInTransaction() {
+        return currentSession.get() != null;
+    }
+
     /**
      * Выполняет операцию с возвращаемым значением в транзакционном контексте.
      * Автоматически управляет открытием/закрытием сессии и коммитом/откатом транзакции.
+     * Если поток уже выполняет транзакцию, операция присоединяется к ней.
      *
      * @param <T>       тип возвращаемого значения
      * @param operation операция для выполнения в контексте сессии
@@ -22,21 +57,33 @@ public class TransactionManager {
      * @throws MyCustomException если произошла ошибка во время выполнения операции
      */
     public static <T> T executeInTransaction(TransactionalOperation<T> operation) {
+        Session outer = currentSession.get();
+        if (outer != null) {
+            return joinTransaction(outer, operation);
+        }
+
         Session session = HibernateUtil.getSessionFactory().openSession();
         Transaction transaction = null;
+        currentSession.set(session);
 
         try {
             transaction = session.beginTransaction();
             T result = operation.execute(session);
+            if (transaction.getRollbackOnly()) {
+                // ошибку вложенной операции перехватили, но ее изменения фиксировать нельзя
+                transaction.rollback();
+                throw new MyCustomException("транзакция отменена из-за ошибки вложенной операции");
+            }
             transaction.commit();
             return result;
 
         } catch (Exception e) {
-            if (transaction != null) {
+            if (transaction != null && transaction.isActive()) {
                 transaction.rollback();
             }
             throw new MyCustomException(e.getMessage());
         } finally {
+            currentSession.remove();
             session.close();
         }
     }
@@ -44,26 +91,36 @@ public class TransactionManager {
     /**
      * Выполняет операцию без возвращаемого значения в транзакционном контексте.
      * Автоматически управляет открытием/закрытием сессии и коммитом/откатом транзакции.
+     * Если поток уже выполняет транзакцию, операция присоединяется к ней.
      *
      * @param operation операция для выполнения в контексте сессии
      * @throws MyCustomException если произошла ошибка во время выполнения операции
      */
     public static void executeInTransaction(TransactionalOperationVoid operation) {
-        Session session = HibernateUtil.getSessionFactory().openSession();
-        Transaction transaction = null;
-
-        try {
-            transaction = session.beginTransaction();
+        executeInTransaction((Session session) -> {
             operation.execute(session);
-            transaction.commit();
+            return null;
+        });
+    }
 
+    /**
+     * Выполняет вложенную операцию в сессии внешней транзакции.
+     * При ошибке транзакция помечается для отката, коммит остается за внешним вызовом.
+     *
+     * @param <T>       тип возвращаемого значения
+     * @param session   сессия внешней транзакции
+     * @param operation операция для выполнения
+     * @return результат выполнения операции
+     * @throws MyCustomException если произошла ошибка во время выполнения операции
+     */
+    private static <T> T joinTransaction(Session session, TransactionalOperation<T> operation) {
+        try {
+            return operation.execute(session);
         } catch (Exception e) {
-            if (transaction != null) {
-                transaction.rollback();
+            if (session.getTransaction().isActive()) {
+                session.getTransaction().setRollbackOnly();
             }
             throw new MyCustomException(e.getMessage());
-        } finally {
-            session.close();
         }
     }
 
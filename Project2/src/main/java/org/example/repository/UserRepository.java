@@ -73,14 +73,20 @@ public class UserRepository implements UserDao {
 
     /**
      * Обновляет данные пользователя в базе данных.
+     * Если пользователь уже загружен текущей единицей работы, повторного запроса не будет.
      *
      * @param user объект пользователя с обновленными данными
-     * @throws MyCustomException если произошла ошибка при обновлении
+     * @throws MyCustomException если пользователь не найден или произошла ошибка при обновлении
      */
     public void updateUser(UserEntity user) {
         logger.info("DB event:try to updateUser id={}", user.getId());
         TransactionManager.executeInTransaction((Session session) -> {
-            session.update(user);
+            UserEntity current = session.get(UserEntity.class, user.getId());
+            if (current == null) {
+                logger.error("DB event:failed to updateUser id={}", user.getId());
+                throw new MyCustomException("user with id " + user.getId() + " not found");
+            }
+            session.merge(user);
             UtilReader.writeMessage("User updated successfully");
             logger.info("DB event:success updateUser id={}", user.getId());
         });
@@ -2,7 +2,9 @@ package org.example.service;
 
 import org.example.entities.UserEntity;
 import org.example.exceptions.MyCustomException;
+import org.example.repository.TransactionManager;
 import org.example.repository.UserRepository;
+import org.hibernate.Session;
 
 import java.util.List;
 
@@ -59,16 +61,19 @@ public class UserService {
 
     /**
      * Обновляет данные пользователя.
+     * Проверка существования и обновление выполняются в одной транзакции.
      *
      * @param user сущность пользователя с обновленными данными
      * @throws MyCustomException если пользователь с указанным id не найден
      */
     public void updateUser(UserEntity user) {
-        UserEntity oldUser = userRepository.getUserById(user.getId());
-        if (oldUser == null) {
-            throw new MyCustomException("Cannot update user: user with id " + user.getId() + " not found");
-        }
-        userRepository.updateUser(user);
+        TransactionManager.executeInTransaction((Session session) -> {
+            UserEntity oldUser = userRepository.getUserById(user.getId());
+            if (oldUser == null) {
+                throw new MyCustomException("Cannot update user: user with id " + user.getId() + " not found");
+            }
+            userRepository.updateUser(user);
+        });
     }
 
     /**
@@ -1,14 +1,29 @@
 package org.example.util;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.util.PropertyElf;
 import org.example.exceptions.MyCustomException;
 import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
 import org.hibernate.cfg.Configuration;
 
+import java.util.Map;
+import java.util.Properties;
+
 /**
  * Утилитарный класс для работы с Hibernate SessionFactory.
  * Обеспечивает инициализацию и управление жизненным циклом SessionFactory.
  * Реализует паттерн Singleton для единой точки доступа к SessionFactory.
  * Поддерживает тестовый режим для использования в unit-тестах с testcontainers.
+ *
+ * <p>Production фабрика получает соединения из пула HikariCP. Параметры подключения
+ * берутся из hibernate.cfg.xml ({@code connection.url}, {@code connection.username},
+ * {@code connection.password}), параметры пула - из свойств с префиксом
+ * {@value #HIKARI_PREFIX}: имя свойства после префикса совпадает с именем свойства
+ * {@link HikariConfig}, а свойства {@code dataSource.*} передаются драйверу JDBC,
+ * например для настройки кэша подготовленных выражений.</p>
  */
 public class HibernateUtil {
 
@@ -27,21 +42,156 @@ public class HibernateUtil {
      */
     private static boolean testMode = false;
 
+    /**
+     * Префикс свойств пула соединений в конфигурации Hibernate.
+     */
+    public static final String HIKARI_PREFIX = "hibernate.hikari.";
+
+    /**
+     * Пул соединений production фабрики.
+     */
+    private static HikariDataSource dataSource;
+
+    /**
+     * Метрики пула соединений production фабрики.
+     */
+    private static PoolMetrics poolMetrics;
+
+    /**
+     * Параметры подключения, которые переносятся из конфигурации Hibernate в пул.
+     */
+    private static final String[] CONNECTION_SETTINGS = {
+            AvailableSettings.URL, AvailableSettings.USER, AvailableSettings.PASS, AvailableSettings.DRIVER
+    };
+
     /**
      * Создает и настраивает SessionFactory на основе конфигурации Hibernate.
-     * Конфигурация загружается из hibernate.cfg.xml.
+     * Конфигурация загружается из hibernate.cfg.xml, соединения выдает пул HikariCP.
      *
      * @return сконфигурированный экземпляр SessionFactory
      * @throws MyCustomException если не удалось создать SessionFactory
      */
     private static SessionFactory buildSessionFactory() {
         try {
-            return new Configuration().configure().buildSessionFactory();
+            Configuration configuration = new Configuration().configure();
+            PoolMetrics metrics = new PoolMetrics();
+            dataSource = createDataSource(configuration, metrics);
+            poolMetrics = metrics;
+            return configuration.buildSessionFactory();
         } catch (Throwable e) {
+            closeDataSource();
             throw new MyCustomException("cannot build session factory");
         }
     }
 
+    /**
+     * Создает пул соединений по конфигурации Hibernate и передает его Hibernate
+     * как {@code hibernate.connection.datasource}.
+     *
+     * <p>Параметры подключения переносятся в пул и удаляются из конфигурации: если они
+     * остаются, Hibernate запрашивает соединение через getConnection(user, password),
+     * а HikariDataSource этот метод не поддерживает. Пул выдает соединения с выключенным
+     * autocommit, поэтому Hibernate не проверяет и не переключает его при каждой выдаче.</p>
+     *
+     * @param configuration конфигурация Hibernate, в которую будет подключен пул
+     * @param metrics       сборщик метрик пула
+     * @return запущенный пул соединений
+     * @throws IllegalArgumentException если свойство пула не соответствует настройке HikariCP
+     */
+    public static HikariDataSource createDataSource(Configuration configuration, MetricsTrackerFactory metrics) {
+        HikariConfig poolConfig = createPoolConfig(configuration.getProperties());
+        poolConfig.setMetricsTrackerFactory(metrics);
+        // configure() хранит прочитанные настройки и в Properties, и в StandardServiceRegistryBuilder
+        removeConnectionSettings(configuration.getProperties());
+        removeConnectionSettings(configuration.getStandardServiceRegistryBuilder().getSettings());
+
+        HikariDataSource pool = new HikariDataSource(poolConfig);
+        configuration.getProperties().put(AvailableSettings.DATASOURCE, pool);
+        configuration.getProperties().put(AvailableSettings.CONNECTION_PROVIDER_DISABLES_AUTOCOMMIT, "true");
+        return pool;
+    }
+
+    /**
+     * Удаляет параметры подключения в обеих формах записи: с префиксом hibernate. и без него.
+     *
+     * @param settings настройки Hibernate
+     */
+    private static void removeConnectionSettings(Map<?, ?> settings) {
+        for (String name : CONNECTION_SETTINGS) {
+            settings.remove(name);
+            settings.remove(name.substring("hibernate.".length()));
+        }
+    }
+
+    /**
+     * Читает параметр подключения, записанный с префиксом hibernate. или без него.
+     *
+     * @param settings свойства конфигурации Hibernate
+     * @param name     имя параметра с префиксом hibernate.
+     * @return значение параметра или null, если он не задан
+     */
+    private static String connectionSetting(Properties settings, String name) {
+        String value = settings.getProperty(name);
+        return value != null ? value : settings.getProperty(name.substring("hibernate.".length()));
+    }
+
+    /**
+     * Создает настройки пула соединений из свойств конфигурации Hibernate.
+     * Свойства с префиксом {@value #HIKARI_PREFIX} переопределяют значения по умолчанию.
+     *
+     * @param settings свойства конфигурации Hibernate
+     * @return настройки пула HikariCP
+     * @throws IllegalArgumentException если свойство пула не соответствует настройке HikariCP
+     */
+    public static HikariConfig createPoolConfig(Properties settings) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("users-pool");
+        config.setJdbcUrl(connectionSetting(settings, AvailableSettings.URL));
+        config.setUsername(connectionSetting(settings, AvailableSettings.USER));
+        config.setPassword(connectionSetting(settings, AvailableSettings.PASS));
+        String driver = connectionSetting(settings, AvailableSettings.DRIVER);
+        if (driver != null) {
+            config.setDriverClassName(driver);
+        }
+        // Hibernate управляет транзакциями сам; см. provider_disables_autocommit в createDataSource
+        config.setAutoCommit(false);
+
+        Properties poolSettings = new Properties();
+        for (String name : settings.stringPropertyNames()) {
+            if (name.startsWith(HIKARI_PREFIX)) {
+                poolSettings.setProperty(name.substring(HIKARI_PREFIX.length()), settings.getProperty(name));
+            }
+        }
+        PropertyElf.setTargetFromProperties(config, poolSettings);
+        return config;
+    }
+
+    /**
+     * Возвращает метрики пула соединений production фабрики.
+     * Если фабрика еще не создана, создает ее вместе с пулом.
+     *
+     * @return метрики пула
+     * @throws MyCustomException если используется тестовая фабрика без пула или фабрику не удалось создать
+     */
+    public static PoolMetrics getPoolMetrics() {
+        if (testMode) {
+            throw new MyCustomException("пул соединений не используется в тестовом режиме");
+        }
+        getSessionFactory();
+        return poolMetrics;
+    }
+
+    /**
+     * Закрывает пул соединений production фабрики.
+     */
+    private static void closeDataSource() {
+        if (dataSource != null) {
+            dataSource.close();
+            dataSource = null;
+        }
+        poolMetrics = null;
+    }
+
     /**
      * Устанавливает тестовую SessionFactory для использования в unit-тестах.
      * После вызова этого метода все запросы к getSessionFactory() будут возвращать тестовую фабрику.
@@ -93,5 +243,6 @@ public class HibernateUtil {
             sessionFactory.close();
             sessionFactory = null;
         }
+        closeDataSource();
     }
 }
\ No newline at end of file
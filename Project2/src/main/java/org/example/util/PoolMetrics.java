@@ -0,0 +1,163 @@
+package org.example.util;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Сборщик метрик пула соединений HikariCP.
+ * Подключается к пулу через {@link com.zaxxer.hikari.HikariConfig#setMetricsTrackerFactory}
+ * и накапливает время ожидания и использования соединений, а также количество таймаутов.
+ * Текущее число активных, свободных и ожидающих соединений читается из пула.
+ */
+public class PoolMetrics implements MetricsTrackerFactory {
+
+    /**
+     * Счетчики пула, которые Hikari передает при создании трекера.
+     */
+    private volatile PoolStats poolStats;
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final LongAccumulator maxAcquireNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder usages = new LongAdder();
+    private final LongAdder usageMillis = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder createdConnections = new LongAdder();
+
+    /**
+     * Создает трекер для пула. Вызывается самим Hikari при запуске пула.
+     *
+     * @param poolName  имя пула
+     * @param poolStats счетчики соединений пула
+     * @return трекер, записывающий события пула в этот сборщик
+     */
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+                createdConnections.increment();
+            }
+
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquisitions.increment();
+                acquireNanos.add(elapsedAcquiredNanos);
+                maxAcquireNanos.accumulate(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usages.increment();
+                usageMillis.add(elapsedBorrowedMillis);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    /**
+     * Возвращает количество соединений, выданных приложению в данный момент.
+     *
+     * @return число активных соединений или 0, если пул еще не запущен
+     */
+    public int getActiveConnections() {
+        PoolStats stats = poolStats;
+        return stats == null ? 0 : stats.getActiveConnections();
+    }
+
+    /**
+     * Возвращает количество свободных соединений в пуле.
+     *
+     * @return число свободных соединений или 0, если пул еще не запущен
+     */
+    public int getIdleConnections() {
+        PoolStats stats = poolStats;
+        return stats == null ? 0 : stats.getIdleConnections();
+    }
+
+    /**
+     * Возвращает количество потоков, ожидающих соединение.
+     *
+     * @return число ожидающих потоков или 0, если пул еще не запущен
+     */
+    public int getPendingThreads() {
+        PoolStats stats = poolStats;
+        return stats == null ? 0 : stats.getPendingThreads();
+    }
+
+    /**
+     * Возвращает максимальный размер пула.
+     *
+     * @return максимальное число соединений или 0, если пул еще не запущен
+     */
+    public int getMaxConnections() {
+        PoolStats stats = poolStats;
+        return stats == null ? 0 : stats.getMaxConnections();
+    }
+
+    /**
+     * Возвращает количество выдач соединения из пула.
+     *
+     * @return число выдач соединений
+     */
+    public long getAcquisitionCount() {
+        return acquisitions.sum();
+    }
+
+    /**
+     * Возвращает среднее время ожидания соединения.
+     *
+     * @return среднее время ожидания в миллисекундах
+     */
+    public double getAverageWaitMillis() {
+        long count = acquisitions.sum();
+        return count == 0 ? 0 : acquireNanos.sum() / (double) count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Возвращает наибольшее время ожидания соединения.
+     *
+     * @return максимальное время ожидания в миллисекундах
+     */
+    public double getMaxWaitMillis() {
+        return maxAcquireNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Возвращает среднее время, на которое приложение занимает соединение.
+     *
+     * @return среднее время использования в миллисекундах
+     */
+    public double getAverageUsageMillis() {
+        long count = usages.sum();
+        return count == 0 ? 0 : usageMillis.sum() / (double) count;
+    }
+
+    /**
+     * Возвращает количество запросов соединения, завершившихся таймаутом.
+     *
+     * @return число таймаутов
+     */
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    /**
+     * Возвращает количество физических соединений, открытых пулом.
+     *
+     * @return число созданных соединений
+     */
+    public long getCreatedConnections() {
+        return createdConnections.sum();
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.dao;
+
+import org.example.entities.UserEntity;
+import org.example.exceptions.MyCustomException;
+import org.example.repository.TransactionManager;
+import org.example.repository.UserRepository;
+import org.example.util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тестовый класс для проверки единицы работы в TransactionManager.
+ * Проверяет, что вложенные вызовы используют одну сессию и один коммит.
+ */
+@ExtendWith(MockitoExtension.class)
+class TransactionManagerTest {
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private Transaction transaction;
+
+    @BeforeEach
+    void setUp() {
+        HibernateUtil.setTestSessionFactory(sessionFactory);
+        lenient().when(sessionFactory.openSession()).thenReturn(session);
+        lenient().when(session.beginTransaction()).thenReturn(transaction);
+        lenient().when(session.getTransaction()).thenReturn(transaction);
+    }
+
+    @AfterEach
+    void tearDown() {
+        HibernateUtil.clearTestSessionFactory();
+    }
+
+    /**
+     * Тест проверяет, что вложенные вызовы присоединяются к внешней транзакции.
+     */
+    @Test
+    void shouldJoinOuterTransaction_WhenCallsAreNested() {
+        String result = TransactionManager.executeInTransaction((Session outer) -> {
+            assertTrue(TransactionManager.isInTransaction());
+            assertSame(outer, TransactionManager.getCurrentSession());
+            TransactionManager.executeInTransaction((Session inner) -> assertSame(outer, inner));
+            return TransactionManager.executeInTransaction((Session inner) -> "done");
+        });
+
+        assertEquals("done", result);
+        assertFalse(TransactionManager.isInTransaction());
+        verify(sessionFactory, times(1)).openSession();
+        verify(transaction, times(1)).commit();
+        verify(session, times(1)).close();
+    }
+
+    /**
+     * Тест проверяет, что ошибка вложенной операции откатывает всю транзакцию,
+     * даже если внешняя операция перехватила исключение.
+     */
+    @Test
+    void shouldRollback_WhenNestedOperationFails() {
+        when(transaction.getRollbackOnly()).thenReturn(true);
+
+        assertThrows(MyCustomException.class, () -> TransactionManager.executeInTransaction((Session outer) -> {
+            try {
+                TransactionManager.executeInTransaction((Session inner) -> {
+                    throw new MyCustomException("not found");
+                });
+            } catch (MyCustomException ignored) {
+                // внешняя операция продолжает работу
+            }
+        }));
+
+        verify(transaction).rollback();
+        verify(transaction, never()).commit();
+        assertFalse(TransactionManager.isInTransaction());
+    }
+
+    /**
+     * Тест проверяет, что вызовы вне единицы работы открывают отдельные сессии.
+     */
+    @Test
+    void shouldOpenNewSession_WhenCallsAreSequential() {
+        TransactionManager.executeInTransaction((Session s) -> { });
+        TransactionManager.executeInTransaction((Session s) -> { });
+
+        verify(sessionFactory, times(2)).openSession();
+        verify(transaction, times(2)).commit();
+        assertThrows(MyCustomException.class, TransactionManager::getCurrentSession);
+    }
+
+    /**
+     * Тест проверяет, что проверка и обновление пользователя в единице работы
+     * выполняются в одной сессии с одним коммитом.
+     */
+    @Test
+    void shouldUseOneSession_WhenUpdateRunsInUnitOfWork() {
+        UserRepository userRepository = new UserRepository();
+        UserEntity stored = new UserEntity();
+        stored.setId(1L);
+        when(session.get(UserEntity.class, 1L)).thenReturn(stored);
+        UserEntity user = new UserEntity();
+        user.setId(1L);
+
+        TransactionManager.executeInTransaction((Session s) -> {
+            userRepository.getUserById(1L);
+            userRepository.updateUser(user);
+        });
+
+        verify(sessionFactory, times(1)).openSession();
+        verify(transaction, times(1)).commit();
+        verify(session).merge(user);
+    }
+}
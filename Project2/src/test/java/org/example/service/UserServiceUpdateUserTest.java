@@ -3,6 +3,12 @@ package org.example.service;
 import org.example.entities.UserEntity;
 import org.example.exceptions.MyCustomException;
 import org.example.repository.UserRepository;
+import org.example.util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -10,6 +16,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -27,6 +34,30 @@ class UserServiceUpdateUserTest {
     @InjectMocks
     private UserService userService;
 
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private Transaction transaction;
+
+    /**
+     * Подключает фабрику-заглушку: updateUser выполняется в транзакции TransactionManager.
+     */
+    @BeforeEach
+    void setUp() {
+        HibernateUtil.setTestSessionFactory(sessionFactory);
+        when(sessionFactory.openSession()).thenReturn(session);
+        when(session.beginTransaction()).thenReturn(transaction);
+    }
+
+    @AfterEach
+    void tearDown() {
+        HibernateUtil.clearTestSessionFactory();
+    }
+
     /**
      * Тест проверяет успешное обновление пользователя с валидными данными.
      * Ожидается, что метод проверит существование пользователя и выполнит его обновление.
@@ -48,6 +79,8 @@ class UserServiceUpdateUserTest {
 
         verify(userRepository).getUserById(goodId);
         verify(userRepository).updateUser(user);
+        verify(sessionFactory, times(1)).openSession();
+        verify(transaction, times(1)).commit();
     }
 
     /**
@@ -72,5 +105,6 @@ class UserServiceUpdateUserTest {
 
         verify(userRepository).getUserById(badId);
         verify(userRepository, never()).updateUser(user);
+        verify(transaction, never()).commit();
     }
 }
\ No newline at end of file
@@ -0,0 +1,219 @@
+package org.example.utils;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.example.entities.UserEntity;
+import org.example.exceptions.MyCustomException;
+import org.example.util.HibernateUtil;
+import org.example.util.PoolMetrics;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Тестовый класс для проверки настройки пула соединений.
+ * Содержит тесты для {@link HibernateUtil#createPoolConfig(Properties)} и {@link PoolMetrics}.
+ */
+public class PoolConfigTest {
+
+    /**
+     * Тест проверяет, что параметры подключения и пула переносятся из свойств Hibernate.
+     */
+    @Test
+    @DisplayName("Тест переноса свойств hibernate.hikari.* в настройки пула")
+    public void shouldApplyHikariProperties() {
+        Properties settings = new Properties();
+        settings.setProperty("hibernate.connection.url", "jdbc:postgresql://localhost:5432/users");
+        settings.setProperty("hibernate.connection.username", "user");
+        settings.setProperty("hibernate.connection.password", "1234");
+        settings.setProperty("hibernate.hikari.maximumPoolSize", "7");
+        settings.setProperty("hibernate.hikari.connectionTimeout", "2500");
+        settings.setProperty("hibernate.hikari.dataSource.preparedStatementCacheQueries", "128");
+        settings.setProperty("hikari.maximumPoolSize", "99");
+
+        HikariConfig config = HibernateUtil.createPoolConfig(settings);
+
+        assertEquals("jdbc:postgresql://localhost:5432/users", config.getJdbcUrl());
+        assertEquals("user", config.getUsername());
+        assertEquals("1234", config.getPassword());
+        assertEquals(7, config.getMaximumPoolSize());
+        assertEquals(2500, config.getConnectionTimeout());
+        assertEquals("128", config.getDataSourceProperties().getProperty("preparedStatementCacheQueries"));
+        assertFalse(config.isAutoCommit());
+    }
+
+    /**
+     * Тест проверяет, что опечатка в имени свойства пула не остается незамеченной.
+     */
+    @Test
+    @DisplayName("Тест неизвестного свойства пула")
+    public void shouldRejectUnknownProperty() {
+        Properties settings = new Properties();
+        settings.setProperty("hibernate.hikari.maximumPoolSiz", "7");
+        assertThrows(RuntimeException.class, () -> HibernateUtil.createPoolConfig(settings));
+    }
+
+    /**
+     * Тест проверяет подсчет времени ожидания и числа соединений.
+     */
+    @Test
+    @DisplayName("Тест накопления метрик пула")
+    public void shouldAccumulateMetrics() {
+        PoolMetrics metrics = new PoolMetrics();
+        assertEquals(0, metrics.getActiveConnections());
+        assertEquals(0.0, metrics.getAverageWaitMillis());
+
+        IMetricsTracker tracker = metrics.create("test", new PoolStats(0) {
+            @Override
+            protected void update() {
+                totalConnections = 5;
+                idleConnections = 3;
+                activeConnections = 2;
+                pendingThreads = 1;
+                maxConnections = 10;
+            }
+        });
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(3));
+        tracker.recordConnectionUsageMillis(10);
+        tracker.recordConnectionTimeout();
+
+        assertEquals(2, metrics.getActiveConnections());
+        assertEquals(3, metrics.getIdleConnections());
+        assertEquals(1, metrics.getPendingThreads());
+        assertEquals(10, metrics.getMaxConnections());
+        assertEquals(2, metrics.getAcquisitionCount());
+        assertEquals(2.0, metrics.getAverageWaitMillis(), 1e-9);
+        assertEquals(3.0, metrics.getMaxWaitMillis(), 1e-9);
+        assertEquals(10.0, metrics.getAverageUsageMillis(), 1e-9);
+        assertEquals(1, metrics.getTimeoutCount());
+    }
+
+    /**
+     * Тест проверяет, что в тестовом режиме без пула метрики недоступны.
+     */
+    @Test
+    @DisplayName("Тест метрик при тестовой фабрике без пула")
+    public void shouldThrow_WhenTestSessionFactoryIsUsed() {
+        HibernateUtil.setTestSessionFactory(mock(SessionFactory.class));
+        try {
+            assertThrows(MyCustomException.class, HibernateUtil::getPoolMetrics);
+        } finally {
+            HibernateUtil.clearTestSessionFactory();
+        }
+    }
+
+    /**
+     * Тест проверяет, что SessionFactory, построенная поверх пула, получает соединения:
+     * учетные данные передаются драйверу через пул, а не через getConnection(user, password).
+     */
+    @Test
+    @DisplayName("Тест открытия транзакции через пул соединений")
+    public void shouldOpenTransaction_WhenSessionFactoryUsesPool() throws SQLException {
+        FakeDriver driver = new FakeDriver();
+        DriverManager.registerDriver(driver);
+        Configuration configuration = new Configuration();
+        configuration.setProperty("hibernate.connection.url", FakeDriver.URL);
+        configuration.setProperty("hibernate.connection.username", "user");
+        configuration.setProperty("connection.password", "1234");
+        configuration.setProperty("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+        configuration.setProperty("hibernate.temp.use_jdbc_metadata_defaults", "false");
+        configuration.setProperty("hibernate.hikari.minimumIdle", "1");
+        configuration.addAnnotatedClass(UserEntity.class);
+        PoolMetrics metrics = new PoolMetrics();
+
+        try (HikariDataSource dataSource = HibernateUtil.createDataSource(configuration, metrics);
+             SessionFactory sessionFactory = configuration.buildSessionFactory();
+             Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            transaction.commit();
+
+            assertEquals("user", driver.lastInfo.getProperty("user"));
+            assertEquals("1234", driver.lastInfo.getProperty("password"));
+            assertFalse(configuration.getProperties().containsKey("connection.password"));
+            verify(driver.connection, never()).setAutoCommit(anyBoolean());
+            verify(driver.connection).commit();
+            assertEquals(1, metrics.getAcquisitionCount());
+        } finally {
+            DriverManager.deregisterDriver(driver);
+        }
+    }
+
+    /**
+     * Драйвер JDBC, выдающий соединения-заглушки без обращения к базе данных.
+     */
+    private static final class FakeDriver implements Driver {
+        static final String URL = "jdbc:fake:users";
+
+        final Connection connection = mock(Connection.class);
+        volatile Properties lastInfo;
+
+        FakeDriver() throws SQLException {
+            when(connection.isValid(anyInt())).thenReturn(true);
+            when(connection.getAutoCommit()).thenReturn(false);
+        }
+
+        @Override
+        public Connection connect(String url, Properties info) {
+            if (!acceptsURL(url)) {
+                return null;
+            }
+            lastInfo = info;
+            return connection;
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+            return URL.equals(url);
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() {
+            return Logger.getGlobal();
+        }
+    }
+}